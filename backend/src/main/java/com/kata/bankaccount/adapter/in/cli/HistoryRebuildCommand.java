@@ -0,0 +1,42 @@
+package com.kata.bankaccount.adapter.in.cli;
+
+import com.kata.bankaccount.application.service.TransactionHistoryRebuildService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * One-off command copying the whole transaction history into the history read model, then stopping the
+ * application:
+ * <pre>java -jar bank-account.jar --rebuild-history --spring.main.web-application-type=none</pre>
+ * Without the option the application starts as usual.
+ */
+public class HistoryRebuildCommand implements ApplicationRunner {
+    static final String OPTION = "rebuild-history";
+
+    private final TransactionHistoryRebuildService rebuildService;
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * @param rebuildService history read model rebuild service
+     * @param context application context, closed once the rebuild is done
+     */
+    public HistoryRebuildCommand(TransactionHistoryRebuildService rebuildService,
+                                 ConfigurableApplicationContext context) {
+        this.rebuildService = rebuildService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        long start = System.nanoTime();
+        int accounts = rebuildService.rebuildAll();
+        System.out.printf("Rebuilt the history read model of %d accounts in %d ms%n",
+                accounts, (System.nanoTime() - start) / 1_000_000);
+        System.exit(SpringApplication.exit(context));
+    }
+}
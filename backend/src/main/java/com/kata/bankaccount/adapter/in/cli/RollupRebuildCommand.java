@@ -0,0 +1,40 @@
+package com.kata.bankaccount.adapter.in.cli;
+
+import com.kata.bankaccount.application.service.RollupRebuildService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * One-off command recomputing all rollups from the transaction history, then stopping the application:
+ * <pre>java -jar bank-account.jar --rebuild-rollups --spring.main.web-application-type=none</pre>
+ * Without the option the application starts as usual.
+ */
+public class RollupRebuildCommand implements ApplicationRunner {
+    static final String OPTION = "rebuild-rollups";
+
+    private final RollupRebuildService rebuildService;
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * @param rebuildService rollup rebuild service
+     * @param context application context, closed once the rebuild is done
+     */
+    public RollupRebuildCommand(RollupRebuildService rebuildService, ConfigurableApplicationContext context) {
+        this.rebuildService = rebuildService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        long start = System.nanoTime();
+        int accounts = rebuildService.rebuildAll();
+        System.out.printf("Rebuilt the rollups of %d accounts in %d ms%n",
+                accounts, (System.nanoTime() - start) / 1_000_000);
+        System.exit(SpringApplication.exit(context));
+    }
+}
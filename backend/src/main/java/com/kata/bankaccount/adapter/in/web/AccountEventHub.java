@@ -0,0 +1,235 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.response.AccountEventResponse;
+import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.application.ports.out.AccountEvent;
+import com.kata.bankaccount.application.ports.out.AccountEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes committed account changes to the Server-Sent Events subscribers of each account.
+ * <p>
+ * A stream holds no thread while idle: it is an async request, written to only when there is something
+ * to send. Publishing only queues the event in each subscriber's buffer, on the committing thread, and a
+ * virtual thread sends it, so a slow subscriber never delays a write nor the other subscribers. A buffer
+ * holds at most {@code bufferSize} events; when a subscriber falls that far behind, its oldest events are
+ * dropped. The version carried by each event lets the client see that it missed some and keep the
+ * newest balance.
+ */
+public class AccountEventHub implements AccountEventPublisher, AutoCloseable {
+    static final String EVENT_NAME = "balance";
+    // Queued like an event so that it is sent by the sender of the stream, never concurrently with it
+    private static final AccountEventResponse HEARTBEAT = new AccountEventResponse(null, null, -1, List.of());
+
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("account-events-", 0).factory());
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(task -> {
+        var thread = new Thread(task, "account-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter published;
+    private final Counter dropped;
+
+    /**
+     * Creates the hub and registers its metrics.
+     * @param bufferSize events kept at most per subscriber waiting to be sent
+     * @param timeout how long a stream stays open; clients reconnect after it
+     * @param heartbeat interval of the comments sent on idle streams, so closed connections are noticed
+     * @param meterRegistry registry for stream metrics
+     */
+    public AccountEventHub(int bufferSize, Duration timeout, Duration heartbeat, MeterRegistry meterRegistry) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.published = Counter.builder("bank.accounts.events.published")
+                .description("Account changes published to the event streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("bank.accounts.events.dropped")
+                .description("Events dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open account event streams")
+                .register(meterRegistry);
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of the account changes, starting with the current state.
+     * @param accountId account identifier
+     * @param snapshot reads the current state; read once subscribed, so no change is missed in between
+     * @return the stream
+     */
+    public SseEmitter subscribe(UUID accountId, Supplier<AccountEventResponse> snapshot) {
+        return subscribe(accountId, new SseEmitter(timeout.toMillis()), snapshot);
+    }
+
+    SseEmitter subscribe(UUID accountId, SseEmitter emitter, Supplier<AccountEventResponse> snapshot) {
+        var subscriber = new Subscriber(accountId, emitter);
+        subscribers.compute(accountId, (id, set) -> {
+            var subscribed = set != null ? set : ConcurrentHashMap.<Subscriber>newKeySet();
+            subscribed.add(subscriber);
+            return subscribed;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+        try {
+            subscriber.offer(snapshot.get());
+        } catch (RuntimeException e) {
+            subscriber.remove();
+            throw e;
+        }
+        return emitter;
+    }
+
+    @Override
+    public void publish(AccountEvent event) {
+        var subscribed = subscribers.get(event.accountId());
+        // A change without transactions only wrote the balance; its transaction follows in the same commit
+        if (subscribed == null || event.transactions().isEmpty()) {
+            return;
+        }
+        published.increment();
+        var transactions = event.transactions().stream()
+                .map(TransactionResponse::from)
+                .toList();
+        var response = new AccountEventResponse(event.accountId(), event.balance(), event.version(), transactions);
+        subscribed.forEach(subscriber -> subscriber.offer(response));
+    }
+
+    /**
+     * @return open streams, all accounts together
+     */
+    public int subscribers() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Ends every stream; clients reconnect to another instance.
+     */
+    @Override
+    public void close() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    /** A builder can only be sent once: each subscriber gets its own. */
+    private static SseEventBuilder event(AccountEventResponse response) {
+        if (response == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        return SseEmitter.event()
+                .name(EVENT_NAME)
+                .id(Long.toString(response.version()))
+                .data(response, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * One open stream: its buffer is drained by at most one sender at a time, started when the first event
+     * arrives in an empty buffer and ending once the buffer is empty again.
+     */
+    private final class Subscriber {
+        private final UUID accountId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<AccountEventResponse> buffer = new ArrayDeque<>();
+        private boolean sending;
+        private boolean removed;
+
+        private Subscriber(UUID accountId, SseEmitter emitter) {
+            this.accountId = accountId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(AccountEventResponse event) {
+            if (removed) {
+                return;
+            }
+            if (buffer.size() == bufferSize) {
+                buffer.pollFirst();
+                dropped.increment();
+            }
+            buffer.addLast(event);
+            if (!sending) {
+                sending = true;
+                senders.execute(this::send);
+            }
+        }
+
+        synchronized void heartbeat() {
+            // A stream with events pending is not idle
+            if (!sending) {
+                offer(HEARTBEAT);
+            }
+        }
+
+        private void send() {
+            while (true) {
+                AccountEventResponse next;
+                synchronized (this) {
+                    next = buffer.pollFirst();
+                    if (next == null) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event(next));
+                } catch (IOException | IllegalStateException e) {
+                    // Client gone or stream already completed
+                    remove();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        void remove() {
+            synchronized (this) {
+                if (removed) {
+                    return;
+                }
+                removed = true;
+                buffer.clear();
+            }
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(accountId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.response.AccountEventResponse;
+import com.kata.bankaccount.application.ports.in.GetAccountUseCase;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST controller streaming the committed changes of an account as Server-Sent Events.
+ */
+@RestController
+@RequestMapping("/v1/accounts/{id}/events")
+@Tag(name = "Accounts", description = "Operations on bank accounts")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AccountEventsController {
+
+    private final AccountEventHub accountEventHub;
+    private final GetAccountUseCase getAccountUseCase;
+
+    // No produces condition: a missing account is still answered as JSON, the stream sets its own type
+    @GetMapping
+    @Operation(
+            summary = "Stream account changes",
+            description = "Server-Sent Events stream of the account. The first balance event is the current state; "
+                    + "one follows every committed deposit, withdrawal or batch, with the new balance and its "
+                    + "transactions. Events of a slow client may be dropped, oldest first: the version tells which "
+                    + "balance is the newest. The stream ends after a while and the client reconnects."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream",
+                    content = @Content(mediaType = "text/event-stream",
+                            examples = @ExampleObject(value = "event:balance\nid:4\ndata:{\"accountId\":\"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\"balance\":150.00,\"version\":4,"
+                                    + "\"transactions\":[{\"type\":\"DEPOSIT\",\"amount\":50.00,\"timestamp\":\"2024-01-01T10:00:00Z\",\"resultingBalance\":150.00}]}\n\n"))),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"ACCOUNT_NOT_FOUND\",\n  \"message\": \"Account not found\"\n}")))
+    })
+    /**
+     * Opens the event stream of an account.
+     * @param accountId Account identifier
+     * @param response Current response
+     * @return The stream, starting with the current balance
+     */
+    public SseEmitter events(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(hidden = true) HttpServletResponse response
+    ) {
+        // Tells a proxy in front (nginx) to pass events on as they come instead of buffering them
+        response.setHeader("X-Accel-Buffering", "no");
+        return accountEventHub.subscribe(accountId, () -> {
+            // Version first: the balance read after it is never older
+            long version = getAccountUseCase.version(accountId);
+            var account = getAccountUseCase.getAccountById(accountId);
+            return new AccountEventResponse(accountId, account.balance(), version, List.of());
+        });
+    }
+}
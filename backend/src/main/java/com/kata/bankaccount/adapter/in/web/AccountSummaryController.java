@@ -0,0 +1,73 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.response.AccountSummaryResponse;
+import com.kata.bankaccount.application.ports.in.AccountSummaryUseCase;
+import com.kata.bankaccount.domain.model.Granularity;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * REST controller for account activity summaries, served from the daily and monthly rollups.
+ */
+@RestController
+@RequestMapping("/v1/accounts/{id}/summary")
+@Tag(name = "Accounts", description = "Operations on bank accounts")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AccountSummaryController {
+
+    private final AccountSummaryUseCase accountSummaryUseCase;
+
+    @GetMapping
+    @Operation(
+            summary = "Summarize account activity",
+            description = "Deposit and withdrawal counts and totals per day or month (UTC), oldest first. "
+                    + "Periods without transactions are left out; with months, from and to select the months they fall in."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Summary",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountSummaryResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n  \"granularity\": \"MONTH\",\n  \"periods\": [\n    {\"period\": \"2024-01-01\", \"depositCount\": 3, \"depositTotal\": 150.00, \"withdrawalCount\": 1, \"withdrawalTotal\": 40.00}\n  ]\n}"))),
+            @ApiResponse(responseCode = "400", description = "Invalid granularity or range",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"BAD_REQUEST\",\n  \"message\": \"granularity must be day or month\"\n}"))),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"ACCOUNT_NOT_FOUND\",\n  \"message\": \"Account not found\"\n}")))
+    })
+    /**
+     * Returns the account activity per period.
+     * @param accountId Account identifier
+     * @param granularity day or month
+     * @param from Inclusive start date (optional)
+     * @param to Inclusive end date (optional)
+     * @return Counts and totals per period
+     */
+    public AccountSummaryResponse summary(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Period size: day or month")
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+            @Parameter(description = "Start date (YYYY-MM-DD)")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "End date (YYYY-MM-DD)")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return accountSummaryUseCase.summary(accountId, Granularity.parse(granularity), from, to);
+    }
+}
@@ -1,16 +1,24 @@
 package com.kata.bankaccount.adapter.in.web;
 
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest;
 import com.kata.bankaccount.application.dto.request.DepositRequest;
 import com.kata.bankaccount.application.dto.request.WithdrawRequest;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse;
 import com.kata.bankaccount.application.dto.response.DepositResponse;
 import com.kata.bankaccount.application.dto.response.AccountResponse;
+import com.kata.bankaccount.application.dto.response.BalanceResponse;
 import com.kata.bankaccount.application.dto.response.WithdrawResponse;
-import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
+import com.kata.bankaccount.application.ports.in.CachedStatementUseCase;
+import com.kata.bankaccount.application.ports.in.CachedStatementUseCase.Encoding;
 import com.kata.bankaccount.application.ports.in.DepositUseCase;
 import com.kata.bankaccount.application.ports.in.GetAccountUseCase;
 import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
 import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
 import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,25 +29,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import org.springframework.format.annotation.DateTimeFormat;
-import java.util.List;
 import java.util.UUID;
 
 /**
  * REST controller exposing operations on bank accounts: read the account,
- * deposit, withdraw, list transactions and export statement.
+ * deposit, withdraw (one at a time or in batches), list transactions and export statement.
  */
 @RestController
 @RequestMapping("/v1/accounts")
 @Tag(name = "Accounts", description = "Operations on bank accounts")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AccountsController {
 
     private final DepositUseCase depositUseCase;
@@ -47,34 +63,74 @@ public class AccountsController {
     private final ListTransactionsUseCase listTransactionsUseCase;
     private final GetAccountUseCase getAccountUseCase;
     private final ExportStatementUseCase exportStatementUseCase;
+    private final BatchCommandUseCase batchCommandUseCase;
+    private final ObjectProvider<CachedStatementUseCase> cachedStatementUseCase;
 
 
     @GetMapping("/{id}")
     @Operation(
             summary = "Get account",
-            description = "Get account details (id and balance)"
+            description = "Get account details (id and balance). The response carries a weak ETag derived from the "
+                    + "account version; If-None-Match is answered with 304 while the account is unchanged."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Account details",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AccountResponse.class),
                             examples = @ExampleObject(value = "{\n  \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n  \"balance\": 150.00\n}"))),
+            @ApiResponse(responseCode = "304", description = "Account unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Account not found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
                             examples = @ExampleObject(value = "{\n  \"code\": \"ACCOUNT_NOT_FOUND\",\n  \"message\": \"Account not found\"\n}")))
     })
     /**
-     * Returns basic account details.
+     * Returns basic account details, or nothing (304) when the client already has them.
      * @param accountId Account identifier
-     * @return Account id and balance
+     * @param webRequest Current request, checked against the ETag
+     * @param response Current response
+     * @return Account id and balance, or null when not modified
      */
     public AccountResponse getAccount(
-            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(hidden = true) WebRequest webRequest,
+            @Parameter(hidden = true) HttpServletResponse response
     ) {
+        if (notModified(accountId, webRequest, response)) {
+            return null;
+        }
         return getAccountUseCase.getAccountById(accountId);
     }
 
+    @GetMapping("/{id}/balance")
+    @Operation(
+            summary = "Get balance at an instant",
+            description = "Get the balance the account had at the given instant (inclusive); zero before its first transaction"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Balance at the instant",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BalanceResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n  \"at\": \"2024-01-31T23:59:59Z\",\n  \"balance\": 150.00\n}"))),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"ACCOUNT_NOT_FOUND\",\n  \"message\": \"Account not found\"\n}")))
+    })
+    /**
+     * Returns the balance of the account as of a past instant.
+     * @param accountId Account identifier
+     * @param at Instant of the balance (ISO-8601)
+     * @return Account id, instant and balance
+     */
+    public BalanceResponse balanceAt(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Instant of the balance (ISO-8601)", required = true)
+            @RequestParam("at") Instant at
+    ) {
+        return getAccountUseCase.balanceAt(accountId, at);
+    }
+
     @PostMapping("/{id}/deposit")
     @Operation(
             summary = "Deposit money",
@@ -166,38 +222,102 @@ public class AccountsController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Apply a batch of deposits and withdrawals",
+            description = "Applies many commands in one request, each idempotent on its own operationId. "
+                    + "PER_COMMAND (default) commits each account's commands independently; "
+                    + "ALL_OR_NOTHING commits everything or nothing."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One result per command, in request order",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchCommandResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"committed\": true,\n  \"results\": [\n    {\n      \"operationId\": \"11111111-1111-1111-1111-111111111111\",\n      \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n      \"status\": \"APPLIED\",\n      \"balance\": 150.00\n    },\n    {\n      \"operationId\": \"22222222-2222-2222-2222-222222222222\",\n      \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n      \"status\": \"REJECTED\",\n      \"balance\": 150.00,\n      \"code\": \"INSUFFICIENT_FUNDS\",\n      \"message\": \"Insufficient funds\"\n    }\n  ]\n}"))),
+            @ApiResponse(responseCode = "400", description = "Invalid input or batch too large",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"VALIDATION_ERROR\",\n  \"message\": \"commands must not be empty\"\n}")))
+    })
+    /**
+     * Applies a batch of deposits and withdrawals.
+     * @param request Commands and atomicity mode
+     * @return Result of each command
+     */
+    public BatchCommandResponse batch(
+            @Valid @org.springframework.web.bind.annotation.RequestBody
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Batch request",
+                    required = true,
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchCommandRequest.class),
+                            examples = @ExampleObject(name = "batch",
+                                    value = "{\n  \"atomicity\": \"PER_COMMAND\",\n  \"commands\": [\n    {\n      \"type\": \"DEPOSIT\",\n      \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n      \"amount\": 50.00,\n      \"operationId\": \"11111111-1111-1111-1111-111111111111\"\n    }\n  ]\n}")))
+            BatchCommandRequest request
+    ) {
+        return batchCommandUseCase.execute(request.commands(), request.atomicity());
+    }
+
     @GetMapping("/{id}/transactions")
     @Operation(
             summary = "List transactions",
-            description = "List the account transactions, optionally filtered by time range"
+            description = "List one page of the account transactions, newest first, optionally filtered by time range. "
+                    + "Pass the returned next cursor to get the following page; next is null on the last page. "
+                    + "The response carries a weak ETag derived from the account version; If-None-Match is answered "
+                    + "with 304 while no transaction was added. Neither is done when pages are served from the "
+                    + "history read model."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Transactions list",
+            @ApiResponse(responseCode = "200", description = "Transactions page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TransactionPageResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"items\": [\n    {\n      \"type\": \"WITHDRAWAL\",\n      \"amount\": 40.00,\n      \"timestamp\": \"2024-01-02T11:00:00Z\",\n      \"resultingBalance\": 60.00\n    },\n    {\n      \"type\": \"DEPOSIT\",\n      \"amount\": 100.00,\n      \"timestamp\": \"2024-01-01T10:00:00Z\",\n      \"resultingBalance\": 100.00\n    }\n  ],\n  \"next\": \"MTcwNDEwMzIwMDowOjZjMGUzYjA2LThkMWUtNGI1Zi04ZjlhLThkMmQ3YTFhMGMwMA\"\n}"))),
+            @ApiResponse(responseCode = "304", description = "No transaction added since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = TransactionResponse.class),
-                            examples = @ExampleObject(value = "[\n  {\n    \"type\": \"DEPOSIT\",\n    \"amount\": 100.00,\n    \"timestamp\": \"2024-01-01T10:00:00Z\",\n    \"resultingBalance\": 100.00\n  },\n  {\n    \"type\": \"WITHDRAW\",\n    \"amount\": 40.00,\n    \"timestamp\": \"2024-01-02T11:00:00Z\",\n    \"resultingBalance\": 60.00\n  }\n]")))
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"BAD_REQUEST\",\n  \"message\": \"Invalid cursor\"\n}"))),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"ACCOUNT_NOT_FOUND\",\n  \"message\": \"Account not found\"\n}")))
     })
     /**
-     * Lists transactions of an account, optionally filtered by time range.
+     * Lists one page of transactions of an account, optionally filtered by time range.
      * @param accountId Account identifier
      * @param from Inclusive start timestamp (optional)
      * @param to Inclusive end timestamp (optional)
-     * @return List of transactions sorted by timestamp desc
+     * @param cursor Cursor of the page to read, from the previous page (optional)
+     * @param limit Maximum number of transactions in the page
+     * @param webRequest Current request, checked against the ETag
+     * @param response Current response
+     * @return Transactions sorted by timestamp desc and the cursor of the next page, or null when not modified
      */
-    public List<TransactionResponse> transactions(
+    public TransactionPageResponse transactions(
             @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
             @Parameter(description = "Start of time range (ISO-8601)")
             @RequestParam(value = "from", required = false) Instant from,
             @Parameter(description = "End of time range (ISO-8601)")
-            @RequestParam(value = "to", required = false) Instant to
+            @RequestParam(value = "to", required = false) Instant to,
+            @Parameter(description = "Opaque cursor returned as next by the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (1 to 500)")
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @Parameter(hidden = true) WebRequest webRequest,
+            @Parameter(hidden = true) HttpServletResponse response
     ) {
-        return listTransactionsUseCase.transactions(accountId, from, to);
+        // A page read from the history read model may not include the latest version yet
+        if (!listTransactionsUseCase.isEventuallyConsistent() && notModified(accountId, webRequest, response)) {
+            return null;
+        }
+        return listTransactionsUseCase.transactions(accountId, from, to, cursor, limit);
     }
 
     @GetMapping(value = "/{id}/statement", produces = {"text/csv", "application/json"})
     @Operation(
             summary = "Export account statement (CSV)",
-            description = "Returns the account transactions as CSV lines: date, operation, amount, balanceAfter."
+            description = "Streams the account transactions as CSV lines: date, operation, amount, balanceAfter. "
+                    + "A statement ending before today (UTC) is final: it carries a strong ETag and "
+                    + "If-None-Match is answered with 304. Sent gzip-compressed when Accept-Encoding allows it."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "CSV statement",
@@ -205,28 +325,69 @@ public class AccountsController {
                             examples = @ExampleObject(value = "date,operation,amount,balanceAfter\n"
                                     + "2024-01-01T12:00:00Z,DEPOSIT,10.00,80.00\n"
                                     + "2024-01-01T11:00:00Z,WITHDRAWAL,30.00,70.00\n"))),
+            @ApiResponse(responseCode = "304", description = "Closed-period statement unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Account not found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
                             examples = @ExampleObject(value = "{\n  \"code\": \"ACCOUNT_NOT_FOUND\",\n  \"message\": \"Account not found\"\n}")))
     })
     /**
-     * Exports the account statement as CSV.
+     * Streams the account statement as CSV straight to the response, row by row. A closed-period
+     * statement is served from the cache instead, with its ETag.
      * @param accountId Account identifier
      * @param from Inclusive start date (optional)
      * @param to Inclusive end date (optional)
-     * @return CSV content
+     * @param webRequest Current request, checked against the ETag
+     * @param request Current request, for the accepted encodings
+     * @param response Response the CSV is written to
      */
-    public ResponseEntity<String> statement(
+    public void statement(
             @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
             @Parameter(description = "Start date (YYYY-MM-DD)")
             @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @Parameter(description = "End date (YYYY-MM-DD)")
-            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
-    ) {
-        String csv = exportStatementUseCase.statementCsv(accountId, from, to);
-        return ResponseEntity.ok()
-                .contentType(MediaType.valueOf("text/csv"))
-                .body(csv);
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(hidden = true) WebRequest webRequest,
+            @Parameter(hidden = true) HttpServletRequest request,
+            @Parameter(hidden = true) HttpServletResponse response
+    ) throws IOException {
+        var cache = cachedStatementUseCase.getIfAvailable();
+        if (cache != null && cache.isCacheable(to)) {
+            // Cached statements are stored compressed: a client accepting gzip gets the stored bytes
+            var encoding = GzipResponseFilter.acceptsGzip(request) ? Encoding.GZIP : Encoding.IDENTITY;
+            try (var statement = cache.statement(accountId, from, to)) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+                if (!response.containsHeader(HttpHeaders.VARY)) {
+                    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                if (webRequest.checkNotModified("\"" + statement.etag(encoding) + "\"")) {
+                    return;
+                }
+                response.setContentType("text/csv");
+                if (encoding == Encoding.GZIP) {
+                    response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+                response.setContentLengthLong(statement.length(encoding));
+                statement.transferTo(response.getOutputStream(), encoding);
+            }
+            return;
+        }
+
+        // The content type is only set once the account is found, so a 404 is still answered as JSON
+        exportStatementUseCase.exportStatementCsv(accountId, from, to, () -> {
+            response.setContentType("text/csv");
+            return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        });
+    }
+
+    /**
+     * Checks If-None-Match against the account version, the only thing read before answering 304. Every
+     * transaction changes the balance and so the version, which therefore validates the history as well.
+     * The ETag is weak since the body may be sent gzip-compressed or not. It is read before the body, so a
+     * body is never older than the ETag sent with it.
+     */
+    private boolean notModified(UUID accountId, WebRequest webRequest, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return webRequest.checkNotModified("W/\"" + getAccountUseCase.version(accountId) + "\"");
     }
 }
@@ -0,0 +1,297 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compresses the statement and transaction listing responses for clients sending
+ * {@code Accept-Encoding: gzip}. Compression happens while the response is written, so a streamed
+ * statement is never buffered whole. Only the first {@code minSize} bytes are held back: a response
+ * that ends before is sent as is, since compressing it would not pay off.
+ * <p>
+ * Responses already carrying a {@code Content-Encoding} (pre-compressed cached statements) and
+ * responses other than 200 (partial content, not modified) are passed through untouched. So is a response
+ * switched to non-blocking writes before it was compressed: the write listener is set on the wrapped
+ * stream.
+ */
+public class GzipResponseFilter extends OncePerRequestFilter {
+    private static final Pattern COMPRESSED_PATHS = Pattern.compile("/v1/accounts/[^/]+/(statement|transactions)");
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final int minSize;
+
+    /**
+     * @param minSize responses shorter than this many bytes are not compressed
+     */
+    public GzipResponseFilter(int minSize) {
+        this.minSize = minSize;
+    }
+
+    /**
+     * Tells whether the request accepts a gzip-encoded response.
+     * @param request current request
+     * @return true when {@code gzip} (or {@code *}) is listed in Accept-Encoding without {@code q=0}
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        var header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String coding : header.split(",")) {
+            var parts = coding.split(";");
+            var name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    var parameter = parts[i].trim().replace(" ", "");
+                    if (parameter.matches("q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !COMPRESSED_PATHS.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // The response varies with Accept-Encoding whether or not this one ends up compressed
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var wrapper = new GzipResponseWrapper(response, minSize);
+        chain.doFilter(request, wrapper);
+        wrapper.finish();
+    }
+
+    /**
+     * Response holding back its first bytes until it knows whether to compress, then writing either
+     * through a gzip stream or straight to the wrapped response.
+     */
+    private static final class GzipResponseWrapper extends HttpServletResponseWrapper {
+        private final int minSize;
+        private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private OutputStream target;
+        private GZIPOutputStream gzip;
+        private long contentLength = -1;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        private GzipResponseWrapper(HttpServletResponse response, int minSize) {
+            super(response);
+            this.minSize = minSize;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // Only known to be right if the body is not compressed: applied once that is decided
+            if (target != null && gzip == null) {
+                super.setContentLengthLong(len);
+            }
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (stream == null) {
+                stream = new GzipServletOutputStream();
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                if (stream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                stream = new GzipServletOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(stream, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            // While undecided, flushing would commit the headers too early
+            if (target != null) {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (target == null) {
+                pending.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (target == null) {
+                pending.reset();
+                contentLength = -1;
+            }
+            super.reset();
+        }
+
+        /**
+         * Sends what is still held back and completes the gzip stream.
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (contentLength < 0 && pending.size() > 0) {
+                    contentLength = pending.size();
+                }
+                passThrough();
+            }
+            if (gzip != null) {
+                gzip.finish();
+            }
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (target == null) {
+                pending.write(b, off, len);
+                if (pending.size() < minSize) {
+                    return;
+                }
+                if (getHeader(HttpHeaders.CONTENT_ENCODING) != null || getStatus() != HttpServletResponse.SC_OK) {
+                    passThrough();
+                } else {
+                    compress();
+                }
+                return;
+            }
+            target.write(b, off, len);
+        }
+
+        private void compress() throws IOException {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            gzip = new GZIPOutputStream(super.getOutputStream(), GZIP_BUFFER_SIZE);
+            target = gzip;
+            pending.writeTo(gzip);
+            pending = null;
+        }
+
+        private void passThrough() throws IOException {
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            target = super.getOutputStream();
+            pending.writeTo(target);
+            pending = null;
+        }
+
+        private final class GzipServletOutputStream extends ServletOutputStream {
+            @Override
+            public void write(int b) throws IOException {
+                GzipResponseWrapper.this.write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                GzipResponseWrapper.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                // A flush while undecided is dropped; the held-back bytes are sent at the latest by finish()
+                if (target != null) {
+                    target.flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                if (target == null || gzip != null) {
+                    return true;
+                }
+                try {
+                    return getResponse().getOutputStream().isReady();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            /**
+             * Sends the response uncompressed and hands the listener to the wrapped stream: gzip output
+             * is written blocking, so non-blocking writes cannot go through it.
+             * @throws IllegalStateException when compression has already started
+             */
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                if (gzip != null) {
+                    throw new IllegalStateException("Non-blocking writes are not supported once the response is compressed");
+                }
+                try {
+                    if (target == null) {
+                        passThrough();
+                    }
+                    getResponse().getOutputStream().setWriteListener(writeListener);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
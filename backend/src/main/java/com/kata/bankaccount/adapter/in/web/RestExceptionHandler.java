@@ -2,12 +2,18 @@ package com.kata.bankaccount.adapter.in.web;
 
 import com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse;
 import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.exception.ConcurrentUpdateException;
 import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import com.kata.bankaccount.domain.exception.StatementJobNotFoundException;
+import com.kata.bankaccount.domain.exception.StatementJobNotReadyException;
+import com.kata.bankaccount.domain.exception.StatementJobRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 /**
  * Maps domain and validation exceptions to HTTP error responses.
@@ -30,6 +36,21 @@ public class RestExceptionHandler {
                 .body(new ApiErrorResponse("VALIDATION_ERROR", message, null));
     }
 
+    /**
+     * Handles bean validation errors of the reactive controller (400 BAD_REQUEST), as {@link #handleValidation}.
+     * @param ex validation exception
+     * @return error payload with code and message
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiErrorResponse> handleReactiveValidation(WebExchangeBindException ex) {
+        var message = ex.getAllErrors().stream()
+                .findFirst()
+                .map(err -> err.getDefaultMessage() != null ? err.getDefaultMessage() : "Validation failed")
+                .orElse("Validation failed");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiErrorResponse("VALIDATION_ERROR", message, null));
+    }
+
     /**
      * Handles invalid arguments (400 BAD_REQUEST).
      * @param ex thrown exception
@@ -52,6 +73,17 @@ public class RestExceptionHandler {
                 .body(new ApiErrorResponse("INSUFFICIENT_FUNDS", ex.getMessage(), null));
     }
 
+    /**
+     * Handles writes that gave up after repeated concurrent updates (409 CONFLICT).
+     * @param ex thrown exception
+     * @return response with CONFLICT status and error payload
+     */
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<ApiErrorResponse> handleConcurrentUpdate(ConcurrentUpdateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiErrorResponse("CONCURRENT_UPDATE", ex.getMessage(), null));
+    }
+
     /**
      * Handles missing account (404 NOT_FOUND).
      * @param ex thrown exception
@@ -62,4 +94,38 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ApiErrorResponse("ACCOUNT_NOT_FOUND", ex.getMessage(), ex.getOperationId()));
     }
+
+    /**
+     * Handles unknown or expired statement jobs (404 NOT_FOUND).
+     * @param ex thrown exception
+     * @return response with NOT_FOUND status and error payload
+     */
+    @ExceptionHandler(StatementJobNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleStatementJobNotFound(StatementJobNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ApiErrorResponse("STATEMENT_JOB_NOT_FOUND", ex.getMessage(), null));
+    }
+
+    /**
+     * Handles downloads of statement jobs still running or failed (409 CONFLICT).
+     * @param ex thrown exception
+     * @return response with CONFLICT status and error payload
+     */
+    @ExceptionHandler(StatementJobNotReadyException.class)
+    public ResponseEntity<ApiErrorResponse> handleStatementJobNotReady(StatementJobNotReadyException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiErrorResponse("STATEMENT_JOB_NOT_READY", ex.getMessage(), null));
+    }
+
+    /**
+     * Handles statement jobs rejected because the export queue is full (503 SERVICE_UNAVAILABLE).
+     * @param ex thrown exception
+     * @return response with SERVICE_UNAVAILABLE status and error payload
+     */
+    @ExceptionHandler(StatementJobRejectedException.class)
+    public ResponseEntity<ApiErrorResponse> handleStatementJobRejected(StatementJobRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(new ApiErrorResponse("STATEMENT_QUEUE_FULL", ex.getMessage(), null));
+    }
 }
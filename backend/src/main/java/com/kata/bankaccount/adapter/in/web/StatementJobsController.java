@@ -0,0 +1,206 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.response.StatementJobResponse;
+import com.kata.bankaccount.application.ports.in.StatementJobUseCase;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST controller for background statement exports: queue a job, follow it, download the file.
+ */
+@RestController
+@RequestMapping("/v1/accounts/{id}/statement-jobs")
+@Tag(name = "Statement jobs", description = "Background export of account statements")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StatementJobsController {
+
+    /** Request attributes through which Tomcat sends a file straight from the page cache to the socket. */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final StatementJobUseCase statementJobUseCase;
+
+    @PostMapping
+    @Operation(
+            summary = "Queue a statement export",
+            description = "Queues the export of the account statement as CSV and returns the job to poll. "
+                    + "The file is written in the background and downloaded from the job once READY."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job queued",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StatementJobResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"jobId\": \"0b8e9f3c-5a61-4f1e-9d35-2c3c0e7b6a11\",\n  \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n  \"from\": \"2024-01-01\",\n  \"to\": \"2024-01-31\",\n  \"status\": \"QUEUED\"\n}"))),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"ACCOUNT_NOT_FOUND\",\n  \"message\": \"Account not found\"\n}"))),
+            @ApiResponse(responseCode = "503", description = "Too many exports queued, retry later",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"STATEMENT_QUEUE_FULL\",\n  \"message\": \"Statement export queue is full (100 jobs), retry later\"\n}")))
+    })
+    /**
+     * Queues the export of a statement.
+     * @param accountId Account identifier
+     * @param from Inclusive start date (optional)
+     * @param to Inclusive end date (optional)
+     * @return The queued job, with its location
+     */
+    public ResponseEntity<StatementJobResponse> submit(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Start date (YYYY-MM-DD)")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "End date (YYYY-MM-DD)")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        var job = statementJobUseCase.submit(accountId, from, to);
+        return ResponseEntity.accepted()
+                .location(URI.create("/v1/accounts/" + accountId + "/statement-jobs/" + job.jobId()))
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get a statement export", description = "Returns the progress of a statement export job")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StatementJobResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"jobId\": \"0b8e9f3c-5a61-4f1e-9d35-2c3c0e7b6a11\",\n  \"accountId\": \"6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00\",\n  \"status\": \"READY\",\n  \"size\": 48213,\n  \"expiresAt\": \"2024-02-01T11:00:00Z\"\n}"))),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"STATEMENT_JOB_NOT_FOUND\",\n  \"message\": \"Statement job not found\"\n}")))
+    })
+    /**
+     * Returns the progress of a statement export job.
+     * @param accountId Account identifier
+     * @param jobId Job identifier
+     * @return The job
+     */
+    public StatementJobResponse status(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Job ID") @PathVariable("jobId") UUID jobId
+    ) {
+        return statementJobUseCase.status(accountId, jobId);
+    }
+
+    @GetMapping(value = "/{jobId}/file", produces = {"text/csv", "application/json"})
+    @Operation(
+            summary = "Download a statement export",
+            description = "Downloads the CSV file of a READY job. A single byte range can be requested to resume a download."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "CSV statement",
+                    content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "206", description = "Requested range of the CSV statement",
+                    content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Job still running or failed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = com.kata.bankaccount.adapter.in.web.dto.ApiErrorResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"code\": \"STATEMENT_JOB_NOT_READY\",\n  \"message\": \"Statement job is RUNNING\"\n}"))),
+            @ApiResponse(responseCode = "416", description = "Range outside of the file")
+    })
+    /**
+     * Sends the exported file, or the requested range of it. Where the container supports sendfile, the
+     * file goes from the page cache to the socket; otherwise it is copied in small chunks through the servlet
+     * output stream, which is not zero-copy but never holds the whole file in the heap.
+     * @param accountId Account identifier
+     * @param jobId Job identifier
+     * @param range Range header (optional, single range)
+     * @param request Current request, used to hand the file to the container when it supports sendfile
+     * @param response Response the file is written to
+     */
+    public void download(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Job ID") @PathVariable("jobId") UUID jobId,
+            @Parameter(description = "Byte range, e.g. bytes=1000-")
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @Parameter(hidden = true) HttpServletRequest request,
+            @Parameter(hidden = true) HttpServletResponse response
+    ) throws IOException {
+        var file = statementJobUseCase.file(accountId, jobId);
+        // Opened before anything is sent: an expiry racing with this request fails cleanly, and once
+        // open the file stays readable even if the sweeper deletes it meanwhile
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            long end = size - 1;
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            List<HttpRange> ranges = range != null ? parseRanges(range) : List.of();
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    start = size;
+                }
+                // HttpRange accepts a start past the end of the file, which would give a negative length
+                if (start >= size) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+            // Malformed or multiple ranges are ignored: the whole file is sent, as RFC 9110 allows
+
+            response.setContentType("text/csv");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + jobId + ".csv\"");
+            response.setContentLengthLong(end - start + 1);
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            // Without sendfile, transferTo copies through a small buffer into the servlet output stream
+            var out = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position <= end; ) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    private static List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
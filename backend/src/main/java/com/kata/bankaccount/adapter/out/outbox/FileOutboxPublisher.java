@@ -0,0 +1,87 @@
+package com.kata.bankaccount.adapter.out.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.OutboxPublisher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends the relayed events to a file, one JSON object per line. A batch is written with a single
+ * write and forced to the disk before {@link #publish} returns, so an event removed from the outbox is
+ * never lost by a crash; an event may appear twice in the file when a crash follows the write but
+ * precedes the outbox commit.
+ * <p>
+ * Writes are serialized by a {@link ReentrantLock} rather than a monitor, so a relay running on a virtual
+ * thread does not pin its carrier for the duration of the fsync.
+ */
+public class FileOutboxPublisher implements OutboxPublisher, AutoCloseable {
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Opens the file for appending, creating it and its directory if missing.
+     * @param file destination file
+     * @param objectMapper JSON serialization of the events
+     * @throws UncheckedIOException when the file cannot be opened
+     */
+    public FileOutboxPublisher(Path file, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            var dir = file.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open outbox file " + file, e);
+        }
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        var lines = new ByteArrayOutputStream();
+        try {
+            for (OutboxEvent event : events) {
+                lines.writeBytes(objectMapper.writeValueAsBytes(event));
+                lines.write('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox event", e);
+        }
+        lock.lock();
+        try {
+            var buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to outbox file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.kata.bankaccount.adapter.out.outbox;
+
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.OutboxPublisher;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Keeps the most recent relayed events in memory, for tests and local runs without a broker. Past
+ * {@code capacity} events, the oldest are forgotten.
+ */
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+    private final int capacity;
+    private final ArrayDeque<OutboxEvent> events = new ArrayDeque<>();
+
+    /**
+     * @param capacity events kept at most
+     */
+    public InMemoryOutboxPublisher(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.pollFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * @return the events kept, in the order they were published
+     */
+    public synchronized List<OutboxEvent> events() {
+        return List.copyOf(events);
+    }
+}
@@ -1,22 +1,37 @@
 package com.kata.bankaccount.adapter.out.persistence;
 
+import com.kata.bankaccount.adapter.out.persistence.cache.AccountBalanceCache;
+import com.kata.bankaccount.adapter.out.persistence.idempotency.OperationIdFilter;
 import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
 import com.kata.bankaccount.adapter.out.persistence.jpa.entity.TransactionEntity;
 import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.TransactionJpaRepository;
+import com.kata.bankaccount.application.ports.out.AccountChangeHook;
+import com.kata.bankaccount.application.ports.out.AccountEvent;
 import com.kata.bankaccount.application.ports.out.AccountRepository;
 import com.kata.bankaccount.domain.exception.AccountNotFoundException;
 import com.kata.bankaccount.domain.model.Account;
 import com.kata.bankaccount.domain.model.Transaction;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * JPA-based implementation of the {@link AccountRepository} port.
+ * JPA-based implementation of the {@link AccountRepository} port. Every transaction appended is also
+ * added to the account's rollups and, when enabled, recorded in the outbox, in the same transaction.
+ * <p>
+ * When the {@link AccountBalanceCache} is enabled, lookups read through it. Every write path of the
+ * application (write strategies, command executor, batches) ends here, so each change written is also
+ * handed to the {@link AccountChangeHook}, with the version it gave the row; what follows the commit is
+ * left to it.
  */
 @Repository
 @Transactional
@@ -24,50 +39,158 @@ import java.util.UUID;
 public class AccountRepositoryAdapter implements AccountRepository {
 
     private final AccountJpaRepository accountJpaRepository;
-
+    private final TransactionJpaRepository transactionJpaRepository;
+    private final ObjectProvider<OperationIdFilter> operationIdFilter;
+    private final RollupRepositoryAdapter rollupRepository;
+    private final ObjectProvider<OutboxRepositoryAdapter> outboxRepository;
+    private final ObjectProvider<AccountBalanceCache> balanceCache;
+    private final AccountChangeHook changeHook;
 
     @Override
     public Account lockById(UUID accountId) {
         var entity = accountJpaRepository.lockById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
         // Map to domain. Existing transactions are not copied to domain to keep domain minimal.
-        return new Account(entity.getId(), entity.getBalance());
+        return new Account(entity.getId(), entity.getBalance(), entity.getVersion());
     }
 
     @Override
     public void save(Account account) {
-        var entity = accountJpaRepository.findByIdWithTransactions(account.getId())
-                .orElse(new AccountEntity(account.getId(), account.getBalance()));
+        // The account row is already in the persistence context when it was loaded by lockById,
+        // so this does not hit the database on the write path.
+        var entity = accountJpaRepository.findById(account.getId())
+                .orElseGet(() -> accountJpaRepository.save(new AccountEntity(account.getId(), account.getBalance())));
 
         entity.setBalance(account.getBalance());
 
-        // Append only new transactions by ID
-        Set<UUID> existingIds = new HashSet<>();
-        if (entity.getTransactions() != null) {
-            for (var te : entity.getTransactions()) existingIds.add(te.getId());
+        // The aggregate only carries the transactions created since it was loaded:
+        // insert them without touching the existing history.
+        for (Transaction t : account.getTransactions()) {
+            transactionJpaRepository.save(toEntity(entity, t));
         }
+        // Flush now so that a repeated operation id fails here, on the unique constraint, as a
+        // DataIntegrityViolationException rather than later at commit.
+        transactionJpaRepository.flush();
+        appended(account.getId(), account.getTransactions());
+        // The flush has incremented the version of the updated row
+        changed(entity.getId(), entity.getBalance(), entity.getVersion(), account.getTransactions());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Account findById(UUID accountId) {
+        var cache = balanceCache.getIfAvailable();
+        if (cache == null) {
+            return load(accountId);
+        }
+        // Read-only unless it joined a writing transaction, which may have changed the row: only then is the
+        // state read known to be committed
+        return cache.get(accountId, () -> load(accountId), TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsById(UUID accountId) {
+        return accountJpaRepository.existsById(accountId);
+    }
 
+    @Override
+    public boolean saveIfVersionMatches(Account account) {
+        if (accountJpaRepository.updateBalanceIfVersion(account.getId(), account.getBalance(), account.getVersion()) == 0) {
+            // The version read is outdated, possibly because it came from the cache: make the retry read the row
+            balanceCache.ifAvailable(cache -> cache.invalidate(account.getId(), account.getVersion()));
+            return false;
+        }
+        var reference = accountJpaRepository.getReferenceById(account.getId());
         for (Transaction t : account.getTransactions()) {
-            if (!existingIds.contains(t.getId())) {
-                var te = new TransactionEntity(
-                        t.getId(),
-                        entity,
-                        t.getType(),
-                        t.getAmount(),
-                        t.getTimestamp(),
-                        t.getResultingBalance()
-                );
-                entity.getTransactions().add(te);
+            transactionJpaRepository.save(toEntity(reference, t));
+        }
+        transactionJpaRepository.flush();
+        appended(account.getId(), account.getTransactions());
+        changed(account.getId(), account.getBalance(), account.getVersion() + 1, account.getTransactions());
+        return true;
+    }
+
+    @Override
+    public BigDecimal addToBalance(UUID accountId, BigDecimal amount) {
+        if (accountJpaRepository.addToBalance(accountId, amount) == 0) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return updatedBalance(accountId);
+    }
+
+    @Override
+    public Optional<BigDecimal> subtractFromBalance(UUID accountId, BigDecimal amount) {
+        if (accountJpaRepository.subtractIfCovered(accountId, amount) == 0) {
+            // Nothing updated: either the account is missing or the guard rejected the withdrawal. The domain
+            // error is left to the caller: thrown from here, it would be translated into a data access exception
+            if (!accountJpaRepository.existsById(accountId)) {
+                throw new AccountNotFoundException(accountId);
             }
+            return Optional.empty();
         }
+        return Optional.of(updatedBalance(accountId));
+    }
 
-        accountJpaRepository.save(entity);
+    @Override
+    public void appendTransaction(UUID accountId, Transaction transaction) {
+        // The account row was read back by the guarded update before: the reference is that entity
+        var account = accountJpaRepository.getReferenceById(accountId);
+        transactionJpaRepository.saveAndFlush(toEntity(account, transaction));
+        appended(accountId, List.of(transaction));
+        changed(accountId, transaction.getResultingBalance(), account.getVersion(), List.of(transaction));
     }
 
     @Override
-    public Account findById(UUID accountId) {
+    @Transactional(readOnly = true)
+    public List<UUID> findIds(UUID after, int limit) {
+        var page = PageRequest.ofSize(limit);
+        return after == null ? accountJpaRepository.findIds(page) : accountJpaRepository.findIdsAfter(after, page);
+    }
+
+    /**
+     * Adds transactions just inserted to the rollups and the outbox, in the current transaction.
+     */
+    private void appended(UUID accountId, List<Transaction> transactions) {
+        rollupRepository.add(accountId, transactions);
+        outboxRepository.ifAvailable(outbox -> outbox.add(accountId, transactions));
+    }
+
+    private Account load(UUID accountId) {
         var entity = accountJpaRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
-        return new Account(entity.getId(), entity.getBalance());
+        return new Account(entity.getId(), entity.getBalance(), entity.getVersion());
+    }
+
+    /**
+     * Reads back the row a guarded update just changed, which the update cleared from the persistence
+     * context, and reports it as a change. The row is still locked by the current transaction, so the
+     * state read is the one this transaction wrote.
+     */
+    private BigDecimal updatedBalance(UUID accountId) {
+        var updated = load(accountId);
+        changed(accountId, updated.getBalance(), updated.getVersion(), List.of());
+        return updated.getBalance();
+    }
+
+    private void changed(UUID accountId, BigDecimal balance, long version, List<Transaction> transactions) {
+        changeHook.changed(new AccountEvent(accountId, balance, version, transactions));
+    }
+
+    private TransactionEntity toEntity(AccountEntity account, Transaction t) {
+        if (t.getOperationId() != null) {
+            // Added before the insert so a concurrent check cannot miss it; if the insert fails it only costs a lookup
+            operationIdFilter.ifAvailable(filter -> filter.add(t.getOperationId()));
+        }
+        var entity = new TransactionEntity(
+                t.getId(),
+                account,
+                t.getType(),
+                t.getAmount(),
+                t.getTimestamp(),
+                t.getResultingBalance()
+        );
+        entity.setOperationId(t.getOperationId());
+        return entity;
     }
 }
@@ -1,33 +1,44 @@
 package com.kata.bankaccount.adapter.out.persistence;
 
-import com.kata.bankaccount.adapter.out.persistence.jpa.entity.OperationEntity;
-import com.kata.bankaccount.adapter.out.persistence.jpa.repository.OperationJpaRepository;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.TransactionEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.TransactionJpaRepository;
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
 import com.kata.bankaccount.application.ports.out.OperationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * JPA-backed idempotency store implementation.
+ * JPA-backed idempotency lookups on {@code transactions.operation_id}.
  */
 @Repository
-@Transactional
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class OperationRepositoryAdapter implements OperationRepository {
-    private final OperationJpaRepository repo;
+    private final TransactionJpaRepository repo;
 
 
     @Override
-    public boolean exists(UUID operationId) {
-        return repo.existsById(operationId);
+    public Optional<AppliedOperation> findByOperationId(UUID operationId) {
+        return repo.findByOperationId(operationId).map(OperationRepositoryAdapter::toAppliedOperation);
     }
 
     @Override
-    public void save(UUID operationId) {
-        if (!repo.existsById(operationId)) {
-            repo.save(new OperationEntity(operationId));
-        }
+    public Map<UUID, AppliedOperation> findByOperationIds(Collection<UUID> operationIds) {
+        return repo.findByOperationIdIn(operationIds).stream()
+                .map(OperationRepositoryAdapter::toAppliedOperation)
+                .collect(Collectors.toMap(AppliedOperation::operationId, Function.identity()));
+    }
+
+    private static AppliedOperation toAppliedOperation(TransactionEntity e) {
+        return new AppliedOperation(e.getOperationId(), e.getAccount().getId(), e.getType(), e.getResultingBalance(),
+                e.getTimestamp());
     }
 }
@@ -0,0 +1,100 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.OutboxRepository;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the {@link OutboxRepository} port, also used by {@link AccountRepositoryAdapter}
+ * to record every new transaction in the outbox, in the same transaction.
+ * <p>
+ * Writers append to an account while holding its row lock, so the outbox ids of one account increase in
+ * commit order. Ids of different accounts may commit out of order: a batch is therefore removed by its
+ * ids, never as everything below the last one, and an event committed late behind a higher id is simply
+ * relayed in the next batch, which reads from the oldest row left.
+ * <p>
+ * Publishing is left to the relay: a publisher failure must reach it as is, not translated as a data
+ * access error by this repository.
+ */
+@Repository
+@Transactional
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.accounts.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRepositoryAdapter implements OutboxRepository {
+
+    private static final String RELAY = "default";
+
+    private static final String INSERT = "insert into account_outbox (account_id, transaction_id, operation_id, type, "
+            + "amount, resulting_balance, occurred_at) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String OLDEST = """
+            select id, account_id, transaction_id, operation_id, type, amount, resulting_balance, occurred_at
+            from account_outbox
+            order by id
+            fetch first ? rows only""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records new transactions in the outbox, in the caller's transaction: they are relayed only if it
+     * commits.
+     * @param accountId account identifier, whose row the caller has locked
+     * @param transactions transactions just appended, oldest first
+     */
+    public void add(UUID accountId, Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        var utc = utc();
+        jdbcTemplate.batchUpdate(INSERT, transactions, transactions.size(), (PreparedStatement ps, Transaction t) -> {
+            ps.setObject(1, accountId);
+            ps.setObject(2, t.getId());
+            ps.setObject(3, t.getOperationId());
+            ps.setString(4, t.getType().name());
+            ps.setBigDecimal(5, t.getAmount());
+            ps.setBigDecimal(6, t.getResultingBalance());
+            // Stored in UTC like the transaction timestamps, whatever the JVM zone
+            ps.setTimestamp(7, Timestamp.from(t.getTimestamp()), utc);
+        });
+    }
+
+    @Override
+    public List<OutboxEvent> lockOldest(int limit) {
+        jdbcTemplate.queryForList("select name from account_outbox_relay where name = ? for update", String.class, RELAY);
+        var utc = utc();
+        RowMapper<OutboxEvent> mapper = (rs, i) -> new OutboxEvent(
+                rs.getLong(1), rs.getObject(2, UUID.class), rs.getObject(3, UUID.class), rs.getObject(4, UUID.class),
+                TransactionType.valueOf(rs.getString(5)), rs.getBigDecimal(6), rs.getBigDecimal(7),
+                rs.getTimestamp(8, utc).toInstant());
+        return jdbcTemplate.query(OLDEST, mapper, limit);
+    }
+
+    @Override
+    public void remove(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("delete from account_outbox where id = ?",
+                events.stream().map(e -> new Object[] {e.id()}).toList());
+        jdbcTemplate.update("update account_outbox_relay set last_id = ?, relayed_at = current_timestamp where name = ?",
+                events.get(events.size() - 1).id(), RELAY);
+    }
+
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+}
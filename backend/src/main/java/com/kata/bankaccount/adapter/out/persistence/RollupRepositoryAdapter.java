@@ -0,0 +1,140 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import com.kata.bankaccount.application.ports.out.Rollup;
+import com.kata.bankaccount.application.ports.out.RollupRepository;
+import com.kata.bankaccount.domain.model.Granularity;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the {@link RollupRepository} port, also used by {@link AccountRepositoryAdapter}
+ * to add every new transaction to its day and month.
+ * <p>
+ * Every writer of an account holds its row lock (select for update, or the guarded balance update) when it
+ * appends transactions, and the rebuild takes the same lock: rollup rows of one account are never updated
+ * concurrently, so a plain update-then-insert is enough, on any database.
+ */
+@Repository
+@Transactional
+@RequiredArgsConstructor
+public class RollupRepositoryAdapter implements RollupRepository {
+
+    // Stand-ins for an open range, so the queries never bind a null date
+    private static final LocalDate MIN_PERIOD = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_PERIOD = LocalDate.of(3000, 1, 1);
+
+    private static final String DAILY = "account_daily_rollups";
+    private static final String MONTHLY = "account_monthly_rollups";
+
+    // Days are those of the UTC timestamps, as Hibernate binds Instant values
+    private static final String HISTORY_BY_DAY = "select cast(timestamp as date), type, count(*), sum(amount) "
+            + "from transactions where account_id = ? group by cast(timestamp as date), type";
+
+    private static final RowMapper<Rollup> ROLLUP = (rs, i) -> new Rollup(
+            rs.getObject(1, LocalDate.class), rs.getLong(2), rs.getBigDecimal(3), rs.getLong(4), rs.getBigDecimal(5));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Rollup> findRollups(UUID accountId, Granularity granularity, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "select period_start, deposit_count, deposit_total, withdrawal_count, withdrawal_total from "
+                        + table(granularity) + " where account_id = ? and period_start >= ? and period_start <= ? "
+                        + "order by period_start",
+                ROLLUP, accountId, from != null ? from : MIN_PERIOD, to != null ? to : MAX_PERIOD);
+    }
+
+    /**
+     * Adds new transactions to the account's daily and monthly rollups, in the caller's transaction.
+     * They are first summed up by period, so a group of transactions costs one statement per period touched.
+     * @param accountId account identifier, whose row the caller has locked
+     * @param transactions transactions just appended
+     */
+    public void add(UUID accountId, Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, Rollup> days = new TreeMap<>();
+        Map<LocalDate, Rollup> months = new TreeMap<>();
+        for (Transaction t : transactions) {
+            collect(days, months, LocalDate.ofInstant(t.getTimestamp(), ZoneOffset.UTC), t.getType(), 1, t.getAmount());
+        }
+        days.values().forEach(rollup -> increment(DAILY, accountId, rollup));
+        months.values().forEach(rollup -> increment(MONTHLY, accountId, rollup));
+    }
+
+    @Override
+    public void rebuild(UUID accountId) {
+        // Same lock as the writers: no transaction is appended while the history is read
+        if (jdbcTemplate.queryForList("select id from accounts where id = ? for update", UUID.class, accountId).isEmpty()) {
+            return;
+        }
+        Map<LocalDate, Rollup> days = new TreeMap<>();
+        Map<LocalDate, Rollup> months = new TreeMap<>();
+        jdbcTemplate.query(HISTORY_BY_DAY, rs -> {
+            collect(days, months, rs.getObject(1, LocalDate.class), TransactionType.valueOf(rs.getString(2)),
+                    rs.getLong(3), rs.getBigDecimal(4));
+        }, accountId);
+
+        replace(DAILY, accountId, days.values());
+        replace(MONTHLY, accountId, months.values());
+    }
+
+    /** Adds transactions of one type and day to that day and to its month. */
+    private static void collect(Map<LocalDate, Rollup> days, Map<LocalDate, Rollup> months, LocalDate day,
+                                TransactionType type, long count, BigDecimal total) {
+        days.merge(day, Rollup.of(day, type, count, total), Rollup::plus);
+        var month = Granularity.MONTH.periodStart(day);
+        months.merge(month, Rollup.of(month, type, count, total), Rollup::plus);
+    }
+
+    private void increment(String table, UUID accountId, Rollup rollup) {
+        int updated = jdbcTemplate.update("update " + table + " set deposit_count = deposit_count + ?, "
+                        + "deposit_total = deposit_total + ?, withdrawal_count = withdrawal_count + ?, "
+                        + "withdrawal_total = withdrawal_total + ? where account_id = ? and period_start = ?",
+                rollup.depositCount(), rollup.depositTotal(), rollup.withdrawalCount(), rollup.withdrawalTotal(),
+                accountId, rollup.periodStart());
+        if (updated == 0) {
+            insert(table, accountId, List.of(rollup));
+        }
+    }
+
+    private void replace(String table, UUID accountId, Collection<Rollup> rollups) {
+        jdbcTemplate.update("delete from " + table + " where account_id = ?", accountId);
+        insert(table, accountId, rollups);
+    }
+
+    private void insert(String table, UUID accountId, Collection<Rollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert into " + table + " (account_id, period_start, deposit_count, deposit_total, "
+                        + "withdrawal_count, withdrawal_total) values (?, ?, ?, ?, ?, ?)",
+                rollups.stream()
+                        .map(r -> new Object[] {accountId, r.periodStart(), r.depositCount(), r.depositTotal(),
+                                r.withdrawalCount(), r.withdrawalTotal()})
+                        .toList());
+    }
+
+    private static String table(Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> DAILY;
+            case MONTH -> MONTHLY;
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.TransactionCursor;
+import com.kata.bankaccount.application.ports.out.TransactionHistoryRepository;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the {@link TransactionHistoryRepository} port, on the {@code transaction_history}
+ * table. Reads never touch {@code transactions} nor the JPA persistence context, so history and
+ * reporting queries do not compete with the write path for its table, indexes and entity graph.
+ * <p>
+ * Every query bounds the month as well as the timestamp: the index leads with (account_id, month_start),
+ * so a page only ranges over the months of the period asked for, whatever the size of the history.
+ */
+@Repository
+@Transactional
+@RequiredArgsConstructor
+public class TransactionHistoryRepositoryAdapter implements TransactionHistoryRepository {
+
+    // Stand-ins for an open period, so the queries never bind a null timestamp
+    private static final Instant MIN_TIMESTAMP = Instant.parse("1900-01-01T00:00:00Z");
+    private static final Instant MAX_TIMESTAMP = Instant.parse("3000-01-01T00:00:00Z");
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final String PAGE = "select id, type, amount, timestamp, resulting_balance from transaction_history "
+            + "where account_id = ? and month_start >= ? and month_start <= ? and timestamp >= ? and timestamp <= ? ";
+    private static final String FIRST_PAGE = PAGE
+            + "order by month_start desc, timestamp desc, id desc fetch first ? rows only";
+    private static final String PAGE_AFTER = PAGE + "and (timestamp < ? or (timestamp = ? and id < ?)) "
+            + "order by month_start desc, timestamp desc, id desc fetch first ? rows only";
+    private static final String INSERT = "insert into transaction_history "
+            + "(id, account_id, month_start, timestamp, type, amount, resulting_balance) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> findPage(UUID accountId, Instant from, Instant to, TransactionCursor after, int limit) {
+        var lower = from != null ? from : MIN_TIMESTAMP;
+        var upper = to != null ? to : MAX_TIMESTAMP;
+        // The month of the cursor bounds the scan too: months after it were read by the previous pages
+        var upperMonth = month(after != null && after.timestamp().isBefore(upper) ? after.timestamp() : upper);
+        var utc = utc();
+        RowMapper<Transaction> mapper = (rs, i) -> Transaction.of(
+                rs.getObject(1, UUID.class),
+                TransactionType.valueOf(rs.getString(2)),
+                rs.getBigDecimal(3),
+                rs.getTimestamp(4, utc).toInstant(),
+                rs.getBigDecimal(5));
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(after == null ? FIRST_PAGE : PAGE_AFTER);
+            int i = 0;
+            ps.setObject(++i, accountId);
+            ps.setObject(++i, month(lower));
+            ps.setObject(++i, upperMonth);
+            ps.setTimestamp(++i, Timestamp.from(lower), utc);
+            ps.setTimestamp(++i, Timestamp.from(upper), utc);
+            if (after != null) {
+                ps.setTimestamp(++i, Timestamp.from(after.timestamp()), utc);
+                ps.setTimestamp(++i, Timestamp.from(after.timestamp()), utc);
+                ps.setObject(++i, after.id());
+            }
+            ps.setInt(++i, limit);
+            return ps;
+        }, mapper);
+    }
+
+    /**
+     * Deletes then inserts each event's row, which makes a redelivered event a no-op on any database.
+     */
+    @Override
+    public void project(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("delete from transaction_history where id = ?",
+                events.stream().map(e -> new Object[] {e.transactionId()}).toList());
+        insert(events.stream()
+                .map(e -> new Row(e.transactionId(), e.accountId(), e.occurredAt(), e.type(), e.amount(), e.resultingBalance()))
+                .toList());
+    }
+
+    @Override
+    public void rebuild(UUID accountId) {
+        // Same lock as the writers: no transaction is appended while the history is copied
+        if (jdbcTemplate.queryForList("select id from accounts where id = ? for update", UUID.class, accountId).isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("delete from transaction_history where account_id = ?", accountId);
+        var utc = utc();
+        List<Row> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(
+                    "select id, type, amount, timestamp, resulting_balance from transactions where account_id = ?");
+            ps.setFetchSize(REBUILD_BATCH_SIZE);
+            ps.setObject(1, accountId);
+            return ps;
+        }, rs -> {
+            batch.add(new Row(rs.getObject(1, UUID.class), accountId, rs.getTimestamp(4, utc).toInstant(),
+                    TransactionType.valueOf(rs.getString(2)), rs.getBigDecimal(3), rs.getBigDecimal(5)));
+            if (batch.size() == REBUILD_BATCH_SIZE) {
+                insert(batch);
+                batch.clear();
+            }
+        });
+        insert(batch);
+    }
+
+    private void insert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        var utc = utc();
+        jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (PreparedStatement ps, Row row) -> {
+            ps.setObject(1, row.id());
+            ps.setObject(2, row.accountId());
+            ps.setObject(3, month(row.timestamp()));
+            // Timestamps are stored in UTC, as Hibernate binds Instant values in the transactions table
+            ps.setTimestamp(4, Timestamp.from(row.timestamp()), utc);
+            ps.setString(5, row.type().name());
+            ps.setBigDecimal(6, row.amount());
+            ps.setBigDecimal(7, row.resultingBalance());
+        });
+    }
+
+    private static LocalDate month(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC).withDayOfMonth(1);
+    }
+
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    private record Row(UUID id, UUID accountId, Instant timestamp, TransactionType type, BigDecimal amount,
+                       BigDecimal resultingBalance) {}
+}
@@ -1,15 +1,25 @@
 package com.kata.bankaccount.adapter.out.persistence;
 
 import com.kata.bankaccount.adapter.out.persistence.jpa.repository.TransactionJpaRepository;
+import com.kata.bankaccount.application.ports.out.TransactionCursor;
 import com.kata.bankaccount.application.ports.out.TransactionRepository;
 import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.Calendar;
 import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * JPA-based read adapter for account transactions.
@@ -19,17 +29,25 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TransactionRepositoryAdapter implements TransactionRepository {
 
+    // Stand-ins for an open period, so the queries never bind a null timestamp
+    private static final Instant MIN_TIMESTAMP = Instant.parse("1900-01-01T00:00:00Z");
+    private static final Instant MAX_TIMESTAMP = Instant.parse("3000-01-01T00:00:00Z");
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final String STREAM_QUERY = "select id, type, amount, timestamp, resulting_balance from transactions "
+            + "where account_id = ? and timestamp >= ? and timestamp <= ? order by timestamp desc, id desc";
+
     private final TransactionJpaRepository jpaRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
-    public List<Transaction> findByAccountAndPeriod(UUID accountId, Instant from, Instant to) {
-        var entities = (from == null && to == null)
-                ? jpaRepository.findByAccount_IdOrderByTimestampDesc(accountId)
-                : (from == null)
-                    ? jpaRepository.findByAccount_IdAndTimestampLessThanEqualOrderByTimestampDesc(accountId, to)
-                    : (to == null)
-                        ? jpaRepository.findByAccount_IdAndTimestampGreaterThanEqualOrderByTimestampDesc(accountId, from)
-                        : jpaRepository.findByAccount_IdAndTimestampBetweenOrderByTimestampDesc(accountId, from, to);
+    public List<Transaction> findPage(UUID accountId, Instant from, Instant to, TransactionCursor after, int limit) {
+        var lower = from != null ? from : MIN_TIMESTAMP;
+        var upper = to != null ? to : MAX_TIMESTAMP;
+        var page = PageRequest.ofSize(limit);
+        var entities = (after == null)
+                ? jpaRepository.findFirstPage(accountId, lower, upper, page)
+                : jpaRepository.findPageAfter(accountId, lower, upper, after.timestamp(), after.id(), page);
 
         return entities
                 .stream()
@@ -42,4 +60,38 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
                 ))
                 .toList();
     }
+
+    @Override
+    public Optional<BigDecimal> balanceAt(UUID accountId, Instant at) {
+        return jpaRepository.findLatestBalances(accountId, at, PageRequest.ofSize(1)).stream().findFirst();
+    }
+
+    /**
+     * Plain JDBC rather than JPA so that no entity is kept in the persistence context: each row is mapped,
+     * handed over and becomes garbage. The read-only transaction lets PostgreSQL use a server-side cursor
+     * for the fetch size instead of materializing the whole result.
+     */
+    @Override
+    public void forEachInPeriod(UUID accountId, Instant from, Instant to, Consumer<Transaction> action) {
+        // Timestamps are stored in UTC, as Hibernate binds Instant values
+        var utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(STREAM_QUERY);
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    ps.setObject(1, accountId);
+                    ps.setTimestamp(2, Timestamp.from(from != null ? from : MIN_TIMESTAMP), utc);
+                    ps.setTimestamp(3, Timestamp.from(to != null ? to : MAX_TIMESTAMP), utc);
+                    return ps;
+                },
+                rs -> {
+                    action.accept(Transaction.of(
+                            rs.getObject(1, UUID.class),
+                            TransactionType.valueOf(rs.getString(2)),
+                            rs.getBigDecimal(3),
+                            rs.getTimestamp(4, utc).toInstant(),
+                            rs.getBigDecimal(5)
+                    ));
+                });
+    }
 }
@@ -0,0 +1,194 @@
+package com.kata.bankaccount.adapter.out.persistence.cache;
+
+import com.kata.bankaccount.application.ports.out.AccountEvent;
+import com.kata.bankaccount.application.ports.out.AccountEventPublisher;
+import com.kata.bankaccount.domain.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of committed account states (balance and version), in front of the account
+ * lookups, kept up to date as an {@link AccountEventPublisher} of the committed changes. Entries are evicted least recently used first past {@code maxEntries}, and are not served
+ * once older than {@code ttl}, which bounds how long a write made by another instance can go unseen.
+ * <p>
+ * An entry is only ever replaced by a state of the same or a higher version: a load that read the row
+ * before a concurrent write committed cannot overwrite the state that write put after its commit.
+ * <p>
+ * Every lookup and commit goes through one lock, a {@link ReentrantLock} rather than a monitor: on Java 21
+ * virtual threads contending for a monitor pin their carriers, which thousands of concurrent requests
+ * would otherwise exhaust.
+ */
+public class AccountBalanceCache implements AccountEventPublisher {
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Timer loads;
+
+    /**
+     * Creates the cache and registers its metrics.
+     * @param maxEntries accounts kept at most
+     * @param ttl how long an entry is served after it was stored
+     * @param clock clock of the expiry
+     * @param meterRegistry registry for the cache metrics
+     */
+    public AccountBalanceCache(int maxEntries, Duration ttl, Clock clock, MeterRegistry meterRegistry) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = result(meterRegistry, "hit", "Account lookups answered from the cache");
+        this.misses = result(meterRegistry, "miss", "Account lookups that went to the database");
+        this.sizeEvictions = eviction(meterRegistry, "size", "Entries dropped as least recently used");
+        this.expiredEvictions = eviction(meterRegistry, "expired", "Entries dropped once older than the TTL");
+        this.loads = Timer.builder("bank.accounts.balance.cache.load")
+                .description("Time to load an account on a cache miss")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.balance.cache.hit.ratio", this, AccountBalanceCache::hitRatio)
+                .description("Share of account lookups answered from the cache")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.balance.cache.size", this, AccountBalanceCache::size)
+                .description("Accounts held in the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached state of the account, or loads it.
+     * @param accountId account identifier
+     * @param loader reads the committed state from the database
+     * @param store whether the loaded state may be cached: only when it is known to be committed
+     * @return the account state
+     */
+    public Account get(UUID accountId, Supplier<Account> loader, boolean store) {
+        var entry = lookup(accountId);
+        if (entry != null) {
+            hits.increment();
+            return new Account(accountId, entry.balance(), entry.version());
+        }
+        misses.increment();
+        var account = loads.record(loader);
+        if (store) {
+            put(accountId, account.getBalance(), account.getVersion());
+        }
+        return account;
+    }
+
+    /**
+     * Stores a committed state, unless a higher version is already cached.
+     * @param accountId account identifier
+     * @param balance committed balance
+     * @param version version of the committed row
+     */
+    public void put(UUID accountId, BigDecimal balance, long version) {
+        lock.lock();
+        try {
+            var current = entries.get(accountId);
+            if (current != null && current.version() > version) {
+                return;
+            }
+            entries.put(accountId, new Entry(balance, version, clock.instant().plus(ttl)));
+            var eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the state a committed change left, balance-only changes included.
+     * @param event the committed change
+     */
+    @Override
+    public void publish(AccountEvent event) {
+        put(event.accountId(), event.balance(), event.version());
+    }
+
+    /**
+     * Drops the cached state of the account if it is not newer than a version known to be outdated, e.g.
+     * after a write conditional on that version failed. A newer state, put by a write committed meanwhile,
+     * is kept.
+     * @param accountId account identifier
+     * @param outdatedVersion version found to be no longer current
+     */
+    public void invalidate(UUID accountId, long outdatedVersion) {
+        lock.lock();
+        try {
+            var current = entries.get(accountId);
+            if (current != null && current.version() <= outdatedVersion) {
+                entries.remove(accountId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return accounts currently held, expired ones included until they are looked up or evicted
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry lookup(UUID accountId) {
+        lock.lock();
+        try {
+            var entry = entries.get(accountId);
+            if (entry != null && !clock.instant().isBefore(entry.expiresAt())) {
+                entries.remove(accountId);
+                expiredEvictions.increment();
+                return null;
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static Counter result(MeterRegistry registry, String result, String description) {
+        return Counter.builder("bank.accounts.balance.cache")
+                .description(description)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter eviction(MeterRegistry registry, String cause, String description) {
+        return Counter.builder("bank.accounts.balance.cache.evictions")
+                .description(description)
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    private record Entry(BigDecimal balance, long version, Instant expiresAt) {}
+}
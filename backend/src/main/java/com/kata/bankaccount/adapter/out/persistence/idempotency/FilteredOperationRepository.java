@@ -0,0 +1,62 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import com.kata.bankaccount.application.ports.out.OperationRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link OperationRepository} decorator that answers from the {@link OperationIdFilter} when it can and
+ * only queries the database for ids that may have been applied.
+ */
+@RequiredArgsConstructor
+public class FilteredOperationRepository implements OperationRepository {
+    private final OperationRepository delegate;
+    private final OperationIdFilter filter;
+
+    /**
+     * Always checks the database on a cache miss: a single lookup is only made once a write has
+     * already hit the unique constraint, so the id is known to be taken even if the filter never saw it.
+     */
+    @Override
+    public Optional<AppliedOperation> findByOperationId(UUID operationId) {
+        var cached = filter.cached(operationId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        var outcome = delegate.findByOperationId(operationId);
+        outcome.ifPresent(o -> filter.confirm(operationId, o));
+        return outcome;
+    }
+
+    @Override
+    public Map<UUID, AppliedOperation> findByOperationIds(Collection<UUID> operationIds) {
+        Map<UUID, AppliedOperation> found = new HashMap<>();
+        List<UUID> candidates = new ArrayList<>();
+        for (UUID id : operationIds) {
+            var cached = filter.cached(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else if (filter.mightContain(id)) {
+                candidates.add(id);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return found;
+        }
+
+        var stored = delegate.findByOperationIds(candidates);
+        for (UUID id : candidates) {
+            filter.confirm(id, stored.get(id));
+        }
+        found.putAll(stored);
+        return found;
+    }
+}
@@ -0,0 +1,158 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory knowledge of applied operation ids: a {@link RotatingBloomFilter} of recently written
+ * ids, which answers "definitely new" for almost every new operation without a query, plus an LRU of
+ * outcomes confirmed by the database. Both have a fixed size, whatever the size of the table.
+ * The filter only saves lookups; the unique constraint on {@code transactions.operation_id} stays the
+ * authority, so an id the filter has forgotten (or never saw, e.g. written by another instance) can
+ * never be applied twice.
+ * <p>
+ * A confirmed outcome is only answered while its operation is within the idempotency retention window:
+ * past it, the purger may have forgotten the id, so the LRU drops the entry and the database decides, as
+ * it does for an id the Bloom filter still holds. A retry after the window is then applied as new, the
+ * same contract as {@link OperationIdPurger}.
+ * <p>
+ * The LRU sits on every write: it is guarded by a {@link ReentrantLock}, which a waiting virtual thread
+ * leaves without pinning its carrier, rather than by a synchronized map.
+ */
+public class OperationIdFilter {
+    private final RotatingBloomFilter bloomFilter;
+    private final Map<UUID, AppliedOperation> confirmed;
+    private final Duration retention;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter falsePositives;
+
+    /**
+     * Creates the filter and registers its metrics.
+     * @param expectedInsertions ids per Bloom filter generation
+     * @param falsePositiveRate target false-positive rate
+     * @param confirmedCapacity maximum confirmed outcomes kept in the LRU
+     * @param retention idempotency retention window, past which a confirmed outcome is no longer answered
+     * @param clock clock giving the retention cut-off
+     * @param meterRegistry registry for the filter metrics
+     */
+    public OperationIdFilter(long expectedInsertions, double falsePositiveRate, int confirmedCapacity,
+                             Duration retention, Clock clock, MeterRegistry meterRegistry) {
+        this.bloomFilter = new RotatingBloomFilter(expectedInsertions, falsePositiveRate);
+        this.retention = retention;
+        this.clock = clock;
+        this.confirmed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, AppliedOperation> eldest) {
+                return size() > confirmedCapacity;
+            }
+        };
+        this.hits = result(meterRegistry, "hit", "Operation ids found applied");
+        this.misses = result(meterRegistry, "miss", "Operation ids known to be new without a database lookup");
+        this.falsePositives = result(meterRegistry, "false_positive", "Possible hits the database found to be new");
+        Gauge.builder("bank.accounts.idempotency.filter.confirmed", this, OperationIdFilter::confirmedSize)
+                .description("Confirmed outcomes held in the LRU")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.idempotency.filter.bytes", bloomFilter, RotatingBloomFilter::sizeInBytes)
+                .description("Memory taken by the Bloom filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records an operation id that is being written.
+     * @param operationId idempotency key
+     */
+    public void add(UUID operationId) {
+        bloomFilter.add(operationId);
+    }
+
+    /**
+     * @param operationId idempotency key
+     * @return false when the id is definitely new; counted as a miss
+     */
+    boolean mightContain(UUID operationId) {
+        if (bloomFilter.mightContain(operationId)) {
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * @param operationId idempotency key
+     * @return the confirmed outcome, or null when it is not cached or past the retention window; a cached
+     *         outcome counts as a hit
+     */
+    AppliedOperation cached(UUID operationId) {
+        AppliedOperation outcome;
+        lock.lock();
+        try {
+            // Access-ordered: a get moves the entry, so it needs the lock as much as a put
+            outcome = confirmed.get(operationId);
+            if (outcome != null && expired(outcome)) {
+                confirmed.remove(operationId);
+                outcome = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (outcome != null) {
+            hits.increment();
+        }
+        return outcome;
+    }
+
+    /**
+     * Records the database answer for a possible hit.
+     * @param operationId idempotency key
+     * @param outcome the stored outcome, or null when the id was a false positive
+     */
+    void confirm(UUID operationId, AppliedOperation outcome) {
+        if (outcome == null) {
+            falsePositives.increment();
+            return;
+        }
+        hits.increment();
+        if (expired(outcome)) {
+            // About to be purged: caching it would outlive the stored id
+            return;
+        }
+        lock.lock();
+        try {
+            confirmed.put(operationId, outcome);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean expired(AppliedOperation outcome) {
+        return outcome.appliedAt().isBefore(clock.instant().minus(retention));
+    }
+
+    private int confirmedSize() {
+        lock.lock();
+        try {
+            return confirmed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Counter result(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("bank.accounts.idempotency.filter")
+                .description(description)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
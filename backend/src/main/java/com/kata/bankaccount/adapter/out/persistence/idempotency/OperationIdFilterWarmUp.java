@@ -0,0 +1,53 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Seeds the {@link OperationIdFilter} at startup with the operation ids written during the warm-up window,
+ * which is where client retries come from. Rows are streamed with a bounded fetch size.
+ */
+@RequiredArgsConstructor
+public class OperationIdFilterWarmUp {
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OperationIdFilter filter;
+    private final Duration window;
+    private final Clock clock;
+
+    /**
+     * Loads the recent operation ids once the application is ready. Runs in a read-only transaction
+     * so that PostgreSQL honours the fetch size instead of materializing the whole result.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (window.isZero()) {
+            return;
+        }
+        var since = Timestamp.from(clock.instant().minus(window));
+        // Timestamps are stored in UTC, as Hibernate binds Instant values
+        var utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "select operation_id from transactions where timestamp >= ? and operation_id is not null");
+                    ps.setFetchSize(FETCH_SIZE);
+                    ps.setTimestamp(1, since, utc);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> filter.add(rs.getObject(1, UUID.class)));
+    }
+}
@@ -0,0 +1,202 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Forgets operation ids once they are older than the idempotency retention window: the id is cleared on
+ * {@code transactions} (the row itself is history and is kept) and rows of the legacy {@code operations}
+ * table are deleted. A retry arriving after the window is therefore applied as a new operation; the
+ * {@link OperationIdFilter} stops answering outcomes from memory at the same window.
+ * <p>
+ * Work is done in small batches walked with a (timestamp, id) keyset and run outside any surrounding
+ * transaction, so the purger never holds locks on many rows nor writes one large transaction, and each
+ * batch seeks to where the previous one stopped.
+ * <p>
+ * Purged transaction rows stay in the (timestamp, id) index, so the last one purged is checkpointed in
+ * {@code operation_id_purge} after each batch and the next run seeks past it rather than walking the whole
+ * purged history again. Transactions are written with the current time, far ahead of the cut-off, so no
+ * row with an operation id ever appears behind the checkpoint. Purged {@code operations} rows are deleted
+ * and need no checkpoint.
+ */
+public class OperationIdPurger implements AutoCloseable {
+    private static final String NEXT_TRANSACTIONS = """
+            select id, timestamp from transactions
+            where operation_id is not null and timestamp < ?
+              and (timestamp > ? or (timestamp = ? and id > ?))
+            order by timestamp, id
+            fetch first ? rows only""";
+    private static final String FIRST_TRANSACTIONS = """
+            select id, timestamp from transactions
+            where operation_id is not null and timestamp < ?
+            order by timestamp, id
+            fetch first ? rows only""";
+    private static final String CHECKPOINT = """
+            select last_id, last_timestamp from operation_id_purge
+            where name = 'transactions' and last_id is not null""";
+    private static final String SAVE_CHECKPOINT =
+            "update operation_id_purge set last_id = ?, last_timestamp = ? where name = 'transactions'";
+    private static final String NEXT_OPERATIONS = """
+            select id, created_at from operations
+            where created_at < ?
+              and (created_at > ? or (created_at = ? and id > ?))
+            order by created_at, id
+            fetch first ? rows only""";
+    private static final String FIRST_OPERATIONS = """
+            select id, created_at from operations
+            where created_at < ?
+            order by created_at, id
+            fetch first ? rows only""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration window;
+    private final int batchSize;
+    private final Clock clock;
+    private final Counter transactionsPurged;
+    private final Counter operationsPurged;
+    private final Counter failures;
+    private final Timer duration;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates the purger and registers its metrics.
+     * @param jdbcTemplate JDBC access
+     * @param window how long operation ids are kept
+     * @param batchSize rows changed per statement batch and transaction
+     * @param clock clock giving the retention cut-off
+     * @param meterRegistry registry for the purge metrics
+     */
+    public OperationIdPurger(JdbcTemplate jdbcTemplate, Duration window, int batchSize, Clock clock,
+                             MeterRegistry meterRegistry) {
+        if (window.isNegative() || window.isZero() || batchSize < 1) {
+            throw new IllegalArgumentException("window must be positive and batchSize >= 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.window = window;
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.transactionsPurged = purged(meterRegistry, "transactions");
+        this.operationsPurged = purged(meterRegistry, "operations");
+        this.failures = Counter.builder("bank.accounts.idempotency.purge.failures")
+                .description("Purge runs that failed and will be retried at the next run")
+                .register(meterRegistry);
+        this.duration = Timer.builder("bank.accounts.idempotency.purge")
+                .description("Time spent purging expired operation ids")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@link #purge()} in the background on a platform daemon thread, first after one interval.
+     * @param interval delay between the end of a run and the start of the next
+     */
+    public void start(Duration interval) {
+        start(interval, Thread.ofPlatform().name("idempotency-purger").daemon().factory());
+    }
+
+    /**
+     * Runs {@link #purge()} in the background, first after one interval.
+     * @param interval delay between the end of a run and the start of the next
+     * @param threads factory of the purger thread
+     */
+    public synchronized void start(Duration interval, ThreadFactory threads) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(threads);
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Purges every operation id older than the window.
+     * @return number of rows purged, over both tables
+     */
+    public long purge() {
+        var cutoff = Timestamp.from(clock.instant().minus(window));
+        return duration.record(() -> {
+            var checkpoint = jdbcTemplate.query(CHECKPOINT, this::key).stream().findFirst().orElse(null);
+            long transactions = purge(cutoff, FIRST_TRANSACTIONS, NEXT_TRANSACTIONS,
+                    "update transactions set operation_id = null where id = ? and timestamp < ?", transactionsPurged,
+                    checkpoint, last -> jdbcTemplate.update(SAVE_CHECKPOINT, last.id(), last.timestamp()));
+            long operations = purge(cutoff, FIRST_OPERATIONS, NEXT_OPERATIONS,
+                    "delete from operations where id = ? and created_at < ?", operationsPurged, null, last -> {});
+            return transactions + operations;
+        });
+    }
+
+    /**
+     * Stops the background runs; a run in progress finishes its current batch.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive: the next run starts again from the last checkpoint
+            failures.increment();
+        }
+    }
+
+    /**
+     * Walks the expired rows in batches from the given key, or from the oldest row when it is null, and
+     * hands the last key of each changed batch to {@code checkpoint}.
+     */
+    private long purge(Timestamp cutoff, String first, String next, String change, Counter purged, Key from,
+                       Consumer<Key> checkpoint) {
+        long total = 0;
+        var keys = from == null
+                ? jdbcTemplate.query(first, this::key, cutoff, batchSize)
+                : next(next, cutoff, from);
+        while (!keys.isEmpty()) {
+            List<Object[]> args = keys.stream().map(k -> new Object[]{k.id(), cutoff}).toList();
+            jdbcTemplate.batchUpdate(change, args);
+            purged.increment(keys.size());
+            total += keys.size();
+            var last = keys.get(keys.size() - 1);
+            checkpoint.accept(last);
+            if (keys.size() < batchSize) {
+                break;
+            }
+            keys = next(next, cutoff, last);
+        }
+        return total;
+    }
+
+    private List<Key> next(String next, Timestamp cutoff, Key after) {
+        return jdbcTemplate.query(next, this::key, cutoff, after.timestamp(), after.timestamp(), after.id(), batchSize);
+    }
+
+    private Key key(ResultSet rs, int rowNum) throws SQLException {
+        return new Key(rs.getObject(1, UUID.class), rs.getTimestamp(2));
+    }
+
+    private static Counter purged(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("bank.accounts.idempotency.purged")
+                .description("Expired operation ids purged")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    private record Key(UUID id, Timestamp timestamp) {}
+}
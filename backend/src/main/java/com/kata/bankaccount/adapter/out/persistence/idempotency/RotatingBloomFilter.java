@@ -0,0 +1,116 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter of UUIDs made of two generations. Once the current generation has
+ * taken its expected number of insertions it becomes the previous one and a fresh generation replaces it,
+ * so memory stays constant and the false-positive rate stays near its target however many ids are added.
+ * The price is that ids older than two generations are forgotten: a "definitely absent" answer is exact
+ * only for recently added ids.
+ */
+class RotatingBloomFilter {
+    private final long bitsPerGeneration;
+    private final int hashes;
+    private final long capacity;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    /**
+     * Sizes each generation for the expected insertions and false-positive rate.
+     * @param expectedInsertions insertions per generation before it rotates
+     * @param falsePositiveRate target false-positive rate of one generation
+     */
+    RotatingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be >= 1 and falsePositiveRate in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitsPerGeneration = Math.max(64, (bits + 63) / 64 * 64);
+        this.hashes = Math.max(1, (int) Math.round((double) bitsPerGeneration / expectedInsertions * Math.log(2)));
+        this.capacity = expectedInsertions;
+        this.current = new Generation(bitsPerGeneration);
+        this.previous = new Generation(bitsPerGeneration);
+    }
+
+    /**
+     * Adds the id to the current generation, rotating first when it is full.
+     * @param id id to add
+     */
+    void add(UUID id) {
+        var generation = current;
+        if (generation.insertions.incrementAndGet() > capacity) {
+            generation = rotate(generation);
+        }
+        long h1 = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+        long h2 = mix(id.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            generation.set(Math.floorMod(h1 + i * h2, bitsPerGeneration));
+        }
+    }
+
+    /**
+     * @param id id to test
+     * @return false when the id was definitely not added in the last two generations
+     */
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+        long h2 = mix(id.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1;
+        return current.containsAll(h1, h2, hashes, bitsPerGeneration)
+                || previous.containsAll(h1, h2, hashes, bitsPerGeneration);
+    }
+
+    /**
+     * @return memory taken by the bit arrays, in bytes
+     */
+    long sizeInBytes() {
+        return 2 * bitsPerGeneration / 8;
+    }
+
+    private synchronized Generation rotate(Generation full) {
+        if (current == full) {
+            previous = full;
+            current = new Generation(bitsPerGeneration);
+        }
+        return current;
+    }
+
+    /** MurmurHash3 64-bit finalizer. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Generation(long bits) {
+            this.words = new AtomicLongArray((int) (bits / 64));
+        }
+
+        private void set(long bit) {
+            int index = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            if ((words.get(index) & mask) == 0) {
+                words.getAndAccumulate(index, mask, (a, b) -> a | b);
+            }
+        }
+
+        private boolean containsAll(long h1, long h2, int hashes, long bits) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -23,6 +23,12 @@ public class AccountEntity {
      */
     @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal balance;
+    /**
+     * Version of the row, incremented on every balance change (optimistic concurrency).
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
     /**
      * The list of transactions associated with the account.
      */
@@ -62,6 +68,14 @@ public class AccountEntity {
         this.balance = balance;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<TransactionEntity> getTransactions() {
         return transactions;
     }
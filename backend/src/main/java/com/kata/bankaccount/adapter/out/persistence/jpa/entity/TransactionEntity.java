@@ -2,6 +2,7 @@ package com.kata.bankaccount.adapter.out.persistence.jpa.entity;
 
 import com.kata.bankaccount.domain.model.TransactionType;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -12,7 +13,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "transactions")
-public class TransactionEntity {
+public class TransactionEntity implements Persistable<UUID> {
     /**
      * The transaction ID.
      */
@@ -51,6 +52,19 @@ public class TransactionEntity {
     @Column(name = "resulting_balance", nullable = false, precision = 19, scale = 4)
     private BigDecimal resultingBalance;
 
+    /**
+     * Idempotency key of the request that created the transaction, unique when present.
+     */
+    @Column(name = "operation_id")
+    private UUID operationId;
+
+    /**
+     * Whether the entity has never been persisted. Transactions are append-only with assigned ids,
+     * so this lets {@code save} issue a plain INSERT instead of a merge (SELECT then INSERT).
+     */
+    @Transient
+    private boolean isNew = true;
+
     /**
      * Default constructor for JPA.
      */
@@ -76,6 +90,7 @@ public class TransactionEntity {
         this.resultingBalance = resultingBalance;
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -123,4 +138,26 @@ public class TransactionEntity {
     public void setResultingBalance(BigDecimal resultingBalance) {
         this.resultingBalance = resultingBalance;
     }
+
+    public UUID getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(UUID operationId) {
+        this.operationId = operationId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Marks the entity as stored once it has been loaded or persisted.
+     */
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
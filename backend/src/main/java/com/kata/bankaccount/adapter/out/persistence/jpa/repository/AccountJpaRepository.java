@@ -2,11 +2,15 @@ package com.kata.bankaccount.adapter.out.persistence.jpa.repository;
 
 import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,11 +30,67 @@ public interface AccountJpaRepository extends JpaRepository<AccountEntity, UUID>
     Optional<AccountEntity> lockById(@Param("id") UUID id);
 
     /**
-     * Fetch the account with its transactions to append new items.
+     * Fetch the account with its whole transaction history.
+     * Not used on the write path, which appends new transactions without loading existing ones.
      *
      * @param id the account ID
      * @return the account entity with transactions
      */
     @Query("select a from AccountEntity a left join fetch a.transactions where a.id = :id")
     Optional<AccountEntity> findByIdWithTransactions(@Param("id") UUID id);
+
+    /**
+     * Add the amount to the balance in a single statement.
+     *
+     * @param id     the account ID
+     * @param amount the amount to add
+     * @return the number of updated rows (0 when the account does not exist)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountEntity a set a.balance = a.balance + :amount, a.version = a.version + 1 where a.id = :id")
+    int addToBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Subtract the amount from the balance only when the balance covers it.
+     *
+     * @param id     the account ID
+     * @param amount the amount to subtract
+     * @return the number of updated rows (0 when the account does not exist or funds are insufficient)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountEntity a set a.balance = a.balance - :amount, a.version = a.version + 1 "
+            + "where a.id = :id and a.balance >= :amount")
+    int subtractIfCovered(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Set the balance only when the row still has the expected version (compare-and-set).
+     *
+     * @param id      the account ID
+     * @param balance the new balance
+     * @param version the version the new balance was computed from
+     * @return the number of updated rows (0 when the account was changed concurrently or does not exist)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountEntity a set a.balance = :balance, a.version = a.version + 1 "
+            + "where a.id = :id and a.version = :version")
+    int updateBalanceIfVersion(@Param("id") UUID id, @Param("balance") BigDecimal balance, @Param("version") long version);
+
+    /**
+     * First page of account ids, in ascending order (primary key scan).
+     *
+     * @param page first page of the wanted size
+     * @return the ids
+     */
+    @Query("select a.id from AccountEntity a order by a.id")
+    List<UUID> findIds(Pageable page);
+
+    /**
+     * Next page of account ids: those strictly after the last id of the previous page.
+     *
+     * @param after last id of the previous page
+     * @param page  first page of the wanted size
+     * @return the ids
+     */
+    @Query("select a.id from AccountEntity a where a.id > :after order by a.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable page);
 }
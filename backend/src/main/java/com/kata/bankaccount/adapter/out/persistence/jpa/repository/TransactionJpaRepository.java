@@ -1,50 +1,87 @@
 package com.kata.bankaccount.adapter.out.persistence.jpa.repository;
 
 import com.kata.bankaccount.adapter.out.persistence.jpa.entity.TransactionEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Spring Data JPA repository for transaction entities with convenience queries.
+ * Spring Data JPA repository for transaction entities with paging and idempotency queries.
  */
 public interface TransactionJpaRepository extends JpaRepository<TransactionEntity, UUID> {
 
     /**
-     * Derived queries to avoid null-parameter type inference issues on PostgreSQL
+     * Returns the first page of transactions of the account between the given timestamps (inclusive),
+     * ordered by timestamp then id, descending. Bounds are never null (see the adapter), which avoids
+     * null-parameter type inference issues on PostgreSQL.
      *
      * @param accountId the account ID
-     * @return List of transactions for the account ordered by timestamp descending
+     * @param from      the start timestamp (inclusive)
+     * @param to        the end timestamp (inclusive)
+     * @param page      first page of the wanted size
+     * @return at most one page of transactions
      */
-    List<TransactionEntity> findByAccount_IdOrderByTimestampDesc(UUID accountId);
+    @Query("select t from TransactionEntity t where t.account.id = :accountId "
+            + "and t.timestamp >= :from and t.timestamp <= :to "
+            + "order by t.timestamp desc, t.id desc")
+    List<TransactionEntity> findFirstPage(@Param("accountId") UUID accountId, @Param("from") Instant from,
+                                          @Param("to") Instant to, Pageable page);
 
     /**
-     * Returns transactions for the given account from the given timestamp (inclusive) ordered by timestamp descending.
+     * Returns the page of transactions that follows the given (timestamp, id) key: a seek on the
+     * (account_id, timestamp, id) order, not an offset, so every page costs the same.
      *
-     * @param accountId the account ID
-     * @param from      the start timestamp (inclusive)
-     * @return List of transactions for the account from the given timestamp ordered by timestamp descending
+     * @param accountId      the account ID
+     * @param from           the start timestamp (inclusive)
+     * @param to             the end timestamp (inclusive)
+     * @param afterTimestamp timestamp of the last row of the previous page
+     * @param afterId        id of the last row of the previous page
+     * @param page           first page of the wanted size
+     * @return at most one page of transactions
      */
-    List<TransactionEntity> findByAccount_IdAndTimestampGreaterThanEqualOrderByTimestampDesc(UUID accountId, Instant from);
+    @Query("select t from TransactionEntity t where t.account.id = :accountId "
+            + "and t.timestamp >= :from and t.timestamp <= :to "
+            + "and (t.timestamp < :afterTimestamp or (t.timestamp = :afterTimestamp and t.id < :afterId)) "
+            + "order by t.timestamp desc, t.id desc")
+    List<TransactionEntity> findPageAfter(@Param("accountId") UUID accountId, @Param("from") Instant from,
+                                          @Param("to") Instant to, @Param("afterTimestamp") Instant afterTimestamp,
+                                          @Param("afterId") UUID afterId, Pageable page);
 
     /**
-     * Returns transactions for the given account up to the given timestamp (inclusive) ordered by timestamp descending.
+     * Returns the resulting balances of the account's latest transactions at or before the given instant,
+     * latest first: one seek on the (account_id, timestamp, id) index, whatever the history size.
      *
      * @param accountId the account ID
-     * @param to        the end timestamp (inclusive)
-     * @return List of transactions for the account up to the given timestamp ordered by timestamp descending
+     * @param at        the instant (inclusive)
+     * @param page      first page of the wanted size, one row being enough
+     * @return at most one page of balances
      */
-    List<TransactionEntity> findByAccount_IdAndTimestampLessThanEqualOrderByTimestampDesc(UUID accountId, Instant to);
+    @Query("select t.resultingBalance from TransactionEntity t where t.account.id = :accountId "
+            + "and t.timestamp <= :at "
+            + "order by t.timestamp desc, t.id desc")
+    List<BigDecimal> findLatestBalances(@Param("accountId") UUID accountId, @Param("at") Instant at, Pageable page);
 
     /**
-     * Returns transactions for the given account between the given timestamps (inclusive) ordered by timestamp descending.
+     * Returns the transaction recorded under the given idempotency key.
      *
-     * @param accountId the account ID
-     * @param from      the start timestamp (inclusive)
-     * @param to        the end timestamp (inclusive)
-     * @return List of transactions for the account between the given timestamps ordered by timestamp descending
+     * @param operationId the operation ID
+     * @return the transaction, if any
+     */
+    Optional<TransactionEntity> findByOperationId(UUID operationId);
+
+    /**
+     * Returns the transactions recorded under any of the given idempotency keys.
+     *
+     * @param operationIds the operation IDs
+     * @return matching transactions, in no particular order
      */
-    List<TransactionEntity> findByAccount_IdAndTimestampBetweenOrderByTimestampDesc(UUID accountId, Instant from, Instant to);
+    List<TransactionEntity> findByOperationIdIn(Collection<UUID> operationIds);
 }
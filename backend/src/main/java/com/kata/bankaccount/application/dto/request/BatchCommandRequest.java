@@ -0,0 +1,46 @@
+package com.kata.bankaccount.application.dto.request;
+
+import com.kata.bankaccount.domain.model.TransactionType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request payload for the batch endpoint: deposits and withdrawals on one or more accounts.
+ */
+public record BatchCommandRequest(
+        @NotEmpty(message = "commands must not be empty")
+        List<@Valid @NotNull(message = "command is required") Command> commands,
+        Atomicity atomicity
+) {
+
+    /**
+     * One deposit or withdrawal, with its own idempotency key.
+     */
+    public record Command(
+            @NotNull(message = "type is required")
+            TransactionType type,
+            @NotNull(message = "accountId is required")
+            UUID accountId,
+            @NotNull(message = "amount is required")
+            @DecimalMin(value = "0.01", message = "amount must be > 0")
+            BigDecimal amount,
+            @NotNull(message = "operationId is required")
+            UUID operationId
+    ) {}
+
+    /**
+     * How failures inside a batch affect the other commands.
+     */
+    public enum Atomicity {
+        /** Each account's commands commit on their own; a rejected command does not affect the others (default). */
+        PER_COMMAND,
+        /** Everything commits in one transaction, or nothing does if any command is rejected. */
+        ALL_OR_NOTHING
+    }
+}
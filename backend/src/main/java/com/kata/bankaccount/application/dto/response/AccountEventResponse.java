@@ -0,0 +1,18 @@
+package com.kata.bankaccount.application.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Account change pushed to event stream subscribers. The first event of a stream is the current state,
+ * without transactions.
+ *
+ * @param accountId    account identifier
+ * @param balance      balance after the change
+ * @param version      account version after the change: an event with a lower version than one already
+ *                     received is older and carries no newer balance
+ * @param transactions transactions of the change, oldest first
+ */
+public record AccountEventResponse(UUID accountId, BigDecimal balance, long version,
+                                   List<TransactionResponse> transactions) {}
@@ -0,0 +1,11 @@
+package com.kata.bankaccount.application.dto.response;
+
+import com.kata.bankaccount.domain.model.Granularity;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Account activity by period, oldest first; periods without any transaction are left out.
+ */
+public record AccountSummaryResponse(UUID accountId, Granularity granularity, List<PeriodSummaryResponse> periods) {}
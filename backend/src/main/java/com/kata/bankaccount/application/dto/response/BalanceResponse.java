@@ -0,0 +1,10 @@
+package com.kata.bankaccount.application.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Balance of an account as of a past instant.
+ */
+public record BalanceResponse(UUID accountId, Instant at, BigDecimal balance) {}
@@ -0,0 +1,50 @@
+package com.kata.bankaccount.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Application-level response for a batch of commands: one result per command, in request order.
+ *
+ * @param committed false when an all-or-nothing batch was rolled back
+ * @param results   outcome of each command
+ */
+public record BatchCommandResponse(boolean committed, List<Result> results) {
+
+    /**
+     * Outcome of one command.
+     *
+     * @param operationId idempotency key of the command
+     * @param accountId   target account
+     * @param status      what happened to the command
+     * @param balance     account balance right after the command, absent when unknown
+     * @param code        error code when rejected (same codes as the single-command endpoints)
+     * @param message     error message when rejected
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(
+            UUID operationId,
+            UUID accountId,
+            Status status,
+            BigDecimal balance,
+            String code,
+            String message
+    ) {}
+
+    /**
+     * Status of one command.
+     */
+    public enum Status {
+        /** Newly applied. */
+        APPLIED,
+        /** The operation id was already applied; nothing changed. */
+        ALREADY_APPLIED,
+        /** Rejected (invalid amount, insufficient funds, unknown account). */
+        REJECTED,
+        /** Valid, but undone because another command of an all-or-nothing batch was rejected. */
+        ROLLED_BACK
+    }
+}
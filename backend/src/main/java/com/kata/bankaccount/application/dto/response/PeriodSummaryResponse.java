@@ -0,0 +1,15 @@
+package com.kata.bankaccount.application.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Deposits and withdrawals of one day or month.
+ */
+public record PeriodSummaryResponse(
+        LocalDate period,
+        long depositCount,
+        BigDecimal depositTotal,
+        long withdrawalCount,
+        BigDecimal withdrawalTotal
+) {}
@@ -0,0 +1,46 @@
+package com.kata.bankaccount.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Application-level response describing a statement export job.
+ *
+ * @param jobId     job identifier
+ * @param accountId exported account
+ * @param from      inclusive start date, absent when open
+ * @param to        inclusive end date, absent when open
+ * @param status    progress of the job
+ * @param size      size of the CSV file in bytes, once ready
+ * @param expiresAt when the job and its file are deleted, once finished
+ * @param message   failure reason, when failed
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StatementJobResponse(
+        UUID jobId,
+        UUID accountId,
+        LocalDate from,
+        LocalDate to,
+        Status status,
+        Long size,
+        Instant expiresAt,
+        String message
+) {
+
+    /**
+     * Progress of a statement export job.
+     */
+    public enum Status {
+        /** Waiting for a free export worker. */
+        QUEUED,
+        /** The CSV file is being written. */
+        RUNNING,
+        /** The CSV file can be downloaded. */
+        READY,
+        /** The export failed; no file is available. */
+        FAILED
+    }
+}
@@ -0,0 +1,14 @@
+package com.kata.bankaccount.application.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of an account history.
+ *
+ * @param items transactions sorted by timestamp desc
+ * @param next  opaque cursor of the following page, null on the last page
+ */
+public record TransactionPageResponse(
+        List<TransactionResponse> items,
+        String next
+) {}
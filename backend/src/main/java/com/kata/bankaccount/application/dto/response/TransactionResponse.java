@@ -1,5 +1,6 @@
 package com.kata.bankaccount.application.dto.response;
 
+import com.kata.bankaccount.domain.model.Transaction;
 import com.kata.bankaccount.domain.model.TransactionType;
 
 import java.math.BigDecimal;
@@ -13,5 +14,15 @@ public record TransactionResponse(
         BigDecimal amount,
         Instant timestamp,
         BigDecimal resultingBalance
-) {}
+) {
+
+    /**
+     * @param transaction domain transaction
+     * @return its read model
+     */
+    public static TransactionResponse from(Transaction transaction) {
+        return new TransactionResponse(transaction.getType(), transaction.getAmount(), transaction.getTimestamp(),
+                transaction.getResultingBalance());
+    }
+}
 
@@ -0,0 +1,20 @@
+package com.kata.bankaccount.application.ports.in;
+
+import com.kata.bankaccount.application.dto.response.AccountSummaryResponse;
+import com.kata.bankaccount.domain.model.Granularity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/** Input port to summarize account activity by day or month. */
+public interface AccountSummaryUseCase {
+    /**
+     * Returns deposit and withdrawal counts and totals per period, read from the rollups only.
+     * @param accountId account identifier
+     * @param granularity day or month
+     * @param from inclusive start date, or null; with months, the month containing it
+     * @param to inclusive end date, or null; with months, the month containing it
+     * @return the non-empty periods, oldest first
+     */
+    AccountSummaryResponse summary(UUID accountId, Granularity granularity, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,22 @@
+package com.kata.bankaccount.application.ports.in;
+
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse;
+
+import java.util.List;
+
+/**
+ * Use case for applying many deposits and withdrawals in one call.
+ */
+public interface BatchCommandUseCase {
+
+    /**
+     * Applies the commands, grouped by account so that each account is locked once.
+     * Every command is idempotent on its own operation id.
+     * @param commands commands in request order
+     * @param atomicity failure mode; null means {@link BatchCommandRequest.Atomicity#PER_COMMAND}
+     * @return one result per command, in request order
+     * @throws IllegalArgumentException when the batch exceeds the configured size limit
+     */
+    BatchCommandResponse execute(List<BatchCommandRequest.Command> commands, BatchCommandRequest.Atomicity atomicity);
+}
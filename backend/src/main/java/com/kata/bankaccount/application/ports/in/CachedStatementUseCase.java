@@ -0,0 +1,69 @@
+package com.kata.bankaccount.application.ports.in;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Use case to serve statements of closed periods, which can no longer change, from a cache.
+ */
+public interface CachedStatementUseCase {
+
+    /**
+     * Tells whether a statement ending on the given date is final. Open-ended periods and periods
+     * including today are not, and must be exported with {@link ExportStatementUseCase}.
+     * @param to inclusive end date (optional, UTC)
+     * @return true when the statement can be served from the cache
+     */
+    boolean isCacheable(LocalDate to);
+
+    /**
+     * Returns the CSV statement of a closed period, exported on first use and then kept in the cache.
+     * The content is the one of {@link ExportStatementUseCase#exportStatementCsv}.
+     * @param accountId account identifier
+     * @param from inclusive start date (optional, UTC)
+     * @param to inclusive end date, before today (UTC)
+     * @return the opened statement, to close once sent
+     * Throws AccountNotFoundException when the account is absent, and IllegalArgumentException
+     * when the period is not closed.
+     */
+    CachedStatement statement(UUID accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Representations of a cached statement.
+     */
+    enum Encoding {
+        /** The CSV as exported. */
+        IDENTITY,
+        /** The CSV gzip-compressed, as stored in the cache. */
+        GZIP
+    }
+
+    /**
+     * An immutable statement opened for reading. It stays readable until closed, even if the cache
+     * evicts it meanwhile.
+     */
+    interface CachedStatement extends Closeable {
+        /**
+         * @param encoding representation
+         * @return digest of the content, usable as a strong entity tag of this representation
+         */
+        String etag(Encoding encoding);
+
+        /**
+         * @param encoding representation
+         * @return size of this representation in bytes
+         */
+        long length(Encoding encoding);
+
+        /**
+         * Writes the whole content, once per opened statement.
+         * @param out destination, not closed
+         * @param encoding representation to write
+         * @throws IOException when writing fails
+         */
+        void transferTo(OutputStream out, Encoding encoding) throws IOException;
+    }
+}
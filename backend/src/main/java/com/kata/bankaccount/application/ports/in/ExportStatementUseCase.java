@@ -1,5 +1,7 @@
 package com.kata.bankaccount.application.ports.in;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -9,12 +11,29 @@ import java.util.UUID;
 public interface ExportStatementUseCase {
 
     /**
-     * Generates a CSV statement for the given account and optional date range.
+     * Streams a CSV statement for the given account and optional date range to the sink, row by row,
+     * so memory does not grow with the statement size. The sink is opened only once the account is
+     * known to exist; a failing write (e.g. the client disconnected) stops the export.
      * Columns: date,operation,amount,balance
      * @param accountId account identifier
      * @param from inclusive start date (optional, UTC)
      * @param to inclusive end date (optional, UTC)
-     * @return CSV content with header
+     * @param sink destination of the CSV content with header
+     * Throws AccountNotFoundException when the account is absent, before the sink is opened,
+     * and UncheckedIOException when writing to the sink fails.
      */
-    String statementCsv(UUID accountId, LocalDate from, LocalDate to);
+    void exportStatementCsv(UUID accountId, LocalDate from, LocalDate to, StatementSink sink);
+
+    /**
+     * Destination of a statement, opened lazily so that errors detected before the first row
+     * can still be answered normally.
+     */
+    @FunctionalInterface
+    interface StatementSink {
+        /**
+         * @return the writer receiving the CSV content; flushed but not closed by the export
+         * @throws IOException when the destination cannot be opened
+         */
+        Writer open() throws IOException;
+    }
 }
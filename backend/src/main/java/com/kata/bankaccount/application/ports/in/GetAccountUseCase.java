@@ -1,10 +1,12 @@
 package com.kata.bankaccount.application.ports.in;
 
 import com.kata.bankaccount.application.dto.response.AccountResponse;
+import com.kata.bankaccount.application.dto.response.BalanceResponse;
 
+import java.time.Instant;
 import java.util.UUID;
 
-/** Input port to retrieve a basic account projection. */
+/** Input port to retrieve a basic account projection and its past balances. */
 public interface GetAccountUseCase {
     /** Returns id and balance for the given account.
      * Returns a read projection of the account.
@@ -12,4 +14,20 @@ public interface GetAccountUseCase {
      * @return id and current balance
      */
     AccountResponse getAccountById(UUID accountId);
+
+    /**
+     * Returns the version of the account, incremented by every balance change and hence by every
+     * transaction appended: a validator for the account and its history, read without loading either.
+     * @param accountId account identifier
+     * @return current version
+     */
+    long version(UUID accountId);
+
+    /**
+     * Returns the balance the account had at the given instant, zero before its first transaction.
+     * @param accountId account identifier
+     * @param at instant (inclusive)
+     * @return id, instant and balance
+     */
+    BalanceResponse balanceAt(UUID accountId, Instant at);
 }
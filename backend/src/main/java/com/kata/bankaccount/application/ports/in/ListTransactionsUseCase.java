@@ -1,9 +1,8 @@
 package com.kata.bankaccount.application.ports.in;
 
-import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.UUID;
 /**
  * Use case for listing account transactions.
@@ -11,11 +10,23 @@ import java.util.UUID;
 public interface ListTransactionsUseCase {
 
     /**
-     * List transactions of an account, optionally filtered by [from, to], sorted by timestamp desc.
+     * List one page of transactions of an account, optionally filtered by [from, to], sorted by timestamp desc.
      * @param accountId account identifier
      * @param from inclusive start timestamp (optional)
      * @param to inclusive end timestamp (optional)
-     * @return transactions sorted by timestamp desc
+     * @param cursor opaque cursor returned as {@code next} by the previous page (optional)
+     * @param limit maximum number of transactions in the page
+     * @return transactions sorted by timestamp desc and the cursor of the next page
+     * Throws IllegalArgumentException when the cursor or the limit is invalid.
      */
-    List<TransactionResponse> transactions(UUID accountId, Instant from, Instant to);
+    TransactionPageResponse transactions(UUID accountId, Instant from, Instant to, String cursor, int limit);
+
+    /**
+     * Tells whether pages may lag behind committed writes. When they do, the account version does not
+     * describe the page served and cannot be used to answer conditional requests.
+     * @return true when pages are read from a copy updated after the writes
+     */
+    default boolean isEventuallyConsistent() {
+        return false;
+    }
 }
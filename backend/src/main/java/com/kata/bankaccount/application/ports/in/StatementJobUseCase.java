@@ -0,0 +1,43 @@
+package com.kata.bankaccount.application.ports.in;
+
+import com.kata.bankaccount.application.dto.response.StatementJobResponse;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Use case to export an account statement in the background and download it once written.
+ */
+public interface StatementJobUseCase {
+
+    /**
+     * Queues the export of a CSV statement, in the format of {@link ExportStatementUseCase}.
+     * @param accountId account identifier
+     * @param from inclusive start date (optional, UTC)
+     * @param to inclusive end date (optional, UTC)
+     * @return the queued job
+     * Throws AccountNotFoundException when the account is absent, and StatementJobRejectedException
+     * when too many exports are already queued.
+     */
+    StatementJobResponse submit(UUID accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Returns the current state of a job.
+     * @param accountId account identifier
+     * @param jobId job identifier
+     * @return the job
+     * Throws StatementJobNotFoundException when the job is unknown for this account or has expired.
+     */
+    StatementJobResponse status(UUID accountId, UUID jobId);
+
+    /**
+     * Returns the CSV file written by a completed job. The file stays in place until the job expires.
+     * @param accountId account identifier
+     * @param jobId job identifier
+     * @return path of the CSV file
+     * Throws StatementJobNotFoundException when the job is unknown for this account or has expired,
+     * and StatementJobNotReadyException when the job is still running or has failed.
+     */
+    Path file(UUID accountId, UUID jobId);
+}
@@ -0,0 +1,14 @@
+package com.kata.bankaccount.application.ports.out;
+
+/**
+ * Port the account persistence adapter calls for every change it writes, inside the writing transaction.
+ * What follows the commit (caches, event streams) is decided behind it, so the adapter only persists.
+ */
+public interface AccountChangeHook {
+    /**
+     * Records a change written in the current transaction, to be handed on only if it commits.
+     * @param change new state of the account and the transactions appended, none when only the balance
+     *               was written
+     */
+    void changed(AccountEvent change);
+}
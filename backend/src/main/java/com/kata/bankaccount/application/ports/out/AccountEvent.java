@@ -0,0 +1,18 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Committed change of an account: the transactions one database transaction appended to it and the
+ * balance they led to.
+ *
+ * @param accountId    account identifier
+ * @param balance      balance after the transactions
+ * @param version      version of the account row after the change, to order events that arrive out of order
+ * @param transactions transactions appended, oldest first; empty when only the balance was written
+ */
+public record AccountEvent(UUID accountId, BigDecimal balance, long version, List<Transaction> transactions) {}
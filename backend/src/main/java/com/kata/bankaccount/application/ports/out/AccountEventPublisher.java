@@ -0,0 +1,13 @@
+package com.kata.bankaccount.application.ports.out;
+
+/**
+ * Output port notified of every committed account change.
+ */
+public interface AccountEventPublisher {
+    /**
+     * Publishes a change once it is committed. Must not block on slow consumers: it runs on the thread that
+     * committed the write. A change may carry no transactions, when only the balance was written.
+     * @param event the committed change
+     */
+    void publish(AccountEvent event);
+}
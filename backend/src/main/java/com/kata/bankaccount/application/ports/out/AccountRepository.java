@@ -1,11 +1,16 @@
 package com.kata.bankaccount.application.ports.out;
 
 import com.kata.bankaccount.domain.model.Account;
+import com.kata.bankaccount.domain.model.Transaction;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Persistence port for Accounts. The implementation is expected to use a pessimistic lock in {@link #lockById(UUID)}.
+ * Persistence port for Accounts. The implementation is expected to use a pessimistic lock in {@link #lockById(UUID)};
+ * {@link #saveIfVersionMatches(Account)} and the atomic balance updates are lock-free alternatives.
  */
 public interface AccountRepository {
     /**
@@ -18,14 +23,70 @@ public interface AccountRepository {
 
     /**
      * Persist the account's state (balance and transactions).
+     * The transactions carried by the aggregate are the ones created since it was loaded;
+     * they are appended to the stored history, which is never read back on this path.
+     * A transaction whose operation id is already recorded fails with a
+     * {@link org.springframework.dao.DataIntegrityViolationException}.
      * @param account account to save
      */
     void save(Account account);
 
+    /**
+     * Persist the account's state only if the stored version is still the one it was loaded with
+     * ({@link Account#getVersion()}); nothing is written otherwise.
+     * @param account account to save
+     * @return false when the account was changed concurrently since it was loaded
+     */
+    boolean saveIfVersionMatches(Account account);
+
     /**
      * Load the account without acquiring a lock. Throws AccountNotFoundException when absent.
+     * The state may come from a cache: it is committed, but may be outdated by a write of another instance,
+     * so a write based on it must be conditional on its version.
      * @param accountId account identifier
      * @return account without lock
      */
     Account findById(UUID accountId);
+
+    /**
+     * Checks that the account exists without loading or locking it, for read paths.
+     * @param accountId account identifier
+     * @return true when the account exists
+     */
+    boolean existsById(UUID accountId);
+
+    /**
+     * Atomically adds the amount to the stored balance in a single statement, without a prior lock.
+     * Throws AccountNotFoundException when absent.
+     * @param accountId account identifier
+     * @param amount positive amount to add
+     * @return balance after the change
+     */
+    BigDecimal addToBalance(UUID accountId, BigDecimal amount);
+
+    /**
+     * Atomically subtracts the amount from the stored balance when it covers it, in a single guarded statement.
+     * Throws AccountNotFoundException when absent; a balance too low is reported as an empty result, for the
+     * caller to raise the domain error.
+     * @param accountId account identifier
+     * @param amount positive amount to subtract
+     * @return balance after the change, or empty when the balance does not cover the amount
+     */
+    Optional<BigDecimal> subtractFromBalance(UUID accountId, BigDecimal amount);
+
+    /**
+     * Appends a transaction to the account history without loading the account.
+     * Fails like {@link #save(Account)} when its operation id is already recorded.
+     * @param accountId account identifier
+     * @param transaction transaction to append
+     */
+    void appendTransaction(UUID accountId, Transaction transaction);
+
+    /**
+     * Lists account ids in ascending order, one page at a time, without loading the accounts.
+     * @param after last id of the previous page, or null for the first page
+     * @param limit maximum number of ids
+     * @return the ids following {@code after}
+     */
+    List<UUID> findIds(UUID after, int limit);
 }
@@ -0,0 +1,19 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of an operation that was already applied, as recorded on its transaction row.
+ *
+ * @param operationId      idempotency key
+ * @param accountId        account the operation was applied to
+ * @param type             DEPOSIT or WITHDRAWAL
+ * @param resultingBalance balance right after the operation
+ * @param appliedAt        timestamp of its transaction, from which the retention window runs
+ */
+public record AppliedOperation(UUID operationId, UUID accountId, TransactionType type, BigDecimal resultingBalance,
+                               Instant appliedAt) {}
@@ -1,23 +1,28 @@
 package com.kata.bankaccount.application.ports.out;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Port for idempotency tracking of operations.
+ * Port for idempotency lookups. An operation is applied when a transaction carries its operation id;
+ * the unique constraint on that column rejects a second application, so writes never need to check first.
  */
 public interface OperationRepository {
     /**
-     * Checks whether the given operation id already exists.
+     * Returns the recorded outcome of an applied operation.
      *
      * @param operationId idempotency key
-     * @return true if operation id is already present
+     * @return the outcome, empty when the operation was never applied
      */
-    boolean exists(UUID operationId);
+    Optional<AppliedOperation> findByOperationId(UUID operationId);
 
     /**
-     * Persists the operation id if not present.
+     * Returns, in a single lookup, the recorded outcomes of the given operation ids that were applied.
      *
-     * @param operationId operationId key
+     * @param operationIds idempotency keys
+     * @return outcomes keyed by operation id, only for applied operations
      */
-    void save(UUID operationId);
+    Map<UUID, AppliedOperation> findByOperationIds(Collection<UUID> operationIds);
 }
@@ -0,0 +1,23 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Account event recorded in the outbox: one transaction, written in the database transaction that
+ * appended it.
+ *
+ * @param id               outbox sequence number, increasing in commit order for a given account
+ * @param accountId        account identifier
+ * @param transactionId    transaction identifier; delivery is at least once, so consumers deduplicate on it
+ * @param operationId      idempotency key of the request that created the transaction (optional)
+ * @param type             transaction type
+ * @param amount           operation amount
+ * @param resultingBalance balance after the transaction
+ * @param occurredAt       transaction timestamp
+ */
+public record OutboxEvent(long id, UUID accountId, UUID transactionId, UUID operationId, TransactionType type,
+                          BigDecimal amount, BigDecimal resultingBalance, Instant occurredAt) {}
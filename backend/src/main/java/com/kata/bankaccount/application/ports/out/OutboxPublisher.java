@@ -0,0 +1,16 @@
+package com.kata.bankaccount.application.ports.out;
+
+import java.util.List;
+
+/**
+ * Output port receiving the outbox events, in batches, from the relay.
+ */
+public interface OutboxPublisher {
+    /**
+     * Publishes a batch durably before returning. A batch that throws is published again later, in full:
+     * implementations must accept seeing an event twice.
+     * @param events events ordered by id, hence in commit order for each account
+     * @throws RuntimeException when the batch could not be published
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,23 @@
+package com.kata.bankaccount.application.ports.out;
+
+import java.util.List;
+
+/**
+ * Persistence port for the account outbox. Events are written by the persistence adapter in the same
+ * transaction as every new transaction row, and removed once relayed.
+ */
+public interface OutboxRepository {
+    /**
+     * Takes the relay lock until the caller's transaction ends, so relays on several instances take turns,
+     * and reads the oldest events left in the outbox.
+     * @param limit events read at most
+     * @return the events, in id order
+     */
+    List<OutboxEvent> lockOldest(int limit);
+
+    /**
+     * Removes relayed events and checkpoints the last one, in the caller's transaction.
+     * @param events events handed to the publisher, in id order
+     */
+    void remove(List<OutboxEvent> events);
+}
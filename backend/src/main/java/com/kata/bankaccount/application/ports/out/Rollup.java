@@ -0,0 +1,43 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Deposit and withdrawal counts and totals of one account over one period.
+ *
+ * @param periodStart     first day of the period
+ * @param depositCount    number of deposits
+ * @param depositTotal    sum of the deposited amounts
+ * @param withdrawalCount number of withdrawals
+ * @param withdrawalTotal sum of the withdrawn amounts
+ */
+public record Rollup(LocalDate periodStart, long depositCount, BigDecimal depositTotal,
+                     long withdrawalCount, BigDecimal withdrawalTotal) {
+
+    /**
+     * Rollup of transactions of a single type.
+     * @param periodStart first day of the period
+     * @param type        type of the transactions
+     * @param count       number of transactions
+     * @param total       sum of their amounts
+     * @return the rollup, zero for the other type
+     */
+    public static Rollup of(LocalDate periodStart, TransactionType type, long count, BigDecimal total) {
+        return type == TransactionType.DEPOSIT
+                ? new Rollup(periodStart, count, total, 0, BigDecimal.ZERO)
+                : new Rollup(periodStart, 0, BigDecimal.ZERO, count, total);
+    }
+
+    /**
+     * Adds up two rollups of the same period.
+     * @param other rollup of the same period
+     * @return the sum
+     */
+    public Rollup plus(Rollup other) {
+        return new Rollup(periodStart, depositCount + other.depositCount, depositTotal.add(other.depositTotal),
+                withdrawalCount + other.withdrawalCount, withdrawalTotal.add(other.withdrawalTotal));
+    }
+}
@@ -0,0 +1,30 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.Granularity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence port for the per-account daily and monthly rollups. They are maintained by the
+ * persistence adapter in the same transaction as every new transaction row.
+ */
+public interface RollupRepository {
+    /**
+     * Returns the non-empty periods of the account between the bounds, oldest first.
+     * @param accountId account identifier
+     * @param granularity size of the periods
+     * @param from first period start (inclusive), or null for no lower bound
+     * @param to last period start (inclusive), or null for no upper bound
+     * @return one rollup per period with at least one transaction
+     */
+    List<Rollup> findRollups(UUID accountId, Granularity granularity, LocalDate from, LocalDate to);
+
+    /**
+     * Recomputes the account's rollups from its transaction history, in one transaction holding the
+     * account lock so that no deposit or withdrawal is counted twice or missed.
+     * @param accountId account identifier
+     */
+    void rebuild(UUID accountId);
+}
@@ -0,0 +1,42 @@
+package com.kata.bankaccount.application.ports.out;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in an account history ordered by (timestamp desc, id desc): the key of the last row of a page.
+ * The next page starts strictly after it, so reading it costs the same index seek at any depth.
+ * Clients only see it as an opaque string, see {@link #encode()}.
+ *
+ * @param timestamp timestamp of the last row returned
+ * @param id        id of the last row returned, breaking ties between equal timestamps
+ */
+public record TransactionCursor(Instant timestamp, UUID id) {
+
+    /**
+     * @return URL-safe opaque form of the cursor
+     */
+    public String encode() {
+        var raw = timestamp.getEpochSecond() + ":" + timestamp.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a cursor produced by {@link #encode()}.
+     * @param cursor opaque cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException when the value is not a valid cursor
+     */
+    public static TransactionCursor decode(String cursor) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            return new TransactionCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
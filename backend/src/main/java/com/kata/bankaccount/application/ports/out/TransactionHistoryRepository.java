@@ -0,0 +1,40 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.Transaction;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence port for the read model of the account histories: a copy of the transactions kept apart
+ * from the write path, projected from the outbox after each commit. It lags behind the transactions by
+ * the relay delay.
+ */
+public interface TransactionHistoryRepository {
+    /**
+     * Returns one page of the projected history, with the same order and paging as
+     * {@link TransactionRepository#findPage}.
+     * @param accountId account identifier
+     * @param from inclusive start timestamp (optional)
+     * @param to inclusive end timestamp (optional)
+     * @param after key of the last row of the previous page (optional, null for the first page)
+     * @param limit maximum number of rows returned
+     * @return transactions sorted by timestamp desc, id desc
+     */
+    List<Transaction> findPage(UUID accountId, Instant from, Instant to, TransactionCursor after, int limit);
+
+    /**
+     * Adds events to the read model, in the caller's transaction. An event already projected is
+     * written again with the same values, so redelivered events are harmless.
+     * @param events outbox events
+     */
+    void project(List<OutboxEvent> events);
+
+    /**
+     * Replaces the projected history of the account with a copy of its transactions, in one transaction
+     * holding the account lock so that no transaction is appended meanwhile.
+     * @param accountId account identifier
+     */
+    void rebuild(UUID accountId);
+}
@@ -2,20 +2,47 @@ package com.kata.bankaccount.application.ports.out;
 
 import com.kata.bankaccount.domain.model.Transaction;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Read port to fetch transactions (account statement).
  */
 public interface TransactionRepository {
     /**
-     * Returns transactions for the given account, filtered by optional period, sorted by timestamp desc.
+     * Returns one page of transactions for the given account, filtered by optional period,
+     * sorted by timestamp desc then id desc. Pages are read with a seek on that key rather than
+     * an offset, so a deep page costs the same as the first one.
      * @param accountId account identifier
      * @param from inclusive start timestamp (optional)
      * @param to inclusive end timestamp (optional)
-     * @return transactions sorted by timestamp desc
+     * @param after key of the last row of the previous page (optional, null for the first page)
+     * @param limit maximum number of rows returned
+     * @return transactions sorted by timestamp desc, id desc
      */
-    List<Transaction> findByAccountAndPeriod(UUID accountId, Instant from, Instant to);
+    List<Transaction> findPage(UUID accountId, Instant from, Instant to, TransactionCursor after, int limit);
+
+    /**
+     * Streams every transaction of the account in the optional period, sorted by timestamp desc then id desc,
+     * from a database cursor with a bounded fetch size: rows are handed to the action one at a time and
+     * never collected. An exception thrown by the action stops the query.
+     * @param accountId account identifier
+     * @param from inclusive start timestamp (optional)
+     * @param to inclusive end timestamp (optional)
+     * @param action called for each transaction, in order
+     */
+    void forEachInPeriod(UUID accountId, Instant from, Instant to, Consumer<Transaction> action);
+
+    /**
+     * Returns the balance of the account as of the given instant: the resulting balance of its latest
+     * transaction at or before it, by timestamp then id. Read with one index seek, whatever the history size.
+     * @param accountId account identifier
+     * @param at instant (inclusive)
+     * @return the balance, empty when the account had no transaction yet at that instant
+     */
+    Optional<BigDecimal> balanceAt(UUID accountId, Instant at);
 }
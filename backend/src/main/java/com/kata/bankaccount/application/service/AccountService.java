@@ -2,6 +2,8 @@ package com.kata.bankaccount.application.service;
 
 import com.kata.bankaccount.application.dto.response.DepositResponse;
 import com.kata.bankaccount.application.dto.response.AccountResponse;
+import com.kata.bankaccount.application.dto.response.BalanceResponse;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
 import com.kata.bankaccount.application.dto.response.TransactionResponse;
 import com.kata.bankaccount.application.dto.response.WithdrawResponse;
 import com.kata.bankaccount.application.ports.in.DepositUseCase;
@@ -11,82 +13,146 @@ import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
 import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
 import com.kata.bankaccount.application.ports.out.AccountRepository;
 import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.application.ports.out.TransactionCursor;
 import com.kata.bankaccount.application.ports.out.TransactionRepository;
+import com.kata.bankaccount.application.service.write.AccountWriteStrategy;
+import com.kata.bankaccount.application.service.write.WriteResult;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Application service orchestrating domain operations and persistence for accounts.
- * Implements the input ports exposed to the web layer.
+ * Implements the input ports exposed to the web layer. Balance changes are delegated to the
+ * configured {@link AccountWriteStrategy}; idempotency is enforced by the unique operation id
+ * of the transaction row rather than by a lookup before each write.
  */
 @Service
 @RequiredArgsConstructor
 public class AccountService implements DepositUseCase, WithdrawUseCase, ListTransactionsUseCase, GetAccountUseCase, ExportStatementUseCase {
+    static final int MAX_PAGE_SIZE = 500;
+    static final String STATEMENT_HEADER = "date,operation,amount,balance\n";
+
     private final AccountRepository accountRepository;
-    private final OperationRepository operationRepository;
     private final TransactionRepository transactionRepository;
-
+    private final OperationRepository operationRepository;
+    private final AccountWriteStrategy accountWriteStrategy;
+    private final TransactionOperations transactionOperations;
 
     @Override
-    @Transactional
     public WithdrawResponse withdraw(UUID accountId, BigDecimal amount, UUID operationId) {
         Objects.requireNonNull(accountId, "accountId");
         Objects.requireNonNull(amount, "amount");
         Objects.requireNonNull(operationId, "operationId");
 
-        var account = accountRepository.lockById(accountId);
-        if (operationRepository.exists(operationId)) {
-            return new WithdrawResponse(account.getId(), account.getBalance());
-        }
-
-        account.withdraw(amount);
-        accountRepository.save(account);
-        operationRepository.save(operationId);
-        return new WithdrawResponse(account.getId(), account.getBalance());
+        var result = write(TransactionType.WITHDRAWAL, accountId, operationId,
+                () -> accountWriteStrategy.withdraw(accountId, amount, operationId));
+        return new WithdrawResponse(result.accountId(), result.balance());
     }
 
     @Override
-    @Transactional
     public DepositResponse deposit(UUID accountId, BigDecimal amount, UUID operationId) {
         Objects.requireNonNull(accountId, "accountId");
         Objects.requireNonNull(operationId, "operationId");
 
-        var account = accountRepository.lockById(accountId);
-        if (operationRepository.exists(operationId)) {
-            // No-op, return current state
-            return new DepositResponse(account.getId(), account.getBalance(), false);
+        var result = write(TransactionType.DEPOSIT, accountId, operationId,
+                () -> accountWriteStrategy.deposit(accountId, amount, operationId));
+        return new DepositResponse(result.accountId(), result.balance(), result.applied());
+    }
+
+    /**
+     * Runs the write in its own transaction, a new one for each attempt the strategy retries. When the
+     * operation id was applied before, inserting the
+     * transaction row violates the unique constraint, the transaction rolls back and the original outcome
+     * is returned with applied=false.
+     * <p>
+     * The domain checks run before that insert: a retried withdrawal may be rejected by the balance its
+     * first attempt left, so a rejection is also answered with the original outcome when there is one.
+     */
+    private WriteResult write(TransactionType type, UUID accountId, UUID operationId, Supplier<WriteResult> write) {
+        try {
+            return accountWriteStrategy.retrying(accountId, () -> transactionOperations.execute(status -> write.get()));
+        } catch (DataIntegrityViolationException e) {
+            return replayed(type, accountId, operationId).orElseThrow(() -> e);
+        } catch (InsufficientFundsException | IllegalArgumentException e) {
+            return replayed(type, accountId, operationId).orElseThrow(() -> e);
         }
+    }
 
-        account.deposit(amount); // domain validates amount > 0
-        accountRepository.save(account);
-        operationRepository.save(operationId);
-        return new DepositResponse(account.getId(), account.getBalance(), true);
+    /**
+     * @return the original outcome of the operation id, empty when it was never applied
+     * @throws IllegalArgumentException when the operation id was applied to another account or operation type
+     */
+    private Optional<WriteResult> replayed(TransactionType type, UUID accountId, UUID operationId) {
+        return operationRepository.findByOperationId(operationId).map(original -> {
+            if (!original.accountId().equals(accountId) || original.type() != type) {
+                throw new IllegalArgumentException("operationId " + operationId + " was already used for another operation");
+            }
+            return new WriteResult(accountId, original.resultingBalance(), false);
+        });
     }
 
+    /**
+     * Read-only and lock-free: the existence check does not lock the account row, so reading a long
+     * history never delays deposits and withdrawals on the same account. One page is read at a time;
+     * one extra row tells whether a next page exists.
+     */
     @Override
-    @Transactional
-    public List<TransactionResponse> transactions(UUID accountId, Instant from, Instant to) {
+    @Transactional(readOnly = true)
+    public TransactionPageResponse transactions(UUID accountId, Instant from, Instant to, String cursor, int limit) {
         Objects.requireNonNull(accountId, "accountId");
+        var after = pageStart(cursor, limit);
         // Ensure account exists → 404 when missing
-        accountRepository.lockById(accountId);
-        return transactionRepository.findByAccountAndPeriod(accountId, from, to)
-                .stream()
-                .map(t -> new TransactionResponse(
-                        t.getType(),
-                        t.getAmount(),
-                        t.getTimestamp(),
-                        t.getResultingBalance()
-                ))
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return page(transactionRepository.findPage(accountId, from, to, after, limit + 1), limit);
+    }
+
+    /**
+     * Checks the page size and decodes the cursor of a history page request.
+     * @return key of the last row of the previous page, null for the first page
+     * @throws IllegalArgumentException when the cursor or the limit is invalid
+     */
+    static TransactionCursor pageStart(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return cursor != null ? TransactionCursor.decode(cursor) : null;
+    }
+
+    /**
+     * Builds a history page from up to {@code limit + 1} rows, the extra one telling whether a next page exists.
+     */
+    static TransactionPageResponse page(List<Transaction> rows, int limit) {
+        var page = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String next = null;
+        if (rows.size() > limit) {
+            var last = page.get(page.size() - 1);
+            next = new TransactionCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        var items = page.stream()
+                .map(TransactionResponse::from)
                 .toList();
+        return new TransactionPageResponse(items, next);
     }
 
     @Override
@@ -97,31 +163,77 @@ public class AccountService implements DepositUseCase, WithdrawUseCase, ListTran
         return new AccountResponse(account.getId(), account.getBalance());
     }
 
+    /**
+     * Goes through the same lookup as {@link #getAccountById(UUID)}, served from the balance cache when it
+     * is enabled: an account read right after this version is never older than it.
+     */
     @Override
     @Transactional(readOnly = true)
-    public String statementCsv(UUID accountId, LocalDate from, LocalDate to) {
+    public long version(UUID accountId) {
         Objects.requireNonNull(accountId, "accountId");
-        // Ensure account exists → 404 when missing
-        accountRepository.findById(accountId);
+        return accountRepository.findById(accountId).getVersion();
+    }
 
-        Instant fromInstant = null;
-        Instant toInstant = null;
-        if (from != null) {
-            fromInstant = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+    /**
+     * Every transaction row carries the balance it resulted in, so the balance at an instant is the one
+     * of the latest row at or before it: a single index seek, whatever the length of the history.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceResponse balanceAt(UUID accountId, Instant at) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(at, "at");
+        // Ensure account exists → 404 when missing, rather than a zero balance
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
         }
-        if (to != null) {
-            // inclusive end-of-day in UTC
-            toInstant = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusNanos(1);
+        var balance = transactionRepository.balanceAt(accountId, at).orElse(BigDecimal.ZERO);
+        return new BalanceResponse(accountId, at, balance);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportStatementCsv(UUID accountId, LocalDate from, LocalDate to, StatementSink sink) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(sink, "sink");
+        // Ensure account exists → 404 when missing, before anything is written
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
         }
 
-        var sb = new StringBuilder();
-        sb.append("date,operation,amount,balance\n");
-        transactionRepository.findByAccountAndPeriod(accountId, fromInstant, toInstant)
-                .forEach(t -> sb
-                        .append(t.getTimestamp()).append(',')
-                        .append(t.getType()).append(',')
-                        .append(t.getAmount()).append(',')
-                        .append(t.getResultingBalance()).append('\n'));
-        return sb.toString();
+        try {
+            var out = sink.open();
+            out.write(STATEMENT_HEADER);
+            transactionRepository.forEachInPeriod(accountId, periodStart(from), periodEnd(to), t -> writeRow(out, t));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return start of the first day of a statement period in UTC, null when the period is open
+     */
+    static Instant periodStart(LocalDate from) {
+        return from != null ? from.atStartOfDay(ZoneOffset.UTC).toInstant() : null;
+    }
+
+    /**
+     * @return inclusive end of the last day of a statement period in UTC, null when the period is open
+     */
+    static Instant periodEnd(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusNanos(1) : null;
+    }
+
+    /** Writes one CSV line; a failure (e.g. client gone) is rethrown unchecked, which stops the query. */
+    static void writeRow(Appendable out, Transaction t) {
+        try {
+            out.append(t.getTimestamp().toString()).append(',')
+                    .append(t.getType().name()).append(',')
+                    .append(t.getAmount().toString()).append(',')
+                    .append(t.getResultingBalance().toString()).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
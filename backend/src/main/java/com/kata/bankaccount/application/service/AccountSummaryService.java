@@ -0,0 +1,49 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.dto.response.AccountSummaryResponse;
+import com.kata.bankaccount.application.dto.response.PeriodSummaryResponse;
+import com.kata.bankaccount.application.ports.in.AccountSummaryUseCase;
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.RollupRepository;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.model.Granularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Summaries of account activity served from the daily and monthly rollups: the cost is one row per
+ * period returned, whatever the number of transactions behind it.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountSummaryService implements AccountSummaryUseCase {
+    private final AccountRepository accountRepository;
+    private final RollupRepository rollupRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountSummaryResponse summary(UUID accountId, Granularity granularity, LocalDate from, LocalDate to) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(granularity, "granularity");
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        // Ensure account exists → 404 when missing, rather than an empty summary
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        var periods = rollupRepository.findRollups(accountId, granularity,
+                        from != null ? granularity.periodStart(from) : null,
+                        to != null ? granularity.periodStart(to) : null)
+                .stream()
+                .map(r -> new PeriodSummaryResponse(r.periodStart(), r.depositCount(), r.depositTotal(),
+                        r.withdrawalCount(), r.withdrawalTotal()))
+                .toList();
+        return new AccountSummaryResponse(accountId, granularity, periods);
+    }
+}
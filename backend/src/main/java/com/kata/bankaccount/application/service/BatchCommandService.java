@@ -0,0 +1,130 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest.Atomicity;
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest.Command;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse.Result;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse.Status;
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
+import com.kata.bankaccount.application.service.write.AccountBatchWriter;
+import com.kata.bankaccount.application.service.write.AccountCommand;
+import com.kata.bankaccount.application.service.write.CommandOutcome;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Applies batches of commands through {@link AccountBatchWriter}, one group per account. Groups are
+ * processed in account id order, so concurrent all-or-nothing batches lock rows in the same order and
+ * cannot deadlock each other.
+ */
+@RequiredArgsConstructor
+public class BatchCommandService implements BatchCommandUseCase {
+    private final AccountBatchWriter batchWriter;
+    private final TransactionOperations transactionOperations;
+    private final int maxCommands;
+
+    @Override
+    public BatchCommandResponse execute(List<Command> commands, Atomicity atomicity) {
+        if (commands.size() > maxCommands) {
+            throw new IllegalArgumentException("A batch accepts at most " + maxCommands + " commands");
+        }
+        var results = new Result[commands.size()];
+        if (atomicity != Atomicity.ALL_OR_NOTHING) {
+            // Each account group commits in its own transaction
+            applyByAccount(commands, results, true);
+            return new BatchCommandResponse(true, List.of(results));
+        }
+
+        boolean committed;
+        try {
+            committed = applyAllOrNothing(commands, results);
+        } catch (DataIntegrityViolationException e) {
+            // An operation id the lookups did not know about: the second pass finds and replays it
+            committed = applyAllOrNothing(commands, results);
+        }
+        if (!committed) {
+            Arrays.setAll(results, i -> results[i].status() == Status.APPLIED
+                    ? new Result(results[i].operationId(), results[i].accountId(), Status.ROLLED_BACK, null, null, null)
+                    : results[i]);
+        }
+        return new BatchCommandResponse(committed, List.of(results));
+    }
+
+    private boolean applyAllOrNothing(List<Command> commands, Result[] results) {
+        return Boolean.TRUE.equals(transactionOperations.execute(status -> {
+            boolean accepted = applyByAccount(commands, results, false);
+            if (!accepted) {
+                status.setRollbackOnly();
+            }
+            return accepted;
+        }));
+    }
+
+    /**
+     * Applies each account group and fills the results at the commands' request positions.
+     * @param retryGroups whether a group is retried on its own after hitting the operation id constraint,
+     *                    which is only possible when each group has its own transaction
+     * @return true when no command was rejected
+     */
+    private boolean applyByAccount(List<Command> commands, Result[] results, boolean retryGroups) {
+        Map<UUID, List<Integer>> positionsByAccount = new TreeMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            positionsByAccount.computeIfAbsent(commands.get(i).accountId(), id -> new ArrayList<>()).add(i);
+        }
+
+        boolean accepted = true;
+        for (var group : positionsByAccount.entrySet()) {
+            List<Integer> positions = group.getValue();
+            List<AccountCommand> accountCommands = positions.stream()
+                    .map(i -> toAccountCommand(commands.get(i)))
+                    .toList();
+            try {
+                List<CommandOutcome> outcomes;
+                try {
+                    outcomes = batchWriter.apply(group.getKey(), accountCommands);
+                } catch (DataIntegrityViolationException e) {
+                    if (!retryGroups) {
+                        throw e;
+                    }
+                    outcomes = batchWriter.apply(group.getKey(), accountCommands);
+                }
+                for (int j = 0; j < positions.size(); j++) {
+                    results[positions.get(j)] = toResult(outcomes.get(j));
+                    accepted &= !outcomes.get(j).rejected();
+                }
+            } catch (AccountNotFoundException e) {
+                for (int i : positions) {
+                    results[i] = new Result(commands.get(i).operationId(), group.getKey(), Status.REJECTED, null,
+                            "ACCOUNT_NOT_FOUND", e.getMessage());
+                }
+                accepted = false;
+            }
+        }
+        return accepted;
+    }
+
+    private static AccountCommand toAccountCommand(Command command) {
+        return new AccountCommand(command.type(), command.accountId(), command.amount(), command.operationId());
+    }
+
+    private static Result toResult(CommandOutcome outcome) {
+        var command = outcome.command();
+        if (outcome.rejected()) {
+            String code = outcome.failure() instanceof InsufficientFundsException ? "INSUFFICIENT_FUNDS" : "BAD_REQUEST";
+            return new Result(command.operationId(), command.accountId(), Status.REJECTED, outcome.balance(),
+                    code, outcome.failure().getMessage());
+        }
+        var status = outcome.applied() ? Status.APPLIED : Status.ALREADY_APPLIED;
+        return new Result(command.operationId(), command.accountId(), status, outcome.balance(), null, null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountChangeHook;
+import com.kata.bankaccount.application.ports.out.AccountEvent;
+import com.kata.bankaccount.application.ports.out.AccountEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * {@link AccountChangeHook} handing each change to the {@link AccountEventPublisher}s once its transaction
+ * has committed: a rolled back change is never served nor announced, and a committed one is seen by the
+ * next lookup on this instance.
+ */
+@Service
+public class CommittedAccountChanges implements AccountChangeHook {
+
+    private final List<AccountEventPublisher> publishers;
+
+    /**
+     * Creates the hook.
+     * @param publishers publishers told of every committed change, in order
+     */
+    public CommittedAccountChanges(List<AccountEventPublisher> publishers) {
+        this.publishers = List.copyOf(publishers);
+    }
+
+    @Override
+    public void changed(AccountEvent change) {
+        if (publishers.isEmpty()) {
+            return;
+        }
+        var committed = new AccountEvent(change.accountId(), change.balance(), change.version(),
+                List.copyOf(change.transactions()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishers.forEach(publisher -> publisher.publish(committed));
+            }
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.OutboxPublisher;
+import com.kata.bankaccount.application.ports.out.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the account events from the outbox to the {@link OutboxPublisher}, in batches of at most
+ * {@code batchSize} events, oldest first. Each batch is published and then removed in one transaction:
+ * a failure or a crash in between leaves it in the outbox, to be published again, so delivery is at least
+ * once and the events of an account always reach the publisher in commit order.
+ * <p>
+ * A run relays full batches back to back until the outbox is drained, so a backlog is caught up without
+ * waiting for the poll interval, and a quiet outbox costs one short query per interval. Each batch reads
+ * from the oldest row left, the removal of the previous batch being the checkpoint: an event committed late
+ * behind ids already relayed comes first in the next batch, ahead of any later event of its account.
+ */
+public class OutboxRelay implements AutoCloseable {
+    private final OutboxRepository outboxRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer batches;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates the relay and registers its metrics.
+     * @param outboxRepository outbox persistence port
+     * @param publisher destination of the events
+     * @param transactionOperations transaction of each batch
+     * @param batchSize events published and removed per transaction
+     * @param meterRegistry registry for the relay metrics
+     */
+    public OutboxRelay(OutboxRepository outboxRepository, OutboxPublisher publisher,
+                       TransactionOperations transactionOperations, int batchSize, MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("bank.accounts.outbox.relayed")
+                .description("Outbox events handed to the publisher and removed from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("bank.accounts.outbox.relay.failures")
+                .description("Relay runs that failed; their batch is published again at the next run")
+                .register(meterRegistry);
+        this.batches = Timer.builder("bank.accounts.outbox.relay")
+                .description("Time to publish and remove one batch of outbox events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@link #relay()} in the background on a platform daemon thread, first after one interval.
+     * @param pollInterval delay between the end of a run, once the outbox is drained, and the start of the next
+     */
+    public void start(Duration pollInterval) {
+        start(pollInterval, Thread.ofPlatform().name("outbox-relay").daemon().factory());
+    }
+
+    /**
+     * Runs {@link #relay()} in the background, first after one interval.
+     * @param pollInterval delay between the end of a run, once the outbox is drained, and the start of the next
+     * @param threads factory of the relay thread
+     */
+    public synchronized void start(Duration pollInterval, ThreadFactory threads) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(threads);
+        scheduler.scheduleWithFixedDelay(this::relayQuietly, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Relays batches until the outbox is drained.
+     * @return number of events relayed
+     */
+    public long relay() {
+        long total = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = batches.record(() -> transactionOperations.execute(status -> relayBatch()));
+            relayed.increment(batch.size());
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    /**
+     * Stops the background runs; a batch interrupted before its commit is published again after a restart.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Publishes and removes the oldest events, in the caller's transaction. If the publisher throws, the
+     * transaction rolls back and the events stay first in the outbox.
+     */
+    private List<OutboxEvent> relayBatch() {
+        var events = outboxRepository.lockOldest(batchSize);
+        if (!events.isEmpty()) {
+            publisher.publish(events);
+            outboxRepository.remove(events);
+        }
+        return events;
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive: the failed batch is still first in the outbox
+            failures.increment();
+        }
+    }
+}
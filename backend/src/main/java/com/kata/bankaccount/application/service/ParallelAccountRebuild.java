@@ -0,0 +1,93 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs a per-account rebuild over every account. Account ids are paged by keyset and handed out in chunks
+ * to a fixed number of workers; the rebuild of one account is expected to run in its own short
+ * transaction, so deposits and withdrawals only wait for the account being rebuilt. When the workers are
+ * all busy the paging thread rebuilds a chunk itself, which keeps at most a few chunks of ids in memory.
+ */
+public class ParallelAccountRebuild {
+    private final AccountRepository accountRepository;
+    private final int parallelism;
+    private final int chunkSize;
+    private final String threadName;
+
+    /**
+     * @param accountRepository account persistence port, listing the accounts
+     * @param parallelism accounts rebuilt at the same time, hence database connections held
+     * @param chunkSize accounts handed to a worker at once
+     * @param threadName prefix of the worker thread names
+     */
+    public ParallelAccountRebuild(AccountRepository accountRepository, int parallelism, int chunkSize,
+                                  String threadName) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("parallelism and chunkSize must be at least 1");
+        }
+        this.accountRepository = accountRepository;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Rebuilds every account. A failing account stops the rest of its chunk, not the other chunks; the
+     * first failure is rethrown once they are done.
+     * @param rebuild rebuild of one account
+     * @return number of accounts rebuilt
+     */
+    public int run(Consumer<UUID> rebuild) {
+        var threads = new AtomicInteger();
+        var workers = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism),
+                task -> {
+                    var thread = new Thread(task, threadName + "-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            int accounts = 0;
+            UUID after = null;
+            List<UUID> ids;
+            while (!(ids = accountRepository.findIds(after, chunkSize)).isEmpty()) {
+                var chunk = ids;
+                chunks.add(workers.submit(() -> chunk.forEach(rebuild)));
+                accounts += chunk.size();
+                after = chunk.get(chunk.size() - 1);
+            }
+            RuntimeException failure = null;
+            for (Future<?> chunk : chunks) {
+                try {
+                    chunk.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return accounts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rebuild interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+}
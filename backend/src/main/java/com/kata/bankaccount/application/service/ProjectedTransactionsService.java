@@ -0,0 +1,46 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
+import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.TransactionHistoryRepository;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Serves the transaction pages from the history read model instead of the {@code transactions} table,
+ * with the same validation, order and cursors as {@link AccountService}. A page can miss the transactions
+ * committed within the last relay delay.
+ */
+public class ProjectedTransactionsService implements ListTransactionsUseCase {
+    private final AccountRepository accountRepository;
+    private final TransactionHistoryRepository historyRepository;
+
+    /**
+     * @param accountRepository account persistence port, checking that the account exists
+     * @param historyRepository read model persistence port
+     */
+    public ProjectedTransactionsService(AccountRepository accountRepository,
+                                        TransactionHistoryRepository historyRepository) {
+        this.accountRepository = accountRepository;
+        this.historyRepository = historyRepository;
+    }
+
+    @Override
+    public TransactionPageResponse transactions(UUID accountId, Instant from, Instant to, String cursor, int limit) {
+        Objects.requireNonNull(accountId, "accountId");
+        var after = AccountService.pageStart(cursor, limit);
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return AccountService.page(historyRepository.findPage(accountId, from, to, after, limit + 1), limit);
+    }
+
+    @Override
+    public boolean isEventuallyConsistent() {
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.RollupRepository;
+
+/**
+ * Recomputes every account's rollups from its transaction history, for a first deployment or after
+ * rollups were found off. Accounts are rebuilt in parallel by a {@link ParallelAccountRebuild}, each in
+ * its own short transaction holding the account lock.
+ */
+public class RollupRebuildService {
+    private final RollupRepository rollupRepository;
+    private final ParallelAccountRebuild rebuild;
+
+    /**
+     * @param accountRepository account persistence port, listing the accounts
+     * @param rollupRepository rollup persistence port
+     * @param parallelism accounts rebuilt at the same time, hence database connections held
+     * @param chunkSize accounts handed to a worker at once
+     */
+    public RollupRebuildService(AccountRepository accountRepository, RollupRepository rollupRepository,
+                                int parallelism, int chunkSize) {
+        this.rollupRepository = rollupRepository;
+        this.rebuild = new ParallelAccountRebuild(accountRepository, parallelism, chunkSize, "rollup-rebuild");
+    }
+
+    /**
+     * Rebuilds the rollups of all accounts. A failing account stops the rest of its chunk, not the other
+     * chunks; the first failure is rethrown once they are done, and running the rebuild again is safe.
+     * @return number of accounts rebuilt
+     */
+    public int rebuildAll() {
+        return rebuild.run(rollupRepository::rebuild);
+    }
+}
@@ -0,0 +1,483 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.in.CachedStatementUseCase;
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of statements of closed periods, keyed by (account, from, to). A period is closed once its
+ * last day has ended, plus a grace delay covering transactions stamped before midnight but committed
+ * after it; its statement then never changes, so entries are never invalidated, only evicted.
+ * <p>
+ * Statements are stored gzip-compressed, so a client accepting gzip is served the stored bytes as they are
+ * and the budgets hold about ten times more CSV; the rarer client that does not is served them inflated.
+ * A statement is built in memory and spilled to a file once its compressed size exceeds a threshold, so a
+ * large one is never held in the heap. Entries are evicted least recently used first: from memory to disk
+ * when the memory budget is exceeded, then deleted when the disk budget is exceeded.
+ * <p>
+ * The bookkeeping is guarded by a {@link ReentrantLock} rather than a monitor: it opens, writes and
+ * deletes files, and a virtual thread blocked on file I/O inside {@code synchronized} pins its carrier.
+ */
+public class StatementCache implements CachedStatementUseCase, AutoCloseable {
+    private static final String FILE_PREFIX = "statement-";
+    private static final String FILE_SUFFIX = ".csv.gz";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final ExportStatementUseCase exporter;
+    private final Path dir;
+    private final long maxMemoryBytes;
+    private final long spillThreshold;
+    private final long maxDiskBytes;
+    private final Duration closeGrace;
+    private final Clock clock;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long memoryBytes;
+    private long diskBytes;
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * Creates the cache and clears the files left in its directory by a previous run.
+     * @param exporter streaming CSV export, used on cache misses
+     * @param dir directory of the entries spilled to disk, created if missing
+     * @param maxMemoryBytes total compressed size of the entries kept in memory
+     * @param spillThreshold compressed size past which a statement is written to disk rather than kept in memory
+     * @param maxDiskBytes total compressed size of the entries kept on disk
+     * @param closeGrace delay after the end of a period before it is considered closed
+     * @param clock clock deciding whether a period is closed
+     * @param meterRegistry registry for cache metrics
+     */
+    public StatementCache(ExportStatementUseCase exporter, Path dir, long maxMemoryBytes, long spillThreshold,
+                          long maxDiskBytes, Duration closeGrace, Clock clock, MeterRegistry meterRegistry) {
+        this.exporter = exporter;
+        this.dir = dir;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.spillThreshold = spillThreshold;
+        this.maxDiskBytes = maxDiskBytes;
+        this.closeGrace = closeGrace;
+        this.clock = clock;
+        clearDir();
+
+        this.hits = Counter.builder("bank.accounts.statement.cache")
+                .description("Closed-period statement lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("bank.accounts.statement.cache")
+                .description("Closed-period statement lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.statement.cache.bytes", this, c -> c.bytes(false))
+                .tag("tier", "memory")
+                .description("Size of the cached statements")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.statement.cache.bytes", this, c -> c.bytes(true))
+                .tag("tier", "disk")
+                .description("Size of the cached statements")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isCacheable(LocalDate to) {
+        if (to == null) {
+            return false;
+        }
+        var end = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plus(closeGrace);
+        return !clock.instant().isBefore(end);
+    }
+
+    @Override
+    public CachedStatement statement(UUID accountId, LocalDate from, LocalDate to) {
+        if (!isCacheable(to)) {
+            throw new IllegalArgumentException("Statement period is not closed");
+        }
+        var key = new Key(accountId, from, to);
+        lock.lock();
+        try {
+            var entry = entries.get(key);
+            if (entry != null) {
+                var opened = open(entry);
+                if (opened != null) {
+                    hits.increment();
+                    return opened;
+                }
+                remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Two concurrent misses on the same key both export it; the content is the same and the last one is kept
+        misses.increment();
+        var entry = build(key);
+        lock.lock();
+        try {
+            var previous = entries.put(key, entry);
+            if (previous != null) {
+                release(previous);
+            }
+            account(entry, 1);
+            // Opened before the limits are enforced: an entry larger than the disk budget is still served once
+            var opened = open(entry);
+            enforceLimits();
+            if (opened == null) {
+                throw new UncheckedIOException(new NoSuchFileException(String.valueOf(entry.file())));
+            }
+            return opened;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the entries spilled to disk.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            for (var entry : entries.values()) {
+                release(entry);
+            }
+            entries.clear();
+            memoryBytes = 0;
+            diskBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry build(Key key) {
+        var buffer = new SpillingBuffer();
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        // The digest and the length are the ones of the CSV, before compression
+        long length;
+        try (var counter = new CountingOutputStream(
+                new DigestOutputStream(new GZIPOutputStream(buffer, GZIP_BUFFER_SIZE), digest))) {
+            var writer = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8));
+            exporter.exportStatementCsv(key.accountId(), key.from(), key.to(), () -> writer);
+            // The export flushes the writer: every CSV byte has gone through the counter
+            length = counter.count;
+        } catch (IOException e) {
+            buffer.discard();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            buffer.discard();
+            throw e;
+        }
+        var etag = Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        return buffer.toEntry(etag, length);
+    }
+
+    /**
+     * @return the entry opened for reading, or null when its file has disappeared
+     */
+    private CachedStatement open(Entry entry) {
+        if (entry.bytes() != null) {
+            return new InMemoryStatement(entry);
+        }
+        try {
+            return new FileStatement(entry, FileChannel.open(entry.file(), StandardOpenOption.READ));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void enforceLimits() {
+        if (memoryBytes > maxMemoryBytes) {
+            for (var mapEntry : new ArrayList<>(entries.entrySet())) {
+                if (memoryBytes <= maxMemoryBytes) {
+                    break;
+                }
+                var entry = mapEntry.getValue();
+                if (entry.bytes() != null) {
+                    var spilled = spill(entry);
+                    account(entry, -1);
+                    if (spilled == null) {
+                        entries.remove(mapEntry.getKey());
+                    } else {
+                        // Set through the map entry, which keeps its place in the access order
+                        mapEntry.setValue(spilled);
+                        account(spilled, 1);
+                    }
+                }
+            }
+        }
+        if (diskBytes > maxDiskBytes) {
+            for (var key : new ArrayList<>(entries.keySet())) {
+                if (diskBytes <= maxDiskBytes) {
+                    break;
+                }
+                if (entries.get(key).file() != null) {
+                    remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the entry written to disk, or null when it could not be written
+     */
+    private Entry spill(Entry entry) {
+        try {
+            var file = Files.createTempFile(dir, FILE_PREFIX, FILE_SUFFIX);
+            Files.write(file, entry.bytes());
+            return new Entry(entry.etag(), entry.length(), entry.storedLength(), null, file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void remove(Key key) {
+        var entry = entries.remove(key);
+        if (entry != null) {
+            account(entry, -1);
+            release(entry);
+        }
+    }
+
+    private void account(Entry entry, int sign) {
+        if (entry.bytes() != null) {
+            memoryBytes += sign * entry.storedLength();
+        } else {
+            diskBytes += sign * entry.storedLength();
+        }
+    }
+
+    private long bytes(boolean disk) {
+        lock.lock();
+        try {
+            return disk ? diskBytes : memoryBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void release(Entry entry) {
+        if (entry.file() != null) {
+            deleteQuietly(entry.file());
+        }
+    }
+
+    private void clearDir() {
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare statement cache directory " + dir, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Removed at the next startup at the latest
+        }
+    }
+
+    private record Key(UUID accountId, LocalDate from, LocalDate to) {}
+
+    /**
+     * Cached statement, compressed and held either in memory ({@code bytes}) or in a file.
+     * {@code etag} and {@code length} describe the CSV, {@code storedLength} the compressed content.
+     */
+    private record Entry(String etag, long length, long storedLength, byte[] bytes, Path file) {}
+
+    /**
+     * Output kept in memory up to the spill threshold, then moved to a file in the cache directory.
+     */
+    private final class SpillingBuffer extends OutputStream {
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private Path file;
+        private OutputStream fileOut;
+        private long length;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (fileOut == null && length + len > spillThreshold) {
+                file = Files.createTempFile(dir, FILE_PREFIX, FILE_SUFFIX);
+                fileOut = Files.newOutputStream(file);
+                memory.writeTo(fileOut);
+                memory = null;
+            }
+            if (fileOut != null) {
+                fileOut.write(b, off, len);
+            } else {
+                memory.write(b, off, len);
+            }
+            length += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (fileOut != null) {
+                fileOut.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (fileOut != null) {
+                fileOut.close();
+            }
+        }
+
+        void discard() {
+            if (file != null) {
+                try {
+                    close();
+                } catch (IOException ignored) {
+                    // The file is deleted anyway
+                }
+                deleteQuietly(file);
+            }
+        }
+
+        Entry toEntry(String etag, long plainLength) {
+            return file != null
+                    ? new Entry(etag, plainLength, length, null, file)
+                    : new Entry(etag, plainLength, length, memory.toByteArray(), null);
+        }
+    }
+
+    /** Counts the bytes written through it. */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /** Entity tag and length of each representation of a cached entry. */
+    private abstract static class AbstractStatement implements CachedStatement {
+        final Entry entry;
+
+        AbstractStatement(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public String etag(Encoding encoding) {
+            return encoding == Encoding.GZIP ? entry.etag() + "-gzip" : entry.etag();
+        }
+
+        @Override
+        public long length(Encoding encoding) {
+            return encoding == Encoding.GZIP ? entry.storedLength() : entry.length();
+        }
+    }
+
+    private static final class InMemoryStatement extends AbstractStatement {
+        InMemoryStatement(Entry entry) {
+            super(entry);
+        }
+
+        @Override
+        public void transferTo(OutputStream out, Encoding encoding) throws IOException {
+            if (encoding == Encoding.GZIP) {
+                out.write(entry.bytes());
+                return;
+            }
+            try (var in = new GZIPInputStream(new ByteArrayInputStream(entry.bytes()), GZIP_BUFFER_SIZE)) {
+                in.transferTo(out);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class FileStatement extends AbstractStatement {
+        private final FileChannel channel;
+
+        FileStatement(Entry entry, FileChannel channel) {
+            super(entry);
+            this.channel = channel;
+        }
+
+        @Override
+        public void transferTo(OutputStream out, Encoding encoding) throws IOException {
+            if (encoding == Encoding.GZIP) {
+                var target = Channels.newChannel(out);
+                for (long position = 0; position < entry.storedLength(); ) {
+                    position += channel.transferTo(position, entry.storedLength() - position, target);
+                }
+                return;
+            }
+            // Closing the inflating stream releases the inflater and closes the channel, as close() would
+            try (var in = new GZIPInputStream(Channels.newInputStream(channel.position(0)), GZIP_BUFFER_SIZE)) {
+                in.transferTo(out);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
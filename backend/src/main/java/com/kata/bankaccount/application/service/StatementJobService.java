@@ -0,0 +1,274 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.dto.response.StatementJobResponse;
+import com.kata.bankaccount.application.dto.response.StatementJobResponse.Status;
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
+import com.kata.bankaccount.application.ports.in.StatementJobUseCase;
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.exception.StatementJobNotFoundException;
+import com.kata.bankaccount.domain.exception.StatementJobNotReadyException;
+import com.kata.bankaccount.domain.exception.StatementJobRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs statement exports in the background. Jobs wait in a bounded queue for one of a fixed number of
+ * worker threads, so heavy exports hold at most that many database connections and no request thread.
+ * Each worker writes the CSV to a spool directory under a temporary name and renames it once complete;
+ * finished jobs and their files are deleted after a time to live. Jobs are kept in memory only:
+ * files left over by a previous run are removed at startup.
+ */
+public class StatementJobService implements StatementJobUseCase, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(StatementJobService.class);
+    private static final String FAILURE_MESSAGE = "Statement export failed";
+    private static final String FILE_SUFFIX = ".csv";
+    private static final String PART_SUFFIX = ".csv.part";
+
+    private final ExportStatementUseCase exporter;
+    private final AccountRepository accountRepository;
+    private final Path spoolDir;
+    private final int queueCapacity;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService sweeper;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final Timer exportTimer;
+
+    /**
+     * Creates the service, clears the spool directory and starts the workers and the expiry sweeper.
+     * @param exporter streaming CSV export
+     * @param accountRepository account persistence port, to reject unknown accounts up front
+     * @param spoolDir directory the CSV files are written to, created if missing
+     * @param workerCount number of exports running at the same time
+     * @param queueCapacity exports waiting for a worker before new jobs are rejected
+     * @param ttl how long a finished job and its file are kept
+     * @param sweepInterval delay between two runs of the expiry sweeper
+     * @param clock clock used for expiry
+     * @param meterRegistry registry for export metrics
+     */
+    public StatementJobService(ExportStatementUseCase exporter, AccountRepository accountRepository, Path spoolDir,
+                               int workerCount, int queueCapacity, Duration ttl, Duration sweepInterval,
+                               Clock clock, MeterRegistry meterRegistry) {
+        this(exporter, accountRepository, spoolDir, workerCount, queueCapacity, ttl, sweepInterval, clock,
+                meterRegistry, Thread.ofPlatform().name("statement-export-", 0).daemon().factory());
+    }
+
+    /**
+     * Creates the service with worker threads from the given factory.
+     * @param exporter streaming CSV export
+     * @param accountRepository account persistence port, to reject unknown accounts up front
+     * @param spoolDir directory the CSV files are written to, created if missing
+     * @param workerCount number of exports running at the same time
+     * @param queueCapacity exports waiting for a worker before new jobs are rejected
+     * @param ttl how long a finished job and its file are kept
+     * @param sweepInterval delay between two runs of the expiry sweeper
+     * @param clock clock used for expiry
+     * @param meterRegistry registry for export metrics
+     * @param workerThreads factory of the export workers, platform daemon or virtual threads
+     */
+    public StatementJobService(ExportStatementUseCase exporter, AccountRepository accountRepository, Path spoolDir,
+                               int workerCount, int queueCapacity, Duration ttl, Duration sweepInterval,
+                               Clock clock, MeterRegistry meterRegistry, ThreadFactory workerThreads) {
+        if (workerCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("workerCount and queueCapacity must be >= 1");
+        }
+        this.exporter = exporter;
+        this.accountRepository = accountRepository;
+        this.spoolDir = spoolDir;
+        this.queueCapacity = queueCapacity;
+        this.ttl = ttl;
+        this.clock = clock;
+        clearSpool();
+
+        // The pool still bounds concurrent exports, and so the connections they hold, with virtual workers too
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreads, new ThreadPoolExecutor.AbortPolicy());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "statement-export-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::purgeExpired, sweepInterval.toMillis(), sweepInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        this.exportTimer = Timer.builder("bank.accounts.statement.jobs.export")
+                .description("Time to write one statement file")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.statement.jobs.queued", workers, w -> w.getQueue().size())
+                .description("Statement exports waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public StatementJobResponse submit(UUID accountId, LocalDate from, LocalDate to) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        var job = new Job(UUID.randomUUID(), accountId, from, to);
+        jobs.put(job.id, job);
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new StatementJobRejectedException(queueCapacity);
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public StatementJobResponse status(UUID accountId, UUID jobId) {
+        return find(accountId, jobId).toResponse();
+    }
+
+    @Override
+    public Path file(UUID accountId, UUID jobId) {
+        var job = find(accountId, jobId);
+        if (job.status != Status.READY) {
+            throw new StatementJobNotReadyException(jobId, job.status.name());
+        }
+        return fileOf(jobId);
+    }
+
+    /**
+     * Deletes the jobs finished for longer than the time to live, with their files.
+     * A download already in progress keeps reading the file it has opened.
+     * @return number of jobs removed
+     */
+    public int purgeExpired() {
+        var now = clock.instant();
+        int removed = 0;
+        for (var job : jobs.values()) {
+            var expiresAt = job.expiresAt;
+            if (expiresAt != null && !expiresAt.isAfter(now) && jobs.remove(job.id, job)) {
+                deleteQuietly(fileOf(job.id));
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Stops the sweeper and the workers; running exports are interrupted and their partial files left
+     * for the next startup to remove.
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(Job job) {
+        job.status = Status.RUNNING;
+        var part = spoolDir.resolve(job.id + PART_SUFFIX);
+        try {
+            exportTimer.recordCallable(() -> {
+                try (var writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+                    exporter.exportStatementCsv(job.accountId, job.from, job.to, () -> writer);
+                }
+                return null;
+            });
+            var file = Files.move(part, fileOf(job.id), StandardCopyOption.ATOMIC_MOVE);
+            job.size = Files.size(file);
+            job.finish(Status.READY, null, clock.instant().plus(ttl));
+        } catch (Throwable e) {
+            // Any failure, Errors included, must end the job; its cause stays in the logs, not in the status
+            deleteQuietly(part);
+            job.finish(Status.FAILED, FAILURE_MESSAGE, clock.instant().plus(ttl));
+            log.error("Statement export {} of account {} failed", job.id, job.accountId, e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private Job find(UUID accountId, UUID jobId) {
+        var job = jobs.get(jobId);
+        if (job == null || !job.accountId.equals(accountId)) {
+            throw new StatementJobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    private Path fileOf(UUID jobId) {
+        return spoolDir.resolve(jobId + FILE_SUFFIX);
+    }
+
+    private void clearSpool() {
+        try {
+            Files.createDirectories(spoolDir);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDir, "*{" + FILE_SUFFIX + "," + PART_SUFFIX + "}")) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare statement spool directory " + spoolDir, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Removed at the next startup at the latest
+        }
+    }
+
+    private static final class Job {
+        private final UUID id;
+        private final UUID accountId;
+        private final LocalDate from;
+        private final LocalDate to;
+        private volatile Status status = Status.QUEUED;
+        private volatile Long size;
+        private volatile String message;
+        private volatile Instant expiresAt;
+
+        private Job(UUID id, UUID accountId, LocalDate from, LocalDate to) {
+            this.id = id;
+            this.accountId = accountId;
+            this.from = from;
+            this.to = to;
+        }
+
+        private void finish(Status status, String message, Instant expiresAt) {
+            this.message = message;
+            this.expiresAt = expiresAt;
+            this.status = status;
+        }
+
+        private StatementJobResponse toResponse() {
+            return new StatementJobResponse(id, accountId, from, to, status, size, expiresAt, message);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.OutboxPublisher;
+import com.kata.bankaccount.application.ports.out.TransactionHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the history read model up to date: a destination of the outbox relay, it projects each batch of
+ * committed transactions in the relay's transaction, so a batch is removed from the outbox exactly when
+ * it is in the read model.
+ * <p>
+ * The lag of an event is the time from its transaction to its projection. Each one is recorded, and the
+ * gauge reports that of the newest event projected.
+ */
+public class TransactionHistoryProjector implements OutboxPublisher {
+    private final TransactionHistoryRepository historyRepository;
+    private final Clock clock;
+    private final Counter projected;
+    private final Timer lag;
+    private final AtomicLong lastLagMillis = new AtomicLong();
+
+    /**
+     * Creates the projector and registers its metrics.
+     * @param historyRepository read model persistence port
+     * @param clock clock measuring the lag
+     * @param meterRegistry registry for the projection metrics
+     */
+    public TransactionHistoryProjector(TransactionHistoryRepository historyRepository, Clock clock,
+                                       MeterRegistry meterRegistry) {
+        this.historyRepository = historyRepository;
+        this.clock = clock;
+        this.projected = Counter.builder("bank.accounts.history.projected")
+                .description("Transactions written to the history read model")
+                .register(meterRegistry);
+        this.lag = Timer.builder("bank.accounts.history.lag")
+                .description("Time from a transaction to its projection in the history read model")
+                .register(meterRegistry);
+        Gauge.builder("bank.accounts.history.lag.last", lastLagMillis, AtomicLong::get)
+                .description("Lag of the newest transaction projected, in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        historyRepository.project(events);
+        var now = clock.instant();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.occurredAt(), now));
+        }
+        lastLagMillis.set(Duration.between(events.get(events.size() - 1).occurredAt(), now).toMillis());
+        projected.increment(events.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.TransactionHistoryRepository;
+
+/**
+ * Copies every account's transactions into the history read model, for a first deployment or after the
+ * read model was found off. Accounts are replayed in parallel by a {@link ParallelAccountRebuild}, each in
+ * its own transaction holding the account lock; the projection of newer events carries on meanwhile.
+ */
+public class TransactionHistoryRebuildService {
+    private final TransactionHistoryRepository historyRepository;
+    private final ParallelAccountRebuild rebuild;
+
+    /**
+     * @param accountRepository account persistence port, listing the accounts
+     * @param historyRepository read model persistence port
+     * @param parallelism accounts replayed at the same time, hence database connections held
+     * @param chunkSize accounts handed to a worker at once
+     */
+    public TransactionHistoryRebuildService(AccountRepository accountRepository,
+                                            TransactionHistoryRepository historyRepository,
+                                            int parallelism, int chunkSize) {
+        this.historyRepository = historyRepository;
+        this.rebuild = new ParallelAccountRebuild(accountRepository, parallelism, chunkSize, "history-rebuild");
+    }
+
+    /**
+     * Rebuilds the read model of all accounts; the first failure is rethrown once the other accounts are
+     * done, and running the rebuild again is safe.
+     * @return number of accounts rebuilt
+     */
+    public int rebuildAll() {
+        return rebuild.run(historyRepository::rebuild);
+    }
+}
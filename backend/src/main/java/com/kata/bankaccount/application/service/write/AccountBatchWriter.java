@@ -0,0 +1,98 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import com.kata.bankaccount.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies a group of commands to one account in a single transaction (group commit): the account is
+ * locked once and saved once, the known operation ids are looked up in one query, and the new transaction
+ * rows are written as a JDBC batch. Ids are checked up front, under the lock, so that one repeated id
+ * cannot fail the whole group on the unique constraint.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountBatchWriter {
+    private final AccountRepository accountRepository;
+    private final OperationRepository operationRepository;
+
+    /**
+     * Applies the commands in order. A command rejected by the domain (invalid amount, insufficient funds)
+     * is reported in its outcome and does not affect the others; a repeated operation id is a no-op that
+     * reports the original outcome, whether the original is stored or earlier in the group. A repeat that
+     * does not match its original is rejected: another account or type, or within the group another amount.
+     * @param accountId account every command targets
+     * @param commands commands in arrival order
+     * @return one outcome per command, in the same order
+     * @throws com.kata.bankaccount.domain.exception.AccountNotFoundException when account is missing
+     * @throws org.springframework.dao.DataIntegrityViolationException when an operation id was applied
+     *         without the up-front lookup knowing it (concurrently for another account, or unknown to an
+     *         in-memory filter); nothing is committed and calling again replays that id
+     */
+    @Transactional
+    public List<CommandOutcome> apply(UUID accountId, List<AccountCommand> commands) {
+        var account = accountRepository.lockById(accountId);
+        Map<UUID, AppliedOperation> known = operationRepository.findByOperationIds(
+                commands.stream().map(AccountCommand::operationId).toList());
+        Map<UUID, CommandOutcome> appliedInGroup = new HashMap<>();
+        List<CommandOutcome> outcomes = new ArrayList<>(commands.size());
+
+        for (AccountCommand command : commands) {
+            var original = known.get(command.operationId());
+            if (original != null) {
+                outcomes.add(replay(command, original.accountId(), original.type(), original.resultingBalance()));
+                continue;
+            }
+            var first = appliedInGroup.get(command.operationId());
+            if (first != null) {
+                outcomes.add(first.command().amount().compareTo(command.amount()) == 0
+                        ? replay(command, first.command().accountId(), first.command().type(), first.balance())
+                        : reused(command));
+                continue;
+            }
+            try {
+                command.applyTo(account);
+                var applied = CommandOutcome.applied(command, account.getBalance());
+                appliedInGroup.put(command.operationId(), applied);
+                outcomes.add(applied);
+            } catch (IllegalArgumentException | InsufficientFundsException e) {
+                // The domain validates before mutating, so the aggregate is unchanged
+                outcomes.add(CommandOutcome.rejected(command, account.getBalance(), e));
+            }
+        }
+
+        if (!appliedInGroup.isEmpty()) {
+            accountRepository.save(account);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Answers a repeated operation id with the balance right after its original, when it is the same
+     * operation on the same account.
+     */
+    private static CommandOutcome replay(AccountCommand command, UUID accountId, TransactionType type,
+                                        BigDecimal resultingBalance) {
+        if (!accountId.equals(command.accountId()) || type != command.type()) {
+            return reused(command);
+        }
+        return CommandOutcome.alreadyApplied(command, resultingBalance);
+    }
+
+    private static CommandOutcome reused(AccountCommand command) {
+        return CommandOutcome.rejected(command, null, new IllegalArgumentException(
+                "operationId " + command.operationId() + " was already used for another operation"));
+    }
+}
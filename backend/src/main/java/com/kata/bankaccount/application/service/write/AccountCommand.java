@@ -0,0 +1,37 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.domain.model.Account;
+import com.kata.bankaccount.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A single deposit or withdrawal to apply to an account, identified by its idempotency key.
+ *
+ * @param type        DEPOSIT or WITHDRAWAL
+ * @param accountId   account identifier
+ * @param amount      positive amount
+ * @param operationId idempotency key
+ */
+public record AccountCommand(TransactionType type, UUID accountId, BigDecimal amount, UUID operationId) {
+
+    public AccountCommand {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(operationId, "operationId");
+    }
+
+    /**
+     * Applies the command to the aggregate; the domain validates the amount and the funds.
+     * @param account loaded account
+     */
+    void applyTo(Account account) {
+        switch (type) {
+            case DEPOSIT -> account.deposit(amount, operationId);
+            case WITHDRAWAL -> account.withdraw(amount, operationId);
+        }
+    }
+}
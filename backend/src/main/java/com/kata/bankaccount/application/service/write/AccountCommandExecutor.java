@@ -0,0 +1,239 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.dto.response.DepositResponse;
+import com.kata.bankaccount.application.dto.response.WithdrawResponse;
+import com.kata.bankaccount.application.ports.in.DepositUseCase;
+import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
+import com.kata.bankaccount.domain.model.TransactionType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-writer execution engine for deposits and withdrawals. Commands are routed by account id to a
+ * fixed set of single-threaded shards, so commands for one account are serialized in memory rather than
+ * on the database row lock. Each shard drains its queue and commits the commands of one account together
+ * through {@link AccountBatchWriter}; every caller still gets its own response or rejection.
+ * <p>
+ * A caller waits at most {@code commandTimeout} for its outcome. Once the executor is closed, or a shard
+ * stops on an {@link Error}, the commands it still holds fail instead of waiting for a thread that is gone.
+ */
+public class AccountCommandExecutor implements DepositUseCase, WithdrawUseCase, AutoCloseable {
+    private final AccountBatchWriter batchWriter;
+    private final int maxBatchSize;
+    private final Duration commandTimeout;
+    private final List<Shard> shards;
+    private final DistributionSummary batchSizes;
+    private volatile boolean closed;
+
+    /**
+     * Creates the executor and starts one thread per shard.
+     * @param batchWriter group commit of commands for one account
+     * @param shardCount number of single-threaded shards
+     * @param maxBatchSize maximum number of commands drained per commit cycle
+     * @param queueCapacity pending commands per shard before callers block
+     * @param commandTimeout how long a caller waits for the outcome of its command
+     * @param meterRegistry registry for the batch size summary
+     */
+    public AccountCommandExecutor(AccountBatchWriter batchWriter, int shardCount, int maxBatchSize,
+                                  int queueCapacity, Duration commandTimeout, MeterRegistry meterRegistry) {
+        this(batchWriter, shardCount, maxBatchSize, queueCapacity, commandTimeout, meterRegistry,
+                Thread.ofPlatform().name("account-shard-", 0).daemon().factory());
+    }
+
+    /**
+     * Creates the executor and starts one thread per shard from the given factory.
+     * @param batchWriter group commit of commands for one account
+     * @param shardCount number of single-threaded shards
+     * @param maxBatchSize maximum number of commands drained per commit cycle
+     * @param queueCapacity pending commands per shard before callers block
+     * @param commandTimeout how long a caller waits for the outcome of its command
+     * @param meterRegistry registry for the batch size summary
+     * @param threads factory of the shard threads, platform daemon or virtual threads
+     */
+    public AccountCommandExecutor(AccountBatchWriter batchWriter, int shardCount, int maxBatchSize,
+                                  int queueCapacity, Duration commandTimeout, MeterRegistry meterRegistry,
+                                  ThreadFactory threads) {
+        if (shardCount < 1 || maxBatchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("shardCount, maxBatchSize and queueCapacity must be >= 1");
+        }
+        this.batchWriter = batchWriter;
+        this.maxBatchSize = maxBatchSize;
+        this.commandTimeout = commandTimeout;
+        this.batchSizes = DistributionSummary.builder("bank.accounts.executor.batch.size")
+                .description("Commands committed together for one account")
+                .register(meterRegistry);
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            var shard = new Shard(new ArrayBlockingQueue<>(queueCapacity));
+            var thread = threads.newThread(() -> run(shard));
+            shard.thread = thread;
+            shards.add(shard);
+            thread.start();
+        }
+    }
+
+    @Override
+    public DepositResponse deposit(UUID accountId, BigDecimal amount, UUID operationId) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(operationId, "operationId");
+        var outcome = execute(new AccountCommand(TransactionType.DEPOSIT, accountId, amount, operationId));
+        return new DepositResponse(accountId, outcome.balance(), outcome.applied());
+    }
+
+    @Override
+    public WithdrawResponse withdraw(UUID accountId, BigDecimal amount, UUID operationId) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(operationId, "operationId");
+        var outcome = execute(new AccountCommand(TransactionType.WITHDRAWAL, accountId, amount, operationId));
+        return new WithdrawResponse(accountId, outcome.balance());
+    }
+
+    /**
+     * Stops the shard threads; commands still queued fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Shard shard : shards) {
+            shard.thread.interrupt();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            failQueued(shard);
+        }
+    }
+
+    private CommandOutcome execute(AccountCommand command) {
+        var shard = shards.get(Math.floorMod(command.accountId().hashCode(), shards.size()));
+        if (closed || shard.stopped) {
+            throw new IllegalStateException("Executor closed");
+        }
+        var pending = new Pending(command, new CompletableFuture<>());
+        try {
+            shard.queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queuing command", e);
+        }
+        // Closed or stopped meanwhile: the queue may have been drained for the last time before the put.
+        // If the command is no longer queued, whoever took it completes it.
+        if ((closed || shard.stopped) && shard.queue.remove(pending)) {
+            pending.result().completeExceptionally(new IllegalStateException("Executor closed"));
+        }
+
+        CommandOutcome outcome;
+        try {
+            outcome = pending.result().get(commandTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Command failed", e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued or being committed: a retry with the same operation id is answered once it is
+            throw new IllegalStateException("No outcome within " + commandTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the command", e);
+        }
+        if (outcome.rejected()) {
+            throw outcome.failure();
+        }
+        return outcome;
+    }
+
+    private void run(Shard shard) {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!closed) {
+                try {
+                    batch.add(shard.queue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                shard.queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+                batch.clear();
+            }
+        } finally {
+            // Set before the last drain, so a caller queuing after it sees the flag and fails its own command
+            shard.stopped = true;
+            batch.forEach(p -> p.result().completeExceptionally(new IllegalStateException("Executor closed")));
+            failQueued(shard);
+        }
+    }
+
+    private static void failQueued(Shard shard) {
+        List<Pending> left = new ArrayList<>();
+        shard.queue.drainTo(left);
+        left.forEach(p -> p.result().completeExceptionally(new IllegalStateException("Executor closed")));
+    }
+
+    /**
+     * Commits the drained commands, one transaction per account, and completes each caller's future.
+     */
+    private void commit(List<Pending> batch) {
+        Map<UUID, List<Pending>> byAccount = new LinkedHashMap<>();
+        for (Pending p : batch) {
+            byAccount.computeIfAbsent(p.command().accountId(), id -> new ArrayList<>()).add(p);
+        }
+
+        byAccount.forEach((accountId, pending) -> {
+            batchSizes.record(pending.size());
+            var commands = pending.stream().map(Pending::command).toList();
+            try {
+                List<CommandOutcome> outcomes;
+                try {
+                    outcomes = batchWriter.apply(accountId, commands);
+                } catch (DataIntegrityViolationException e) {
+                    // An operation id the lookup did not know about: the second pass finds and replays it
+                    outcomes = batchWriter.apply(accountId, commands);
+                }
+                for (int i = 0; i < pending.size(); i++) {
+                    pending.get(i).result().complete(outcomes.get(i));
+                }
+            } catch (Throwable e) {
+                // Missing account, storage failure or an Error: nothing was committed for these commands
+                pending.forEach(p -> p.result().completeExceptionally(e));
+                if (e instanceof Error error) {
+                    throw error;
+                }
+            }
+        });
+    }
+
+    private record Pending(AccountCommand command, CompletableFuture<CommandOutcome> result) {}
+
+    private static final class Shard {
+        private final BlockingQueue<Pending> queue;
+        private Thread thread;
+        private volatile boolean stopped;
+
+        private Shard(BlockingQueue<Pending> queue) {
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.kata.bankaccount.application.service.write;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Applies deposits and withdrawals to the stored balance under a given concurrency control scheme.
+ * Implementations run inside the caller's transaction and record the operation id on the new transaction row.
+ * Applying an id a second time violates the unique constraint on that column when the caller's transaction
+ * is flushed, and the caller then answers with the original outcome.
+ * <p>
+ * A strategy that may have to retry a write does so through {@link #retrying}, which the caller wraps around
+ * its transaction so that every attempt reads committed state in a transaction of its own.
+ */
+public interface AccountWriteStrategy {
+
+    /**
+     * Deposits the amount, recorded under the operation id.
+     * @param accountId account identifier
+     * @param amount positive amount to deposit
+     * @param operationId idempotency key
+     * @return balance after the deposit
+     * @throws com.kata.bankaccount.domain.exception.AccountNotFoundException when account is missing
+     */
+    WriteResult deposit(UUID accountId, BigDecimal amount, UUID operationId);
+
+    /**
+     * Withdraws the amount, recorded under the operation id.
+     * @param accountId account identifier
+     * @param amount positive amount to withdraw
+     * @param operationId idempotency key
+     * @return balance after the withdrawal
+     * @throws com.kata.bankaccount.domain.exception.AccountNotFoundException when account is missing
+     * @throws com.kata.bankaccount.domain.exception.InsufficientFundsException when balance is insufficient
+     */
+    WriteResult withdraw(UUID accountId, BigDecimal amount, UUID operationId);
+
+    /**
+     * Runs a write, retrying the attempts this strategy rejects as conflicting. Called outside any
+     * transaction: each attempt opens its own. The default runs the write once.
+     * @param accountId account written
+     * @param attempt one attempt of the write, in its own transaction
+     * @return result of the attempt that succeeded
+     * @param <T> result type
+     */
+    default <T> T retrying(UUID accountId, Supplier<T> attempt) {
+        return attempt.get();
+    }
+}
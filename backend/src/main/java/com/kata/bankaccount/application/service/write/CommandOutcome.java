@@ -0,0 +1,34 @@
+package com.kata.bankaccount.application.service.write;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of one command in a group of commands: the balance right after it, whether it was newly
+ * applied and, when the domain rejected it, the reason.
+ *
+ * @param command the command
+ * @param balance account balance after the command
+ * @param applied true when the command changed the balance
+ * @param failure domain exception when the command was rejected, null otherwise
+ */
+public record CommandOutcome(AccountCommand command, BigDecimal balance, boolean applied, RuntimeException failure) {
+
+    static CommandOutcome applied(AccountCommand command, BigDecimal balance) {
+        return new CommandOutcome(command, balance, true, null);
+    }
+
+    static CommandOutcome alreadyApplied(AccountCommand command, BigDecimal balance) {
+        return new CommandOutcome(command, balance, false, null);
+    }
+
+    static CommandOutcome rejected(AccountCommand command, BigDecimal balance, RuntimeException failure) {
+        return new CommandOutcome(command, balance, false, failure);
+    }
+
+    /**
+     * @return true when the domain rejected the command
+     */
+    public boolean rejected() {
+        return failure != null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import com.kata.bankaccount.domain.model.Account;
+import com.kata.bankaccount.domain.model.Transaction;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Lock-free strategy: applies the balance change as one guarded statement
+ * ("subtract if balance &gt;= amount") instead of locking the row before reading it.
+ * Insufficient funds are detected from the update count, so no lock is held while
+ * the application computes the new balance.
+ */
+@RequiredArgsConstructor
+public class ConditionalUpdateWriteStrategy implements AccountWriteStrategy {
+    private final AccountRepository accountRepository;
+
+    @Override
+    public WriteResult deposit(UUID accountId, BigDecimal amount, UUID operationId) {
+        Account.requirePositive(amount);
+        var balance = accountRepository.addToBalance(accountId, amount);
+        accountRepository.appendTransaction(accountId, Transaction.deposit(amount, balance, operationId));
+        return new WriteResult(accountId, balance, true);
+    }
+
+    @Override
+    public WriteResult withdraw(UUID accountId, BigDecimal amount, UUID operationId) {
+        Account.requirePositive(amount);
+        var balance = accountRepository.subtractFromBalance(accountId, amount)
+                .orElseThrow(() -> new InsufficientFundsException("Insufficient funds: balance="
+                        + accountRepository.findById(accountId).getBalance() + ", requested=" + amount));
+        accountRepository.appendTransaction(accountId, Transaction.withdrawal(amount, balance, operationId));
+        return new WriteResult(accountId, balance, true);
+    }
+}
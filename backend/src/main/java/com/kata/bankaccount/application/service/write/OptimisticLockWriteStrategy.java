@@ -0,0 +1,120 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.domain.exception.ConcurrentUpdateException;
+import com.kata.bankaccount.domain.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Optimistic strategy: reads the account without a lock, lets the domain apply the change and
+ * saves it only if the stored version is unchanged. A version conflict writes nothing and fails the
+ * attempt; {@link #retrying} runs it again after a jittered backoff, up to {@link RetryPolicy#maxAttempts()},
+ * each time in a new transaction, so no transaction stays open during the backoff and every attempt reads
+ * the state committed by the writer it conflicted with.
+ * Suited to accounts with little write contention, where the lock round trip is pure overhead.
+ */
+public class OptimisticLockWriteStrategy implements AccountWriteStrategy {
+    private final AccountRepository accountRepository;
+    private final RetryPolicy retryPolicy;
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    /**
+     * Creates the strategy and registers its metrics.
+     * @param accountRepository account persistence port
+     * @param retryPolicy retry bounds for version conflicts
+     * @param meterRegistry registry for conflict and retry counters
+     */
+    public OptimisticLockWriteStrategy(AccountRepository accountRepository,
+                                       RetryPolicy retryPolicy,
+                                       MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.retryPolicy = retryPolicy;
+        this.conflicts = Counter.builder("bank.accounts.write.conflicts")
+                .description("Version conflicts detected when saving an account")
+                .tag("strategy", "optimistic")
+                .register(meterRegistry);
+        this.retries = Counter.builder("bank.accounts.write.retries")
+                .description("Writes retried after a version conflict")
+                .tag("strategy", "optimistic")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("bank.accounts.write.retries.exhausted")
+                .description("Writes abandoned after the last retry")
+                .tag("strategy", "optimistic")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WriteResult deposit(UUID accountId, BigDecimal amount, UUID operationId) {
+        return write(accountId, account -> account.deposit(amount, operationId));
+    }
+
+    @Override
+    public WriteResult withdraw(UUID accountId, BigDecimal amount, UUID operationId) {
+        return write(accountId, account -> account.withdraw(amount, operationId));
+    }
+
+    /**
+     * Runs the attempts, outside of their transactions, until one saves or the policy gives up.
+     * @throws ConcurrentUpdateException when the last attempt still conflicts
+     */
+    @Override
+    public <T> T retrying(UUID accountId, Supplier<T> attempt) {
+        for (int number = 1; ; number++) {
+            try {
+                return attempt.get();
+            } catch (VersionConflict e) {
+                if (number >= retryPolicy.maxAttempts()) {
+                    exhausted.increment();
+                    throw new ConcurrentUpdateException(accountId, number);
+                }
+                retries.increment();
+                pause(retryPolicy.backoff(number), accountId, number);
+            }
+        }
+    }
+
+    /**
+     * One attempt, in the caller's transaction.
+     * @throws VersionConflict when the account changed since it was read; nothing was written
+     */
+    private WriteResult write(UUID accountId, Consumer<Account> change) {
+        var account = accountRepository.findById(accountId);
+        change.accept(account); // domain validation and insufficient funds
+        if (!accountRepository.saveIfVersionMatches(account)) {
+            conflicts.increment();
+            throw new VersionConflict(accountId);
+        }
+        return new WriteResult(account.getId(), account.getBalance(), true);
+    }
+
+    private static void pause(Duration delay, UUID accountId, int attempt) {
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException(accountId, attempt);
+        }
+    }
+
+    /**
+     * A failed attempt, rolling back its transaction. Outside {@link #retrying} it reaches the caller as
+     * the conflict of a single attempt.
+     */
+    private static final class VersionConflict extends ConcurrentUpdateException {
+        VersionConflict(UUID accountId) {
+            super(accountId, 1);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Default strategy: locks the account row ({@code SELECT ... FOR UPDATE}) for the whole
+ * read-modify-write and lets the domain aggregate apply the change.
+ */
+@RequiredArgsConstructor
+public class PessimisticLockWriteStrategy implements AccountWriteStrategy {
+    private final AccountRepository accountRepository;
+
+    @Override
+    public WriteResult deposit(UUID accountId, BigDecimal amount, UUID operationId) {
+        var account = accountRepository.lockById(accountId);
+        account.deposit(amount, operationId); // domain validates amount > 0
+        accountRepository.save(account);
+        return new WriteResult(account.getId(), account.getBalance(), true);
+    }
+
+    @Override
+    public WriteResult withdraw(UUID accountId, BigDecimal amount, UUID operationId) {
+        var account = accountRepository.lockById(accountId);
+        account.withdraw(amount, operationId);
+        accountRepository.save(account);
+        return new WriteResult(account.getId(), account.getBalance(), true);
+    }
+}
@@ -0,0 +1,32 @@
+package com.kata.bankaccount.application.service.write;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retry with exponential backoff and full jitter.
+ *
+ * @param maxAttempts    total number of attempts, including the first one
+ * @param initialBackoff upper bound of the delay after the first failed attempt
+ * @param maxBackoff     upper bound of any delay
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be >= 1");
+        }
+    }
+
+    /**
+     * Delay to wait after the given failed attempt: a random value between zero and
+     * {@code min(maxBackoff, initialBackoff * 2^(attempt-1))}, so contending writers spread out.
+     *
+     * @param attempt number of the attempt that just failed (1-based)
+     * @return delay before the next attempt
+     */
+    public Duration backoff(int attempt) {
+        long cap = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return cap <= 0 ? Duration.ZERO : Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+}
@@ -0,0 +1,10 @@
+package com.kata.bankaccount.application.service.write;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Outcome of a write: the account balance after it and whether it was newly applied
+ * (false when the operation id had already been applied).
+ */
+public record WriteResult(UUID accountId, BigDecimal balance, boolean applied) {}
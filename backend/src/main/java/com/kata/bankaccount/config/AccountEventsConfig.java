@@ -0,0 +1,27 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.adapter.in.web.AccountEventHub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the hub pushing committed account changes to the {@code /v1/accounts/{id}/events} streams. It is
+ * one of the publishers the account change hook hands each commit to.
+ */
+@Configuration
+@EnableConfigurationProperties(AccountEventsProperties.class)
+public class AccountEventsConfig {
+
+    /**
+     * Creates the hub, closed with the context.
+     * @param properties event stream settings
+     * @param meterRegistry registry for stream metrics
+     * @return the hub
+     */
+    @Bean
+    public AccountEventHub accountEventHub(AccountEventsProperties properties, MeterRegistry meterRegistry) {
+        return new AccountEventHub(properties.bufferSize(), properties.timeout(), properties.heartbeat(), meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the account event streams ({@code bank.accounts.events.*}).
+ *
+ * @param bufferSize events kept at most per subscriber waiting to be sent, oldest dropped first
+ * @param timeout    how long a stream stays open before the client has to reconnect
+ * @param heartbeat  interval of the comments sent on idle streams, so closed connections are noticed
+ */
+@ConfigurationProperties(prefix = "bank.accounts.events")
+public record AccountEventsProperties(
+        @DefaultValue("64") int bufferSize,
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("15s") Duration heartbeat
+) {}
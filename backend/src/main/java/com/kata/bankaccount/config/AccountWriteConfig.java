@@ -0,0 +1,87 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.service.BatchCommandService;
+import com.kata.bankaccount.application.service.write.AccountBatchWriter;
+import com.kata.bankaccount.application.service.write.AccountCommandExecutor;
+import com.kata.bankaccount.application.service.write.AccountWriteStrategy;
+import com.kata.bankaccount.application.service.write.ConditionalUpdateWriteStrategy;
+import com.kata.bankaccount.application.service.write.OptimisticLockWriteStrategy;
+import com.kata.bankaccount.application.service.write.PessimisticLockWriteStrategy;
+import com.kata.bankaccount.application.service.write.RetryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Wires the {@link AccountWriteStrategy} selected by {@code bank.accounts.write.strategy}
+ * and, when enabled, the single-writer {@link AccountCommandExecutor}, plus the batch command service.
+ */
+@Configuration
+@EnableConfigurationProperties(AccountWriteProperties.class)
+public class AccountWriteConfig {
+
+    /**
+     * Creates the write strategy used by the deposit and withdraw use cases.
+     * @param properties write path settings
+     * @param accountRepository account persistence port
+     * @param meterRegistry registry for write metrics
+     * @return the configured strategy
+     */
+    @Bean
+    public AccountWriteStrategy accountWriteStrategy(AccountWriteProperties properties,
+                                                     AccountRepository accountRepository,
+                                                     MeterRegistry meterRegistry) {
+        return switch (properties.strategy()) {
+            case PESSIMISTIC -> new PessimisticLockWriteStrategy(accountRepository);
+            case CONDITIONAL_UPDATE -> new ConditionalUpdateWriteStrategy(accountRepository);
+            case OPTIMISTIC -> new OptimisticLockWriteStrategy(accountRepository,
+                    new RetryPolicy(
+                            properties.optimistic().maxAttempts(),
+                            properties.optimistic().initialBackoff(),
+                            properties.optimistic().maxBackoff()),
+                    meterRegistry);
+        };
+    }
+
+    /**
+     * Creates the single-writer executor, which then serves the deposit and withdraw use cases
+     * in place of the account service.
+     * @param properties write path settings
+     * @param batchWriter group commit of commands for one account
+     * @param meterRegistry registry for executor metrics
+     * @param environment environment deciding between platform and virtual shard threads
+     * @return the started executor, closed with the context
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "bank.accounts.write.executor.enabled", havingValue = "true")
+    public AccountCommandExecutor accountCommandExecutor(AccountWriteProperties properties,
+                                                         AccountBatchWriter batchWriter,
+                                                         MeterRegistry meterRegistry,
+                                                         Environment environment) {
+        var executor = properties.executor();
+        return new AccountCommandExecutor(batchWriter, executor.shards(), executor.maxBatchSize(),
+                executor.queueCapacity(), executor.commandTimeout(), meterRegistry,
+                WorkerThreads.of(environment, "account-shard-"));
+    }
+
+    /**
+     * Creates the service behind the batch endpoint.
+     * @param properties write path settings
+     * @param batchWriter group commit of commands for one account
+     * @param transactionOperations transaction used by all-or-nothing batches
+     * @return the batch command service
+     */
+    @Bean
+    public BatchCommandService batchCommandService(AccountWriteProperties properties,
+                                                   AccountBatchWriter batchWriter,
+                                                   TransactionOperations transactionOperations) {
+        return new BatchCommandService(batchWriter, transactionOperations, properties.batch().maxCommands());
+    }
+}
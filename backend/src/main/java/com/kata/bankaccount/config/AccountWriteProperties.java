@@ -0,0 +1,75 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the deposit/withdraw write path ({@code bank.accounts.write.*}).
+ *
+ * @param strategy   concurrency control used to apply balance changes
+ * @param optimistic retry settings of the {@link Strategy#OPTIMISTIC} strategy
+ * @param executor   single-writer command executor settings
+ * @param batch      batch endpoint settings
+ */
+@ConfigurationProperties(prefix = "bank.accounts.write")
+public record AccountWriteProperties(
+        @DefaultValue("pessimistic") Strategy strategy,
+        @DefaultValue Optimistic optimistic,
+        @DefaultValue Executor executor,
+        @DefaultValue Batch batch
+) {
+
+    /**
+     * Available concurrency control strategies.
+     */
+    public enum Strategy {
+        /** Lock the account row for the whole read-modify-write (default). */
+        PESSIMISTIC,
+        /** Apply the change as one guarded UPDATE, without a prior lock. */
+        CONDITIONAL_UPDATE,
+        /** Read without a lock and save only if the row version is unchanged, retrying on conflict. */
+        OPTIMISTIC
+    }
+
+    /**
+     * Retry bounds for version conflicts.
+     *
+     * @param maxAttempts    total attempts per write, including the first one
+     * @param initialBackoff upper bound of the jittered delay after the first conflict
+     * @param maxBackoff     upper bound of any jittered delay
+     */
+    public record Optimistic(
+            @DefaultValue("5") int maxAttempts,
+            @DefaultValue("10ms") Duration initialBackoff,
+            @DefaultValue("200ms") Duration maxBackoff
+    ) {}
+
+    /**
+     * Single-writer executor: commands are serialized per account on in-process shards and
+     * committed in groups. When enabled it replaces the strategy for deposits and withdrawals.
+     *
+     * @param enabled       whether deposits and withdrawals go through the executor
+     * @param shards        number of single-threaded shards
+     * @param maxBatchSize  maximum commands drained by a shard per commit cycle
+     * @param queueCapacity pending commands per shard before callers block
+     * @param commandTimeout how long a caller waits for the outcome of its command
+     */
+    public record Executor(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("4") int shards,
+            @DefaultValue("64") int maxBatchSize,
+            @DefaultValue("10000") int queueCapacity,
+            @DefaultValue("30s") Duration commandTimeout
+    ) {}
+
+    /**
+     * Batch endpoint limits.
+     *
+     * @param maxCommands maximum commands accepted in one batch request
+     */
+    public record Batch(
+            @DefaultValue("500") int maxCommands
+    ) {}
+}
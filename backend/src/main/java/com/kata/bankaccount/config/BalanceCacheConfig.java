@@ -0,0 +1,35 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.adapter.out.persistence.cache.AccountBalanceCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Clock;
+
+/**
+ * Wires the account balance cache, read through by the account lookups and told of each committed
+ * change, when {@code bank.accounts.balance-cache.enabled} is true (default).
+ */
+@Configuration
+@EnableConfigurationProperties(BalanceCacheProperties.class)
+public class BalanceCacheConfig {
+
+    /**
+     * Creates the cache. It is told of a change before the other publishers, so a client notified of it
+     * reads it back from this instance.
+     * @param properties cache settings
+     * @param meterRegistry registry for cache metrics
+     * @return the cache
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnProperty(name = "bank.accounts.balance-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public AccountBalanceCache accountBalanceCache(BalanceCacheProperties properties, MeterRegistry meterRegistry) {
+        return new AccountBalanceCache(properties.maxEntries(), properties.ttl(), Clock.systemUTC(), meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the account balance cache ({@code bank.accounts.balance-cache.*}).
+ *
+ * @param enabled    whether account lookups read through the cache
+ * @param maxEntries accounts kept at most, least recently used dropped first
+ * @param ttl        how long an entry is served, hence how long a write made by another instance can go unseen
+ */
+@ConfigurationProperties(prefix = "bank.accounts.balance-cache")
+public record BalanceCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("30s") Duration ttl
+) {}
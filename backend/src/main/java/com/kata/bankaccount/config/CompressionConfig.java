@@ -0,0 +1,33 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.adapter.in.web.GzipResponseFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the gzip compression of the statement and transaction listing responses when
+ * {@code bank.accounts.compression.enabled} is true (default). It is a servlet filter: the reactive
+ * profile does not compress.
+ */
+@Configuration
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionConfig {
+
+    /**
+     * Registers the compression filter in front of the account endpoints; it selects the compressed paths itself.
+     * @param properties compression settings
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.compression.enabled", havingValue = "true", matchIfMissing = true)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<GzipResponseFilter> gzipResponseFilter(CompressionProperties properties) {
+        var registration = new FilterRegistrationBean<>(new GzipResponseFilter((int) properties.minSize().toBytes()));
+        registration.addUrlPatterns("/v1/accounts/*");
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the gzip compression of the statement and transaction listing responses
+ * ({@code bank.accounts.compression.*}).
+ *
+ * @param enabled whether those responses are compressed while streamed for clients accepting gzip;
+ *                cached statements are stored compressed and served as such regardless
+ * @param minSize responses shorter than this are sent uncompressed
+ */
+@ConfigurationProperties(prefix = "bank.accounts.compression")
+public record CompressionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1KB") DataSize minSize
+) {}
@@ -0,0 +1,87 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.adapter.out.persistence.OperationRepositoryAdapter;
+import com.kata.bankaccount.adapter.out.persistence.idempotency.FilteredOperationRepository;
+import com.kata.bankaccount.adapter.out.persistence.idempotency.OperationIdFilter;
+import com.kata.bankaccount.adapter.out.persistence.idempotency.OperationIdFilterWarmUp;
+import com.kata.bankaccount.adapter.out.persistence.idempotency.OperationIdPurger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires the in-memory operation id filter in front of the {@code OperationRepository} port
+ * when {@code bank.accounts.idempotency.filter.enabled} is true (default), and the background
+ * purger of expired operation ids when {@code bank.accounts.idempotency.retention.enabled} is true (default).
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    /**
+     * Creates the filter shared by the lookups and the write path, which records new ids in it.
+     * @param properties idempotency settings
+     * @param meterRegistry registry for filter metrics
+     * @return the filter
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.idempotency.filter.enabled", havingValue = "true", matchIfMissing = true)
+    public OperationIdFilter operationIdFilter(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        var filter = properties.filter();
+        return new OperationIdFilter(filter.expectedInsertions(), filter.falsePositiveRate(),
+                filter.confirmedCapacity(), properties.retention().window(), Clock.systemUTC(), meterRegistry);
+    }
+
+    /**
+     * Puts the filter in front of the database lookups.
+     * @param adapter database-backed lookups
+     * @param filter operation id filter
+     * @return the filtered repository, preferred over the adapter
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "bank.accounts.idempotency.filter.enabled", havingValue = "true", matchIfMissing = true)
+    public FilteredOperationRepository filteredOperationRepository(OperationRepositoryAdapter adapter, OperationIdFilter filter) {
+        return new FilteredOperationRepository(adapter, filter);
+    }
+
+    /**
+     * Loads the recent operation ids into the filter at startup.
+     * @param properties idempotency settings
+     * @param jdbcTemplate JDBC access
+     * @param filter operation id filter
+     * @return the warm-up listener
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.idempotency.filter.enabled", havingValue = "true", matchIfMissing = true)
+    public OperationIdFilterWarmUp operationIdFilterWarmUp(IdempotencyProperties properties, JdbcTemplate jdbcTemplate,
+                                                           OperationIdFilter filter) {
+        return new OperationIdFilterWarmUp(jdbcTemplate, filter, properties.filter().warmUp(), Clock.systemUTC());
+    }
+
+    /**
+     * Creates and starts the purger of operation ids older than the retention window.
+     * @param properties idempotency settings
+     * @param jdbcTemplate JDBC access
+     * @param meterRegistry registry for purge metrics
+     * @param environment environment deciding between platform and virtual threads
+     * @return the started purger, closed with the context
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.idempotency.retention.enabled", havingValue = "true", matchIfMissing = true)
+    public OperationIdPurger operationIdPurger(IdempotencyProperties properties, JdbcTemplate jdbcTemplate,
+                                               MeterRegistry meterRegistry, Environment environment) {
+        var retention = properties.retention();
+        var purger = new OperationIdPurger(jdbcTemplate, retention.window(), retention.batchSize(),
+                Clock.systemUTC(), meterRegistry);
+        purger.start(retention.interval(), WorkerThreads.of(environment, "idempotency-purger-"));
+        return purger;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the idempotency checks ({@code bank.accounts.idempotency.*}).
+ *
+ * @param filter    in-memory filter in front of the operation id lookups
+ * @param retention how long operation ids are kept and how they are purged
+ */
+@ConfigurationProperties(prefix = "bank.accounts.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue Filter filter,
+        @DefaultValue Retention retention
+) {
+
+    /**
+     * Bloom filter of recently written operation ids plus an LRU of confirmed outcomes.
+     * Memory is fixed by these settings, not by the number of stored operations.
+     *
+     * @param enabled            whether lookups go through the filter
+     * @param expectedInsertions ids per Bloom filter generation (two generations are kept)
+     * @param falsePositiveRate  target false-positive rate of a generation
+     * @param confirmedCapacity  maximum confirmed outcomes in the LRU
+     * @param warmUp             age of the operation ids loaded into the filter at startup (0 disables); shorter
+     *                           than the retention window, older retries being caught by the unique constraint
+     */
+    public record Filter(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("1000000") long expectedInsertions,
+            @DefaultValue("0.01") double falsePositiveRate,
+            @DefaultValue("10000") int confirmedCapacity,
+            @DefaultValue("24h") Duration warmUp
+    ) {}
+
+    /**
+     * Idempotency retention: a retry is recognised only within the window. Older ids are purged in the
+     * background, in small batches.
+     *
+     * @param enabled   whether the background purger runs
+     * @param window    how long an operation id is kept
+     * @param batchSize rows purged per batch
+     * @param interval  delay between two purge runs
+     */
+    public record Retention(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("7d") Duration window,
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("10m") Duration interval
+    ) {}
+}
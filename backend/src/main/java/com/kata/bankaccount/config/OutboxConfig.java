@@ -0,0 +1,80 @@
+package com.kata.bankaccount.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.outbox.FileOutboxPublisher;
+import com.kata.bankaccount.adapter.out.outbox.InMemoryOutboxPublisher;
+import com.kata.bankaccount.application.ports.out.OutboxPublisher;
+import com.kata.bankaccount.application.ports.out.OutboxRepository;
+import com.kata.bankaccount.application.service.OutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Wires the outbox publisher selected by {@code bank.accounts.outbox.publisher.type} and, when
+ * {@code bank.accounts.outbox.relay.enabled} is true (default), the background relay feeding it and every
+ * other {@link OutboxPublisher} bean. Nothing
+ * is wired when {@code bank.accounts.outbox.enabled} is false; the account adapter then writes no outbox rows.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+@ConditionalOnProperty(name = "bank.accounts.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    /**
+     * Creates the publisher keeping the most recent events in memory.
+     * @param properties outbox settings
+     * @return the publisher
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.outbox.publisher.type", havingValue = "memory", matchIfMissing = true)
+    public InMemoryOutboxPublisher inMemoryOutboxPublisher(OutboxProperties properties) {
+        return new InMemoryOutboxPublisher(properties.publisher().memoryCapacity());
+    }
+
+    /**
+     * Creates the publisher appending the events to a file.
+     * @param properties outbox settings
+     * @param objectMapper JSON serialization of the events
+     * @return the publisher, whose file is closed with the context
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.outbox.publisher.type", havingValue = "file")
+    public FileOutboxPublisher fileOutboxPublisher(OutboxProperties properties, ObjectMapper objectMapper) {
+        var file = properties.publisher().file() != null
+                ? properties.publisher().file()
+                : Path.of(System.getProperty("java.io.tmpdir"), "bank-outbox", "events.jsonl");
+        return new FileOutboxPublisher(file, objectMapper);
+    }
+
+    /**
+     * Creates and starts the relay.
+     * @param properties outbox settings
+     * @param outboxRepository outbox persistence port
+     * @param publishers destinations of the events, e.g. the configured publisher and the history projector
+     * @param meterRegistry registry for relay metrics
+     * @param transactionOperations transaction of each relayed batch
+     * @param environment environment deciding between platform and virtual threads
+     * @return the started relay, closed with the context
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxProperties properties, OutboxRepository outboxRepository,
+                                   List<OutboxPublisher> publishers, MeterRegistry meterRegistry,
+                                   TransactionOperations transactionOperations, Environment environment) {
+        var relay = properties.relay();
+        // Every destination gets each batch within the same relay transaction: one failing fails the batch
+        OutboxPublisher all = events -> publishers.forEach(publisher -> publisher.publish(events));
+        var outboxRelay = new OutboxRelay(outboxRepository, all, transactionOperations, relay.batchSize(),
+                meterRegistry);
+        outboxRelay.start(relay.pollInterval(), WorkerThreads.of(environment, "outbox-relay-"));
+        return outboxRelay;
+    }
+}
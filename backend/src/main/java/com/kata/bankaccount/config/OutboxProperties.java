@@ -0,0 +1,57 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the account event outbox ({@code bank.accounts.outbox.*}).
+ *
+ * @param enabled   whether every new transaction is also written to the outbox
+ * @param relay     background relay of the outbox to the publisher
+ * @param publisher destination of the relayed events
+ */
+@ConfigurationProperties(prefix = "bank.accounts.outbox")
+public record OutboxProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Relay relay,
+        @DefaultValue Publisher publisher
+) {
+
+    /**
+     * The relay drains the outbox batch after batch, then waits for the poll interval.
+     *
+     * @param enabled      whether the relay runs on this instance; instances running it take turns per batch
+     * @param batchSize    events published and removed per transaction
+     * @param pollInterval delay between two runs, hence the delivery latency of an event on a quiet outbox
+     */
+    public record Relay(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("100") int batchSize,
+            @DefaultValue("1s") Duration pollInterval
+    ) {}
+
+    /**
+     * Where the relayed events go.
+     *
+     * @param type           memory (most recent events kept in memory) or file (JSON lines appended to a file)
+     * @param file           file written by the file publisher, {@code bank-outbox/events.jsonl} under the
+     *                       system temporary directory when not set
+     * @param memoryCapacity events kept by the memory publisher
+     */
+    public record Publisher(
+            @DefaultValue("memory") Type type,
+            Path file,
+            @DefaultValue("10000") int memoryCapacity
+    ) {}
+
+    /**
+     * Publisher implementations.
+     */
+    public enum Type {
+        MEMORY,
+        FILE
+    }
+}
@@ -0,0 +1,44 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.adapter.in.cli.RollupRebuildCommand;
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.RollupRepository;
+import com.kata.bankaccount.application.service.RollupRebuildService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the rebuild of the account rollups and the command line option running it.
+ */
+@Configuration
+@EnableConfigurationProperties(RollupProperties.class)
+public class RollupConfig {
+
+    /**
+     * Creates the rollup rebuild service.
+     * @param properties rollup settings
+     * @param accountRepository account persistence port
+     * @param rollupRepository rollup persistence port
+     * @return the rebuild service
+     */
+    @Bean
+    public RollupRebuildService rollupRebuildService(RollupProperties properties, AccountRepository accountRepository,
+                                                     RollupRepository rollupRepository) {
+        var rebuild = properties.rebuild();
+        return new RollupRebuildService(accountRepository, rollupRepository, rebuild.parallelism(), rebuild.chunkSize());
+    }
+
+    /**
+     * Creates the runner of the {@code --rebuild-rollups} option; without it, it does nothing.
+     * @param rebuildService rollup rebuild service
+     * @param context application context, closed once the rebuild is done
+     * @return the command
+     */
+    @Bean
+    public RollupRebuildCommand rollupRebuildCommand(RollupRebuildService rebuildService,
+                                                     ConfigurableApplicationContext context) {
+        return new RollupRebuildCommand(rebuildService, context);
+    }
+}
@@ -0,0 +1,26 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the account rollups ({@code bank.accounts.rollups.*}).
+ *
+ * @param rebuild recomputation of the rollups from the transaction history
+ */
+@ConfigurationProperties(prefix = "bank.accounts.rollups")
+public record RollupProperties(
+        @DefaultValue Rebuild rebuild
+) {
+
+    /**
+     * Rebuild run with the {@code --rebuild-rollups} command line option.
+     *
+     * @param parallelism accounts rebuilt at the same time, hence database connections held
+     * @param chunkSize   accounts handed to a worker at once
+     */
+    public record Rebuild(
+            @DefaultValue("4") int parallelism,
+            @DefaultValue("100") int chunkSize
+    ) {}
+}
@@ -0,0 +1,65 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.service.StatementCache;
+import com.kata.bankaccount.application.service.StatementJobService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+/**
+ * Wires the background statement export jobs and, when {@code bank.accounts.statement.cache.enabled}
+ * is true (default), the cache of closed-period statements.
+ */
+@Configuration
+@EnableConfigurationProperties(StatementProperties.class)
+public class StatementConfig {
+
+    /**
+     * Creates and starts the statement job service.
+     * @param properties statement settings
+     * @param exporter streaming CSV export
+     * @param accountRepository account persistence port
+     * @param meterRegistry registry for export metrics
+     * @param environment environment deciding between platform and virtual export workers
+     * @return the started service, closed with the context
+     */
+    @Bean
+    public StatementJobService statementJobService(StatementProperties properties, ExportStatementUseCase exporter,
+                                                   AccountRepository accountRepository, MeterRegistry meterRegistry,
+                                                   Environment environment) {
+        var jobs = properties.jobs();
+        var spoolDir = jobs.spoolDir() != null
+                ? jobs.spoolDir()
+                : Path.of(System.getProperty("java.io.tmpdir"), "bank-statement-jobs");
+        return new StatementJobService(exporter, accountRepository, spoolDir, jobs.workers(), jobs.queueCapacity(),
+                jobs.ttl(), jobs.sweepInterval(), Clock.systemUTC(), meterRegistry,
+                WorkerThreads.of(environment, "statement-export-"));
+    }
+
+    /**
+     * Creates the cache of closed-period statements.
+     * @param properties statement settings
+     * @param exporter streaming CSV export, used on cache misses
+     * @param meterRegistry registry for cache metrics
+     * @return the cache, whose files are deleted with the context
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bank.accounts.statement.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public StatementCache statementCache(StatementProperties properties, ExportStatementUseCase exporter,
+                                         MeterRegistry meterRegistry) {
+        var cache = properties.cache();
+        var dir = cache.dir() != null
+                ? cache.dir()
+                : Path.of(System.getProperty("java.io.tmpdir"), "bank-statement-cache");
+        return new StatementCache(exporter, dir, cache.maxMemory().toBytes(), cache.spillThreshold().toBytes(),
+                cache.maxDisk().toBytes(), cache.closeGrace(), Clock.systemUTC(), meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the statement export ({@code bank.accounts.statement.*}).
+ *
+ * @param jobs  background export jobs
+ * @param cache cache of closed-period statements
+ */
+@ConfigurationProperties(prefix = "bank.accounts.statement")
+public record StatementProperties(
+        @DefaultValue Jobs jobs,
+        @DefaultValue Cache cache
+) {
+
+    /**
+     * Background exports written to a spool directory and downloaded once complete.
+     *
+     * @param spoolDir      directory of the exported files, {@code bank-statement-jobs} under the system
+     *                      temporary directory when not set
+     * @param workers       exports running at the same time, hence database connections they may hold
+     * @param queueCapacity exports waiting for a worker before new jobs are rejected
+     * @param ttl           how long a finished job and its file are kept
+     * @param sweepInterval delay between two removals of expired jobs
+     */
+    public record Jobs(
+            Path spoolDir,
+            @DefaultValue("2") int workers,
+            @DefaultValue("100") int queueCapacity,
+            @DefaultValue("1h") Duration ttl,
+            @DefaultValue("1m") Duration sweepInterval
+    ) {}
+
+    /**
+     * Statements of periods that have ended never change: they are exported once and served from memory,
+     * or from disk for the large ones.
+     *
+     * @param enabled        whether closed-period statements are served from the cache
+     * @param dir            directory of the statements spilled to disk, {@code bank-statement-cache} under
+     *                       the system temporary directory when not set
+     * @param maxMemory      total size of the statements kept in memory
+     * @param spillThreshold size past which a statement is kept on disk rather than in memory
+     * @param maxDisk        total size of the statements kept on disk
+     * @param closeGrace     delay after midnight UTC before the previous day is considered closed, covering
+     *                       transactions still committing
+     */
+    public record Cache(
+            @DefaultValue("true") boolean enabled,
+            Path dir,
+            @DefaultValue("64MB") DataSize maxMemory,
+            @DefaultValue("1MB") DataSize spillThreshold,
+            @DefaultValue("1GB") DataSize maxDisk,
+            @DefaultValue("5m") Duration closeGrace
+    ) {}
+}
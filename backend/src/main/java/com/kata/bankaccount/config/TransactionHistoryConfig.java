@@ -0,0 +1,84 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.adapter.in.cli.HistoryRebuildCommand;
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.TransactionHistoryRepository;
+import com.kata.bankaccount.application.service.ProjectedTransactionsService;
+import com.kata.bankaccount.application.service.TransactionHistoryProjector;
+import com.kata.bankaccount.application.service.TransactionHistoryRebuildService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+
+/**
+ * Wires the history read model: its projector, fed by the outbox relay when both
+ * {@code bank.accounts.outbox.enabled} and {@code bank.accounts.history.projection.enabled} are true
+ * (default), the service serving the transaction pages from it when
+ * {@code bank.accounts.history.read-from-projection} is true, and its rebuild.
+ */
+@Configuration
+@EnableConfigurationProperties(TransactionHistoryProperties.class)
+public class TransactionHistoryConfig {
+
+    /**
+     * Creates the projector, picked up by the outbox relay as one of its destinations.
+     * @param historyRepository read model persistence port
+     * @param meterRegistry registry for projection metrics
+     * @return the projector
+     */
+    @Bean
+    @ConditionalOnProperty(name = {"bank.accounts.outbox.enabled", "bank.accounts.history.projection.enabled"},
+            havingValue = "true", matchIfMissing = true)
+    public TransactionHistoryProjector transactionHistoryProjector(TransactionHistoryRepository historyRepository,
+                                                                   MeterRegistry meterRegistry) {
+        return new TransactionHistoryProjector(historyRepository, Clock.systemUTC(), meterRegistry);
+    }
+
+    /**
+     * Creates the service serving the transaction pages from the read model, in place of the account service.
+     * @param accountRepository account persistence port
+     * @param historyRepository read model persistence port
+     * @return the service, preferred over the account service
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "bank.accounts.history.read-from-projection", havingValue = "true")
+    public ProjectedTransactionsService projectedTransactionsService(AccountRepository accountRepository,
+                                                                     TransactionHistoryRepository historyRepository) {
+        return new ProjectedTransactionsService(accountRepository, historyRepository);
+    }
+
+    /**
+     * Creates the read model rebuild service.
+     * @param properties history read model settings
+     * @param accountRepository account persistence port
+     * @param historyRepository read model persistence port
+     * @return the rebuild service
+     */
+    @Bean
+    public TransactionHistoryRebuildService transactionHistoryRebuildService(
+            TransactionHistoryProperties properties, AccountRepository accountRepository,
+            TransactionHistoryRepository historyRepository) {
+        var rebuild = properties.rebuild();
+        return new TransactionHistoryRebuildService(accountRepository, historyRepository, rebuild.parallelism(),
+                rebuild.chunkSize());
+    }
+
+    /**
+     * Creates the runner of the {@code --rebuild-history} option; without it, it does nothing.
+     * @param rebuildService read model rebuild service
+     * @param context application context, closed once the rebuild is done
+     * @return the command
+     */
+    @Bean
+    public HistoryRebuildCommand historyRebuildCommand(TransactionHistoryRebuildService rebuildService,
+                                                       ConfigurableApplicationContext context) {
+        return new HistoryRebuildCommand(rebuildService, context);
+    }
+}
@@ -0,0 +1,40 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the history read model ({@code bank.accounts.history.*}).
+ *
+ * @param projection         projection of the outbox into the read model
+ * @param readFromProjection whether the transaction pages are served from the read model rather than from
+ *                           the transactions table; they then lag behind writes by the outbox relay delay
+ * @param rebuild            copy of the transaction history into the read model
+ */
+@ConfigurationProperties(prefix = "bank.accounts.history")
+public record TransactionHistoryProperties(
+        @DefaultValue Projection projection,
+        @DefaultValue("false") boolean readFromProjection,
+        @DefaultValue Rebuild rebuild
+) {
+
+    /**
+     * The projector is a destination of the outbox relay, so it requires the outbox.
+     *
+     * @param enabled whether relayed events are written to the read model
+     */
+    public record Projection(
+            @DefaultValue("true") boolean enabled
+    ) {}
+
+    /**
+     * Rebuild run with the {@code --rebuild-history} command line option.
+     *
+     * @param parallelism accounts replayed at the same time, hence database connections held
+     * @param chunkSize   accounts handed to a worker at once
+     */
+    public record Rebuild(
+            @DefaultValue("4") int parallelism,
+            @DefaultValue("100") int chunkSize
+    ) {}
+}
@@ -0,0 +1,27 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories of the background workers, following {@code spring.threads.virtual.enabled} like the
+ * request threads: virtual threads when it is true on Java 21, platform daemon threads otherwise.
+ */
+final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * @param environment environment holding {@code spring.threads.virtual.enabled}
+     * @param prefix thread name prefix, followed by a counter starting at 0
+     * @return the factory of the worker threads
+     */
+    static ThreadFactory of(Environment environment, String prefix) {
+        return Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name(prefix, 0).factory()
+                : Thread.ofPlatform().name(prefix, 0).daemon().factory();
+    }
+}
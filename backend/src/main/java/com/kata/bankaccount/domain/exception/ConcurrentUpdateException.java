@@ -0,0 +1,25 @@
+package com.kata.bankaccount.domain.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown when an account keeps being changed concurrently and a write gives up retrying.
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+    private final UUID accountId;
+
+    /**
+     * Constructs a new ConcurrentUpdateException for the given account.
+     *
+     * @param accountId the ID of the contended account
+     * @param attempts the number of attempts made
+     */
+    public ConcurrentUpdateException(UUID accountId, int attempts) {
+        super("Account updated concurrently: " + accountId + " (gave up after " + attempts + " attempts)");
+        this.accountId = accountId;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+}
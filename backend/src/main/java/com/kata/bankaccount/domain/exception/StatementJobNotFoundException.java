@@ -0,0 +1,27 @@
+package com.kata.bankaccount.domain.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a statement export job is unknown, belongs to another account or has expired.
+ */
+public class StatementJobNotFoundException extends RuntimeException {
+    private final UUID jobId;
+
+    /**
+     * Constructs a new StatementJobNotFoundException for the given job.
+     *
+     * @param jobId the ID of the job that was not found
+     */
+    public StatementJobNotFoundException(UUID jobId) {
+        super("Statement job not found: " + jobId);
+        this.jobId = jobId;
+    }
+
+    /**
+     * @return the ID of the job that was not found
+     */
+    public UUID getJobId() {
+        return jobId;
+    }
+}
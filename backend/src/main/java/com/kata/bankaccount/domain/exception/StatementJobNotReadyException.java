@@ -0,0 +1,29 @@
+package com.kata.bankaccount.domain.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown when the file of a statement export job is requested before the job has completed,
+ * or after it has failed.
+ */
+public class StatementJobNotReadyException extends RuntimeException {
+    private final UUID jobId;
+
+    /**
+     * Constructs a new StatementJobNotReadyException for the given job.
+     *
+     * @param jobId the ID of the job whose file is not available
+     * @param status current status of the job
+     */
+    public StatementJobNotReadyException(UUID jobId, String status) {
+        super("Statement job " + jobId + " is " + status);
+        this.jobId = jobId;
+    }
+
+    /**
+     * @return the ID of the job whose file is not available
+     */
+    public UUID getJobId() {
+        return jobId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.kata.bankaccount.domain.exception;
+
+/**
+ * Thrown when a statement export job cannot be queued because the export queue is full.
+ */
+public class StatementJobRejectedException extends RuntimeException {
+    private final int queueCapacity;
+
+    /**
+     * Constructs a new StatementJobRejectedException.
+     *
+     * @param queueCapacity number of jobs the queue holds
+     */
+    public StatementJobRejectedException(int queueCapacity) {
+        super("Statement export queue is full (" + queueCapacity + " jobs), retry later");
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return number of jobs the queue holds
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+}
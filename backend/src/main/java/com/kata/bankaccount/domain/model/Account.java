@@ -21,6 +21,10 @@ public class Account {
      * Current balance of the account
      */
     private BigDecimal balance;
+    /**
+     * Version of the stored state this aggregate was loaded from (optimistic concurrency token)
+     */
+    private final long version;
 
     /**
      * Creates a new account with a random id and zero balance.
@@ -36,18 +40,31 @@ public class Account {
      * @param balance initial balance of the account
      */
     public Account(UUID id, BigDecimal balance) {
+        this(id, balance, 0L);
+    }
+
+    /**
+     * Creates an account loaded from a stored state with the given version.
+     *
+     * @param id      unique identifier of the account
+     * @param balance balance of the stored state
+     * @param version version of the stored state
+     */
+    public Account(UUID id, BigDecimal balance, long version) {
         this.id = Objects.requireNonNull(id, "id");
         this.balance = Objects.requireNonNull(balance, "balance");
+        this.version = version;
         this.transactions = new ArrayList<>();
     }
 
     /**
      * Ensures the amount is positive (> 0).
+     * Also used by write paths that change the stored balance without loading the aggregate.
      *
      * @param amount amount to check
      * @throws IllegalArgumentException when amount &lt;= 0
      */
-    private static void requirePositive(BigDecimal amount) {
+    public static void requirePositive(BigDecimal amount) {
         Objects.requireNonNull(amount, "amount");
         if (amount.signum() <= 0) {
             throw new IllegalArgumentException("Amount must be > 0");
@@ -61,9 +78,20 @@ public class Account {
      * @throws IllegalArgumentException when amount &lt;= 0
      */
     public void deposit(BigDecimal amount) {
+        deposit(amount, null);
+    }
+
+    /**
+     * Deposits a positive amount and appends a transaction recorded under the given idempotency key.
+     *
+     * @param amount      amount to add (> 0)
+     * @param operationId idempotency key stored on the transaction (optional)
+     * @throws IllegalArgumentException when amount &lt;= 0
+     */
+    public void deposit(BigDecimal amount, UUID operationId) {
         requirePositive(amount);
         balance = balance.add(amount);
-        transactions.add(Transaction.deposit(amount, balance));
+        transactions.add(Transaction.deposit(amount, balance, operationId));
     }
 
     /**
@@ -74,12 +102,25 @@ public class Account {
      * @throws com.kata.bankaccount.domain.exception.InsufficientFundsException when balance is insufficient
      */
     public void withdraw(BigDecimal amount) {
+        withdraw(amount, null);
+    }
+
+    /**
+     * Withdraws a positive amount if sufficient funds exist and appends a transaction recorded under
+     * the given idempotency key.
+     *
+     * @param amount      amount to subtract (> 0)
+     * @param operationId idempotency key stored on the transaction (optional)
+     * @throws IllegalArgumentException when amount &lt;= 0
+     * @throws com.kata.bankaccount.domain.exception.InsufficientFundsException when balance is insufficient
+     */
+    public void withdraw(BigDecimal amount, UUID operationId) {
         requirePositive(amount);
         if (balance.compareTo(amount) < 0) {
             throw new InsufficientFundsException("Insufficient funds: balance=" + balance + ", requested=" + amount);
         }
         balance = balance.subtract(amount);
-        transactions.add(Transaction.withdrawal(amount, balance));
+        transactions.add(Transaction.withdrawal(amount, balance, operationId));
     }
 
     public UUID getId() {
@@ -90,6 +131,10 @@ public class Account {
         return balance;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public List<Transaction> getTransactions() {
         return Collections.unmodifiableList(transactions);
     }
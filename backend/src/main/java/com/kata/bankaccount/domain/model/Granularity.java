@@ -0,0 +1,35 @@
+package com.kata.bankaccount.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Size of the periods account activity is summarized by. Periods are calendar days and months in UTC.
+ */
+public enum Granularity {
+    DAY,
+    MONTH;
+
+    /**
+     * Returns the first day of the period containing the given day.
+     * @param day any day of the period
+     * @return the day itself for {@link #DAY}, the first of its month for {@link #MONTH}
+     */
+    public LocalDate periodStart(LocalDate day) {
+        return this == DAY ? day : day.withDayOfMonth(1);
+    }
+
+    /**
+     * Parses a request parameter, case-insensitively.
+     * @param value {@code day} or {@code month}
+     * @return the granularity
+     * @throws IllegalArgumentException for any other value
+     */
+    public static Granularity parse(String value) {
+        for (Granularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("granularity must be day or month");
+    }
+}
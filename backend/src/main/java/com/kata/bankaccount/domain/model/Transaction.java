@@ -29,6 +29,10 @@ public class Transaction {
      * Balance after operation
      */
     private final BigDecimal resultingBalance;
+    /**
+     * Idempotency key of the request that created the transaction (optional)
+     */
+    private final UUID operationId;
 
 
     /**
@@ -38,13 +42,16 @@ public class Transaction {
      * @param amount           operation amount
      * @param timestamp        operation timestamp
      * @param resultingBalance balance after operation
+     * @param operationId      idempotency key (optional)
      */
-    private Transaction(UUID id, TransactionType type, BigDecimal amount, Instant timestamp, BigDecimal resultingBalance) {
+    private Transaction(UUID id, TransactionType type, BigDecimal amount, Instant timestamp, BigDecimal resultingBalance,
+                        UUID operationId) {
         this.id = Objects.requireNonNull(id, "id");
         this.type = Objects.requireNonNull(type, "type");
         this.amount = Objects.requireNonNull(amount, "amount");
         this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
         this.resultingBalance = Objects.requireNonNull(resultingBalance, "resultingBalance");
+        this.operationId = operationId;
     }
 
     /**
@@ -55,7 +62,19 @@ public class Transaction {
      * @return new transaction
      */
     public static Transaction withdrawal(BigDecimal amount, BigDecimal resultingBalance) {
-        return new Transaction(UUID.randomUUID(), TransactionType.WITHDRAWAL, amount, Instant.now(), resultingBalance);
+        return withdrawal(amount, resultingBalance, null);
+    }
+
+    /**
+     * Factory for a withdrawal transaction at current time, recorded under its idempotency key.
+     *
+     * @param amount           amount withdrawn
+     * @param resultingBalance balance after applying the withdrawal
+     * @param operationId      idempotency key (optional)
+     * @return new transaction
+     */
+    public static Transaction withdrawal(BigDecimal amount, BigDecimal resultingBalance, UUID operationId) {
+        return new Transaction(UUID.randomUUID(), TransactionType.WITHDRAWAL, amount, Instant.now(), resultingBalance, operationId);
     }
 
     /**
@@ -66,7 +85,19 @@ public class Transaction {
      * @return new transaction
      */
     public static Transaction deposit(BigDecimal amount, BigDecimal resultingBalance) {
-        return new Transaction(UUID.randomUUID(), TransactionType.DEPOSIT, amount, Instant.now(), resultingBalance);
+        return deposit(amount, resultingBalance, null);
+    }
+
+    /**
+     * Factory for a deposit transaction at current time, recorded under its idempotency key.
+     *
+     * @param amount           amount deposited
+     * @param resultingBalance balance after applying the deposit
+     * @param operationId      idempotency key (optional)
+     * @return new transaction
+     */
+    public static Transaction deposit(BigDecimal amount, BigDecimal resultingBalance, UUID operationId) {
+        return new Transaction(UUID.randomUUID(), TransactionType.DEPOSIT, amount, Instant.now(), resultingBalance, operationId);
     }
 
     /**
@@ -80,7 +111,7 @@ public class Transaction {
      * @return rehydrated transaction
      */
     public static Transaction of(UUID id, TransactionType type, BigDecimal amount, Instant timestamp, BigDecimal resultingBalance) {
-        return new Transaction(id, type, amount, timestamp, resultingBalance);
+        return new Transaction(id, type, amount, timestamp, resultingBalance, null);
     }
 
     public UUID getId() {
@@ -102,4 +133,8 @@ public class Transaction {
     public BigDecimal getResultingBalance() {
         return resultingBalance;
     }
+
+    public UUID getOperationId() {
+        return operationId;
+    }
 }
@@ -0,0 +1,218 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest;
+import com.kata.bankaccount.application.dto.request.DepositRequest;
+import com.kata.bankaccount.application.dto.request.WithdrawRequest;
+import com.kata.bankaccount.application.dto.response.AccountResponse;
+import com.kata.bankaccount.application.dto.response.BalanceResponse;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse;
+import com.kata.bankaccount.application.dto.response.DepositResponse;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
+import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.application.dto.response.WithdrawResponse;
+import com.kata.bankaccount.application.ports.in.ReactiveAccountCommandUseCase;
+import com.kata.bankaccount.application.ports.in.ReactiveAccountQueryUseCase;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * WebFlux counterpart of {@link AccountsController}, serving the same endpoints with the same answers when
+ * the application runs as a reactive web application (profile {@code reactive}). No request holds a
+ * thread while it waits for the database or for a slow client: reads come from R2DBC, and the transaction
+ * stream and the statement are written as the client consumes them.
+ * <p>
+ * Closed-period statements are not served from the statement cache and are not compressed here; a
+ * gateway in front can compress them.
+ */
+@RestController
+@RequestMapping("/v1/accounts")
+@Tag(name = "Accounts", description = "Operations on bank accounts")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountsController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ReactiveAccountQueryUseCase queryUseCase;
+    private final ReactiveAccountCommandUseCase commandUseCase;
+
+    /**
+     * Returns basic account details, or nothing (304) when the client already has them.
+     * @param accountId Account identifier
+     * @param exchange Current exchange, checked against the ETag
+     * @return Account id and balance, or empty when not modified
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get account", description = "Get account details (id and balance), with a weak ETag")
+    public Mono<AccountResponse> getAccount(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(hidden = true) ServerWebExchange exchange
+    ) {
+        return notModified(accountId, exchange)
+                .flatMap(notModified -> notModified ? Mono.empty() : queryUseCase.getAccountById(accountId));
+    }
+
+    /**
+     * Returns the balance of the account as of a past instant.
+     * @param accountId Account identifier
+     * @param at Instant of the balance (ISO-8601)
+     * @return Account id, instant and balance
+     */
+    @GetMapping("/{id}/balance")
+    @Operation(summary = "Get balance at an instant")
+    public Mono<BalanceResponse> balanceAt(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Instant of the balance (ISO-8601)", required = true)
+            @RequestParam("at") Instant at
+    ) {
+        return queryUseCase.balanceAt(accountId, at);
+    }
+
+    /**
+     * Deposit money into an account. Idempotent using the operationId.
+     * @param accountId Account identifier
+     * @param request Deposit request payload
+     * @return Updated balance and whether the deposit was applied: 201 when applied, 200 when replayed
+     */
+    @PostMapping("/{id}/deposit")
+    @Operation(summary = "Deposit money")
+    public Mono<ResponseEntity<DepositResponse>> deposit(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Valid @RequestBody DepositRequest request
+    ) {
+        return commandUseCase.deposit(accountId, request.amount(), request.operationId())
+                .map(response -> ResponseEntity.status(response.applied() ? HttpStatus.CREATED : HttpStatus.OK)
+                        .body(response));
+    }
+
+    /**
+     * Withdraw money from an account. Idempotent using the operationId.
+     * @param accountId Account identifier
+     * @param request Withdraw request payload
+     * @return Updated balance
+     */
+    @PostMapping("/{id}/withdraw")
+    @Operation(summary = "Withdraw money")
+    public Mono<WithdrawResponse> withdraw(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Valid @RequestBody WithdrawRequest request
+    ) {
+        return commandUseCase.withdraw(accountId, request.amount(), request.operationId());
+    }
+
+    /**
+     * Applies a batch of deposits and withdrawals.
+     * @param request Commands and atomicity mode
+     * @return Result of each command
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Apply a batch of deposits and withdrawals")
+    public Mono<BatchCommandResponse> batch(@Valid @RequestBody BatchCommandRequest request) {
+        return commandUseCase.execute(request.commands(), request.atomicity());
+    }
+
+    /**
+     * Lists one page of transactions of an account, optionally filtered by time range.
+     * @param accountId Account identifier
+     * @param from Inclusive start timestamp (optional)
+     * @param to Inclusive end timestamp (optional)
+     * @param cursor Cursor of the page to read, from the previous page (optional)
+     * @param limit Maximum number of transactions in the page
+     * @param exchange Current exchange, checked against the ETag
+     * @return Transactions sorted by timestamp desc and the cursor of the next page, or empty when not modified
+     */
+    @GetMapping("/{id}/transactions")
+    @Operation(summary = "List transactions", description = "List one page of the account transactions, newest first")
+    public Mono<TransactionPageResponse> transactions(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Start of time range (ISO-8601)")
+            @RequestParam(value = "from", required = false) Instant from,
+            @Parameter(description = "End of time range (ISO-8601)")
+            @RequestParam(value = "to", required = false) Instant to,
+            @Parameter(description = "Opaque cursor returned as next by the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (1 to 500)")
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @Parameter(hidden = true) ServerWebExchange exchange
+    ) {
+        return notModified(accountId, exchange)
+                .flatMap(notModified -> notModified
+                        ? Mono.empty()
+                        : queryUseCase.transactions(accountId, from, to, cursor, limit));
+    }
+
+    /**
+     * Streams every transaction of the period as newline-delimited JSON, newest first, without paging.
+     * Rows are read from the database as the client consumes them.
+     * @param accountId Account identifier
+     * @param from Inclusive start timestamp (optional)
+     * @param to Inclusive end timestamp (optional)
+     * @return Transactions sorted by timestamp desc
+     */
+    @GetMapping(value = "/{id}/transactions/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Stream transactions", description = "Stream all the transactions of the period as NDJSON")
+    public Mono<ResponseEntity<Flux<TransactionResponse>>> streamTransactions(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Start of time range (ISO-8601)")
+            @RequestParam(value = "from", required = false) Instant from,
+            @Parameter(description = "End of time range (ISO-8601)")
+            @RequestParam(value = "to", required = false) Instant to
+    ) {
+        // The content type is only set once the account is found, so a 404 is still answered as JSON
+        return queryUseCase.streamTransactions(accountId, from, to)
+                .map(transactions -> ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(transactions));
+    }
+
+    /**
+     * Streams the account statement as CSV, written as the client consumes it.
+     * @param accountId Account identifier
+     * @param from Inclusive start date (optional)
+     * @param to Inclusive end date (optional)
+     * @return CSV lines: date, operation, amount, balance
+     */
+    @GetMapping(value = "/{id}/statement", produces = {"text/csv", "application/json"})
+    @Operation(summary = "Export account statement (CSV)")
+    public Mono<ResponseEntity<Flux<String>>> statement(
+            @Parameter(description = "Account ID") @PathVariable("id") UUID accountId,
+            @Parameter(description = "Start date (YYYY-MM-DD)")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "End date (YYYY-MM-DD)")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        // The content type is only set once the account is found, so a 404 is still answered as JSON
+        return queryUseCase.statementCsv(accountId, from, to)
+                .map(lines -> ResponseEntity.ok().contentType(TEXT_CSV).body(lines));
+    }
+
+    /**
+     * Checks If-None-Match against the account version, with the same weak ETag as {@link AccountsController}.
+     */
+    private Mono<Boolean> notModified(UUID accountId, ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().setCacheControl(CacheControl.noCache().cachePrivate());
+        return queryUseCase.version(accountId)
+                .map(version -> exchange.checkNotModified("W/\"" + version + "\""));
+    }
+}
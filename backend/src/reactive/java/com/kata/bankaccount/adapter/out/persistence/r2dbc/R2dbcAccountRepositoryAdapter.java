@@ -0,0 +1,43 @@
+package com.kata.bankaccount.adapter.out.persistence.r2dbc;
+
+import com.kata.bankaccount.application.ports.out.ReactiveAccountRepository;
+import com.kata.bankaccount.domain.model.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * R2DBC implementation of the {@link ReactiveAccountRepository} port, on the {@code accounts} table.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcAccountRepositoryAdapter implements ReactiveAccountRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Account> findById(UUID accountId) {
+        return databaseClient.sql("select id, balance, version from accounts where id = :id")
+                .bind("id", accountId)
+                .map(row -> new Account(
+                        row.get("id", UUID.class),
+                        row.get("balance", BigDecimal.class),
+                        row.get("version", Long.class)))
+                .one();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(UUID accountId) {
+        return databaseClient.sql("select 1 from accounts where id = :id")
+                .bind("id", accountId)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+}
@@ -0,0 +1,41 @@
+package com.kata.bankaccount.adapter.out.persistence.r2dbc;
+
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import com.kata.bankaccount.application.ports.out.ReactiveOperationRepository;
+import com.kata.bankaccount.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * R2DBC implementation of the {@link ReactiveOperationRepository} port: a lookup on the unique index of
+ * {@code transactions.operation_id}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcOperationRepositoryAdapter implements ReactiveOperationRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<AppliedOperation> findByOperationId(UUID operationId) {
+        return databaseClient.sql("select account_id, type, resulting_balance, timestamp from transactions "
+                        + "where operation_id = :operationId")
+                .bind("operationId", operationId)
+                .map(row -> new AppliedOperation(
+                        operationId,
+                        row.get("account_id", UUID.class),
+                        TransactionType.valueOf(row.get("type", String.class)),
+                        row.get("resulting_balance", BigDecimal.class),
+                        row.get("timestamp", LocalDateTime.class).toInstant(ZoneOffset.UTC)))
+                .one();
+    }
+}
@@ -0,0 +1,100 @@
+package com.kata.bankaccount.adapter.out.persistence.r2dbc;
+
+import com.kata.bankaccount.application.ports.out.ReactiveTransactionRepository;
+import com.kata.bankaccount.application.ports.out.TransactionCursor;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * R2DBC implementation of the {@link ReactiveTransactionRepository} port, with the same queries as the
+ * JPA and JDBC adapters on the (account_id, timestamp, id) index.
+ * <p>
+ * Timestamps are stored in UTC without a time zone, as Hibernate writes them: they are bound and read as
+ * {@link LocalDateTime} in UTC, which every driver maps to that column type.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcTransactionRepositoryAdapter implements ReactiveTransactionRepository {
+
+    // Stand-ins for an open period, so the queries never bind a null timestamp
+    private static final Instant MIN_TIMESTAMP = Instant.parse("1900-01-01T00:00:00Z");
+    private static final Instant MAX_TIMESTAMP = Instant.parse("3000-01-01T00:00:00Z");
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String PERIOD = "select id, type, amount, timestamp, resulting_balance from transactions "
+            + "where account_id = :accountId and timestamp >= :from and timestamp <= :to ";
+    private static final String FIRST_PAGE = PERIOD
+            + "order by timestamp desc, id desc fetch first :limit rows only";
+    private static final String PAGE_AFTER = PERIOD
+            + "and (timestamp < :afterTimestamp or (timestamp = :afterTimestamp and id < :afterId)) "
+            + "order by timestamp desc, id desc fetch first :limit rows only";
+    private static final String STREAM = PERIOD + "order by timestamp desc, id desc";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<Transaction> findPage(UUID accountId, Instant from, Instant to, TransactionCursor after, int limit) {
+        var spec = databaseClient.sql(after == null ? FIRST_PAGE : PAGE_AFTER)
+                .bind("accountId", accountId)
+                .bind("from", utc(from != null ? from : MIN_TIMESTAMP))
+                .bind("to", utc(to != null ? to : MAX_TIMESTAMP))
+                .bind("limit", limit);
+        if (after != null) {
+            spec = spec.bind("afterTimestamp", utc(after.timestamp())).bind("afterId", after.id());
+        }
+        return spec.map(R2dbcTransactionRepositoryAdapter::toTransaction).all();
+    }
+
+    /**
+     * Rows are requested from the database as the subscriber consumes them, in fetches of a bounded size
+     * where the driver supports cursors, so a slow client holds a connection but never a whole statement.
+     */
+    @Override
+    public Flux<Transaction> findInPeriod(UUID accountId, Instant from, Instant to) {
+        return databaseClient.sql(STREAM)
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .bind("accountId", accountId)
+                .bind("from", utc(from != null ? from : MIN_TIMESTAMP))
+                .bind("to", utc(to != null ? to : MAX_TIMESTAMP))
+                .map(R2dbcTransactionRepositoryAdapter::toTransaction)
+                .all();
+    }
+
+    @Override
+    public Mono<BigDecimal> balanceAt(UUID accountId, Instant at) {
+        return databaseClient.sql("select resulting_balance from transactions where account_id = :accountId "
+                        + "and timestamp <= :at order by timestamp desc, id desc fetch first 1 rows only")
+                .bind("accountId", accountId)
+                .bind("at", utc(at))
+                .map(row -> row.get("resulting_balance", BigDecimal.class))
+                .first();
+    }
+
+    private static Transaction toTransaction(Readable row) {
+        return Transaction.of(
+                row.get("id", UUID.class),
+                TransactionType.valueOf(row.get("type", String.class)),
+                row.get("amount", BigDecimal.class),
+                row.get("timestamp", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                row.get("resulting_balance", BigDecimal.class));
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,41 @@
+package com.kata.bankaccount.application.ports.in;
+
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse;
+import com.kata.bankaccount.application.dto.response.DepositResponse;
+import com.kata.bankaccount.application.dto.response.WithdrawResponse;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+/**
+ * Non-blocking use cases for deposits and withdrawals, with the same results and errors as
+ * {@link DepositUseCase}, {@link WithdrawUseCase} and {@link BatchCommandUseCase}, signalled rather
+ * than thrown.
+ */
+public interface ReactiveAccountCommandUseCase {
+
+    /**
+     * @param accountId account identifier
+     * @param amount positive amount to deposit
+     * @param operationId idempotency key
+     * @return updated balance and whether it was applied
+     */
+    Mono<DepositResponse> deposit(UUID accountId, BigDecimal amount, UUID operationId);
+
+    /**
+     * @param accountId account identifier
+     * @param amount positive amount to withdraw
+     * @param operationId idempotency key
+     * @return updated balance
+     */
+    Mono<WithdrawResponse> withdraw(UUID accountId, BigDecimal amount, UUID operationId);
+
+    /**
+     * @param commands commands in request order
+     * @param atomicity failure mode; null means {@link BatchCommandRequest.Atomicity#PER_COMMAND}
+     * @return one result per command, in request order
+     */
+    Mono<BatchCommandResponse> execute(List<BatchCommandRequest.Command> commands, BatchCommandRequest.Atomicity atomicity);
+}
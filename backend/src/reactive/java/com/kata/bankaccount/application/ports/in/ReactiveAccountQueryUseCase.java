@@ -0,0 +1,70 @@
+package com.kata.bankaccount.application.ports.in;
+
+import com.kata.bankaccount.application.dto.response.AccountResponse;
+import com.kata.bankaccount.application.dto.response.BalanceResponse;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
+import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+/**
+ * Non-blocking use cases for reading an account, its history and its statement, with the same results as
+ * {@link GetAccountUseCase}, {@link ListTransactionsUseCase} and {@link ExportStatementUseCase}. Errors are
+ * signalled, not thrown: AccountNotFoundException when the account is absent, IllegalArgumentException for
+ * an invalid cursor or limit.
+ */
+public interface ReactiveAccountQueryUseCase {
+
+    /**
+     * @param accountId account identifier
+     * @return id and current balance
+     */
+    Mono<AccountResponse> getAccountById(UUID accountId);
+
+    /**
+     * @param accountId account identifier
+     * @return current version, see {@link GetAccountUseCase#version}
+     */
+    Mono<Long> version(UUID accountId);
+
+    /**
+     * @param accountId account identifier
+     * @param at instant (inclusive)
+     * @return id, instant and balance, zero before the first transaction
+     */
+    Mono<BalanceResponse> balanceAt(UUID accountId, Instant at);
+
+    /**
+     * @param accountId account identifier
+     * @param from inclusive start timestamp (optional)
+     * @param to inclusive end timestamp (optional)
+     * @param cursor opaque cursor returned as {@code next} by the previous page (optional)
+     * @param limit maximum number of transactions in the page
+     * @return transactions sorted by timestamp desc and the cursor of the next page
+     */
+    Mono<TransactionPageResponse> transactions(UUID accountId, Instant from, Instant to, String cursor, int limit);
+
+    /**
+     * Streams every transaction of the period, newest first, at the pace of the subscriber. The stream is
+     * handed over once the account is known to exist, so a missing account is reported before a response
+     * is started.
+     * @param accountId account identifier
+     * @param from inclusive start timestamp (optional)
+     * @param to inclusive end timestamp (optional)
+     * @return transactions sorted by timestamp desc
+     */
+    Mono<Flux<TransactionResponse>> streamTransactions(UUID accountId, Instant from, Instant to);
+
+    /**
+     * Streams the CSV statement, header first then one line per transaction, at the pace of the subscriber.
+     * The stream is handed over once the account is known to exist, like {@link #streamTransactions}.
+     * @param accountId account identifier
+     * @param from inclusive start date (optional, UTC)
+     * @param to inclusive end date (optional, UTC)
+     * @return CSV lines, each ending with a line feed
+     */
+    Mono<Flux<String>> statementCsv(UUID accountId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,26 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.Account;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking read port for accounts, the reactive counterpart of the reads of {@link AccountRepository}.
+ * Nothing is locked and nothing is cached: the state is the one committed when the query runs.
+ */
+public interface ReactiveAccountRepository {
+    /**
+     * Loads the account without acquiring a lock.
+     * @param accountId account identifier
+     * @return the account, empty when absent
+     */
+    Mono<Account> findById(UUID accountId);
+
+    /**
+     * Checks that the account exists without loading it.
+     * @param accountId account identifier
+     * @return true when the account exists
+     */
+    Mono<Boolean> existsById(UUID accountId);
+}
@@ -0,0 +1,17 @@
+package com.kata.bankaccount.application.ports.out;
+
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking idempotency lookup, the reactive counterpart of {@link OperationRepository#findByOperationId}.
+ */
+public interface ReactiveOperationRepository {
+    /**
+     * Returns the recorded outcome of an applied operation.
+     * @param operationId idempotency key
+     * @return the outcome, empty when the operation was never applied
+     */
+    Mono<AppliedOperation> findByOperationId(UUID operationId);
+}
@@ -0,0 +1,45 @@
+package com.kata.bankaccount.application.ports.out;
+
+import com.kata.bankaccount.domain.model.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Non-blocking read port for transactions, the reactive counterpart of {@link TransactionRepository},
+ * with the same order, paging and balance lookup.
+ */
+public interface ReactiveTransactionRepository {
+    /**
+     * Returns one page of transactions, like {@link TransactionRepository#findPage}.
+     * @param accountId account identifier
+     * @param from inclusive start timestamp (optional)
+     * @param to inclusive end timestamp (optional)
+     * @param after key of the last row of the previous page (optional, null for the first page)
+     * @param limit maximum number of rows returned
+     * @return transactions sorted by timestamp desc, id desc
+     */
+    Flux<Transaction> findPage(UUID accountId, Instant from, Instant to, TransactionCursor after, int limit);
+
+    /**
+     * Streams every transaction of the account in the optional period, sorted by timestamp desc then id
+     * desc. Rows are fetched as the subscriber requests them, so a slow subscriber slows the query down
+     * rather than buffering its result; cancelling the subscription stops the query.
+     * @param accountId account identifier
+     * @param from inclusive start timestamp (optional)
+     * @param to inclusive end timestamp (optional)
+     * @return transactions, in order
+     */
+    Flux<Transaction> findInPeriod(UUID accountId, Instant from, Instant to);
+
+    /**
+     * Returns the balance of the account as of the given instant, like {@link TransactionRepository#balanceAt}.
+     * @param accountId account identifier
+     * @param at instant (inclusive)
+     * @return the balance, empty when the account had no transaction yet at that instant
+     */
+    Mono<BigDecimal> balanceAt(UUID accountId, Instant at);
+}
@@ -0,0 +1,188 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest;
+import com.kata.bankaccount.application.dto.response.AccountResponse;
+import com.kata.bankaccount.application.dto.response.BalanceResponse;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse;
+import com.kata.bankaccount.application.dto.response.DepositResponse;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
+import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.application.dto.response.WithdrawResponse;
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
+import com.kata.bankaccount.application.ports.in.DepositUseCase;
+import com.kata.bankaccount.application.ports.in.ReactiveAccountCommandUseCase;
+import com.kata.bankaccount.application.ports.in.ReactiveAccountQueryUseCase;
+import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import com.kata.bankaccount.application.ports.out.ReactiveAccountRepository;
+import com.kata.bankaccount.application.ports.out.ReactiveOperationRepository;
+import com.kata.bankaccount.application.ports.out.ReactiveTransactionRepository;
+import com.kata.bankaccount.application.ports.out.TransactionCursor;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.model.Account;
+import com.kata.bankaccount.domain.model.TransactionType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Reactive application service behind the WebFlux adapter. Reads go through the reactive ports and never
+ * block. Writes keep going through the blocking use cases, on {@code writeScheduler}: the account lock,
+ * the idempotency constraint, the outbox, the rollups and the caches are all maintained in the JDBC
+ * transaction of the write path, which a second, reactive write path would have to duplicate.
+ * <p>
+ * A retried operation is answered from the reactive idempotency lookup, without taking a thread from
+ * {@code writeScheduler}, with the same outcome the write path would return.
+ */
+public class ReactiveAccountService implements ReactiveAccountQueryUseCase, ReactiveAccountCommandUseCase {
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveOperationRepository operationRepository;
+    private final DepositUseCase depositUseCase;
+    private final WithdrawUseCase withdrawUseCase;
+    private final BatchCommandUseCase batchCommandUseCase;
+    private final Scheduler writeScheduler;
+
+    /**
+     * @param accountRepository reactive account reads
+     * @param transactionRepository reactive transaction reads
+     * @param operationRepository reactive idempotency lookup
+     * @param depositUseCase blocking deposit
+     * @param withdrawUseCase blocking withdrawal
+     * @param batchCommandUseCase blocking batch of commands
+     * @param writeScheduler scheduler the blocking writes run on
+     */
+    public ReactiveAccountService(ReactiveAccountRepository accountRepository,
+                                  ReactiveTransactionRepository transactionRepository,
+                                  ReactiveOperationRepository operationRepository,
+                                  DepositUseCase depositUseCase,
+                                  WithdrawUseCase withdrawUseCase,
+                                  BatchCommandUseCase batchCommandUseCase,
+                                  Scheduler writeScheduler) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.operationRepository = operationRepository;
+        this.depositUseCase = depositUseCase;
+        this.withdrawUseCase = withdrawUseCase;
+        this.batchCommandUseCase = batchCommandUseCase;
+        this.writeScheduler = writeScheduler;
+    }
+
+    @Override
+    public Mono<AccountResponse> getAccountById(UUID accountId) {
+        Objects.requireNonNull(accountId, "accountId");
+        return accountRepository.findById(accountId)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(accountId)))
+                .map(account -> new AccountResponse(account.getId(), account.getBalance()));
+    }
+
+    @Override
+    public Mono<Long> version(UUID accountId) {
+        Objects.requireNonNull(accountId, "accountId");
+        return accountRepository.findById(accountId)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(accountId)))
+                .map(Account::getVersion);
+    }
+
+    @Override
+    public Mono<BalanceResponse> balanceAt(UUID accountId, Instant at) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(at, "at");
+        return requireAccount(accountId)
+                .then(transactionRepository.balanceAt(accountId, at).defaultIfEmpty(BigDecimal.ZERO))
+                .map(balance -> new BalanceResponse(accountId, at, balance));
+    }
+
+    @Override
+    public Mono<TransactionPageResponse> transactions(UUID accountId, Instant from, Instant to, String cursor,
+                                                      int limit) {
+        Objects.requireNonNull(accountId, "accountId");
+        TransactionCursor after;
+        try {
+            after = AccountService.pageStart(cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        return requireAccount(accountId)
+                .then(transactionRepository.findPage(accountId, from, to, after, limit + 1).collectList())
+                .map(rows -> AccountService.page(rows, limit));
+    }
+
+    @Override
+    public Mono<Flux<TransactionResponse>> streamTransactions(UUID accountId, Instant from, Instant to) {
+        Objects.requireNonNull(accountId, "accountId");
+        var transactions = transactionRepository.findInPeriod(accountId, from, to)
+                .map(TransactionResponse::from);
+        return requireAccount(accountId).thenReturn(transactions);
+    }
+
+    @Override
+    public Mono<Flux<String>> statementCsv(UUID accountId, LocalDate from, LocalDate to) {
+        Objects.requireNonNull(accountId, "accountId");
+        var rows = transactionRepository.findInPeriod(accountId, AccountService.periodStart(from),
+                        AccountService.periodEnd(to))
+                .map(t -> {
+                    var line = new StringBuilder(64);
+                    AccountService.writeRow(line, t);
+                    return line.toString();
+                });
+        return requireAccount(accountId).thenReturn(Flux.concat(Mono.just(AccountService.STATEMENT_HEADER), rows));
+    }
+
+    @Override
+    public Mono<DepositResponse> deposit(UUID accountId, BigDecimal amount, UUID operationId) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(operationId, "operationId");
+        return replayed(TransactionType.DEPOSIT, accountId, operationId)
+                .map(original -> new DepositResponse(accountId, original.resultingBalance(), false))
+                .switchIfEmpty(blocking(() -> depositUseCase.deposit(accountId, amount, operationId)));
+    }
+
+    @Override
+    public Mono<WithdrawResponse> withdraw(UUID accountId, BigDecimal amount, UUID operationId) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(operationId, "operationId");
+        return replayed(TransactionType.WITHDRAWAL, accountId, operationId)
+                .map(original -> new WithdrawResponse(accountId, original.resultingBalance()))
+                .switchIfEmpty(blocking(() -> withdrawUseCase.withdraw(accountId, amount, operationId)));
+    }
+
+    @Override
+    public Mono<BatchCommandResponse> execute(List<BatchCommandRequest.Command> commands,
+                                              BatchCommandRequest.Atomicity atomicity) {
+        return blocking(() -> batchCommandUseCase.execute(commands, atomicity));
+    }
+
+    private Mono<Void> requireAccount(UUID accountId) {
+        return accountRepository.existsById(accountId)
+                .flatMap(exists -> exists ? Mono.<Void>empty() : Mono.error(new AccountNotFoundException(accountId)));
+    }
+
+    /**
+     * Looks the operation id up as the write path does after a duplicate: an id already used for another
+     * account or operation type is rejected.
+     */
+    private Mono<AppliedOperation> replayed(TransactionType type, UUID accountId, UUID operationId) {
+        return operationRepository.findByOperationId(operationId)
+                .handle((original, sink) -> {
+                    if (!original.accountId().equals(accountId) || original.type() != type) {
+                        sink.error(new IllegalArgumentException(
+                                "operationId " + operationId + " was already used for another operation"));
+                    } else {
+                        sink.next(original);
+                    }
+                });
+    }
+
+    private <T> Mono<T> blocking(Callable<T> write) {
+        return Mono.fromCallable(write).subscribeOn(writeScheduler);
+    }
+}
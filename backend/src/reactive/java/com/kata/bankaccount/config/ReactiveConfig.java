@@ -0,0 +1,117 @@
+package com.kata.bankaccount.config;
+
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
+import com.kata.bankaccount.application.ports.in.DepositUseCase;
+import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
+import com.kata.bankaccount.application.ports.out.ReactiveAccountRepository;
+import com.kata.bankaccount.application.ports.out.ReactiveOperationRepository;
+import com.kata.bankaccount.application.ports.out.ReactiveTransactionRepository;
+import com.kata.bankaccount.application.service.ReactiveAccountService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Wires the reactive adapters when the application runs as a reactive web application, which the
+ * {@code reactive} profile selects: the R2DBC connection pool the reads use, and the service behind the
+ * WebFlux controller. Spring Boot's own R2DBC auto-configuration stays excluded (see {@code reactive.yml}),
+ * so that the JPA transaction manager remains the only one.
+ * <p>
+ * The pool is kept inside {@link ReactiveConnections} rather than published as a {@code ConnectionFactory}
+ * bean: Spring Boot backs off its JDBC {@code DataSource} as soon as such a bean exists, which would take the
+ * JPA repositories of the write path with it.
+ */
+@Configuration
+@EnableConfigurationProperties(ReactiveProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    /**
+     * Creates the R2DBC connection pool.
+     * @param properties reactive settings
+     * @return the pool, disposed with the context
+     */
+    @Bean(destroyMethod = "dispose")
+    public ReactiveConnections reactiveConnections(ReactiveProperties properties) {
+        var options = ConnectionFactoryOptions.parse(properties.url()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.username())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.password())
+                .build();
+        var pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(properties.pool().maxSize())
+                .build());
+        return new ReactiveConnections(pool);
+    }
+
+    /**
+     * Creates the client the R2DBC adapters run their queries with.
+     * @param connections R2DBC connection pool
+     * @return the client
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ReactiveConnections connections) {
+        return DatabaseClient.create(connections.pool());
+    }
+
+    /**
+     * Creates the scheduler the blocking writes run on: a virtual thread per write when
+     * {@code spring.threads.virtual.enabled} is true, the bounded elastic scheduler otherwise.
+     * @param environment environment deciding between platform and virtual threads
+     * @return the scheduler, disposed with the context
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler reactiveWriteScheduler(Environment environment) {
+        return Threading.VIRTUAL.isActive(environment)
+                ? Schedulers.fromExecutorService(Executors.newThreadPerTaskExecutor(
+                        WorkerThreads.of(environment, "reactive-write-")), "reactive-write")
+                : Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "reactive-write", 60, true);
+    }
+
+    /**
+     * Creates the service behind the WebFlux controller.
+     * @param accountRepository reactive account reads
+     * @param transactionRepository reactive transaction reads
+     * @param operationRepository reactive idempotency lookup
+     * @param depositUseCase blocking deposit, e.g. the account service or the executor
+     * @param withdrawUseCase blocking withdrawal
+     * @param batchCommandUseCase blocking batch of commands
+     * @param reactiveWriteScheduler scheduler of the blocking writes
+     * @return the service
+     */
+    @Bean
+    public ReactiveAccountService reactiveAccountService(ReactiveAccountRepository accountRepository,
+                                                         ReactiveTransactionRepository transactionRepository,
+                                                         ReactiveOperationRepository operationRepository,
+                                                         DepositUseCase depositUseCase,
+                                                         WithdrawUseCase withdrawUseCase,
+                                                         BatchCommandUseCase batchCommandUseCase,
+                                                         Scheduler reactiveWriteScheduler) {
+        return new ReactiveAccountService(accountRepository, transactionRepository, operationRepository,
+                depositUseCase, withdrawUseCase, batchCommandUseCase, reactiveWriteScheduler);
+    }
+
+    /**
+     * The R2DBC connection pool of the reactive adapters, reachable only through their {@link DatabaseClient}.
+     * @param pool the pool
+     */
+    public record ReactiveConnections(ConnectionPool pool) {
+
+        /** Closes the pooled connections. */
+        public void dispose() {
+            pool.dispose();
+        }
+    }
+}
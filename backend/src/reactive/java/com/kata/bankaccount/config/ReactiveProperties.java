@@ -0,0 +1,33 @@
+package com.kata.bankaccount.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the reactive adapters ({@code bank.accounts.reactive.*}), used when the application runs
+ * as a reactive web application (profile {@code reactive}).
+ *
+ * @param url      R2DBC URL of the database the reads are served from; the same database as
+ *                 {@code spring.datasource.url}
+ * @param username database user
+ * @param password database password
+ * @param pool     R2DBC connection pool
+ */
+@ConfigurationProperties(prefix = "bank.accounts.reactive")
+public record ReactiveProperties(
+        @DefaultValue("r2dbc:h2:mem:///bank?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE") String url,
+        @DefaultValue("sa") String username,
+        @DefaultValue("") String password,
+        @DefaultValue Pool pool
+) {
+
+    /**
+     * A connection is held for the whole of a streamed response, so the pool bounds the streams served at
+     * once; further subscribers wait for a connection without holding a thread.
+     *
+     * @param maxSize connections opened at most
+     */
+    public record Pool(
+            @DefaultValue("20") int maxSize
+    ) {}
+}
@@ -0,0 +1,93 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for GET /v1/accounts/{id}/events: the stream starts with the current balance and
+ * gets one event per committed write, none for a rejected one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class AccountEventsIntegrationTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+
+    UUID accountId;
+
+    /** Prepares a fresh account with 20.00 balance for each test. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, new BigDecimal("20.00")));
+    }
+
+    /** A deposit and a withdrawal are pushed after their commit; a rejected withdrawal is not. */
+    @Test
+    void events_followCommittedWrites() throws Exception {
+        // Given: an open stream, starting with the current state
+        MockHttpServletResponse stream = mockMvc.perform(get("/v1/accounts/" + accountId + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitEvents(stream, 1);
+        assertThat(stream.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(stream.getContentAsString()).contains("\"balance\":20", "\"version\":0", "\"transactions\":[]");
+
+        // When
+        apply("deposit", "10.00").andExpect(status().isCreated());
+        apply("withdraw", "500.00").andExpect(status().isConflict());
+        apply("withdraw", "5.00").andExpect(status().isOk());
+
+        // Then
+        awaitEvents(stream, 3);
+        var content = stream.getContentAsString();
+        assertThat(content).contains("\"version\":1", "\"type\":\"DEPOSIT\"", "\"balance\":30");
+        assertThat(content).contains("\"version\":2", "\"type\":\"WITHDRAWAL\"", "\"balance\":25");
+        assertThat(content).doesNotContain("500.00");
+    }
+
+    /** An unknown account answers 404 as JSON instead of opening a stream. */
+    @Test
+    void events_returns404_whenAccountMissing() throws Exception {
+        mockMvc.perform(get("/v1/accounts/" + UUID.randomUUID() + "/events"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+    }
+
+    private static void awaitEvents(MockHttpServletResponse stream, int count) {
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> stream.getContentAsString().split("event:balance", -1).length - 1 == count);
+    }
+
+    private ResultActions apply(String operation, String amount) throws Exception {
+        var body = Map.of("amount", amount, "operationId", UUID.randomUUID().toString());
+        return mockMvc.perform(post("/v1/accounts/" + accountId + "/" + operation)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+}
@@ -0,0 +1,231 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.service.RollupRebuildService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the account rollups: every deposit and withdrawal, single or batched, is counted
+ * once in its day and month, GET /v1/accounts/{id}/summary reads them, and the rebuild recomputes them
+ * from the transaction history.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class AccountRollupsIntegrationTest {
+
+    private static final int ROWS = 100;
+    private static final Instant START = Instant.parse("2024-01-30T06:00:00Z");
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired RollupRebuildService rollupRebuildService;
+
+    UUID accountId;
+
+    /** Prepares a fresh account with zero balance for each test. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+    }
+
+    /**
+     * Deposits and withdrawals through the single and batch endpoints are all counted, a replayed
+     * operation id and a rejected command are not.
+     */
+    @Test
+    void summary_countsEachAppliedWrite_once() throws Exception {
+        // Given
+        var replayed = UUID.randomUUID();
+        apply("deposit", "100.00", replayed);
+        apply("deposit", "100.00", replayed);
+        apply("deposit", "20.00", UUID.randomUUID());
+        apply("withdraw", "30.00", UUID.randomUUID());
+        mockMvc.perform(post("/v1/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("commands", List.of(
+                                command("DEPOSIT", "5.00"),
+                                command("WITHDRAWAL", "1000.00"),
+                                command("WITHDRAWAL", "15.00"))))))
+                .andExpect(status().isOk());
+
+        // When
+        var days = summary("day", null, null);
+        var months = summary("month", null, null);
+
+        // Then: summed over the periods, in case the writes straddled midnight
+        for (var periods : List.of(days, months)) {
+            assertThat(sum(periods, "depositCount")).isEqualByComparingTo("3");
+            assertThat(sum(periods, "depositTotal")).isEqualByComparingTo("125.00");
+            assertThat(sum(periods, "withdrawalCount")).isEqualByComparingTo("2");
+            assertThat(sum(periods, "withdrawalTotal")).isEqualByComparingTo("45.00");
+        }
+        assertThat(months.get(0).get("period").asText()).endsWith("-01");
+    }
+
+    /**
+     * History inserted without the write path has no rollups until the rebuild, which recomputes every
+     * day and month of it; running it again changes nothing.
+     */
+    @Test
+    void rebuild_recomputesRollups_fromHistory() throws Exception {
+        // Given: two transactions every day from 2024-01-30 to 2024-03-19, the fourth of every four a withdrawal
+        insertHistory();
+        assertThat(summary("day", null, null)).isEmpty();
+
+        // When
+        int accounts = rollupRebuildService.rebuildAll();
+        rollupRebuildService.rebuildAll();
+
+        // Then
+        assertThat(accounts).isGreaterThanOrEqualTo(1);
+        var days = summary("day", null, null);
+        assertThat(days).hasSize(ROWS / 2);
+        expectedByPeriod(false).forEach((day, expected) -> {
+            var period = days.stream().filter(p -> p.get("period").asText().equals(day.toString())).findFirst().orElseThrow();
+            assertThat(period.get("depositCount").asLong()).as(day.toString()).isEqualTo(expected[0]);
+            assertThat(period.get("withdrawalCount").asLong()).as(day.toString()).isEqualTo(expected[1]);
+        });
+
+        var months = summary("month", null, null);
+        assertThat(months).extracting(p -> p.get("period").asText()).containsExactly("2024-01-01", "2024-02-01", "2024-03-01");
+        var expectedMonths = expectedByPeriod(true);
+        assertThat(months).allSatisfy(p -> {
+            var expected = expectedMonths.get(LocalDate.parse(p.get("period").asText()));
+            assertThat(p.get("depositCount").asLong()).isEqualTo(expected[0]);
+            assertThat(p.get("depositTotal").decimalValue()).isEqualByComparingTo(BigDecimal.valueOf(expected[0] * 10));
+            assertThat(p.get("withdrawalCount").asLong()).isEqualTo(expected[1]);
+            assertThat(p.get("withdrawalTotal").decimalValue()).isEqualByComparingTo(BigDecimal.valueOf(expected[1]));
+        });
+    }
+
+    /** The range selects days, or the months the bounds fall in. */
+    @Test
+    void summary_isLimitedToRange() throws Exception {
+        insertHistory();
+        rollupRebuildService.rebuildAll();
+
+        assertThat(summary("day", "2024-02-10", "2024-02-12"))
+                .extracting(p -> p.get("period").asText())
+                .containsExactly("2024-02-10", "2024-02-11", "2024-02-12");
+        assertThat(summary("month", "2024-02-15", "2024-02-20"))
+                .extracting(p -> p.get("period").asText())
+                .containsExactly("2024-02-01");
+    }
+
+    /** Unknown account answers 404, an unknown granularity 400. */
+    @Test
+    void summary_rejectsUnknownAccountAndGranularity() throws Exception {
+        mockMvc.perform(get("/v1/accounts/" + UUID.randomUUID() + "/summary"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/summary").param("granularity", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+    }
+
+    private List<JsonNode> summary(String granularity, String from, String to) throws Exception {
+        var request = get("/v1/accounts/" + accountId + "/summary").param("granularity", granularity);
+        if (from != null) {
+            request.param("from", from).param("to", to);
+        }
+        JsonNode body = objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value(granularity.toUpperCase()))
+                .andReturn().getResponse().getContentAsString());
+        List<JsonNode> periods = new ArrayList<>();
+        body.get("periods").forEach(periods::add);
+        return periods;
+    }
+
+    private static BigDecimal sum(List<JsonNode> periods, String field) {
+        return periods.stream().map(p -> p.get(field).decimalValue()).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private void apply(String operation, String amount, UUID operationId) throws Exception {
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/" + operation)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "amount", amount, "operationId", operationId.toString()))))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    private Map<String, Object> command(String type, String amount) {
+        return Map.of(
+                "type", type,
+                "accountId", accountId.toString(),
+                "amount", amount,
+                "operationId", UUID.randomUUID().toString());
+    }
+
+    private static boolean isWithdrawal(int row) {
+        return row % 4 == 3;
+    }
+
+    private void insertHistory() {
+        var utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(
+                "insert into transactions (id, account_id, type, amount, timestamp, resulting_balance) values (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setObject(1, UUID.randomUUID());
+                        ps.setObject(2, accountId);
+                        ps.setString(3, isWithdrawal(i) ? "WITHDRAWAL" : "DEPOSIT");
+                        ps.setBigDecimal(4, isWithdrawal(i) ? BigDecimal.ONE : BigDecimal.TEN);
+                        ps.setTimestamp(5, Timestamp.from(START.plusSeconds(i * 12 * 3600L)), utc);
+                        ps.setBigDecimal(6, BigDecimal.ZERO);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ROWS;
+                    }
+                });
+    }
+
+    /** Deposit and withdrawal counts of the inserted history, per day or month. */
+    private static Map<LocalDate, long[]> expectedByPeriod(boolean monthly) {
+        Map<LocalDate, long[]> expected = new TreeMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            var day = LocalDate.ofInstant(START.plusSeconds(i * 12 * 3600L), ZoneOffset.UTC);
+            var counts = expected.computeIfAbsent(monthly ? day.withDayOfMonth(1) : day, d -> new long[2]);
+            counts[isWithdrawal(i) ? 1 : 0]++;
+        }
+        return expected;
+    }
+}
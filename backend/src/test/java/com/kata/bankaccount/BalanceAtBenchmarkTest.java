@@ -0,0 +1,119 @@
+package com.kata.bankaccount;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of GET /v1/accounts/{id}/balance?at=... over a real HTTP connection for accounts with
+ * 1,000, 10,000 and 100,000 transactions. The balance is read with one index seek, so the median
+ * latency must not grow with the history. Excluded from the default build; run with
+ * {@code mvn -Pbenchmark test}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BalanceAtBenchmarkTest {
+
+    private static final int[] HISTORY_SIZES = {1_000, 10_000, 100_000};
+    private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+    private static final int WARM_UP = 200;
+    private static final int RUNS = 500;
+
+    @LocalServerPort int port;
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * Random instants across each history are answered in about the same median time, whatever its size.
+     * Median and 99th percentile latencies are printed.
+     */
+    @Test
+    void balanceAt_latencyDoesNotGrowWithHistory() throws Exception {
+        System.out.printf("%-14s %12s %12s%n", "transactions", "median ms", "p99 ms");
+        double[] medians = new double[HISTORY_SIZES.length];
+        for (int s = 0; s < HISTORY_SIZES.length; s++) {
+            int rows = HISTORY_SIZES[s];
+            var accountId = accountWithHistory(rows);
+            long[] nanos = measure(accountId, rows);
+            medians[s] = nanos[RUNS / 2] / 1_000_000.0;
+            System.out.printf("%-14d %12.3f %12.3f%n", rows, medians[s], nanos[RUNS * 99 / 100] / 1_000_000.0);
+        }
+
+        // A hundred times more history; a scan would be orders of magnitude slower, a seek stays flat
+        assertThat(medians[2]).isLessThan(medians[0] * 3 + 1);
+    }
+
+    /** Creates an account with one deposit of 1.00 per minute from 2020-01-01. */
+    private UUID accountWithHistory(int rows) {
+        var accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.valueOf(rows)));
+        jdbcTemplate.batchUpdate(
+                "insert into transactions (id, account_id, type, amount, timestamp, resulting_balance) values (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setObject(1, UUID.randomUUID());
+                        ps.setObject(2, accountId);
+                        ps.setString(3, "DEPOSIT");
+                        ps.setBigDecimal(4, BigDecimal.ONE);
+                        ps.setTimestamp(5, Timestamp.from(START.plusSeconds(i * 60L)));
+                        ps.setBigDecimal(6, BigDecimal.valueOf(i + 1L));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows;
+                    }
+                });
+        return accountId;
+    }
+
+    /** Times requests at random minutes of the history, after a warm-up; returns sorted durations. */
+    private long[] measure(UUID accountId, int rows) throws IOException, InterruptedException {
+        var random = new Random(rows);
+        var base = "http://localhost:" + port + "/v1/accounts/" + accountId + "/balance?at=";
+        for (int i = 0; i < WARM_UP; i++) {
+            send(base + START.plusSeconds(random.nextInt(rows) * 60L));
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            int minute = random.nextInt(rows);
+            var request = HttpRequest.newBuilder(URI.create(base + START.plusSeconds(minute * 60L))).GET().build();
+            long begin = System.nanoTime();
+            var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            nanos[i] = System.nanoTime() - begin;
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).contains("\"balance\":" + (minute + 1) + ".");
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private void send(String url) throws IOException, InterruptedException {
+        var response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+}
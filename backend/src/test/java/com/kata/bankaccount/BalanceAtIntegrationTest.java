@@ -0,0 +1,107 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for GET /v1/accounts/{id}/balance?at=...: the balance at each recorded instant
+ * matches the transaction history, before the first transaction it is zero.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class BalanceAtIntegrationTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+
+    UUID accountId;
+
+    /** Prepares a fresh account with zero balance for each test. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+    }
+
+    /**
+     * After a deposit, a withdrawal and another deposit, the balance at each transaction instant is the
+     * one that transaction resulted in, and zero just before the first one.
+     */
+    @Test
+    void balanceAt_followsTransactionHistory() throws Exception {
+        // Given
+        apply("deposit", "100.00");
+        apply("withdraw", "30.00");
+        apply("deposit", "5.00");
+        JsonNode items = objectMapper.readTree(mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("items");
+        assertThat(items).hasSize(3);
+
+        // When / Then: listed newest first, so the first row at an instant is the latest one there
+        for (int i = items.size() - 1; i >= 0; i--) {
+            var at = items.get(i).get("timestamp").asText();
+            var expected = firstAt(items, at).get("resultingBalance").decimalValue();
+            assertThat(balanceAt(at)).as(at).isEqualByComparingTo(expected);
+        }
+        var first = Instant.parse(items.get(items.size() - 1).get("timestamp").asText());
+        assertThat(balanceAt(first.minusNanos(1).toString())).isEqualByComparingTo("0");
+        assertThat(balanceAt(Instant.now().plusSeconds(60).toString())).isEqualByComparingTo("75.00");
+    }
+
+    /** An unknown account answers 404 rather than a zero balance. */
+    @Test
+    void balanceAt_returns404_whenAccountMissing() throws Exception {
+        mockMvc.perform(get("/v1/accounts/" + UUID.randomUUID() + "/balance")
+                        .param("at", "2024-01-01T00:00:00Z"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+    }
+
+    private void apply(String operation, String amount) throws Exception {
+        var body = Map.of("amount", amount, "operationId", UUID.randomUUID().toString());
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/" + operation)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    private BigDecimal balanceAt(String at) throws Exception {
+        JsonNode body = objectMapper.readTree(mockMvc.perform(get("/v1/accounts/" + accountId + "/balance")
+                        .param("at", at))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId").value(accountId.toString()))
+                .andReturn().getResponse().getContentAsString());
+        return body.get("balance").decimalValue();
+    }
+
+    private static JsonNode firstAt(JsonNode items, String timestamp) {
+        for (JsonNode item : items) {
+            if (item.get("timestamp").asText().equals(timestamp)) {
+                return item;
+            }
+        }
+        throw new AssertionError("no transaction at " + timestamp);
+    }
+}
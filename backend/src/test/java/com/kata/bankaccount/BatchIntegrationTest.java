@@ -0,0 +1,147 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the batch HTTP endpoint covering both atomicity modes,
+ * idempotency per command and the batch size limit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "bank.accounts.write.batch.max-commands=10")
+@AutoConfigureMockMvc
+class BatchIntegrationTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+
+    UUID first;
+    UUID second;
+
+    /** Prepares two accounts with 100.00 balance for each test. */
+    @BeforeEach
+    void setup() {
+        first = UUID.randomUUID();
+        second = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(first, new BigDecimal("100.00")));
+        accountJpaRepository.save(new AccountEntity(second, new BigDecimal("100.00")));
+    }
+
+    /** Per-command mode: a rejected command does not prevent the others from being applied. */
+    @Test
+    void batch_perCommand_appliesValidCommands_andRejectsOthers() throws Exception {
+        var commands = List.of(
+                command("DEPOSIT", first, "50.00", UUID.randomUUID()),
+                command("WITHDRAWAL", second, "500.00", UUID.randomUUID()),
+                command("WITHDRAWAL", second, "30.00", UUID.randomUUID()),
+                command("DEPOSIT", UUID.randomUUID(), "10.00", UUID.randomUUID()));
+
+        perform(commands, "PER_COMMAND")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.results[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$.results[0].balance").value(150.00))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].code").value("INSUFFICIENT_FUNDS"))
+                .andExpect(jsonPath("$.results[2].status").value("APPLIED"))
+                .andExpect(jsonPath("$.results[2].balance").value(70.00))
+                .andExpect(jsonPath("$.results[3].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[3].code").value("ACCOUNT_NOT_FOUND"));
+
+        assertThat(balance(first)).isEqualByComparingTo("150.00");
+        assertThat(balance(second)).isEqualByComparingTo("70.00");
+    }
+
+    /** All-or-nothing mode: one rejected command rolls back every account. */
+    @Test
+    void batch_allOrNothing_rollsBackEverything_whenOneCommandIsRejected() throws Exception {
+        var commands = List.of(
+                command("DEPOSIT", first, "50.00", UUID.randomUUID()),
+                command("WITHDRAWAL", second, "500.00", UUID.randomUUID()));
+
+        perform(commands, "ALL_OR_NOTHING")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(false))
+                .andExpect(jsonPath("$.results[0].status").value("ROLLED_BACK"))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"));
+
+        assertThat(balance(first)).isEqualByComparingTo("100.00");
+        assertThat(balance(second)).isEqualByComparingTo("100.00");
+        assertThat(accountJpaRepository.findByIdWithTransactions(first).orElseThrow().getTransactions()).isEmpty();
+    }
+
+    /** Replaying a batch does not apply its commands twice. */
+    @Test
+    void batch_isIdempotent_perOperationId() throws Exception {
+        var commands = List.of(
+                command("DEPOSIT", first, "10.00", UUID.randomUUID()),
+                command("WITHDRAWAL", second, "10.00", UUID.randomUUID()));
+
+        perform(commands, "ALL_OR_NOTHING").andExpect(jsonPath("$.committed").value(true));
+        perform(commands, "ALL_OR_NOTHING")
+                .andExpect(jsonPath("$.results[0].status").value("ALREADY_APPLIED"))
+                .andExpect(jsonPath("$.results[1].status").value("ALREADY_APPLIED"));
+
+        assertThat(balance(first)).isEqualByComparingTo("110.00");
+        assertThat(balance(second)).isEqualByComparingTo("90.00");
+    }
+
+    /** Batches above the configured limit are refused as a whole. */
+    @Test
+    void batch_aboveLimit_returns400() throws Exception {
+        var commands = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 11; i++) {
+            commands.add(command("DEPOSIT", first, "1.00", UUID.randomUUID()));
+        }
+
+        perform(commands, null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+        assertThat(balance(first)).isEqualByComparingTo("100.00");
+    }
+
+    private ResultActions perform(List<Map<String, Object>> commands, String atomicity) throws Exception {
+        var body = new HashMap<String, Object>();
+        body.put("commands", commands);
+        if (atomicity != null) {
+            body.put("atomicity", atomicity);
+        }
+        return mockMvc.perform(post("/v1/accounts/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private static Map<String, Object> command(String type, UUID accountId, String amount, UUID operationId) {
+        return Map.of(
+                "type", type,
+                "accountId", accountId.toString(),
+                "amount", amount,
+                "operationId", operationId.toString());
+    }
+
+    private BigDecimal balance(UUID accountId) {
+        return accountJpaRepository.findById(accountId).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,136 @@
+package com.kata.bankaccount;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the response compression over a real HTTP connection: payload size and latency of the
+ * streamed statement, the cached closed-period statement and a transactions page, with and without
+ * {@code Accept-Encoding: gzip}. Excluded from the default build; run with {@code mvn -Pbenchmark test}.
+ * Latency on loopback only shows the CPU cost of compression; the saving is in the bytes sent.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CompressionBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int WARM_UP = 5;
+    private static final int RUNS = 20;
+
+    @LocalServerPort int port;
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private UUID accountId;
+
+    /** Creates an account with 20,000 transactions in 2024. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.valueOf(ROWS)));
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        jdbcTemplate.batchUpdate(
+                "insert into transactions (id, account_id, type, amount, timestamp, resulting_balance) values (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setObject(1, UUID.randomUUID());
+                        ps.setObject(2, accountId);
+                        ps.setString(3, i % 3 == 0 ? "WITHDRAWAL" : "DEPOSIT");
+                        ps.setBigDecimal(4, new BigDecimal("12.34"));
+                        ps.setTimestamp(5, Timestamp.from(start.plusSeconds(i * 60L)));
+                        ps.setBigDecimal(6, BigDecimal.valueOf(1000 + i, 2));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ROWS;
+                    }
+                });
+    }
+
+    /**
+     * Each endpoint answers the same content compressed and uncompressed; the statements shrink more
+     * than fivefold. Sizes and median latencies are printed.
+     */
+    @Test
+    void compression_sizeAndLatency() throws Exception {
+        var base = "http://localhost:" + port + "/v1/accounts/" + accountId;
+        System.out.printf("%-22s %12s %12s %8s %14s %14s%n",
+                "endpoint", "identity B", "gzip B", "ratio", "identity ms", "gzip ms");
+
+        for (var endpoint : new String[][] {
+                {"statement (streamed)", base + "/statement"},
+                {"statement (cached)", base + "/statement?to=2024-12-31"},
+                {"transactions (500)", base + "/transactions?limit=500"}}) {
+            var identity = measure(endpoint[1], false);
+            var gzip = measure(endpoint[1], true);
+
+            assertThat(identity.encoding()).isNull();
+            assertThat(gzip.encoding()).isEqualTo("gzip");
+            assertThat(inflate(gzip.body())).isEqualTo(identity.body());
+            if (endpoint[0].startsWith("statement")) {
+                assertThat(gzip.body().length * 5L).isLessThan(identity.body().length);
+            }
+
+            System.out.printf("%-22s %12d %12d %7.1fx %14.2f %14.2f%n",
+                    endpoint[0], identity.body().length, gzip.body().length,
+                    (double) identity.body().length / gzip.body().length,
+                    identity.medianMillis(), gzip.medianMillis());
+        }
+    }
+
+    private Measure measure(String url, boolean gzip) throws IOException, InterruptedException {
+        var builder = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        var request = builder.build();
+        HttpResponse<byte[]> response = null;
+        for (int i = 0; i < WARM_UP; i++) {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long begin = System.nanoTime();
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            nanos[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(nanos);
+        return new Measure(response.body(), response.headers().firstValue("Content-Encoding").orElse(null),
+                nanos[RUNS / 2] / 1_000_000.0);
+    }
+
+    private static byte[] inflate(byte[] gzip) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private record Measure(byte[] body, String encoding, double medianMillis) {}
+}
@@ -0,0 +1,113 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for conditional GET on /v1/accounts/{id} and /v1/accounts/{id}/transactions: an
+ * unchanged account answers 304 to its ETag, and any deposit or withdrawal gives it a new one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class ConditionalGetIntegrationTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+
+    UUID accountId;
+
+    /** Prepares a fresh account with zero balance for each test. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+    }
+
+    /** Polling an unchanged account gets 304 until a deposit changes it. */
+    @Test
+    void getAccount_isNotModified_untilAWrite() throws Exception {
+        // Given
+        String etag = etagOf("/v1/accounts/" + accountId);
+
+        // When / Then: unchanged
+        mockMvc.perform(get("/v1/accounts/" + accountId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // When / Then: a deposit changes the ETag and the body is sent again
+        apply("deposit", "10.00");
+        mockMvc.perform(get("/v1/accounts/" + accountId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(10.0));
+        assertThat(etagOf("/v1/accounts/" + accountId)).isNotEqualTo(etag);
+    }
+
+    /** A page of transactions is not modified until a transaction is added, whatever its kind. */
+    @Test
+    void transactions_areNotModified_untilATransactionIsAdded() throws Exception {
+        // Given
+        apply("deposit", "50.00");
+        String path = "/v1/accounts/" + accountId + "/transactions";
+        String etag = etagOf(path);
+
+        // When / Then
+        mockMvc.perform(get(path).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        apply("withdraw", "20.00");
+        mockMvc.perform(get(path).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    /** A rejected withdrawal changes nothing, so the ETag still matches. */
+    @Test
+    void rejectedWithdrawal_keepsTheETag() throws Exception {
+        // Given
+        String etag = etagOf("/v1/accounts/" + accountId);
+
+        // When
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/withdraw")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("amount", "5.00", "operationId", UUID.randomUUID().toString()))))
+                .andExpect(status().isConflict());
+
+        // Then
+        mockMvc.perform(get("/v1/accounts/" + accountId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(String path) throws Exception {
+        var etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("W/\"");
+        return etag;
+    }
+
+    private void apply(String operation, String amount) throws Exception {
+        var body = Map.of("amount", amount, "operationId", UUID.randomUUID().toString());
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/" + operation)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is2xxSuccessful());
+    }
+}
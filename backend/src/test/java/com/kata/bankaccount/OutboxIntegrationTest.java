@@ -0,0 +1,241 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.outbox.InMemoryOutboxPublisher;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.OutboxPublisher;
+import com.kata.bankaccount.application.ports.out.OutboxRepository;
+import com.kata.bankaccount.application.service.OutboxRelay;
+import com.kata.bankaccount.domain.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the account outbox: every applied deposit and withdrawal, single or batched, is
+ * recorded once in the outbox, and the relay publishes the events of each account in commit order, in
+ * batches, again after a failed publish, also when an event commits behind ids already relayed.
+ * <p>
+ * Runs on its own database with the background relay disabled, so no relay of another test context
+ * drains the outbox meanwhile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "bank.accounts.outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc
+class OutboxIntegrationTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired OutboxRepository outboxRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    SimpleMeterRegistry meterRegistry;
+    UUID accountId;
+    UUID otherAccountId;
+
+    /** Prepares two fresh accounts with zero balance and drains what earlier tests left in the outbox. */
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        new OutboxRelay(outboxRepository, events -> {}, transactionTemplate, 100, new SimpleMeterRegistry()).relay();
+        accountId = UUID.randomUUID();
+        otherAccountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+        accountJpaRepository.save(new AccountEntity(otherAccountId, BigDecimal.ZERO));
+    }
+
+    /**
+     * Applied writes are relayed once each, per account in the order they were applied; a replayed
+     * operation id and a rejected command write nothing. The relay drains the outbox in full batches
+     * and checkpoints the last id.
+     */
+    @Test
+    void relay_publishesEachAppliedWrite_inCommitOrderPerAccount() throws Exception {
+        // Given
+        var replayed = UUID.randomUUID();
+        apply(accountId, "deposit", "100.00", replayed, status().isCreated());
+        apply(otherAccountId, "deposit", "7.00", UUID.randomUUID(), status().isCreated());
+        apply(accountId, "deposit", "100.00", replayed, status().is2xxSuccessful());
+        apply(accountId, "deposit", "20.00", UUID.randomUUID(), status().isCreated());
+        apply(accountId, "withdraw", "30.00", UUID.randomUUID(), status().isOk());
+        apply(accountId, "withdraw", "1000.00", UUID.randomUUID(), status().is4xxClientError());
+        mockMvc.perform(post("/v1/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("commands", List.of(
+                                command("DEPOSIT", "5.00"),
+                                command("WITHDRAWAL", "1000.00"),
+                                command("WITHDRAWAL", "15.00"))))))
+                .andExpect(status().isOk());
+        var publisher = new InMemoryOutboxPublisher(100);
+
+        // When: batches of 2, so the six events take three full batches and an empty one
+        long relayed = new OutboxRelay(outboxRepository, publisher, transactionTemplate, 2, meterRegistry).relay();
+
+        // Then
+        assertThat(relayed).isEqualTo(6);
+        assertThat(publisher.events()).extracting(OutboxEvent::id).isSorted().doesNotHaveDuplicates();
+        assertThat(eventsOf(publisher.events(), accountId))
+                .extracting(OutboxEvent::type, OutboxEvent::amount, OutboxEvent::resultingBalance)
+                .usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(List.of(
+                        tuple(TransactionType.DEPOSIT, new BigDecimal("100"), new BigDecimal("100")),
+                        tuple(TransactionType.DEPOSIT, new BigDecimal("20"), new BigDecimal("120")),
+                        tuple(TransactionType.WITHDRAWAL, new BigDecimal("30"), new BigDecimal("90")),
+                        tuple(TransactionType.DEPOSIT, new BigDecimal("5"), new BigDecimal("95")),
+                        tuple(TransactionType.WITHDRAWAL, new BigDecimal("15"), new BigDecimal("80"))));
+        assertThat(eventsOf(publisher.events(), accountId).get(0).operationId()).isEqualTo(replayed);
+        assertThat(eventsOf(publisher.events(), otherAccountId)).hasSize(1);
+        assertThat(eventsOf(publisher.events(), accountId)).extracting(OutboxEvent::transactionId)
+                .containsExactlyInAnyOrderElementsOf(jdbcTemplate.queryForList(
+                        "select id from transactions where account_id = ?", UUID.class, accountId));
+        // Both stored in UTC: the event carries the instant of its transaction
+        RowMapper<Instant> utcInstant =
+                (rs, i) -> rs.getTimestamp(1, Calendar.getInstance(TimeZone.getTimeZone("UTC"))).toInstant();
+        assertThat(publisher.events()).allSatisfy(event -> assertThat(event.occurredAt()).isEqualTo(
+                jdbcTemplate.queryForObject("select timestamp from transactions where id = ?", utcInstant,
+                        event.transactionId())));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from account_outbox", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select last_id from account_outbox_relay", Long.class))
+                .isEqualTo(publisher.events().get(publisher.events().size() - 1).id());
+        assertThat(meterRegistry.get("bank.accounts.outbox.relayed").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("bank.accounts.outbox.relay").timer().count()).isEqualTo(4);
+    }
+
+    /**
+     * A batch whose publish fails stays in the outbox and is published again, in full and in the same
+     * order, by the next run.
+     */
+    @Test
+    void relay_republishesBatch_afterPublisherFailure() throws Exception {
+        // Given
+        apply(accountId, "deposit", "10.00", UUID.randomUUID(), status().isCreated());
+        apply(accountId, "deposit", "20.00", UUID.randomUUID(), status().isCreated());
+        apply(accountId, "withdraw", "5.00", UUID.randomUUID(), status().isOk());
+        List<OutboxEvent> attempted = new ArrayList<>();
+        var failing = new OutboxRelay(outboxRepository, events -> {
+            attempted.addAll(events);
+            throw new IllegalStateException("broker unavailable");
+        }, transactionTemplate, 10, meterRegistry);
+        var publisher = new InMemoryOutboxPublisher(100);
+
+        // When
+        assertThatThrownBy(failing::relay).isInstanceOf(IllegalStateException.class);
+        long pending = jdbcTemplate.queryForObject("select count(*) from account_outbox", Long.class);
+        long relayed = new OutboxRelay(outboxRepository, publisher, transactionTemplate, 10, meterRegistry).relay();
+
+        // Then
+        assertThat(pending).isEqualTo(3);
+        assertThat(relayed).isEqualTo(3);
+        assertThat(attempted).hasSize(3);
+        assertThat(publisher.events()).containsExactlyElementsOf(attempted);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from account_outbox", Long.class)).isZero();
+    }
+
+    /**
+     * An event that commits behind ids already relayed by the run still goes out before the later events of
+     * its account: the next batch reads from the oldest row left, not past the last id relayed.
+     */
+    @Test
+    void relay_keepsAccountOrder_whenAnEventCommitsBehindRelayedIds() throws Exception {
+        // Given: an event of the account inserted but held uncommitted, then one of the other account committed
+        var inserted = new CountDownLatch(1);
+        var commit = new CountDownLatch(1);
+        var held = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            insertEvent(accountId, "10.00");
+            inserted.countDown();
+            awaitQuietly(commit);
+        }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+        insertEvent(otherAccountId, "7.00");
+        List<OutboxEvent> published = new ArrayList<>();
+        OutboxPublisher publisher = events -> {
+            if (published.isEmpty()) {
+                // Between the first and the second batch: the held event commits, then the account writes again
+                commit.countDown();
+                held.join();
+                CompletableFuture.runAsync(() -> insertEvent(accountId, "20.00")).join();
+            }
+            published.addAll(events);
+        };
+
+        // When: batches of one, so the other account's event goes out alone first
+        long relayed = new OutboxRelay(outboxRepository, publisher, transactionTemplate, 1, meterRegistry).relay();
+
+        // Then
+        assertThat(relayed).isEqualTo(3);
+        assertThat(published.get(0).accountId()).isEqualTo(otherAccountId);
+        assertThat(eventsOf(published, accountId)).extracting(OutboxEvent::amount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("10.00"), new BigDecimal("20.00"));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from account_outbox", Long.class)).isZero();
+    }
+
+    private void apply(UUID account, String operation, String amount, UUID operationId, ResultMatcher expected)
+            throws Exception {
+        mockMvc.perform(post("/v1/accounts/" + account + "/" + operation)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "amount", amount, "operationId", operationId.toString()))))
+                .andExpect(expected);
+    }
+
+    private void insertEvent(UUID account, String amount) {
+        jdbcTemplate.update("insert into account_outbox (account_id, transaction_id, operation_id, type, amount, "
+                        + "resulting_balance, occurred_at) values (?, ?, ?, 'DEPOSIT', ?, ?, current_timestamp)",
+                account, UUID.randomUUID(), UUID.randomUUID(), new BigDecimal(amount), new BigDecimal(amount));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Object> command(String type, String amount) {
+        return Map.of(
+                "type", type,
+                "accountId", accountId.toString(),
+                "amount", amount,
+                "operationId", UUID.randomUUID().toString());
+    }
+
+    private static List<OutboxEvent> eventsOf(List<OutboxEvent> events, UUID account) {
+        return events.stream().filter(e -> e.accountId().equals(account)).toList();
+    }
+}
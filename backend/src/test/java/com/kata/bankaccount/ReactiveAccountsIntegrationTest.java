@@ -0,0 +1,176 @@
+package com.kata.bankaccount;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
+import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.application.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the reactive profile: the WebFlux controller serves /v1/accounts over R2DBC H2
+ * with the same answers as the servlet one. Writes made through it are read back from R2DBC, and pages,
+ * the NDJSON stream and the CSV statement match what the account service reads over JDBC.
+ * <p>
+ * Runs on its own database, opened by both the JDBC and the R2DBC connections.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "bank.accounts.reactive.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@AutoConfigureWebTestClient
+class ReactiveAccountsIntegrationTest {
+
+    @Autowired WebTestClient webTestClient;
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired AccountService accountService;
+
+    UUID accountId;
+
+    /** Prepares a fresh account with zero balance for each test. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+    }
+
+    /**
+     * A deposit is created (201), its retry is answered 200 without being applied again, a withdrawal is
+     * applied, and the account is read back with its balance and an ETag answering 304.
+     */
+    @Test
+    void writes_areReadBack_withConditionalGet() {
+        // Given
+        var operationId = UUID.randomUUID();
+
+        // When
+        post("deposit", "100.00", operationId).expectStatus().isCreated()
+                .expectBody().jsonPath("$.applied").isEqualTo(true);
+        post("deposit", "100.00", operationId).expectStatus().isOk()
+                .expectBody().jsonPath("$.applied").isEqualTo(false)
+                .jsonPath("$.balance").isEqualTo(100.0);
+        post("withdraw", "30.00", UUID.randomUUID()).expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(70.0);
+
+        // Then
+        var etag = webTestClient.get().uri("/v1/accounts/{id}", accountId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(70.0)
+                .returnResult().getResponseHeaders().getETag();
+        assertThat(etag).startsWith("W/\"");
+        webTestClient.get().uri("/v1/accounts/{id}", accountId).header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    /**
+     * Pages, the NDJSON stream and the CSV statement read over R2DBC are the ones the account service reads
+     * over JDBC.
+     */
+    @Test
+    void reads_matchAccountService() throws Exception {
+        // Given
+        for (int i = 1; i <= 12; i++) {
+            post(i % 3 == 0 ? "withdraw" : "deposit", i + ".50", UUID.randomUUID()).expectStatus().is2xxSuccessful();
+        }
+
+        // When
+        var pages = reactivePages(5);
+        var stream = webTestClient.get().uri("/v1/accounts/{id}/transactions/stream", accountId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransactionResponse.class).getResponseBody()
+                .collectList().block();
+        var csv = webTestClient.get().uri("/v1/accounts/{id}/statement", accountId)
+                .accept(MediaType.parseMediaType("text/csv"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Then
+        var expected = new ArrayList<TransactionResponse>();
+        String cursor = null;
+        do {
+            var page = accountService.transactions(accountId, null, null, cursor, 5);
+            expected.addAll(normalized(page.items()));
+            cursor = page.next();
+        } while (cursor != null);
+        assertThat(pages).hasSize(12).containsExactlyElementsOf(expected);
+        assertThat(normalized(stream)).containsExactlyElementsOf(expected);
+        var jdbcCsv = new StringWriter();
+        accountService.exportStatementCsv(accountId, null, null, () -> jdbcCsv);
+        assertThat(csv).isEqualTo(jdbcCsv.toString());
+    }
+
+    /** An unknown account is a 404 JSON error, on reads and streams alike, and an invalid amount a 400. */
+    @Test
+    void errors_areMappedLikeServlet() {
+        var unknown = UUID.randomUUID();
+        webTestClient.get().uri("/v1/accounts/{id}", unknown)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.code").isEqualTo("ACCOUNT_NOT_FOUND");
+        webTestClient.get().uri("/v1/accounts/{id}/statement", unknown)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+        post("deposit", "-5.00", UUID.randomUUID())
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("VALIDATION_ERROR");
+    }
+
+    /** Follows the next cursors of GET /transactions. */
+    private List<TransactionResponse> reactivePages(int limit) {
+        List<TransactionResponse> items = new ArrayList<>();
+        String cursor = null;
+        do {
+            var next = cursor;
+            var page = webTestClient.get()
+                    .uri(uri -> {
+                        uri.path("/v1/accounts/{id}/transactions").queryParam("limit", limit);
+                        if (next != null) {
+                            uri.queryParam("cursor", next);
+                        }
+                        return uri.build(accountId);
+                    })
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(TransactionPageResponse.class).returnResult().getResponseBody();
+            items.addAll(normalized(page.items()));
+            cursor = page.next();
+        } while (cursor != null);
+        return items;
+    }
+
+    private static List<TransactionResponse> normalized(List<TransactionResponse> items) {
+        return items.stream()
+                .map(t -> new TransactionResponse(t.type(), t.amount().stripTrailingZeros(), t.timestamp(),
+                        t.resultingBalance().stripTrailingZeros()))
+                .toList();
+    }
+
+    private WebTestClient.ResponseSpec post(String operation, String amount, UUID operationId) {
+        return webTestClient.post().uri("/v1/accounts/{id}/{operation}", accountId, operation)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("amount", amount, "operationId", operationId.toString()))
+                .exchange();
+    }
+}
@@ -0,0 +1,220 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
+import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.application.ports.out.OutboxRepository;
+import com.kata.bankaccount.application.service.AccountService;
+import com.kata.bankaccount.application.service.OutboxRelay;
+import com.kata.bankaccount.application.service.TransactionHistoryProjector;
+import com.kata.bankaccount.application.service.TransactionHistoryRebuildService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the history read model with {@code read-from-projection} on: writes reach it
+ * through the outbox, the rebuild copies a history written without it, and GET
+ * /v1/accounts/{id}/transactions then serves the same pages as the transactions table.
+ * <p>
+ * Runs on its own database with the background relay disabled, so the test decides when events are
+ * projected.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "bank.accounts.outbox.relay.enabled=false",
+        "bank.accounts.history.read-from-projection=true"
+})
+@AutoConfigureMockMvc
+class TransactionHistoryIntegrationTest {
+
+    private static final int ROWS = 120;
+    // Crosses two month boundaries: 2024-01-30 to 2024-03-29, one transaction every 12 hours
+    private static final Instant START = Instant.parse("2024-01-30T06:00:00Z");
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired OutboxRepository outboxRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired TransactionHistoryProjector projector;
+    @Autowired TransactionHistoryRebuildService rebuildService;
+    @Autowired AccountService accountService;
+    @Autowired MeterRegistry meterRegistry;
+
+    UUID accountId;
+
+    /** Prepares a fresh account with zero balance. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+    }
+
+    /**
+     * A write is served once the relay has projected it, with the same page as the transactions table
+     * and no ETag, and its lag is recorded. Projecting the same events again changes nothing.
+     */
+    @Test
+    void transactions_serveProjectedWrites_afterRelay() throws Exception {
+        // Given
+        apply("deposit", "100.00");
+        apply("withdraw", "40.00");
+        apply("deposit", "15.00");
+        var lagBefore = meterRegistry.get("bank.accounts.history.lag").timer().count();
+        assertThat(projectedPages(null, null, 10)).isEmpty();
+        List<OutboxEvent> relayed = new ArrayList<>();
+
+        // When
+        new OutboxRelay(outboxRepository, events -> {
+            relayed.addAll(events);
+            projector.publish(events);
+        }, transactionTemplate, 100, new SimpleMeterRegistry()).relay();
+
+        // Then
+        var projected = projectedPages(null, null, 2);
+        assertThat(projected).containsExactlyElementsOf(sourcePages(null, null, 2));
+        assertThat(projected).extracting(TransactionResponse::resultingBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("75"), new BigDecimal("60"), new BigDecimal("100"));
+        assertThat(meterRegistry.get("bank.accounts.history.lag").timer().count() - lagBefore).isGreaterThanOrEqualTo(3);
+        // The account version may be ahead of the read model: it is not offered as an ETag
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+
+        // When: redelivered
+        projector.publish(relayed);
+
+        // Then
+        assertThat(projectedPages(null, null, 2)).containsExactlyElementsOf(projected);
+    }
+
+    /**
+     * A history inserted without the write path is absent from the read model until the rebuild, which
+     * copies it: pages over the whole history and over a period spanning a month boundary then match the
+     * transactions table, and running the rebuild again changes nothing.
+     */
+    @Test
+    void rebuild_copiesHistory_servedWithSamePages() throws Exception {
+        // Given
+        insertHistory();
+        assertThat(projectedPages(null, null, 50)).isEmpty();
+
+        // When
+        int accounts = rebuildService.rebuildAll();
+        rebuildService.rebuildAll();
+
+        // Then
+        assertThat(accounts).isGreaterThanOrEqualTo(1);
+        assertThat(projectedPages(null, null, 50)).hasSize(ROWS).containsExactlyElementsOf(sourcePages(null, null, 50));
+        var from = Instant.parse("2024-02-20T00:00:00Z");
+        var to = Instant.parse("2024-03-10T00:00:00Z");
+        assertThat(projectedPages(from, to, 7)).isNotEmpty().containsExactlyElementsOf(sourcePages(from, to, 7));
+    }
+
+    /** Follows the next cursors of GET /transactions, served from the read model. */
+    private List<TransactionResponse> projectedPages(Instant from, Instant to, int limit) throws Exception {
+        List<TransactionResponse> items = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/v1/accounts/" + accountId + "/transactions")
+                    .param("limit", Integer.toString(limit))
+                    .accept(MediaType.APPLICATION_JSON);
+            if (from != null) {
+                request.param("from", from.toString()).param("to", to.toString());
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            var page = objectMapper.readValue(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), TransactionPageResponse.class);
+            items.addAll(normalized(page.items()));
+            cursor = page.next();
+        } while (cursor != null);
+        return items;
+    }
+
+    /** Follows the next cursors of the account service, reading the transactions table. */
+    private List<TransactionResponse> sourcePages(Instant from, Instant to, int limit) {
+        List<TransactionResponse> items = new ArrayList<>();
+        String cursor = null;
+        do {
+            var page = accountService.transactions(accountId, from, to, cursor, limit);
+            items.addAll(normalized(page.items()));
+            cursor = page.next();
+        } while (cursor != null);
+        return items;
+    }
+
+    private static List<TransactionResponse> normalized(List<TransactionResponse> items) {
+        return items.stream()
+                .map(t -> new TransactionResponse(t.type(), t.amount().stripTrailingZeros(), t.timestamp(),
+                        t.resultingBalance().stripTrailingZeros()))
+                .toList();
+    }
+
+    private void apply(String operation, String amount) throws Exception {
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/" + operation)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "amount", amount, "operationId", UUID.randomUUID().toString()))))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    private void insertHistory() {
+        var utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(
+                "insert into transactions (id, account_id, type, amount, timestamp, resulting_balance) values (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setObject(1, UUID.randomUUID());
+                        ps.setObject(2, accountId);
+                        ps.setString(3, "DEPOSIT");
+                        ps.setBigDecimal(4, BigDecimal.ONE);
+                        // Two rows per timestamp, so ties are paged by id
+                        ps.setTimestamp(5, Timestamp.from(START.plus(Duration.ofHours(12L * (i / 2)))), utc);
+                        ps.setBigDecimal(6, BigDecimal.valueOf(i + 1L));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ROWS;
+                    }
+                });
+    }
+}
@@ -0,0 +1,112 @@
+package com.kata.bankaccount;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for cursor pagination of GET /v1/accounts/{id}/transactions: following the next
+ * cursors visits every row exactly once, newest first, including rows sharing a timestamp.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class TransactionsPaginationIntegrationTest {
+
+    private static final int ROWS = 250;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    UUID accountId;
+
+    /** Creates an account with 250 transactions, five per timestamp. */
+    @BeforeEach
+    void setup() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.valueOf(ROWS)));
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        jdbcTemplate.batchUpdate(
+                "insert into transactions (id, account_id, type, amount, timestamp, resulting_balance) values (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setObject(1, UUID.randomUUID());
+                        ps.setObject(2, accountId);
+                        ps.setString(3, "DEPOSIT");
+                        ps.setBigDecimal(4, BigDecimal.ONE);
+                        ps.setTimestamp(5, Timestamp.from(start.plusSeconds(i / 5)));
+                        ps.setBigDecimal(6, BigDecimal.valueOf(i + 1L));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ROWS;
+                    }
+                });
+    }
+
+    /** Three pages of 100, 100 and 50 rows cover the history without gaps or duplicates. */
+    @Test
+    void transactions_followingNextCursors_visitsEveryRowOnce() throws Exception {
+        List<Integer> balances = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/v1/accounts/" + accountId + "/transactions")
+                    .param("limit", "100")
+                    .accept(MediaType.APPLICATION_JSON);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> balances.add(item.get("resultingBalance").asInt()));
+            pageSizes.add(page.get("items").size());
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+
+        assertThat(pageSizes).containsExactly(100, 100, 50);
+        assertThat(balances).hasSize(ROWS).doesNotHaveDuplicates();
+        // Newest first: the balance grows with the timestamp, ties come in any but a stable order
+        for (int i = 1; i < balances.size(); i++) {
+            assertThat((balances.get(i) - 1) / 5).isLessThanOrEqualTo((balances.get(i - 1) - 1) / 5);
+        }
+    }
+
+    /** A cursor that was not issued by the API is answered with 400. */
+    @Test
+    void transactions_invalidCursor_returns400() throws Exception {
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions")
+                        .param("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+    }
+}
@@ -10,17 +10,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -69,7 +73,7 @@ class TransactionsStatementIntegrationTest {
                 .andExpect(status().isOk())
                 .andReturn();
 
-        JsonNode arr = objectMapper.readTree(mvcResult.getResponse().getContentAsString());
+        JsonNode arr = objectMapper.readTree(mvcResult.getResponse().getContentAsString()).get("items");
 
         // Then: I get these 3 rows in order with correct post-balances
         assertThat(arr).hasSize(3);
@@ -99,7 +103,7 @@ class TransactionsStatementIntegrationTest {
                 .andExpect(status().isOk())
                 .andReturn();
 
-        JsonNode arrFiltered = objectMapper.readTree(mvcFiltered.getResponse().getContentAsString());
+        JsonNode arrFiltered = objectMapper.readTree(mvcFiltered.getResponse().getContentAsString()).get("items");
         assertThat(arrFiltered).hasSize(2);
         assertThat(Instant.parse(arrFiltered.get(0).get("timestamp").asText()))
                 .isAfterOrEqualTo(withdrawalTs);
@@ -107,6 +111,63 @@ class TransactionsStatementIntegrationTest {
                 .isAfterOrEqualTo(withdrawalTs);
     }
 
+    /** The CSV statement is streamed from the database with the same rows and timestamps as the listing. */
+    @Test
+    void statement_streamsCsv_matchingTheListing() throws Exception {
+        // Given
+        callDeposit(accountId, "100.00", UUID.randomUUID()).andExpect(status().isCreated());
+        callWithdraw(accountId, "30.00", UUID.randomUUID()).andExpect(status().isOk());
+        var listing = objectMapper.readTree(mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString()).get("items");
+
+        // When
+        var csv = mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .accept(MediaType.valueOf("text/csv")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        var lines = csv.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("date,operation,amount,balance");
+        for (int i = 0; i < 2; i++) {
+            var columns = lines[i + 1].split(",");
+            assertThat(Instant.parse(columns[0])).isEqualTo(Instant.parse(listing.get(i).get("timestamp").asText()));
+            assertThat(columns[1]).isEqualTo(listing.get(i).get("type").asText());
+            assertThat(new BigDecimal(columns[3])).isEqualByComparingTo(listing.get(i).get("resultingBalance").decimalValue());
+        }
+    }
+
+    /** A closed-period statement carries an ETag; sending it back is answered 304, and a missing account still 404. */
+    @Test
+    void statement_closedPeriod_isRevalidatedWithEtag() throws Exception {
+        // Given
+        callDeposit(accountId, "100.00", UUID.randomUUID()).andExpect(status().isCreated());
+        var closedDay = LocalDate.now(ZoneOffset.UTC).minusDays(2).toString();
+
+        // When
+        var first = mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .param("to", closedDay)
+                        .accept(MediaType.valueOf("text/csv")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse();
+
+        // Then
+        assertThat(first.getContentAsString()).isEqualTo("date,operation,amount,balance\n");
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .param("to", closedDay)
+                        .header(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG))
+                        .accept(MediaType.valueOf("text/csv")))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v1/accounts/" + UUID.randomUUID() + "/statement")
+                        .param("to", closedDay)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+    }
+
     /** Missing account returns 404 and error code. */
     @Test
     void transactions_nonExistentAccount_returns404_withCode() throws Exception {
@@ -0,0 +1,147 @@
+package com.kata.bankaccount;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test comparing platform and virtual request threads on H2: 1,000 to 10,000 concurrent clients each
+ * deposit on one of a few hundred accounts and read it back, over real HTTP connections. Both modes run
+ * with the same connection limits and pool size, so only the thread model differs; throughput and
+ * median and 99th percentile latencies are printed side by side. Excluded from the default build; run with
+ * {@code mvn -Pbenchmark test}, with an open file limit above twice the largest client count.
+ */
+class VirtualThreadsBenchmarkTest {
+
+    private static final int[] CLIENTS = {1_000, 2_500, 5_000, 10_000};
+    private static final int ACCOUNTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 4;
+    private static final int WARM_UP_CLIENTS = 200;
+
+    /**
+     * Every request of every round succeeds in both modes. Requests per second, median and p99 latency
+     * are printed per mode and client count.
+     */
+    @Test
+    void load_platformAndVirtualThreads_allRequestsServed() throws Exception {
+        System.out.printf("%-9s %8s %12s %12s %12s%n", "threads", "clients", "req/s", "median ms", "p99 ms");
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (var context = start(virtual)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                var accounts = accounts(context.getBean(JdbcTemplate.class));
+                try (var client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build()) {
+                    run(client, port, accounts, WARM_UP_CLIENTS);
+                    for (int clients : CLIENTS) {
+                        var round = run(client, port, accounts, clients);
+                        assertThat(round.failures()).isZero();
+                        System.out.printf("%-9s %8d %12.0f %12.3f %12.3f%n", virtual ? "virtual" : "platform",
+                                clients, round.throughput(), round.percentile(50), round.percentile(99));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the application on a random port and its own database. The Tomcat connection limits are
+     * raised in both modes, so that connections beyond the platform pool wait for a thread rather than
+     * being refused.
+     */
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(BankAccountApplication.class).properties(
+                "spring.threads.virtual.enabled=" + virtual,
+                "spring.datasource.url=jdbc:h2:mem:threads-" + virtual + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.hikari.maximum-pool-size=50",
+                "spring.datasource.hikari.connection-timeout=120000",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.kata.bankaccount=INFO",
+                "server.port=0",
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=10000",
+                "server.tomcat.keep-alive-timeout=120000"
+        ).run();
+    }
+
+    private static List<UUID> accounts(JdbcTemplate jdbcTemplate) {
+        List<UUID> accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(UUID.randomUUID());
+        }
+        jdbcTemplate.batchUpdate("insert into accounts (id, balance, version) values (?, ?, 0)",
+                accounts.stream().map(id -> new Object[] {id, BigDecimal.ZERO}).toList());
+        return accounts;
+    }
+
+    /**
+     * Starts all the clients at once, each on its own virtual thread, and waits for them.
+     * @return the latencies of the round, sorted, and its throughput
+     */
+    private static Round run(HttpClient client, int port, List<UUID> accounts, int clients) throws InterruptedException {
+        var base = "http://localhost:" + port + "/v1/accounts/";
+        long[] nanos = new long[clients * REQUESTS_PER_CLIENT];
+        var failures = new AtomicInteger();
+        var threads = new ArrayList<Thread>(clients);
+        long begin = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int first = c * REQUESTS_PER_CLIENT;
+            threads.add(Thread.ofVirtual().start(() -> {
+                var random = ThreadLocalRandom.current();
+                for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                    var accountId = accounts.get(random.nextInt(accounts.size()));
+                    // Alternates a deposit, which takes the account row lock, and a read of the account
+                    var request = r % 2 == 0
+                            ? HttpRequest.newBuilder(URI.create(base + accountId + "/deposit"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":\"1.00\",\"operationId\":\""
+                                            + UUID.randomUUID() + "\"}"))
+                                    .build()
+                            : HttpRequest.newBuilder(URI.create(base + accountId)).GET().build();
+                    long start = System.nanoTime();
+                    try {
+                        var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 300) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    nanos[first + r] = System.nanoTime() - start;
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        Arrays.sort(nanos);
+        return new Round(nanos, elapsed, failures.get());
+    }
+
+    private record Round(long[] nanos, long elapsedNanos, int failures) {
+
+        double throughput() {
+            return nanos.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentile(int percent) {
+            return nanos[Math.min(nanos.length - 1, nanos.length * percent / 100)] / 1_000_000.0;
+        }
+    }
+}
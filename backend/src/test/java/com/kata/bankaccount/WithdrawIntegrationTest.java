@@ -80,6 +80,37 @@ class WithdrawIntegrationTest {
         assertThat(accountEntity.getTransactions().get(0).getType()).isEqualTo(TransactionType.WITHDRAWAL);
     }
 
+    /**
+     * Replaying a withdrawal that drained the balance returns its original outcome, not 409: the balance
+     * it left no longer covers the amount.
+     */
+    @Test
+    void withdraw_replayAfterDrainingTheBalance_returnsTheOriginalOutcome() throws Exception {
+        // Given
+        var operationId = UUID.randomUUID();
+        var body = Map.of(
+                "amount", "80.00",
+                "operationId", operationId.toString()
+        );
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/withdraw")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(20.0));
+
+        // When - replayed on a balance of 20
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/withdraw")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(20.0));
+
+        // Then
+        var accountEntity = accountJpaRepository.findByIdWithTransactions(accountId).orElseThrow();
+        assertThat(accountEntity.getBalance()).isEqualByComparingTo("20.00");
+        assertThat(accountEntity.getTransactions()).hasSize(1);
+    }
+
     /**
      * Two concurrent withdrawals for 80 on balance 100: one succeeds (200), one conflicts (409),
      * final balance is 20 with a single WITHDRAWAL transaction.
@@ -0,0 +1,162 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.response.AccountEventResponse;
+import com.kata.bankaccount.application.ports.out.AccountEvent;
+import com.kata.bankaccount.domain.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Unit tests for {@link AccountEventHub}: delivery per account, bounded drop-oldest buffers for slow
+ * subscribers and removal of broken streams.
+ */
+class AccountEventHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountEventHub hub;
+
+    /** Creates a hub with buffers of two events and no heartbeat during the tests. */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new AccountEventHub(2, Duration.ofMinutes(1), Duration.ofHours(1), meterRegistry);
+    }
+
+    /** Stops the hub threads. */
+    @AfterEach
+    void tearDown() {
+        hub.close();
+    }
+
+    /** A subscriber gets the snapshot, then the changes of its account only, in order. */
+    @Test
+    @Timeout(10)
+    void publish_reachesTheSubscribersOfTheAccount() {
+        UUID accountId = UUID.randomUUID();
+        var emitter = new RecordingEmitter(null);
+        hub.subscribe(accountId, emitter, () -> snapshot(accountId, 0));
+        // Sent before publishing: with a buffer of two, three events queued at once would drop the snapshot
+        await().atMost(5, TimeUnit.SECONDS).until(() -> emitter.sent.size() == 1);
+
+        hub.publish(event(accountId, 1, "10.00"));
+        hub.publish(event(UUID.randomUUID(), 1, "99.00"));
+        hub.publish(event(accountId, 2, "15.00"));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> emitter.sent.size() == 3);
+        assertThat(emitter.sent).extracting(AccountEventResponse::version).containsExactly(0L, 1L, 2L);
+        assertThat(emitter.sent.get(2).balance()).isEqualByComparingTo("15.00");
+        assertThat(emitter.sent.get(2).transactions()).singleElement()
+                .satisfies(t -> assertThat(t.resultingBalance()).isEqualByComparingTo("15.00"));
+    }
+
+    /**
+     * While a subscriber is stuck sending, only its newest events are kept: the oldest are dropped and
+     * counted, and publishing never waits for it.
+     */
+    @Test
+    @Timeout(10)
+    void slowSubscriber_keepsOnlyItsNewestEvents() throws Exception {
+        // Given: a subscriber blocked on sending its snapshot
+        UUID accountId = UUID.randomUUID();
+        var release = new CountDownLatch(1);
+        var slow = new RecordingEmitter(release);
+        hub.subscribe(accountId, slow, () -> snapshot(accountId, 0));
+        assertThat(slow.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        for (int version = 1; version <= 5; version++) {
+            hub.publish(event(accountId, version, Integer.toString(version)));
+        }
+        release.countDown();
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> slow.sent.size() == 3);
+        assertThat(slow.sent).extracting(AccountEventResponse::version).containsExactly(0L, 4L, 5L);
+        assertThat(meterRegistry.get("bank.accounts.events.dropped").counter().count()).isEqualTo(3);
+    }
+
+    /** A stream that fails to send is removed. */
+    @Test
+    @Timeout(10)
+    void brokenStream_isRemoved() {
+        UUID accountId = UUID.randomUUID();
+        var broken = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        hub.subscribe(accountId, broken, () -> snapshot(accountId, 0));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> hub.subscribers() == 0);
+        assertThat(meterRegistry.get("bank.accounts.events.subscribers").gauge().value()).isZero();
+    }
+
+    /** When the snapshot cannot be read, e.g. the account is missing, nothing stays subscribed. */
+    @Test
+    void subscribe_failingSnapshot_unsubscribes() {
+        UUID accountId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> hub.subscribe(accountId, new SseEmitter(), () -> {
+            throw new IllegalStateException("missing");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(hub.subscribers()).isZero();
+    }
+
+    private static AccountEventResponse snapshot(UUID accountId, long version) {
+        return new AccountEventResponse(accountId, BigDecimal.ZERO, version, List.of());
+    }
+
+    private static AccountEvent event(UUID accountId, long version, String balance) {
+        var amount = new BigDecimal(balance);
+        return new AccountEvent(accountId, amount, version,
+                List.of(Transaction.deposit(amount, amount, UUID.randomUUID())));
+    }
+
+    /** Records the events sent, optionally blocking on the first send until released. */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<AccountEventResponse> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            entered.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(AccountEventResponse.class::isInstance)
+                    .map(AccountEventResponse.class::cast)
+                    .forEach(sent::add);
+        }
+    }
+}
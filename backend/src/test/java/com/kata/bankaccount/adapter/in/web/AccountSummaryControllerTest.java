@@ -0,0 +1,80 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.response.AccountSummaryResponse;
+import com.kata.bankaccount.application.dto.response.PeriodSummaryResponse;
+import com.kata.bankaccount.application.ports.in.AccountSummaryUseCase;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.model.Granularity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web MVC slice tests for GET /v1/accounts/{id}/summary.
+ */
+@WebMvcTest(controllers = AccountSummaryController.class)
+class AccountSummaryControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @MockBean AccountSummaryUseCase accountSummaryUseCase;
+
+    /** Returns 200 with one entry per period; the granularity is case-insensitive. */
+    @Test
+    void summary_returns200() throws Exception {
+        UUID id = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(accountSummaryUseCase.summary(id, Granularity.MONTH, from, to)).thenReturn(new AccountSummaryResponse(
+                id, Granularity.MONTH, List.of(new PeriodSummaryResponse(
+                        from, 3, new BigDecimal("150.00"), 1, new BigDecimal("40.00")))));
+
+        mockMvc.perform(get("/v1/accounts/{id}/summary", id)
+                        .param("granularity", "Month").param("from", "2024-01-01").param("to", "2024-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("MONTH"))
+                .andExpect(jsonPath("$.periods[0].period").value("2024-01-01"))
+                .andExpect(jsonPath("$.periods[0].depositCount").value(3))
+                .andExpect(jsonPath("$.periods[0].withdrawalTotal").value(40.00));
+    }
+
+    /** Days are the default granularity. */
+    @Test
+    void summary_defaultsToDays() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(accountSummaryUseCase.summary(id, Granularity.DAY, null, null))
+                .thenReturn(new AccountSummaryResponse(id, Granularity.DAY, List.of()));
+
+        mockMvc.perform(get("/v1/accounts/{id}/summary", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("DAY"))
+                .andExpect(jsonPath("$.periods").isEmpty());
+    }
+
+    /** An unknown granularity is a 400, a missing account a 404. */
+    @Test
+    void summary_mapsErrors() throws Exception {
+        UUID missing = UUID.randomUUID();
+        when(accountSummaryUseCase.summary(missing, Granularity.DAY, null, null))
+                .thenThrow(new AccountNotFoundException(missing));
+
+        mockMvc.perform(get("/v1/accounts/{id}/summary", missing))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+        mockMvc.perform(get("/v1/accounts/{id}/summary", UUID.randomUUID()).param("granularity", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.application.dto.request.BatchCommandRequest;
+import com.kata.bankaccount.application.dto.response.BatchCommandResponse;
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
+import com.kata.bankaccount.application.ports.in.DepositUseCase;
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
+import com.kata.bankaccount.application.ports.in.GetAccountUseCase;
+import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
+import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
+import com.kata.bankaccount.domain.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web MVC slice tests for POST /v1/accounts/batch controller endpoint.
+ */
+@WebMvcTest(controllers = AccountsController.class)
+class AccountsControllerBatchTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+
+    @MockBean DepositUseCase depositUseCase;
+    @MockBean WithdrawUseCase withdrawUseCase;
+    @MockBean ListTransactionsUseCase listTransactionsUseCase;
+    @MockBean GetAccountUseCase getAccountUseCase;
+    @MockBean ExportStatementUseCase exportStatementUseCase;
+    @MockBean BatchCommandUseCase batchCommandUseCase;
+
+    /** Happy path: the commands are passed through and the results returned in order. */
+    @Test
+    void batch_returns200_withResultPerCommand() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        UUID operationId = UUID.randomUUID();
+        var command = new BatchCommandRequest.Command(TransactionType.DEPOSIT, accountId, new BigDecimal("10.00"), operationId);
+
+        given(batchCommandUseCase.execute(eq(List.of(command)), eq(BatchCommandRequest.Atomicity.ALL_OR_NOTHING)))
+                .willReturn(new BatchCommandResponse(true, List.of(new BatchCommandResponse.Result(
+                        operationId, accountId, BatchCommandResponse.Status.APPLIED, new BigDecimal("10.00"), null, null))));
+
+        var body = Map.of(
+                "atomicity", "ALL_OR_NOTHING",
+                "commands", List.of(Map.of(
+                        "type", "DEPOSIT",
+                        "accountId", accountId.toString(),
+                        "amount", "10.00",
+                        "operationId", operationId.toString()))
+        );
+
+        mockMvc.perform(post("/v1/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.results[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$.results[0].code").doesNotExist());
+    }
+
+    /** An invalid command fails validation of the whole batch. */
+    @Test
+    void batch_returns400_whenACommandIsInvalid() throws Exception {
+        var body = Map.of(
+                "commands", List.of(Map.of(
+                        "type", "DEPOSIT",
+                        "accountId", UUID.randomUUID().toString(),
+                        "amount", "0",
+                        "operationId", UUID.randomUUID().toString()))
+        );
+
+        mockMvc.perform(post("/v1/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.message").value("amount must be > 0"));
+        verifyNoInteractions(batchCommandUseCase);
+    }
+}
@@ -2,6 +2,7 @@ package com.kata.bankaccount.adapter.in.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kata.bankaccount.adapter.in.web.AccountsController;
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
 import com.kata.bankaccount.application.ports.in.DepositUseCase;
 import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
 import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
@@ -39,6 +40,7 @@ class AccountsControllerDepositTest {
     @MockBean ListTransactionsUseCase listTransactionsUseCase;
     @MockBean GetAccountUseCase getAccountUseCase;
     @MockBean ExportStatementUseCase exportStatementUseCase;
+    @MockBean BatchCommandUseCase batchCommandUseCase;
 
     /** Missing account returns 404 with error code. */
     @Test
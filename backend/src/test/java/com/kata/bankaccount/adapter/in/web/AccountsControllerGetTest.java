@@ -1,6 +1,8 @@
 package com.kata.bankaccount.adapter.in.web;
 
 import com.kata.bankaccount.application.dto.response.AccountResponse;
+import com.kata.bankaccount.application.dto.response.BalanceResponse;
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
 import com.kata.bankaccount.application.ports.in.DepositUseCase;
 import com.kata.bankaccount.application.ports.in.GetAccountUseCase;
 import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
@@ -15,14 +17,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
- * Web MVC slice tests for GET /v1/accounts/{id} controller endpoint.
+ * Web MVC slice tests for GET /v1/accounts/{id} and GET /v1/accounts/{id}/balance controller endpoints.
  */
 @WebMvcTest(controllers = AccountsController.class)
 class AccountsControllerGetTest {
@@ -35,6 +42,7 @@ class AccountsControllerGetTest {
     @MockBean ListTransactionsUseCase listTransactionsUseCase;
     @MockBean GetAccountUseCase getAccountUseCase;
     @MockBean ExportStatementUseCase exportStatementUseCase;
+    @MockBean BatchCommandUseCase batchCommandUseCase;
 
     /** Returns 200 with account JSON payload. */
     @Test
@@ -49,6 +57,31 @@ class AccountsControllerGetTest {
                 .andExpect(jsonPath("$.balance").exists());
     }
 
+    /** The response carries a weak ETag of the account version, and is not cached without revalidation. */
+    @Test
+    void getAccount_returnsVersionETag() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(getAccountUseCase.version(id)).thenReturn(7L);
+        when(getAccountUseCase.getAccountById(id)).thenReturn(new AccountResponse(id, new BigDecimal("0.00")));
+
+        mvc.perform(get("/v1/accounts/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"7\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    /** A matching If-None-Match is answered 304 from the version alone, without reading the account. */
+    @Test
+    void getAccount_returns304_whenUnchanged() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(getAccountUseCase.version(id)).thenReturn(7L);
+
+        mvc.perform(get("/v1/accounts/{id}", id).header("If-None-Match", "W/\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(getAccountUseCase, never()).getAccountById(any());
+    }
+
     /** Missing account returns 404 with error code. */
     @Test
     void getAccount_returns404_whenMissing() throws Exception {
@@ -60,4 +93,42 @@ class AccountsControllerGetTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
     }
+
+    /** Returns 200 with the balance at the requested instant. */
+    @Test
+    void balanceAt_returns200() throws Exception {
+        UUID id = UUID.randomUUID();
+        Instant at = Instant.parse("2024-01-31T23:59:59Z");
+        when(getAccountUseCase.balanceAt(id, at)).thenReturn(new BalanceResponse(id, at, new BigDecimal("42.50")));
+
+        mvc.perform(get("/v1/accounts/{id}/balance", id).param("at", "2024-01-31T23:59:59Z"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.accountId").value(id.toString()))
+                .andExpect(jsonPath("$.at").value("2024-01-31T23:59:59Z"))
+                .andExpect(jsonPath("$.balance").value(42.50));
+    }
+
+    /** Missing account returns 404 with error code. */
+    @Test
+    void balanceAt_returns404_whenMissing() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(getAccountUseCase.balanceAt(any(), any())).thenThrow(new AccountNotFoundException(id));
+
+        mvc.perform(get("/v1/accounts/{id}/balance", id).param("at", "2024-01-31T23:59:59Z"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+    }
+
+    /** The instant is required and must be ISO-8601. */
+    @Test
+    void balanceAt_returns400_withoutValidInstant() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        mvc.perform(get("/v1/accounts/{id}/balance", id))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/v1/accounts/{id}/balance", id).param("at", "yesterday"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(getAccountUseCase);
+    }
 }
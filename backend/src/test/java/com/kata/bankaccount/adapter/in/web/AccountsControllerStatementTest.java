@@ -1,5 +1,8 @@
 package com.kata.bankaccount.adapter.in.web;
 
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
+import com.kata.bankaccount.application.ports.in.CachedStatementUseCase;
+import com.kata.bankaccount.application.ports.in.CachedStatementUseCase.Encoding;
 import com.kata.bankaccount.application.ports.in.DepositUseCase;
 import com.kata.bankaccount.application.ports.in.GetAccountUseCase;
 import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
@@ -7,19 +10,30 @@ import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
 import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
 import com.kata.bankaccount.domain.exception.AccountNotFoundException;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,9 +48,11 @@ class AccountsControllerStatementTest {
 
     @MockBean ListTransactionsUseCase listTransactionsUseCase;
     @MockBean ExportStatementUseCase exportStatementUseCase;
+    @MockBean BatchCommandUseCase batchCommandUseCase;
     @MockBean DepositUseCase depositUseCase;
     @MockBean WithdrawUseCase withdrawUseCase;
     @MockBean GetAccountUseCase getAccountUseCase;
+    @MockBean CachedStatementUseCase cachedStatementUseCase;
 
     /** Returns CSV content with header and multiple rows. */
     @Test
@@ -49,7 +65,7 @@ class AccountsControllerStatementTest {
                 "2024-01-01T10:00:00Z,DEPOSIT,100.00,100.00",
                 "");
 
-        given(exportStatementUseCase.statementCsv(eq(accountId), any(), any())).willReturn(expected);
+        willAnswer(writeToSink(expected)).given(exportStatementUseCase).exportStatementCsv(eq(accountId), any(), any(), any());
 
         mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
                         .accept(MediaType.valueOf("text/csv")))
@@ -65,7 +81,8 @@ class AccountsControllerStatementTest {
         var from = "2024-01-01";
         var to = "2024-02-01";
 
-        given(exportStatementUseCase.statementCsv(eq(accountId), any(), any())).willReturn("date,operation,amount,balanceAfter\n");
+        willAnswer(writeToSink("date,operation,amount,balanceAfter\n"))
+                .given(exportStatementUseCase).exportStatementCsv(eq(accountId), any(), any(), any());
 
         mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
                         .param("from", from)
@@ -73,19 +90,127 @@ class AccountsControllerStatementTest {
                         .accept(MediaType.valueOf("text/csv")))
                 .andExpect(status().isOk());
 
-        verify(exportStatementUseCase).statementCsv(eq(accountId), eq(LocalDate.parse(from)), eq(LocalDate.parse(to)));
+        verify(exportStatementUseCase).exportStatementCsv(eq(accountId), eq(LocalDate.parse(from)), eq(LocalDate.parse(to)), any());
     }
 
     /** Missing account returns 404 with error code. */
     @Test
     void statement_returns404_whenAccountNotFound() throws Exception {
         UUID accountId = UUID.randomUUID();
-        given(exportStatementUseCase.statementCsv(eq(accountId), any(), any()))
-                .willThrow(new AccountNotFoundException(accountId));
+        willThrow(new AccountNotFoundException(accountId))
+                .given(exportStatementUseCase).exportStatementCsv(eq(accountId), any(), any(), any());
 
         mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
     }
+
+    /** A closed period is served from the cache with a strong ETag, without streaming from the database. */
+    @Test
+    void statement_closedPeriod_isServedFromCache_withEtag() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        LocalDate to = LocalDate.parse("2024-01-31");
+        String csv = "date,operation,amount,balance\n2024-01-02T10:00:00Z,DEPOSIT,10.00,10.00\n";
+        when(cachedStatementUseCase.isCacheable(to)).thenReturn(true);
+        when(cachedStatementUseCase.statement(accountId, null, to)).thenReturn(cached("abc", csv));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .param("to", "2024-01-31")
+                        .accept(MediaType.valueOf("text/csv")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(csv));
+
+        verify(exportStatementUseCase, never()).exportStatementCsv(any(), any(), any(), any());
+    }
+
+    /** A matching If-None-Match on a closed period is answered 304 without a body. */
+    @Test
+    void statement_closedPeriod_returns304_whenEtagMatches() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        LocalDate to = LocalDate.parse("2024-01-31");
+        when(cachedStatementUseCase.isCacheable(to)).thenReturn(true);
+        when(cachedStatementUseCase.statement(accountId, null, to)).thenReturn(cached("abc", "date,operation,amount,balance\n"));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .param("to", "2024-01-31")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+                        .accept(MediaType.valueOf("text/csv")))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+    }
+
+    /** A period including today is streamed, without an ETag. */
+    @Test
+    void statement_openPeriod_bypassesCache() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        willAnswer(writeToSink("date,operation,amount,balance\n"))
+                .given(exportStatementUseCase).exportStatementCsv(eq(accountId), any(), any(), any());
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .accept(MediaType.valueOf("text/csv")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        verify(cachedStatementUseCase, never()).statement(any(), any(), any());
+    }
+
+    /** A client accepting gzip gets the stored compressed bytes, with the entity tag of that representation. */
+    @Test
+    void statement_closedPeriod_isServedCompressed_whenGzipAccepted() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        LocalDate to = LocalDate.parse("2024-01-31");
+        String csv = "date,operation,amount,balance\n";
+        when(cachedStatementUseCase.isCacheable(to)).thenReturn(true);
+        when(cachedStatementUseCase.statement(accountId, null, to)).thenReturn(cached("abc", csv));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .param("to", "2024-01-31")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .accept(MediaType.valueOf("text/csv")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-gzip\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().bytes(gzip(csv)));
+    }
+
+    /** Cached statement holding the given content, and its gzip representation. */
+    private static CachedStatementUseCase.CachedStatement cached(String etag, String csv) {
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = gzip(csv);
+        return new CachedStatementUseCase.CachedStatement() {
+            @Override public String etag(Encoding encoding) { return encoding == Encoding.GZIP ? etag + "-gzip" : etag; }
+            @Override public long length(Encoding encoding) { return encoding == Encoding.GZIP ? compressed.length : bytes.length; }
+            @Override public void transferTo(OutputStream out, Encoding encoding) throws IOException {
+                out.write(encoding == Encoding.GZIP ? compressed : bytes);
+            }
+            @Override public void close() {}
+        };
+    }
+
+    private static byte[] gzip(String text) {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Answer that writes the given CSV to the sink, as the use case does. */
+    private static Answer<Void> writeToSink(String csv) {
+        return invocation -> {
+            ExportStatementUseCase.StatementSink sink = invocation.getArgument(3);
+            var out = sink.open();
+            out.write(csv);
+            out.flush();
+            return null;
+        };
+    }
 }
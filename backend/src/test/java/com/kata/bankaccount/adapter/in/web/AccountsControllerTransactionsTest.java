@@ -1,8 +1,10 @@
 package com.kata.bankaccount.adapter.in.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.application.dto.response.TransactionPageResponse;
 import com.kata.bankaccount.application.dto.response.TransactionResponse;
 import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
+import com.kata.bankaccount.application.ports.in.BatchCommandUseCase;
 import com.kata.bankaccount.application.ports.in.DepositUseCase;
 import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
 import com.kata.bankaccount.application.ports.in.GetAccountUseCase;
@@ -22,16 +24,19 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Web MVC slice tests for GET /v1/accounts/{id}/transactions endpoint,
- * including parameter parsing and error scenarios.
+ * including parameter parsing, paging and error scenarios.
  */
 @WebMvcTest(controllers = AccountsController.class)
 class AccountsControllerTransactionsTest {
@@ -44,6 +49,7 @@ class AccountsControllerTransactionsTest {
     @MockBean WithdrawUseCase withdrawUseCase;
     @MockBean GetAccountUseCase getAccountUseCase;
     @MockBean ExportStatementUseCase exportStatementUseCase;
+    @MockBean BatchCommandUseCase batchCommandUseCase;
 
     /** Returns a list of transactions in descending order with expected shape. */
     @Test
@@ -53,45 +59,77 @@ class AccountsControllerTransactionsTest {
         var t2 = Instant.parse("2024-01-01T11:00:00Z");
         var t3 = Instant.parse("2024-01-01T12:00:00Z");
         // Mocked use case returns already-sorted list (desc)
-        given(listTransactionsUseCase.transactions(eq(accountId), any(), any())).willReturn(List.of(
+        given(listTransactionsUseCase.transactions(eq(accountId), any(), any(), any(), anyInt())).willReturn(new TransactionPageResponse(List.of(
                 new TransactionResponse(TransactionType.DEPOSIT, new BigDecimal("10.00"), t3, new BigDecimal("80.00")),
                 new TransactionResponse(TransactionType.WITHDRAWAL, new BigDecimal("30.00"), t2, new BigDecimal("70.00")),
                 new TransactionResponse(TransactionType.DEPOSIT, new BigDecimal("100.00"), t1, new BigDecimal("100.00"))
-        ));
+        ), "next-cursor"));
 
         mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].type").value("DEPOSIT"))
-                .andExpect(jsonPath("$[0].amount").value(10.00))
-                .andExpect(jsonPath("$[0].resultingBalance").value(80.00))
-                .andExpect(jsonPath("$[1].type").value("WITHDRAWAL"))
-                .andExpect(jsonPath("$[2].amount").value(100.00));
+                .andExpect(jsonPath("$.items[0].type").value("DEPOSIT"))
+                .andExpect(jsonPath("$.items[0].amount").value(10.00))
+                .andExpect(jsonPath("$.items[0].resultingBalance").value(80.00))
+                .andExpect(jsonPath("$.items[1].type").value("WITHDRAWAL"))
+                .andExpect(jsonPath("$.items[2].amount").value(100.00))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
     }
 
-    /** Parses from/to query params and forwards as Instant to the use case. */
+    /** Parses from/to/cursor/limit query params and forwards them to the use case. */
     @Test
     void transactions_parsesFromAndToParams_andForwardsToUseCase() throws Exception {
         UUID accountId = UUID.randomUUID();
         var from = "2024-01-01T00:00:00Z";
         var to = "2024-02-01T00:00:00Z";
 
-        given(listTransactionsUseCase.transactions(eq(accountId), any(), any())).willReturn(List.of());
+        given(listTransactionsUseCase.transactions(eq(accountId), any(), any(), any(), anyInt()))
+                .willReturn(new TransactionPageResponse(List.of(), null));
 
         mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions")
                         .param("from", from)
                         .param("to", to)
+                        .param("cursor", "abc")
+                        .param("limit", "20")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(listTransactionsUseCase).transactions(eq(accountId), eq(Instant.parse(from)), eq(Instant.parse(to)));
+        verify(listTransactionsUseCase).transactions(eq(accountId), eq(Instant.parse(from)), eq(Instant.parse(to)), eq("abc"), eq(20));
+    }
+
+    /** Without a limit the default page size of 50 is used. */
+    @Test
+    void transactions_withoutLimit_usesDefaultPageSize() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        given(listTransactionsUseCase.transactions(eq(accountId), any(), any(), any(), anyInt()))
+                .willReturn(new TransactionPageResponse(List.of(), null));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(listTransactionsUseCase).transactions(eq(accountId), isNull(), isNull(), isNull(), eq(50));
+    }
+
+    /** An invalid cursor is answered with 400. */
+    @Test
+    void transactions_returns400_whenCursorInvalid() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        given(listTransactionsUseCase.transactions(eq(accountId), any(), any(), any(), anyInt()))
+                .willThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions")
+                        .param("cursor", "garbage")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
     }
 
     /** Missing account returns 404 with error code. */
     @Test
     void transactions_returns404_whenAccountNotFound() throws Exception {
         UUID accountId = UUID.randomUUID();
-        given(listTransactionsUseCase.transactions(eq(accountId), any(), any()))
+        given(listTransactionsUseCase.transactions(eq(accountId), any(), any(), any(), anyInt()))
                 .willThrow(new AccountNotFoundException(accountId));
 
         mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions")
@@ -99,4 +137,25 @@ class AccountsControllerTransactionsTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
     }
+
+    /** The page carries the account version as ETag; while it matches, 304 is answered without reading rows. */
+    @Test
+    void transactions_returns304_whenNoTransactionAdded() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        given(getAccountUseCase.version(accountId)).willReturn(3L);
+        given(listTransactionsUseCase.transactions(eq(accountId), any(), any(), any(), anyInt()))
+                .willReturn(new TransactionPageResponse(List.of(), null));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""));
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions").header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isNotModified());
+
+        verify(listTransactionsUseCase).transactions(eq(accountId), any(), any(), any(), anyInt());
+        given(getAccountUseCase.version(accountId)).willReturn(4L);
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions").header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"4\""));
+    }
 }
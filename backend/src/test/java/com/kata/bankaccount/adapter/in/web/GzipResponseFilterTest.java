@@ -0,0 +1,219 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link GzipResponseFilter}: which requests and responses are compressed,
+ * and that the compressed body inflates back to what was written.
+ */
+class GzipResponseFilterTest {
+
+    private static final String STATEMENT = "/v1/accounts/6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00/statement";
+    private static final String CSV = "date,operation,amount,balance\n"
+            + "2024-01-02T10:00:00Z,DEPOSIT,10.00,10.00\n".repeat(200);
+
+    private final GzipResponseFilter filter = new GzipResponseFilter(1024);
+
+    /** A large body is compressed while written, without a Content-Length. */
+    @Test
+    void compresses_largeResponse_whenGzipAccepted() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request(STATEMENT, "gzip"), response, writing(CSV, true));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        assertThat(response.getContentAsByteArray().length).isLessThan(CSV.length() / 10);
+        assertThat(inflate(response.getContentAsByteArray())).isEqualTo(CSV);
+    }
+
+    /** The transaction listing is compressed too, when written through the writer. */
+    @Test
+    void compresses_transactions_writtenThroughWriter() throws Exception {
+        var response = new MockHttpServletResponse();
+        var json = "{\"items\":[" + "{\"type\":\"DEPOSIT\",\"amount\":10.00},".repeat(100) + "{}],\"next\":null}";
+
+        filter.doFilter(request("/v1/accounts/6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00/transactions", "br, gzip;q=0.8"),
+                response, (req, res) -> res.getWriter().write(json));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(inflate(response.getContentAsByteArray())).isEqualTo(json);
+    }
+
+    /** A body shorter than the minimum size is sent as is, with its length. */
+    @Test
+    void passesThrough_smallResponse() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request(STATEMENT, "gzip"), response, writing("date,operation,amount,balance\n", true));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(30);
+        assertThat(response.getContentAsString()).isEqualTo("date,operation,amount,balance\n");
+    }
+
+    /** Without gzip in Accept-Encoding, or with q=0, nothing is compressed but the response still varies. */
+    @Test
+    void passesThrough_whenGzipNotAccepted() throws Exception {
+        for (String acceptEncoding : new String[] {null, "identity", "gzip;q=0", "deflate, gzip; q=0.0"}) {
+            var response = new MockHttpServletResponse();
+
+            filter.doFilter(request(STATEMENT, acceptEncoding), response, writing(CSV, true));
+
+            assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).as(acceptEncoding).isNull();
+            assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+            assertThat(response.getContentAsString()).isEqualTo(CSV);
+        }
+    }
+
+    /** A body the application already encoded, and a partial response, are left untouched. */
+    @Test
+    void passesThrough_encodedOrPartialResponses() throws Exception {
+        var encoded = new MockHttpServletResponse();
+        filter.doFilter(request(STATEMENT, "gzip"), encoded, (req, res) -> {
+            var r = (HttpServletResponse) res;
+            r.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            r.setContentLengthLong(CSV.length());
+            r.getOutputStream().write(CSV.getBytes(StandardCharsets.UTF_8));
+        });
+        assertThat(encoded.getContentAsString()).isEqualTo(CSV);
+        assertThat(encoded.getContentLengthLong()).isEqualTo(CSV.length());
+
+        var partial = new MockHttpServletResponse();
+        filter.doFilter(request(STATEMENT, "gzip"), partial, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            res.getOutputStream().write(CSV.getBytes(StandardCharsets.UTF_8));
+        });
+        assertThat(partial.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(partial.getContentAsString()).isEqualTo(CSV);
+    }
+
+    /**
+     * A write listener set before the response is compressed reaches the wrapped stream, and the
+     * response is sent as is; once compressed, it is refused.
+     */
+    @Test
+    void setWriteListener_passesThrough_untilCompressed() throws Exception {
+        var listeners = new ArrayList<WriteListener>();
+        var response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new RecordingOutputStream(super.getOutputStream(), listeners);
+            }
+        };
+        WriteListener listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+
+        filter.doFilter(request(STATEMENT, "gzip"), response, (req, res) -> {
+            res.getOutputStream().write("date,".getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().setWriteListener(listener);
+            res.getOutputStream().write(CSV.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(listeners).containsExactly(listener);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("date," + CSV);
+
+        filter.doFilter(request(STATEMENT, "gzip"), new MockHttpServletResponse(), (req, res) -> {
+            res.getOutputStream().write(CSV.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> res.getOutputStream().setWriteListener(listener))
+                    .isInstanceOf(IllegalStateException.class);
+        });
+    }
+
+    /** Other endpoints are not filtered at all. */
+    @Test
+    void ignores_otherPaths() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/v1/accounts/6c0e3b06-8d1e-4b5f-8f9a-8d2d7a1a0c00", "gzip"), response, writing(CSV, false));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.VARY)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(CSV);
+    }
+
+    private static MockHttpServletRequest request(String uri, String acceptEncoding) {
+        var request = new MockHttpServletRequest("GET", uri);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+
+    /** Chain writing the content in small chunks, flushing between them as a streamed export does. */
+    private static FilterChain writing(String content, boolean flushEachChunk) {
+        return (req, res) -> {
+            var out = res.getOutputStream();
+            var bytes = content.getBytes(StandardCharsets.UTF_8);
+            for (int off = 0; off < bytes.length; off += 100) {
+                out.write(bytes, off, Math.min(100, bytes.length - off));
+                if (flushEachChunk) {
+                    out.flush();
+                }
+            }
+        };
+    }
+
+    private static String inflate(byte[] gzip) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Container stream accepting write listeners, which the mock response does not. */
+    private static final class RecordingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final List<WriteListener> listeners;
+
+        private RecordingOutputStream(ServletOutputStream delegate, List<WriteListener> listeners) {
+            this.delegate = delegate;
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listeners.add(writeListener);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.kata.bankaccount.adapter.in.web;
+
+import com.kata.bankaccount.application.dto.response.StatementJobResponse;
+import com.kata.bankaccount.application.dto.response.StatementJobResponse.Status;
+import com.kata.bankaccount.application.ports.in.StatementJobUseCase;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.exception.StatementJobNotFoundException;
+import com.kata.bankaccount.domain.exception.StatementJobNotReadyException;
+import com.kata.bankaccount.domain.exception.StatementJobRejectedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web MVC slice tests for the statement jobs endpoints: job creation, status, and the file download
+ * with and without a Range header.
+ */
+@WebMvcTest(controllers = StatementJobsController.class)
+class StatementJobsControllerTest {
+
+    private static final String CSV = "date,operation,amount,balance\n2024-01-02T10:00:00Z,DEPOSIT,10.00,10.00\n";
+
+    @Autowired MockMvc mockMvc;
+
+    @MockBean StatementJobUseCase statementJobUseCase;
+
+    @TempDir Path dir;
+
+    /** Creating a job answers 202 with the job and its location. */
+    @Test
+    void submit_returnsAccepted_withLocation() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        when(statementJobUseCase.submit(accountId, from, null))
+                .thenReturn(new StatementJobResponse(jobId, accountId, from, null, Status.QUEUED, null, null, null));
+
+        mockMvc.perform(post("/v1/accounts/" + accountId + "/statement-jobs").param("from", "2024-01-01"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/v1/accounts/" + accountId + "/statement-jobs/" + jobId))
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.to").doesNotExist());
+    }
+
+    /** Unknown account answers 404, a full queue 503 with Retry-After. */
+    @Test
+    void submit_mapsErrors() throws Exception {
+        UUID missing = UUID.randomUUID();
+        UUID busy = UUID.randomUUID();
+        when(statementJobUseCase.submit(missing, null, null)).thenThrow(new AccountNotFoundException(missing));
+        when(statementJobUseCase.submit(busy, null, null)).thenThrow(new StatementJobRejectedException(100));
+
+        mockMvc.perform(post("/v1/accounts/" + missing + "/statement-jobs"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+        mockMvc.perform(post("/v1/accounts/" + busy + "/statement-jobs"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.code").value("STATEMENT_QUEUE_FULL"));
+    }
+
+    /** Status of an unknown job answers 404. */
+    @Test
+    void status_returnsNotFound_whenJobUnknown() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        when(statementJobUseCase.status(accountId, jobId)).thenThrow(new StatementJobNotFoundException(jobId));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement-jobs/" + jobId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("STATEMENT_JOB_NOT_FOUND"));
+    }
+
+    /** Without Range the whole file is sent, advertising range support. */
+    @Test
+    void download_sendsWholeFile() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        when(statementJobUseCase.file(accountId, jobId)).thenReturn(Files.writeString(dir.resolve("s.csv"), CSV));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement-jobs/" + jobId + "/file"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CSV.length()))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + jobId + ".csv\""))
+                .andExpect(content().string(CSV));
+    }
+
+    /** A single range is answered 206 with only those bytes, an open-ended range up to the end. */
+    @Test
+    void download_sendsRequestedRange() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        when(statementJobUseCase.file(accountId, jobId)).thenReturn(Files.writeString(dir.resolve("s.csv"), CSV));
+        String url = "/v1/accounts/" + accountId + "/statement-jobs/" + jobId + "/file";
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-3/" + CSV.length()))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("date"));
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=30-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 30-" + (CSV.length() - 1) + "/" + CSV.length()))
+                .andExpect(content().string(CSV.substring(30)));
+    }
+
+    /** A range starting past the end answers 416 with the file size. */
+    @Test
+    void download_rejectsUnsatisfiableRange() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        when(statementJobUseCase.file(accountId, jobId)).thenReturn(Files.writeString(dir.resolve("s.csv"), CSV));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement-jobs/" + jobId + "/file")
+                        .header(HttpHeaders.RANGE, "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + CSV.length()));
+    }
+
+    /** Downloading a job that is not finished answers 409. */
+    @Test
+    void download_returnsConflict_whenNotReady() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        when(statementJobUseCase.file(accountId, jobId)).thenThrow(new StatementJobNotReadyException(jobId, "RUNNING"));
+
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement-jobs/" + jobId + "/file"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("STATEMENT_JOB_NOT_READY"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.kata.bankaccount.adapter.out.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kata.bankaccount.application.ports.out.OutboxEvent;
+import com.kata.bankaccount.domain.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FileOutboxPublisher}: one JSON line per event, batches appended in order, and
+ * the file kept across restarts.
+ */
+class FileOutboxPublisherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir Path dir;
+
+    /** Batches are appended one line per event, also after the publisher was reopened. */
+    @Test
+    void publish_appendsOneLinePerEvent() throws Exception {
+        // Given
+        var file = dir.resolve("outbox").resolve("events.jsonl");
+        var accountId = UUID.randomUUID();
+        var first = List.of(event(1, accountId, TransactionType.DEPOSIT, "10.00", "10.00"),
+                event(2, accountId, TransactionType.WITHDRAWAL, "4.00", "6.00"));
+        var second = List.of(event(3, accountId, TransactionType.DEPOSIT, "1.50", "7.50"));
+
+        // When
+        try (var publisher = new FileOutboxPublisher(file, objectMapper)) {
+            publisher.publish(first);
+        }
+        try (var publisher = new FileOutboxPublisher(file, objectMapper)) {
+            publisher.publish(second);
+        }
+
+        // Then
+        var lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        var events = lines.stream().map(this::read).toList();
+        assertThat(events).containsExactly(first.get(0), first.get(1), second.get(0));
+    }
+
+    private OutboxEvent read(String line) {
+        try {
+            return objectMapper.readValue(line, OutboxEvent.class);
+        } catch (Exception e) {
+            throw new AssertionError("Not an outbox event: " + line, e);
+        }
+    }
+
+    private static OutboxEvent event(long id, UUID accountId, TransactionType type, String amount, String balance) {
+        return new OutboxEvent(id, accountId, UUID.randomUUID(), UUID.randomUUID(), type, new BigDecimal(amount),
+                new BigDecimal(balance), Instant.parse("2024-01-30T06:00:00Z").plusSeconds(id));
+    }
+}
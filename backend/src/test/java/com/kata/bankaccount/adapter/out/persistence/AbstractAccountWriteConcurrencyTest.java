@@ -0,0 +1,144 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.dto.response.DepositResponse;
+import com.kata.bankaccount.application.ports.in.DepositUseCase;
+import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency checks shared by every write strategy: concurrent writers on one account
+ * never overdraw it, every applied change is recorded with a distinct resulting balance
+ * and a retried operation is applied once.
+ * Subclasses select the strategy through {@code bank.accounts.write.strategy}.
+ */
+abstract class AbstractAccountWriteConcurrencyTest {
+
+    private static final int WRITERS = 20;
+
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired DepositUseCase depositUseCase;
+    @Autowired WithdrawUseCase withdrawUseCase;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    UUID accountId;
+
+    /** Prepares an account with 100.00 balance for each test. */
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, new BigDecimal("100.00")));
+    }
+
+    /** Shuts down the writer pool. */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Twenty concurrent withdrawals of 10 on balance 100: exactly ten succeed,
+     * the balance ends at zero and each applied withdrawal saw a different balance.
+     */
+    @Test
+    @Timeout(30)
+    void concurrentWithdrawals_neverOverdraw() throws Exception {
+        var outcomes = runConcurrently(() -> withdrawUseCase.withdraw(accountId, new BigDecimal("10.00"), UUID.randomUUID()));
+
+        assertThat(outcomes.stream().filter(o -> o == null)).hasSize(10);
+        assertThat(outcomes.stream().filter(o -> o instanceof InsufficientFundsException)).hasSize(10);
+        assertThat(balance()).isEqualByComparingTo("0.00");
+        assertThat(resultingBalances()).containsExactlyInAnyOrder(90, 80, 70, 60, 50, 40, 30, 20, 10, 0);
+    }
+
+    /** Twenty concurrent deposits of 5 are all applied exactly once. */
+    @Test
+    @Timeout(30)
+    void concurrentDeposits_areAllApplied() throws Exception {
+        var outcomes = runConcurrently(() -> depositUseCase.deposit(accountId, new BigDecimal("5.00"), UUID.randomUUID()));
+
+        assertThat(outcomes).containsOnlyNulls();
+        assertThat(balance()).isEqualByComparingTo("200.00");
+        assertThat(resultingBalances()).hasSize(WRITERS).doesNotHaveDuplicates();
+    }
+
+    /**
+     * Twenty concurrent retries of one deposit: it is applied once and every caller gets
+     * the original outcome.
+     */
+    @Test
+    @Timeout(30)
+    void concurrentRetriesOfOneOperation_areAppliedOnce() throws Exception {
+        UUID operationId = UUID.randomUUID();
+        List<DepositResponse> responses = Collections.synchronizedList(new ArrayList<>());
+
+        var outcomes = runConcurrently(() -> responses.add(depositUseCase.deposit(accountId, new BigDecimal("5.00"), operationId)));
+
+        assertThat(outcomes).containsOnlyNulls();
+        assertThat(responses).filteredOn(DepositResponse::applied).hasSize(1);
+        assertThat(responses).allSatisfy(r -> assertThat(r.balance()).isEqualByComparingTo("105.00"));
+        assertThat(balance()).isEqualByComparingTo("105.00");
+        assertThat(resultingBalances()).containsExactly(105);
+    }
+
+    /**
+     * Starts {@value #WRITERS} writers at once and returns, per writer, null on success
+     * or the exception it failed with.
+     */
+    private List<Throwable> runConcurrently(Callable<?> write) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return write.call();
+            }));
+        }
+        start.countDown();
+
+        List<Throwable> outcomes = new ArrayList<>();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+                outcomes.add(null);
+            } catch (ExecutionException e) {
+                outcomes.add(e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("select balance from accounts where id = ?", BigDecimal.class, accountId);
+    }
+
+    private List<Integer> resultingBalances() {
+        return jdbcTemplate.queryForList("select resulting_balance from transactions where account_id = ?", BigDecimal.class, accountId)
+                .stream()
+                .map(BigDecimal::intValueExact)
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.TransactionEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.ports.in.DepositUseCase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test asserting that the write path appends transactions without
+ * loading the account history: a deposit costs the same number of SQL statements
+ * on an empty account and on an account with 100k prior transactions.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class AccountRepositoryAppendOnlyTest {
+
+    private static final int HISTORY_SIZE = 100_000;
+
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired DepositUseCase depositUseCase;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    /** Resolves the Hibernate statistics of the shared session factory. */
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    /** A deposit issues a constant number of statements and never loads existing transactions. */
+    @Test
+    void deposit_onLargeHistory_issuesSameStatementsAsOnEmptyAccount() {
+        // Given
+        UUID emptyAccountId = createAccount();
+        UUID busyAccountId = createAccount();
+        seedHistory(busyAccountId, HISTORY_SIZE);
+
+        // When
+        long onEmpty = statementsForDeposit(emptyAccountId);
+        long onBusy = statementsForDeposit(busyAccountId);
+        long transactionsLoaded = statistics.getEntityStatistics(TransactionEntity.class.getName()).getLoadCount();
+
+        // Then
+        assertThat(onBusy).isEqualTo(onEmpty);
+        assertThat(onBusy).isLessThanOrEqualTo(10);
+        assertThat(transactionsLoaded).isZero();
+        Integer rows = jdbcTemplate.queryForObject(
+                "select count(*) from transactions where account_id = ?", Integer.class, busyAccountId);
+        assertThat(rows).isEqualTo(HISTORY_SIZE + 1);
+    }
+
+    private long statementsForDeposit(UUID accountId) {
+        statistics.clear();
+        depositUseCase.deposit(accountId, new BigDecimal("10.00"), UUID.randomUUID());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UUID createAccount() {
+        UUID accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+        return accountId;
+    }
+
+    private void seedHistory(UUID accountId, int size) {
+        Instant start = Instant.parse("2020-01-01T00:00:00Z");
+        jdbcTemplate.batchUpdate(
+                "insert into transactions (id, account_id, type, amount, timestamp, resulting_balance) values (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setObject(1, UUID.randomUUID());
+                        ps.setObject(2, accountId);
+                        ps.setString(3, "DEPOSIT");
+                        ps.setBigDecimal(4, BigDecimal.ONE);
+                        ps.setTimestamp(5, Timestamp.from(start.plusSeconds(i)));
+                        ps.setBigDecimal(6, BigDecimal.valueOf(i + 1L));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                });
+        jdbcTemplate.update("update accounts set balance = ? where id = ?", BigDecimal.valueOf(size), accountId);
+    }
+}
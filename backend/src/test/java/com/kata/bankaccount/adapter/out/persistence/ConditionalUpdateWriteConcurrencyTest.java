@@ -0,0 +1,10 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the write concurrency checks against the lock-free conditional update strategy.
+ */
+@SpringBootTest(properties = "bank.accounts.write.strategy=conditional-update")
+class ConditionalUpdateWriteConcurrencyTest extends AbstractAccountWriteConcurrencyTest {
+}
@@ -0,0 +1,10 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the write concurrency checks through the single-writer command executor.
+ */
+@SpringBootTest(properties = "bank.accounts.write.executor.enabled=true")
+class ExecutorWriteConcurrencyTest extends AbstractAccountWriteConcurrencyTest {
+}
@@ -0,0 +1,16 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the write concurrency checks against the optimistic strategy, with enough
+ * attempts for every writer to get through the contention.
+ */
+@SpringBootTest(properties = {
+        "bank.accounts.write.strategy=optimistic",
+        "bank.accounts.write.optimistic.max-attempts=100",
+        "bank.accounts.write.optimistic.initial-backoff=1ms",
+        "bank.accounts.write.optimistic.max-backoff=20ms"
+})
+class OptimisticWriteConcurrencyTest extends AbstractAccountWriteConcurrencyTest {
+}
@@ -0,0 +1,10 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the write concurrency checks against the default pessimistic lock strategy.
+ */
+@SpringBootTest(properties = "bank.accounts.write.strategy=pessimistic")
+class PessimisticWriteConcurrencyTest extends AbstractAccountWriteConcurrencyTest {
+}
@@ -0,0 +1,116 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.TransactionJpaRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression tests: calls every query declared in {@link TransactionJpaRepository}, captures the
+ * SQL Hibernate sends, then runs EXPLAIN on it on the embedded database and fails when it is answered by a
+ * table scan instead of the expected index. A new query method without a plan here fails the coverage check.
+ */
+@SpringBootTest
+class TransactionQueryPlanTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static final UUID ACCOUNT = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final UUID OPERATION = UUID.fromString("22222222-2222-2222-2222-222222222222");
+    private static final Instant FROM = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-12-31T23:59:59Z");
+
+    /**
+     * Call of each repository query, the values of its SQL parameters in order (Hibernate adds the offset
+     * and row limit of a page) and the index it must use.
+     */
+    private static final Map<String, Plan> PLANS = Map.of(
+            "findFirstPage", new Plan(
+                    r -> r.findFirstPage(ACCOUNT, FROM, TO, PageRequest.ofSize(51)),
+                    List.of(ACCOUNT, FROM, TO, 0, 51),
+                    "IDX_TRANSACTIONS_ACCOUNT_TIMESTAMP_ID"),
+            "findPageAfter", new Plan(
+                    r -> r.findPageAfter(ACCOUNT, FROM, TO, TO, OPERATION, PageRequest.ofSize(51)),
+                    List.of(ACCOUNT, FROM, TO, TO, TO, OPERATION, 0, 51),
+                    "IDX_TRANSACTIONS_ACCOUNT_TIMESTAMP_ID"),
+            "findLatestBalances", new Plan(
+                    r -> r.findLatestBalances(ACCOUNT, TO, PageRequest.ofSize(1)),
+                    List.of(ACCOUNT, TO, 0, 1),
+                    "IDX_TRANSACTIONS_ACCOUNT_TIMESTAMP_ID"),
+            "findByOperationId", new Plan(
+                    r -> r.findByOperationId(OPERATION),
+                    List.of(OPERATION),
+                    "UK_TRANSACTIONS_OPERATION_ID"),
+            "findByOperationIdIn", new Plan(
+                    r -> r.findByOperationIdIn(List.of(OPERATION, ACCOUNT)),
+                    List.of(OPERATION, ACCOUNT),
+                    "UK_TRANSACTIONS_OPERATION_ID")
+    );
+
+    @Autowired TransactionJpaRepository transactionJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    /** Every query method of the repository has a plan check. */
+    @Test
+    void everyRepositoryQuery_hasAPlanCheck() {
+        var declared = Arrays.stream(TransactionJpaRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+
+        assertThat(PLANS.keySet()).containsExactlyInAnyOrderElementsOf(declared);
+    }
+
+    /** Each query, as Hibernate generates it, seeks through its index; none scans the table. */
+    @Test
+    void everyRepositoryQuery_usesItsIndex() {
+        PLANS.forEach((query, plan) -> {
+            STATEMENTS.clear();
+            plan.call().accept(transactionJpaRepository);
+            assertThat(STATEMENTS).as("SQL of %s", query).hasSize(1);
+
+            var explained = jdbcTemplate.queryForList("explain " + STATEMENTS.get(0), String.class,
+                            plan.parameters().toArray())
+                    .stream()
+                    .collect(Collectors.joining("\n"))
+                    .toUpperCase();
+
+            assertThat(explained).as("plan of %s", query)
+                    .contains(plan.index())
+                    .doesNotContain("TABLESCAN");
+        });
+    }
+
+    private record Plan(Consumer<TransactionJpaRepository> call, List<Object> parameters, String index) {}
+
+    /** Records the SQL of every statement Hibernate prepares. */
+    @TestConfiguration
+    static class CaptureStatements {
+        @Bean
+        HibernatePropertiesCustomizer captureStatements() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> {
+                        STATEMENTS.add(sql);
+                        return sql;
+                    });
+        }
+    }
+}
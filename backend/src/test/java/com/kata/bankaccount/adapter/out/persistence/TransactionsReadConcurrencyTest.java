@@ -0,0 +1,79 @@
+package com.kata.bankaccount.adapter.out.persistence;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.ports.in.ListTransactionsUseCase;
+import com.kata.bankaccount.application.ports.in.WithdrawUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test asserting that listing transactions does not lock the account: a withdrawal
+ * completes while a history read is still open on the same account.
+ */
+@SpringBootTest
+class TransactionsReadConcurrencyTest {
+
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired ListTransactionsUseCase listTransactionsUseCase;
+    @Autowired WithdrawUseCase withdrawUseCase;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    /** Shuts down the reader and writer threads. */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The withdrawal commits while the read transaction is still open. With a locking read it would wait
+     * for the reader and fail on the lock timeout instead.
+     */
+    @Test
+    @Timeout(30)
+    void withdraw_duringLongHistoryRead_isNotBlocked() throws Exception {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, new BigDecimal("100.00")));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // A slow reader: the listing runs inside a transaction kept open until released
+        var reader = executor.submit(() -> transactionTemplate.execute(status -> {
+            listTransactionsUseCase.transactions(accountId, null, null, null, 50);
+            reading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        reading.await();
+
+        // When
+        var withdrawal = executor.submit(() -> withdrawUseCase.withdraw(accountId, new BigDecimal("30.00"), UUID.randomUUID()));
+        var response = withdrawal.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(reader.isDone()).as("reader still holds its transaction").isFalse();
+        assertThat(response.balance()).isEqualByComparingTo("70.00");
+        release.countDown();
+        reader.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,121 @@
+package com.kata.bankaccount.adapter.out.persistence.cache;
+
+import com.kata.bankaccount.adapter.out.persistence.jpa.entity.AccountEntity;
+import com.kata.bankaccount.adapter.out.persistence.jpa.repository.AccountJpaRepository;
+import com.kata.bankaccount.application.ports.in.DepositUseCase;
+import com.kata.bankaccount.application.ports.in.GetAccountUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the balance cache never serves a balance older than the last committed write on this
+ * instance, while writers and readers run concurrently on one account.
+ * Subclasses select the strategy through {@code bank.accounts.write.strategy}.
+ */
+abstract class AbstractBalanceCacheConsistencyTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int DEPOSITS_PER_WRITER = 50;
+
+    @Autowired AccountJpaRepository accountJpaRepository;
+    @Autowired DepositUseCase depositUseCase;
+    @Autowired GetAccountUseCase getAccountUseCase;
+    @Autowired MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+
+    UUID accountId;
+
+    /** Prepares an empty account for each test. */
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+        accountJpaRepository.save(new AccountEntity(accountId, BigDecimal.ZERO));
+    }
+
+    /** Shuts down the worker pool. */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Writers only deposit, so the balance only grows: a read started after a deposit was acknowledged
+     * must return at least the balance that deposit committed.
+     */
+    @Test
+    @Timeout(60)
+    void concurrentReads_neverSeeABalanceOlderThanTheLastAcknowledgedWrite() throws Exception {
+        // Given: a floor raised by every acknowledged deposit
+        var acknowledged = new AtomicReference<>(BigDecimal.ZERO);
+        var writing = new AtomicBoolean(true);
+        var start = new CountDownLatch(1);
+        double hitsBefore = hits();
+
+        // When: writers deposit while readers keep reading the account
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < DEPOSITS_PER_WRITER; i++) {
+                    var response = depositUseCase.deposit(accountId, BigDecimal.ONE, UUID.randomUUID());
+                    acknowledged.accumulateAndGet(response.balance(), BigDecimal::max);
+                }
+                return null;
+            }));
+        }
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                int reads = 0;
+                while (writing.get()) {
+                    var floor = acknowledged.get();
+                    var balance = getAccountUseCase.getAccountById(accountId).balance();
+                    // Then: never behind a write acknowledged before the read started
+                    assertThat(balance).isGreaterThanOrEqualTo(floor);
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            writing.set(false);
+        }
+        for (Future<Integer> reader : readers) {
+            assertThat(reader.get()).isPositive();
+        }
+
+        // Then: the final state is served, from the cache
+        var expected = BigDecimal.valueOf(WRITERS * DEPOSITS_PER_WRITER);
+        assertThat(getAccountUseCase.getAccountById(accountId).balance()).isEqualByComparingTo(expected);
+        assertThat(hits()).isGreaterThan(hitsBefore);
+    }
+
+    private double hits() {
+        return meterRegistry.get("bank.accounts.balance.cache").tag("result", "hit").counter().count();
+    }
+}
@@ -0,0 +1,162 @@
+package com.kata.bankaccount.adapter.out.persistence.cache;
+
+import com.kata.bankaccount.domain.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AccountBalanceCache}: read-through, expiry, size bound, version ordering and metrics.
+ */
+class AccountBalanceCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private AccountBalanceCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /** Creates a cache of two entries. */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+        cache = new AccountBalanceCache(2, TTL, clock, meterRegistry);
+    }
+
+    /** A stored load is served by the next lookups without going to the loader again. */
+    @Test
+    void get_loadsOnce_thenServesTheCachedState() {
+        UUID id = UUID.randomUUID();
+
+        var first = cache.get(id, loader(id, "10.00", 1), true);
+        var second = cache.get(id, loader(id, "99.00", 9), true);
+
+        assertThat(first.getBalance()).isEqualByComparingTo("10.00");
+        assertThat(second.getBalance()).isEqualByComparingTo("10.00");
+        assertThat(second.getVersion()).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("bank.accounts.balance.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank.accounts.balance.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank.accounts.balance.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("bank.accounts.balance.cache.load").timer().count()).isEqualTo(1);
+    }
+
+    /** A load that may not be committed is returned but not stored. */
+    @Test
+    void get_withoutStore_doesNotCache() {
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(id, "10.00", 1), false);
+        cache.get(id, loader(id, "10.00", 1), false);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    /** An entry is no longer served once the TTL has passed. */
+    @Test
+    void get_afterTtl_reloads() {
+        UUID id = UUID.randomUUID();
+        cache.put(id, new BigDecimal("10.00"), 1);
+
+        clock.advance(TTL);
+        var account = cache.get(id, loader(id, "20.00", 2), true);
+
+        assertThat(account.getBalance()).isEqualByComparingTo("20.00");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("bank.accounts.balance.cache.evictions").tag("cause", "expired").counter().count())
+                .isEqualTo(1);
+    }
+
+    /** Past the maximum size the least recently used entry is dropped. */
+    @Test
+    void put_pastMaxEntries_evictsLeastRecentlyUsed() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.put(first, BigDecimal.ONE, 0);
+        cache.put(second, BigDecimal.ONE, 0);
+        cache.get(first, loader(first, "1", 0), true);
+
+        cache.put(third, BigDecimal.ONE, 0);
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get(second, loader(second, "1", 0), true);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("bank.accounts.balance.cache.evictions").tag("cause", "size").counter().count())
+                .isEqualTo(2);
+    }
+
+    /** A state older than the cached one, e.g. from a load that raced with a write, is ignored. */
+    @Test
+    void put_olderVersion_isIgnored() {
+        UUID id = UUID.randomUUID();
+        cache.put(id, new BigDecimal("20.00"), 2);
+
+        cache.put(id, new BigDecimal("10.00"), 1);
+
+        assertThat(cache.get(id, loader(id, "0", 0), true).getBalance()).isEqualByComparingTo("20.00");
+    }
+
+    /** Invalidation only drops an entry that is not newer than the version found outdated. */
+    @Test
+    void invalidate_keepsNewerEntries() {
+        UUID id = UUID.randomUUID();
+        cache.put(id, new BigDecimal("20.00"), 2);
+
+        cache.invalidate(id, 1);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.invalidate(id, 2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private Supplier<Account> loader(UUID id, String balance, long version) {
+        return () -> {
+            loads.incrementAndGet();
+            return new Account(id, new BigDecimal(balance), version);
+        };
+    }
+
+    /** Clock moved forward by the tests. */
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
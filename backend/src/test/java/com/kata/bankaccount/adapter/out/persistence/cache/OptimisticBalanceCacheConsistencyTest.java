@@ -0,0 +1,16 @@
+package com.kata.bankaccount.adapter.out.persistence.cache;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the balance cache consistency check against the optimistic strategy, whose writers read the
+ * account through the cache and fall back to the database when the cached version is outdated.
+ */
+@SpringBootTest(properties = {
+        "bank.accounts.write.strategy=optimistic",
+        "bank.accounts.write.optimistic.max-attempts=100",
+        "bank.accounts.write.optimistic.initial-backoff=1ms",
+        "bank.accounts.write.optimistic.max-backoff=20ms"
+})
+class OptimisticBalanceCacheConsistencyTest extends AbstractBalanceCacheConsistencyTest {
+}
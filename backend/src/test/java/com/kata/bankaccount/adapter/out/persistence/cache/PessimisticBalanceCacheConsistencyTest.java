@@ -0,0 +1,11 @@
+package com.kata.bankaccount.adapter.out.persistence.cache;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the balance cache consistency check against the pessimistic strategy, whose writers lock the row
+ * and never read through the cache.
+ */
+@SpringBootTest(properties = "bank.accounts.write.strategy=pessimistic")
+class PessimisticBalanceCacheConsistencyTest extends AbstractBalanceCacheConsistencyTest {
+}
@@ -0,0 +1,160 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.domain.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link FilteredOperationRepository} ensuring definite misses skip the database,
+ * confirmed ids are served from memory until the retention window ends, and the filter metrics are counted.
+ */
+@ExtendWith(MockitoExtension.class)
+class FilteredOperationRepositoryTest {
+
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    @Mock OperationRepository delegate;
+
+    MutableClock clock;
+    SimpleMeterRegistry meterRegistry;
+    OperationIdFilter filter;
+    FilteredOperationRepository repository;
+
+    /** Builds a small filter for each test. */
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new OperationIdFilter(1_000, 0.01, 100, RETENTION, clock, meterRegistry);
+        repository = new FilteredOperationRepository(delegate, filter);
+    }
+
+    /** Ids never written are answered without a query. */
+    @Test
+    void findByOperationIds_newIds_skipDatabase() {
+        var result = repository.findByOperationIds(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(delegate);
+        assertThat(count("miss")).isEqualTo(2.0);
+    }
+
+    /** Written ids are looked up once, then served from the LRU. */
+    @Test
+    void findByOperationIds_writtenId_isConfirmedOnce_thenCached() {
+        // Given
+        UUID id = UUID.randomUUID();
+        var outcome = new AppliedOperation(id, UUID.randomUUID(), TransactionType.DEPOSIT, new BigDecimal("10.00"),
+                clock.instant());
+        filter.add(id);
+        when(delegate.findByOperationIds(List.of(id))).thenReturn(Map.of(id, outcome));
+
+        // When
+        var first = repository.findByOperationIds(List.of(id));
+        var second = repository.findByOperationIds(List.of(id));
+
+        // Then
+        assertThat(first).containsEntry(id, outcome);
+        assertThat(second).containsEntry(id, outcome);
+        verify(delegate, times(1)).findByOperationIds(any());
+        assertThat(count("hit")).isEqualTo(2.0);
+    }
+
+    /** An id written but rolled back is a false positive. */
+    @Test
+    void findByOperationIds_possibleHitNotStored_countsFalsePositive() {
+        UUID id = UUID.randomUUID();
+        filter.add(id);
+        when(delegate.findByOperationIds(List.of(id))).thenReturn(Map.of());
+
+        assertThat(repository.findByOperationIds(List.of(id))).isEmpty();
+        assertThat(count("false_positive")).isEqualTo(1.0);
+    }
+
+    /** Single lookups happen after a constraint violation and always reach the database. */
+    @Test
+    void findByOperationId_unknownToFilter_stillQueriesDatabase() {
+        UUID id = UUID.randomUUID();
+        var outcome = new AppliedOperation(id, UUID.randomUUID(), TransactionType.WITHDRAWAL, BigDecimal.ONE,
+                clock.instant());
+        when(delegate.findByOperationId(id)).thenReturn(Optional.of(outcome));
+
+        assertThat(repository.findByOperationId(id)).contains(outcome);
+    }
+
+    /**
+     * Past the retention window a confirmed outcome is no longer answered from memory: once the purger has
+     * cleared the id, a retry is new, as the purger documents.
+     */
+    @Test
+    void findByOperationIds_confirmedIdPastRetention_asksTheDatabaseAgain() {
+        // Given: an outcome confirmed and cached, then the window passes and the id is purged
+        UUID id = UUID.randomUUID();
+        var outcome = new AppliedOperation(id, UUID.randomUUID(), TransactionType.DEPOSIT, new BigDecimal("10.00"),
+                clock.instant());
+        filter.add(id);
+        when(delegate.findByOperationIds(List.of(id))).thenReturn(Map.of(id, outcome), Map.of());
+        repository.findByOperationIds(List.of(id));
+        clock.advance(RETENTION.plusSeconds(1));
+
+        // When
+        var retried = repository.findByOperationIds(List.of(id));
+
+        // Then
+        assertThat(retried).isEmpty();
+        verify(delegate, times(2)).findByOperationIds(any());
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("bank.accounts.idempotency.filter", "result", result).count();
+    }
+
+    /** Clock moved forward by the tests. */
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for {@link OperationIdPurger}: expired ids are purged over several keyset batches,
+ * recent ids and the transaction history are kept, the metrics are recorded and a run resumes from the
+ * checkpoint of the previous one.
+ */
+@SpringBootTest(properties = "bank.accounts.idempotency.retention.enabled=false")
+class OperationIdPurgerTest {
+
+    private static final Instant NOW = Instant.parse("2020-06-01T00:00:00Z");
+    private static final Instant EXPIRED = Instant.parse("2020-03-01T00:00:00Z");
+    private static final Instant RECENT = Instant.parse("2020-05-31T00:00:00Z");
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    SimpleMeterRegistry meterRegistry;
+    OperationIdPurger purger;
+    UUID accountId;
+
+    /** Creates a purger with a window of 30 days and batches of 3 rows, starting without a checkpoint. */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("update operation_id_purge set last_id = null, last_timestamp = null");
+        meterRegistry = new SimpleMeterRegistry();
+        purger = new OperationIdPurger(jdbcTemplate, Duration.ofDays(30), 3,
+                Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+        accountId = UUID.randomUUID();
+        jdbcTemplate.update("insert into accounts (id, balance) values (?, ?)", accountId, BigDecimal.ZERO);
+    }
+
+    /** Expired ids are cleared in batches, including rows sharing a timestamp, and recent ids are kept. */
+    @Test
+    void purge_clearsExpiredIds_andKeepsRecentOnes() {
+        // Given: 7 expired ids, 4 of them with the same timestamp, and 2 recent ones
+        List<UUID> expired = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expired.add(insertTransaction(i < 4 ? EXPIRED : EXPIRED.plusSeconds(i)));
+        }
+        List<UUID> recent = List.of(insertTransaction(RECENT), insertTransaction(RECENT.plusSeconds(1)));
+        insertOperations(EXPIRED, 4);
+        insertOperations(RECENT, 1);
+
+        // When
+        long purged = purger.purge();
+
+        // Then
+        assertThat(purged).isEqualTo(11);
+        assertThat(operationIdsOf(expired)).containsOnlyNulls();
+        assertThat(operationIdsOf(recent)).doesNotContainNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from transactions where account_id = ?", Integer.class, accountId)).isEqualTo(9);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from operations where created_at < ?", Integer.class, Timestamp.from(NOW))).isEqualTo(1);
+        assertThat(meterRegistry.counter("bank.accounts.idempotency.purged", "table", "transactions").count()).isEqualTo(7.0);
+        assertThat(meterRegistry.counter("bank.accounts.idempotency.purged", "table", "operations").count()).isEqualTo(4.0);
+        assertThat(meterRegistry.timer("bank.accounts.idempotency.purge").count()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select last_id from operation_id_purge", UUID.class))
+                .isEqualTo(expired.get(6));
+        assertThat(purger.purge()).isZero();
+    }
+
+    /** A run resumes past the checkpoint of the previous one and checkpoints its own last row. */
+    @Test
+    void purge_resumesFromCheckpoint() {
+        // Given: a first run, then an id expiring after it
+        insertTransaction(EXPIRED);
+        purger.purge();
+        var later = insertTransaction(EXPIRED.plusSeconds(60));
+
+        // When
+        long purged = purger.purge();
+
+        // Then
+        assertThat(purged).isEqualTo(1);
+        assertThat(operationIdsOf(List.of(later))).containsOnlyNulls();
+        assertThat(jdbcTemplate.queryForObject("select last_id from operation_id_purge", UUID.class)).isEqualTo(later);
+    }
+
+    private UUID insertTransaction(Instant timestamp) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into transactions (id, account_id, type, amount, timestamp, resulting_balance, operation_id) "
+                        + "values (?, ?, 'DEPOSIT', 1, ?, 1, ?)",
+                id, accountId, Timestamp.from(timestamp), UUID.randomUUID());
+        return id;
+    }
+
+    private void insertOperations(Instant createdAt, int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("insert into operations (id, created_at) values (?, ?)", UUID.randomUUID(), Timestamp.from(createdAt));
+        }
+    }
+
+    private List<UUID> operationIdsOf(List<UUID> transactionIds) {
+        List<UUID> stored = new ArrayList<>();
+        for (UUID id : transactionIds) {
+            stored.add(jdbcTemplate.queryForObject("select operation_id from transactions where id = ?", UUID.class, id));
+        }
+        return stored;
+    }
+}
@@ -0,0 +1,68 @@
+package com.kata.bankaccount.adapter.out.persistence.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RotatingBloomFilter}: no false negatives for recent ids, a false-positive
+ * rate close to the target and a fixed memory footprint.
+ */
+class RotatingBloomFilterTest {
+
+    /** Every id added in the current and previous generation is reported as possibly present. */
+    @Test
+    void mightContain_neverMissesRecentIds() {
+        var filter = new RotatingBloomFilter(10_000, 0.01);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 15_000; i++) {
+            var id = UUID.randomUUID();
+            ids.add(id);
+            filter.add(id);
+        }
+
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    /** Unknown ids are reported as possibly present at roughly the configured rate. */
+    @Test
+    void mightContain_falsePositiveRate_staysNearTarget() {
+        var filter = new RotatingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID());
+        }
+
+        long falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.03);
+    }
+
+    /** Memory does not grow with insertions and ids older than two generations are forgotten. */
+    @Test
+    void add_beyondCapacity_rotates_withFixedMemory() {
+        var filter = new RotatingBloomFilter(1_000, 0.01);
+        long size = filter.sizeInBytes();
+        List<UUID> old = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            var id = UUID.randomUUID();
+            old.add(id);
+            filter.add(id);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            filter.add(UUID.randomUUID());
+        }
+
+        assertThat(filter.sizeInBytes()).isEqualTo(size);
+        assertThat(old.stream().filter(filter::mightContain).count()).isLessThan(100);
+    }
+}
@@ -2,8 +2,10 @@ package com.kata.bankaccount.application.service;
 
 import com.kata.bankaccount.application.dto.response.DepositResponse;
 import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
 import com.kata.bankaccount.application.ports.out.OperationRepository;
 import com.kata.bankaccount.application.ports.out.TransactionRepository;
+import com.kata.bankaccount.application.service.write.PessimisticLockWriteStrategy;
 import com.kata.bankaccount.domain.model.Account;
 import com.kata.bankaccount.domain.model.TransactionType;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +13,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,7 +41,6 @@ class AccountServiceDepositTest {
     @Mock
     TransactionRepository transactionRepository;
 
-    @InjectMocks
     AccountService accountService;
 
     @Captor ArgumentCaptor<Account> accountCaptor;
@@ -44,9 +48,11 @@ class AccountServiceDepositTest {
     UUID accountId;
     UUID operationId;
 
-    /** Initializes random ids for each test. */
+    /** Initializes random ids and the service with the default write strategy for each test. */
     @BeforeEach
     void setUp() {
+        accountService = new AccountService(accountRepository, transactionRepository, operationRepository,
+                new PessimisticLockWriteStrategy(accountRepository), TransactionOperations.withoutTransaction());
         accountId = UUID.randomUUID();
         operationId = UUID.randomUUID();
     }
@@ -57,7 +63,6 @@ class AccountServiceDepositTest {
         // Given
         var account = new Account(accountId, new BigDecimal("0"));
         when(accountRepository.lockById(accountId)).thenReturn(account);
-        when(operationRepository.exists(operationId)).thenReturn(false);
 
         // When
         DepositResponse result = accountService.deposit(accountId, new BigDecimal("50"), operationId);
@@ -74,7 +79,6 @@ class AccountServiceDepositTest {
         // Given
         var account = new Account(accountId, new BigDecimal("0"));
         when(accountRepository.lockById(accountId)).thenReturn(account);
-        when(operationRepository.exists(operationId)).thenReturn(false);
 
         // When
         accountService.deposit(accountId, new BigDecimal("50.00"), operationId);
@@ -86,7 +90,8 @@ class AccountServiceDepositTest {
         assertThat(saved.getTransactions()).hasSize(1);
         assertThat(saved.getTransactions().get(0).getType()).isEqualTo(TransactionType.DEPOSIT);
         assertThat(saved.getTransactions().get(0).getAmount()).isEqualByComparingTo("50.00");
-        verify(operationRepository).save(operationId);
+        assertThat(saved.getTransactions().get(0).getOperationId()).isEqualTo(operationId);
+        verifyNoInteractions(operationRepository);
     }
 
     /** Non-positive amount is rejected and nothing is saved. */
@@ -95,23 +100,23 @@ class AccountServiceDepositTest {
         // Given
         var account = new Account(accountId, new BigDecimal("0"));
         when(accountRepository.lockById(accountId)).thenReturn(account);
-        when(operationRepository.exists(operationId)).thenReturn(false);
 
         // When / Then
         assertThrows(IllegalArgumentException.class,
                 () -> accountService.deposit(accountId, new BigDecimal("0"), operationId));
 
         verify(accountRepository, never()).save(any());
-        verify(operationRepository, never()).save(any());
     }
 
-    /** Repeating the same operationId is idempotent and returns applied=false. */
+    /** Repeating the same operationId hits the unique constraint and returns the original outcome with applied=false. */
     @Test
-    void deposit_sameOperationId_isIdempotent_noAdditionalSave_andReturnsAppliedFalse() {
+    void deposit_sameOperationId_isIdempotent_andReturnsOriginalOutcome() {
         // Given
-        when(operationRepository.exists(operationId)).thenReturn(true);
-        var account = new Account(accountId, new BigDecimal("10"));
+        var account = new Account(accountId, new BigDecimal("60"));
         when(accountRepository.lockById(accountId)).thenReturn(account);
+        doThrow(new DataIntegrityViolationException("uk_transactions_operation_id")).when(accountRepository).save(any());
+        when(operationRepository.findByOperationId(operationId)).thenReturn(Optional.of(
+                new AppliedOperation(operationId, accountId, TransactionType.DEPOSIT, new BigDecimal("10"), Instant.now())));
 
         // When
         var result = accountService.deposit(accountId, new BigDecimal("50"), operationId);
@@ -119,7 +124,32 @@ class AccountServiceDepositTest {
         // Then
         assertEquals(new BigDecimal("10"), result.balance());
         assertThat(result.applied()).isFalse();
-        verify(accountRepository, never()).save(any());
-        verify(operationRepository, never()).save(any());
+    }
+
+    /** An operationId already used for another account is rejected. */
+    @Test
+    void deposit_operationIdOfAnotherAccount_isRejected() {
+        // Given
+        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, BigDecimal.ZERO));
+        doThrow(new DataIntegrityViolationException("uk_transactions_operation_id")).when(accountRepository).save(any());
+        when(operationRepository.findByOperationId(operationId)).thenReturn(Optional.of(
+                new AppliedOperation(operationId, UUID.randomUUID(), TransactionType.DEPOSIT, new BigDecimal("10"), Instant.now())));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> accountService.deposit(accountId, new BigDecimal("50"), operationId));
+    }
+
+    /** A constraint violation that is not a repeated operation id is propagated. */
+    @Test
+    void deposit_otherIntegrityViolation_isPropagated() {
+        // Given
+        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, BigDecimal.ZERO));
+        doThrow(new DataIntegrityViolationException("fk_transactions_account")).when(accountRepository).save(any());
+        when(operationRepository.findByOperationId(operationId)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> accountService.deposit(accountId, new BigDecimal("50"), operationId));
     }
 }
@@ -4,22 +4,27 @@ import com.kata.bankaccount.application.dto.response.AccountResponse;
 import com.kata.bankaccount.application.ports.out.AccountRepository;
 import com.kata.bankaccount.application.ports.out.OperationRepository;
 import com.kata.bankaccount.application.ports.out.TransactionRepository;
+import com.kata.bankaccount.application.service.write.PessimisticLockWriteStrategy;
 import com.kata.bankaccount.domain.exception.AccountNotFoundException;
 import com.kata.bankaccount.domain.model.Account;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
- * Unit tests for {@link AccountService#getAccountById} validating the returned projection
- * and behavior when the account is missing.
+ * Unit tests for {@link AccountService#getAccountById} and {@link AccountService#balanceAt} validating
+ * the returned projections and behavior when the account is missing.
  */
 class AccountServiceGetTest {
 
@@ -34,7 +39,8 @@ class AccountServiceGetTest {
         accountRepository = Mockito.mock(AccountRepository.class);
         operationRepository = Mockito.mock(OperationRepository.class);
         transactionRepository = Mockito.mock(TransactionRepository.class);
-        service = new AccountService(accountRepository, operationRepository, transactionRepository);
+        service = new AccountService(accountRepository, transactionRepository, operationRepository,
+                new PessimisticLockWriteStrategy(accountRepository), TransactionOperations.withoutTransaction());
     }
 
     /** Existing account returns id and balance. */
@@ -50,6 +56,16 @@ class AccountServiceGetTest {
         assertThat(res.balance()).isEqualByComparingTo(balance);
     }
 
+    /** The version is the one of the account, read without touching the transactions. */
+    @Test
+    void version_returnsAccountVersion() {
+        UUID id = UUID.randomUUID();
+        when(accountRepository.findById(id)).thenReturn(new Account(id, BigDecimal.TEN, 12));
+
+        assertThat(service.version(id)).isEqualTo(12);
+        verifyNoInteractions(transactionRepository);
+    }
+
     /** Missing account throws AccountNotFoundException. */
     @Test
     void get_AccountById_throws_whenAccountMissing() {
@@ -58,4 +74,40 @@ class AccountServiceGetTest {
 
         assertThrows(AccountNotFoundException.class, () -> service.getAccountById(id));
     }
+
+    /** The balance at an instant is the resulting balance of the latest transaction up to it. */
+    @Test
+    void balanceAt_returnsResultingBalance_ofLatestTransaction() {
+        UUID id = UUID.randomUUID();
+        Instant at = Instant.parse("2024-01-31T23:59:59Z");
+        when(accountRepository.existsById(id)).thenReturn(true);
+        when(transactionRepository.balanceAt(id, at)).thenReturn(Optional.of(new BigDecimal("42.50")));
+
+        var res = service.balanceAt(id, at);
+
+        assertThat(res.accountId()).isEqualTo(id);
+        assertThat(res.at()).isEqualTo(at);
+        assertThat(res.balance()).isEqualByComparingTo("42.50");
+    }
+
+    /** Before the first transaction the balance is zero. */
+    @Test
+    void balanceAt_returnsZero_beforeFirstTransaction() {
+        UUID id = UUID.randomUUID();
+        Instant at = Instant.parse("2020-01-01T00:00:00Z");
+        when(accountRepository.existsById(id)).thenReturn(true);
+        when(transactionRepository.balanceAt(id, at)).thenReturn(Optional.empty());
+
+        assertThat(service.balanceAt(id, at).balance()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    /** Missing account throws AccountNotFoundException without reading transactions. */
+    @Test
+    void balanceAt_throws_whenAccountMissing() {
+        UUID id = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class, () -> service.balanceAt(id, Instant.now()));
+        verifyNoInteractions(transactionRepository);
+    }
 }
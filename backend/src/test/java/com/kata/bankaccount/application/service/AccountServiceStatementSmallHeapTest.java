@@ -0,0 +1,90 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.application.ports.out.TransactionRepository;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exports a 1M-row statement (over 40 MB of CSV) under a 32 MB heap: it only passes if rows are
+ * streamed to the sink rather than collected. Run by the {@code small-heap-test} Surefire execution.
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountServiceStatementSmallHeapTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Mock AccountRepository accountRepository;
+    @Mock OperationRepository operationRepository;
+    @Mock TransactionRepository transactionRepository;
+
+    @InjectMocks AccountService service;
+
+    /** Every row reaches the sink and the heap stays well below the statement size. */
+    @Test
+    void exportStatementCsv_millionRows_streamsWithConstantMemory() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        Instant start = Instant.parse("2020-01-01T00:00:00Z");
+        doAnswer(inv -> {
+            Consumer<Transaction> action = inv.getArgument(3);
+            for (int i = ROWS; i > 0; i--) {
+                action.accept(Transaction.of(UUID.randomUUID(), TransactionType.DEPOSIT,
+                        new BigDecimal("1.0000"), start.plusSeconds(i), BigDecimal.valueOf(i, 4)));
+            }
+            return null;
+        }).when(transactionRepository).forEachInPeriod(eq(accountId), any(), any(), any());
+        var sink = new CountingWriter();
+
+        // When
+        service.exportStatementCsv(accountId, null, null, () -> sink);
+
+        // Then
+        assertThat(sink.lines).isEqualTo(ROWS + 1);
+        assertThat(sink.chars).isGreaterThan(40L * ROWS);
+        assertThat(Runtime.getRuntime().maxMemory()).as("run with a small heap").isLessThan(sink.chars);
+    }
+
+    /** Discards the content, only counting it. */
+    private static final class CountingWriter extends Writer {
+        long chars;
+        long lines;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            chars += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.application.ports.out.TransactionRepository;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AccountService#exportStatementCsv} ensuring rows are streamed to the sink,
+ * the sink is not opened for a missing account and a failing sink stops the export.
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountServiceStatementTest {
+
+    @Mock AccountRepository accountRepository;
+    @Mock OperationRepository operationRepository;
+    @Mock TransactionRepository transactionRepository;
+
+    @InjectMocks AccountService service;
+
+    /** Rows are written in repository order after the header, with the dates turned into UTC bounds. */
+    @Test
+    void exportStatementCsv_writesHeaderAndRows() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        doAnswer(inv -> {
+            Consumer<Transaction> action = inv.getArgument(3);
+            action.accept(Transaction.of(UUID.randomUUID(), TransactionType.WITHDRAWAL,
+                    new BigDecimal("30.00"), Instant.parse("2024-01-02T11:00:00Z"), new BigDecimal("70.00")));
+            action.accept(Transaction.of(UUID.randomUUID(), TransactionType.DEPOSIT,
+                    new BigDecimal("100.00"), Instant.parse("2024-01-01T10:00:00Z"), new BigDecimal("100.00")));
+            return null;
+        }).when(transactionRepository).forEachInPeriod(eq(accountId), any(), any(), any());
+        var out = new StringWriter();
+
+        // When
+        service.exportStatementCsv(accountId, LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-02"), () -> out);
+
+        // Then
+        assertThat(out.toString()).isEqualTo("date,operation,amount,balance\n"
+                + "2024-01-02T11:00:00Z,WITHDRAWAL,30.00,70.00\n"
+                + "2024-01-01T10:00:00Z,DEPOSIT,100.00,100.00\n");
+        verify(transactionRepository).forEachInPeriod(eq(accountId),
+                eq(Instant.parse("2024-01-01T00:00:00Z")), eq(Instant.parse("2024-01-02T23:59:59.999999999Z")), any());
+    }
+
+    /** A missing account fails before the sink is opened, so the error can still be answered. */
+    @Test
+    void exportStatementCsv_missingAccount_doesNotOpenSink() {
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(false);
+        var opened = new AtomicBoolean();
+
+        assertThatThrownBy(() -> service.exportStatementCsv(accountId, null, null, () -> {
+            opened.set(true);
+            return new StringWriter();
+        })).isInstanceOf(AccountNotFoundException.class);
+
+        assertThat(opened).isFalse();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    /** Once the sink fails (client gone), no further row is produced. */
+    @Test
+    void exportStatementCsv_failingSink_stopsTheExport() {
+        // Given: a repository able to produce a million rows and a sink failing after ten lines
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        var produced = new AtomicInteger();
+        doAnswer(inv -> {
+            Consumer<Transaction> action = inv.getArgument(3);
+            for (int i = 0; i < 1_000_000; i++) {
+                produced.incrementAndGet();
+                action.accept(Transaction.of(UUID.randomUUID(), TransactionType.DEPOSIT,
+                        BigDecimal.ONE, Instant.EPOCH, BigDecimal.ONE));
+            }
+            return null;
+        }).when(transactionRepository).forEachInPeriod(eq(accountId), any(), any(), any());
+        Writer disconnecting = new Writer() {
+            private int lines;
+
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                for (int i = offset; i < offset + length; i++) {
+                    if (buffer[i] == '\n' && ++lines > 10) {
+                        throw new IOException("Broken pipe");
+                    }
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        // When / Then
+        assertThatThrownBy(() -> service.exportStatementCsv(accountId, null, null, () -> disconnecting))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThat(produced.get()).isLessThanOrEqualTo(11);
+    }
+}
@@ -3,9 +3,9 @@ package com.kata.bankaccount.application.service;
 import com.kata.bankaccount.application.dto.response.TransactionResponse;
 import com.kata.bankaccount.application.ports.out.AccountRepository;
 import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.application.ports.out.TransactionCursor;
 import com.kata.bankaccount.application.ports.out.TransactionRepository;
 import com.kata.bankaccount.domain.exception.AccountNotFoundException;
-import com.kata.bankaccount.domain.model.Account;
 import com.kata.bankaccount.domain.model.Transaction;
 import com.kata.bankaccount.domain.model.TransactionType;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,7 +27,7 @@ import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for {@link AccountService#transactions} ensuring repository calls,
- * mapping to response and error propagation on missing account.
+ * mapping to response, cursor handling and error propagation on missing account.
  */
 @ExtendWith(MockitoExtension.class)
 class AccountServiceTransactionsTest {
@@ -49,9 +49,9 @@ class AccountServiceTransactionsTest {
 
     /** Happy path: maps repository transactions to API response values. */
     @Test
-    void transactions_callsLockAndRepo_andMapsToResponse() {
+    void transactions_checksExistenceWithoutLock_andMapsToResponse() {
         // Given
-        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, BigDecimal.ZERO));
+        when(accountRepository.existsById(accountId)).thenReturn(true);
 
         Instant from = Instant.parse("2024-01-01T00:00:00Z");
         Instant to = Instant.parse("2024-01-03T00:00:00Z");
@@ -61,15 +61,18 @@ class AccountServiceTransactionsTest {
         var t2 = Transaction.of(UUID.randomUUID(), TransactionType.WITHDRAWAL,
                 new BigDecimal("30.00"), Instant.parse("2024-01-02T11:00:00Z"), new BigDecimal("70.00"));
 
-        when(transactionRepository.findByAccountAndPeriod(accountId, from, to))
+        when(transactionRepository.findPage(accountId, from, to, null, 51))
                 .thenReturn(List.of(t2, t1)); // already sorted desc by repo
 
         // When
-        List<TransactionResponse> res = service.transactions(accountId, from, to);
+        var page = service.transactions(accountId, from, to, null, 50);
+        List<TransactionResponse> res = page.items();
 
         // Then
-        verify(accountRepository, times(1)).lockById(accountId);
-        verify(transactionRepository, times(1)).findByAccountAndPeriod(accountId, from, to);
+        verify(accountRepository, times(1)).existsById(accountId);
+        verify(accountRepository, never()).lockById(any());
+        verify(transactionRepository, times(1)).findPage(accountId, from, to, null, 51);
+        assertThat(page.next()).isNull();
 
         assertThat(res).hasSize(2);
         assertThat(res.get(0).type()).isEqualTo(TransactionType.WITHDRAWAL);
@@ -87,25 +90,63 @@ class AccountServiceTransactionsTest {
     @Test
     void transactions_withNullPeriod_forwardsNullsToRepo_andReturnsEmptyList() {
         // Given
-        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, BigDecimal.ZERO));
-        when(transactionRepository.findByAccountAndPeriod(any(), any(), any())).thenReturn(List.of());
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        when(transactionRepository.findPage(any(), any(), any(), any(), anyInt())).thenReturn(List.of());
 
         // When
-        List<TransactionResponse> res = service.transactions(accountId, null, null);
+        var page = service.transactions(accountId, null, null, null, 50);
 
         // Then
-        verify(transactionRepository).findByAccountAndPeriod(eq(accountId), isNull(), isNull());
-        assertThat(res).isEmpty();
+        verify(transactionRepository).findPage(eq(accountId), isNull(), isNull(), isNull(), eq(51));
+        assertThat(page.items()).isEmpty();
+        assertThat(page.next()).isNull();
     }
 
     /** Missing account triggers AccountNotFoundException and no repo call. */
     @Test
     void transactions_missingAccount_throwsAccountNotFound() {
         // Given
-        when(accountRepository.lockById(accountId)).thenThrow(new AccountNotFoundException(accountId));
+        when(accountRepository.existsById(accountId)).thenReturn(false);
 
         // When / Then
-        assertThrows(AccountNotFoundException.class, () -> service.transactions(accountId, null, null));
-        verify(transactionRepository, never()).findByAccountAndPeriod(any(), any(), any());
+        assertThrows(AccountNotFoundException.class, () -> service.transactions(accountId, null, null, null, 50));
+        verify(transactionRepository, never()).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    /** A full page returns the cursor of its last row, which selects the following page. */
+    @Test
+    void transactions_fullPage_returnsNextCursor_thatSeeksAfterLastRow() {
+        // Given: three rows for a page of two
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        var t3 = Transaction.of(UUID.randomUUID(), TransactionType.DEPOSIT,
+                new BigDecimal("10.00"), Instant.parse("2024-01-03T00:00:00Z"), new BigDecimal("30.00"));
+        var t2 = Transaction.of(UUID.randomUUID(), TransactionType.DEPOSIT,
+                new BigDecimal("10.00"), Instant.parse("2024-01-02T00:00:00Z"), new BigDecimal("20.00"));
+        var t1 = Transaction.of(UUID.randomUUID(), TransactionType.DEPOSIT,
+                new BigDecimal("10.00"), Instant.parse("2024-01-01T00:00:00Z"), new BigDecimal("10.00"));
+        when(transactionRepository.findPage(accountId, null, null, null, 3)).thenReturn(List.of(t3, t2, t1));
+        var cursorAfterT2 = new TransactionCursor(t2.getTimestamp(), t2.getId());
+        when(transactionRepository.findPage(accountId, null, null, cursorAfterT2, 3)).thenReturn(List.of(t1));
+
+        // When
+        var first = service.transactions(accountId, null, null, null, 2);
+        var second = service.transactions(accountId, null, null, first.next(), 2);
+
+        // Then
+        assertThat(first.items()).extracting(TransactionResponse::resultingBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("30.00"), new BigDecimal("20.00"));
+        assertThat(TransactionCursor.decode(first.next())).isEqualTo(cursorAfterT2);
+        assertThat(second.items()).hasSize(1);
+        assertThat(second.next()).isNull();
+    }
+
+    /** A malformed cursor or an out-of-range limit is rejected before any query. */
+    @Test
+    void transactions_invalidCursorOrLimit_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> service.transactions(accountId, null, null, "not-a-cursor", 50));
+        assertThrows(IllegalArgumentException.class, () -> service.transactions(accountId, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.transactions(accountId, null, null, null, 501));
+        verifyNoInteractions(accountRepository, transactionRepository);
     }
 }
@@ -1,7 +1,10 @@
 package com.kata.bankaccount.application.service;
 
 import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
 import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.application.ports.out.TransactionRepository;
+import com.kata.bankaccount.application.service.write.PessimisticLockWriteStrategy;
 import com.kata.bankaccount.domain.exception.InsufficientFundsException;
 import com.kata.bankaccount.domain.model.Account;
 import com.kata.bankaccount.domain.model.TransactionType;
@@ -10,11 +13,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,7 +40,9 @@ class AccountServiceWithdrawTest {
     @Mock
     OperationRepository operationRepository;
 
-    @InjectMocks
+    @Mock
+    TransactionRepository transactionRepository;
+
     AccountService accountService;
 
     @Captor
@@ -42,22 +50,23 @@ class AccountServiceWithdrawTest {
 
     UUID accountId;
 
-    /** Creates a random account id for each test. */
+    /** Creates a random account id and the service with the default write strategy for each test. */
     @BeforeEach
     void setUp() {
+        accountService = new AccountService(accountRepository, transactionRepository, operationRepository,
+                new PessimisticLockWriteStrategy(accountRepository), TransactionOperations.withoutTransaction());
         accountId = UUID.randomUUID();
     }
 
     /**
-     * Withdraw updates balance, saves account and persists the operation id, creating a WITHDRAWAL transaction.
+     * Withdraw updates balance and saves account, creating a WITHDRAWAL transaction carrying the operation id.
      */
     @Test
-    void withdraw_callsLockAndSave_updatesBalance_andCreatesTransaction_andPersistsOperation() {
+    void withdraw_callsLockAndSave_updatesBalance_andCreatesTransaction_withOperationId() {
         // Given
         var account = new Account(accountId, new BigDecimal("100.00"));
         when(accountRepository.lockById(accountId)).thenReturn(account);
         UUID operationId = UUID.randomUUID();
-        when(operationRepository.exists(operationId)).thenReturn(false);
 
         // When
         accountService.withdraw(accountId, new BigDecimal("40.00"), operationId);
@@ -71,7 +80,7 @@ class AccountServiceWithdrawTest {
         assertThat(saved.getTransactions()).hasSize(1);
         assertThat(saved.getTransactions().get(0).getType()).isEqualTo(TransactionType.WITHDRAWAL);
         assertThat(saved.getTransactions().get(0).getAmount()).isEqualByComparingTo("40.00");
-        verify(operationRepository).save(operationId);
+        assertThat(saved.getTransactions().get(0).getOperationId()).isEqualTo(operationId);
     }
 
     /** Insufficient funds throws domain exception and nothing is saved. */
@@ -81,7 +90,6 @@ class AccountServiceWithdrawTest {
         var account = new Account(accountId, new BigDecimal("10.00"));
         when(accountRepository.lockById(accountId)).thenReturn(account);
         UUID operationId = UUID.randomUUID();
-        when(operationRepository.exists(operationId)).thenReturn(false);
 
         // When / Then
         assertThrows(InsufficientFundsException.class,
@@ -89,24 +97,24 @@ class AccountServiceWithdrawTest {
 
         verify(accountRepository, times(1)).lockById(accountId);
         verify(accountRepository, never()).save(any());
-        verify(operationRepository, never()).save(any());
     }
 
-    /** Repeating the same operationId is idempotent and does not save again. */
+    /** Repeating the same operationId returns the balance recorded by the original withdrawal. */
     @Test
-    void withdraw_sameOperationId_isIdempotent_noAdditionalSave() {
+    void withdraw_sameOperationId_isIdempotent_andReturnsOriginalOutcome() {
         // Given
-        var account = new Account(accountId, new BigDecimal("100.00"));
+        var account = new Account(accountId, new BigDecimal("60.00"));
         when(accountRepository.lockById(accountId)).thenReturn(account);
         UUID operationId = UUID.randomUUID();
-        when(operationRepository.exists(operationId)).thenReturn(true);
+        doThrow(new DataIntegrityViolationException("uk_transactions_operation_id")).when(accountRepository).save(any());
+        when(operationRepository.findByOperationId(operationId)).thenReturn(Optional.of(
+                new AppliedOperation(operationId, accountId, TransactionType.WITHDRAWAL, new BigDecimal("60.00"), Instant.now())));
 
         // When
-        accountService.withdraw(accountId, new BigDecimal("40.00"), operationId);
+        var result = accountService.withdraw(accountId, new BigDecimal("40.00"), operationId);
 
         // Then
+        assertThat(result.balance()).isEqualByComparingTo("60.00");
         verify(accountRepository, times(1)).lockById(accountId);
-        verify(accountRepository, never()).save(any());
-        verify(operationRepository, never()).save(any());
     }
 }
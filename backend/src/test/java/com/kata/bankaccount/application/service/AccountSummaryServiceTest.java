@@ -0,0 +1,90 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.Rollup;
+import com.kata.bankaccount.application.ports.out.RollupRepository;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.model.Granularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link AccountSummaryService}: periods come from the rollups, bounds are aligned on
+ * the granularity, and a missing account or an inverted range is refused.
+ */
+class AccountSummaryServiceTest {
+
+    private AccountRepository accountRepository;
+    private RollupRepository rollupRepository;
+    private AccountSummaryService service;
+
+    /** Creates service with mocked repositories before each test. */
+    @BeforeEach
+    void setUp() {
+        accountRepository = Mockito.mock(AccountRepository.class);
+        rollupRepository = Mockito.mock(RollupRepository.class);
+        service = new AccountSummaryService(accountRepository, rollupRepository);
+    }
+
+    /** Monthly bounds are the first days of the months containing from and to. */
+    @Test
+    void summary_readsRollups_ofMonthsContainingBounds() {
+        UUID id = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(true);
+        when(rollupRepository.findRollups(id, Granularity.MONTH, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1)))
+                .thenReturn(List.of(
+                        new Rollup(LocalDate.of(2024, 1, 1), 3, new BigDecimal("150.00"), 1, new BigDecimal("40.00")),
+                        new Rollup(LocalDate.of(2024, 2, 1), 1, new BigDecimal("10.00"), 0, BigDecimal.ZERO)));
+
+        var res = service.summary(id, Granularity.MONTH, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 10));
+
+        assertThat(res.accountId()).isEqualTo(id);
+        assertThat(res.granularity()).isEqualTo(Granularity.MONTH);
+        assertThat(res.periods()).hasSize(2);
+        var january = res.periods().get(0);
+        assertThat(january.period()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(january.depositCount()).isEqualTo(3);
+        assertThat(january.depositTotal()).isEqualByComparingTo("150.00");
+        assertThat(january.withdrawalCount()).isEqualTo(1);
+        assertThat(january.withdrawalTotal()).isEqualByComparingTo("40.00");
+    }
+
+    /** Open bounds are passed on as such. */
+    @Test
+    void summary_withoutBounds_readsAllPeriods() {
+        UUID id = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(true);
+        when(rollupRepository.findRollups(id, Granularity.DAY, null, null)).thenReturn(List.of());
+
+        assertThat(service.summary(id, Granularity.DAY, null, null).periods()).isEmpty();
+    }
+
+    /** Missing account throws AccountNotFoundException without reading rollups. */
+    @Test
+    void summary_throws_whenAccountMissing() {
+        UUID id = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class, () -> service.summary(id, Granularity.DAY, null, null));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    /** from after to is refused. */
+    @Test
+    void summary_throws_whenRangeInverted() {
+        assertThrows(IllegalArgumentException.class, () -> service.summary(UUID.randomUUID(), Granularity.DAY,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+        verifyNoInteractions(rollupRepository);
+    }
+}
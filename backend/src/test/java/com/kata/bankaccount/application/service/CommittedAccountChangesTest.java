@@ -0,0 +1,71 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountEvent;
+import com.kata.bankaccount.application.ports.out.AccountEventPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CommittedAccountChanges}: changes reach the publishers, in order, only once their
+ * transaction has committed.
+ */
+class CommittedAccountChangesTest {
+
+    private final List<String> published = new ArrayList<>();
+    private final CommittedAccountChanges hook = new CommittedAccountChanges(List.of(
+            publisher("cache"), publisher("events")));
+
+    /** Opens a transaction synchronization, as the writing transaction does. */
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    /** Nothing is published before the commit, then every publisher gets the change in order. */
+    @Test
+    void changed_publishesAfterCommit_toEachPublisherInOrder() {
+        hook.changed(new AccountEvent(UUID.randomUUID(), BigDecimal.TEN, 3, List.of()));
+
+        assertThat(published).isEmpty();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(published).containsExactly("cache:3", "events:3");
+    }
+
+    /** A rolled back change is never published. */
+    @Test
+    void changed_rolledBack_isNotPublished() {
+        hook.changed(new AccountEvent(UUID.randomUUID(), BigDecimal.TEN, 3, List.of()));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(published).isEmpty();
+    }
+
+    private void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private AccountEventPublisher publisher(String name) {
+        return event -> published.add(name + ":" + event.version());
+    }
+}
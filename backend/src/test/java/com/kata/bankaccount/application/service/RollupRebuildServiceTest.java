@@ -0,0 +1,95 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.RollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RollupRebuildService}: every account is rebuilt once, over several worker threads,
+ * and a failure is reported after the other accounts were rebuilt.
+ */
+class RollupRebuildServiceTest {
+
+    private static final int ACCOUNTS = 250;
+
+    private AccountRepository accountRepository;
+    private RollupRepository rollupRepository;
+    private final List<UUID> ids = new ArrayList<>();
+
+    /** Mocks 250 accounts listed in pages, as the repository does. */
+    @BeforeEach
+    void setUp() {
+        accountRepository = Mockito.mock(AccountRepository.class);
+        rollupRepository = Mockito.mock(RollupRepository.class);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(new UUID(0, i));
+        }
+        when(accountRepository.findIds(any(), anyInt())).thenAnswer(inv -> {
+            UUID after = inv.getArgument(0);
+            int limit = inv.getArgument(1);
+            int from = after == null ? 0 : ids.indexOf(after) + 1;
+            return List.copyOf(ids.subList(from, Math.min(from + limit, ids.size())));
+        });
+    }
+
+    /** 250 accounts in chunks of 40 are each rebuilt exactly once, by more than one thread. */
+    @Test
+    void rebuildAll_rebuildsEveryAccountOnce_inParallel() {
+        Set<UUID> rebuilt = ConcurrentHashMap.newKeySet();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        willAnswer(inv -> {
+            assertThat(rebuilt.add(inv.getArgument(0))).isTrue();
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(1);
+            return null;
+        }).given(rollupRepository).rebuild(any());
+
+        int count = new RollupRebuildService(accountRepository, rollupRepository, 3, 40).rebuildAll();
+
+        assertThat(count).isEqualTo(ACCOUNTS);
+        assertThat(rebuilt).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(threads).hasSizeGreaterThan(1);
+        Mockito.verify(accountRepository).findIds(isNull(), eq(40));
+    }
+
+    /** A failing account is rethrown once the other chunks are done. */
+    @Test
+    void rebuildAll_rethrowsFailure_afterOtherChunks() {
+        Set<UUID> rebuilt = ConcurrentHashMap.newKeySet();
+        willAnswer(inv -> rebuilt.add(inv.getArgument(0))).given(rollupRepository).rebuild(any());
+        willThrow(new IllegalStateException("boom")).given(rollupRepository).rebuild(ids.get(0));
+
+        var service = new RollupRebuildService(accountRepository, rollupRepository, 2, 50);
+
+        var e = assertThrows(IllegalStateException.class, service::rebuildAll);
+        assertThat(e).hasMessage("boom");
+        assertThat(rebuilt).hasSize(ACCOUNTS - 50);
+    }
+
+    /** No account, nothing to do. */
+    @Test
+    void rebuildAll_withoutAccounts_returnsZero() {
+        ids.clear();
+
+        assertThat(new RollupRebuildService(accountRepository, rollupRepository, 2, 50).rebuildAll()).isZero();
+        Mockito.verifyNoInteractions(rollupRepository);
+    }
+}
@@ -0,0 +1,255 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.ports.in.CachedStatementUseCase.CachedStatement;
+import com.kata.bankaccount.application.ports.in.CachedStatementUseCase.Encoding;
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase.StatementSink;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link StatementCache}: which periods are closed, hits, ETags, spilling to disk and eviction.
+ */
+class StatementCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-02-01T00:10:00Z");
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2024, 1, 31);
+    private static final String HEADER = "date,operation,amount,balance\n";
+
+    @TempDir Path dir;
+
+    private ExportStatementUseCase exporter;
+    private StatementCache cache;
+
+    @BeforeEach
+    void setUp() {
+        exporter = Mockito.mock(ExportStatementUseCase.class);
+        cache = newCache(1024, 256, 4096);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    /** Only periods ended before today, past the grace delay, are cacheable. */
+    @Test
+    void isCacheable_onlyForClosedPeriods() {
+        assertThat(cache.isCacheable(null)).isFalse();
+        assertThat(cache.isCacheable(LocalDate.of(2024, 2, 1))).isFalse();
+        assertThat(cache.isCacheable(JAN_31)).isTrue();
+
+        // Within the grace delay after midnight, yesterday is not closed yet
+        var early = new StatementCache(exporter, dir, 1024, 256, 4096, Duration.ofMinutes(15),
+                Clock.fixed(NOW, ZoneOffset.UTC), new SimpleMeterRegistry());
+        assertThat(early.isCacheable(JAN_31)).isFalse();
+        assertThat(early.isCacheable(LocalDate.of(2024, 1, 30))).isTrue();
+    }
+
+    /** A period including today is refused. */
+    @Test
+    void statement_throws_whenPeriodOpen() {
+        assertThrows(IllegalArgumentException.class,
+                () -> cache.statement(UUID.randomUUID(), JAN_1, LocalDate.of(2024, 2, 1)));
+    }
+
+    /** The second request is served from the cache, with the same content and strong ETag. */
+    @Test
+    void statement_isExportedOnce_thenServedFromCache() throws Exception {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        String csv = HEADER + "2024-01-02T10:00:00Z,DEPOSIT,10.00,10.00\n";
+        willAnswer(writeToSink(csv)).given(exporter).exportStatementCsv(eq(accountId), eq(JAN_1), eq(JAN_31), any());
+
+        // When
+        String first;
+        String firstEtag;
+        String gzipEtag;
+        try (var statement = cache.statement(accountId, JAN_1, JAN_31)) {
+            first = read(statement);
+            firstEtag = statement.etag(Encoding.IDENTITY);
+            gzipEtag = statement.etag(Encoding.GZIP);
+        }
+        String second;
+        String secondEtag;
+        try (var statement = cache.statement(accountId, JAN_1, JAN_31)) {
+            second = read(statement);
+            secondEtag = statement.etag(Encoding.IDENTITY);
+        }
+
+        // Then
+        verify(exporter, times(1)).exportStatementCsv(eq(accountId), eq(JAN_1), eq(JAN_31), any());
+        assertThat(first).isEqualTo(csv).isEqualTo(second);
+        assertThat(firstEtag).isEqualTo(secondEtag).isNotBlank();
+        assertThat(gzipEtag).isNotBlank().isNotEqualTo(firstEtag);
+    }
+
+    /** Different periods are different entries, with different ETags when the content differs. */
+    @Test
+    void statement_isKeyedByPeriod() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        willAnswer(writeToSink(HEADER + "a\n")).given(exporter).exportStatementCsv(eq(accountId), eq(JAN_1), eq(JAN_31), any());
+        willAnswer(writeToSink(HEADER + "b\n")).given(exporter).exportStatementCsv(eq(accountId), isNull(), eq(JAN_31), any());
+
+        try (var bounded = cache.statement(accountId, JAN_1, JAN_31);
+             var open = cache.statement(accountId, null, JAN_31)) {
+            assertThat(read(bounded)).endsWith("a\n");
+            assertThat(read(open)).endsWith("b\n");
+            assertThat(bounded.etag(Encoding.IDENTITY)).isNotEqualTo(open.etag(Encoding.IDENTITY));
+            assertThat(bounded.etag(Encoding.GZIP)).isNotEqualTo(open.etag(Encoding.GZIP));
+        }
+    }
+
+    /** The stored content is the gzip-compressed CSV, with its own length and entity tag. */
+    @Test
+    void statement_isStoredCompressed() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        String csv = HEADER + "2024-01-02T10:00:00Z,DEPOSIT,10.00,10.00\n".repeat(100);
+        willAnswer(writeToSink(csv)).given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+
+        try (var statement = cache.statement(accountId, JAN_1, JAN_31)) {
+            var gzip = new ByteArrayOutputStream();
+            statement.transferTo(gzip, Encoding.GZIP);
+
+            assertThat(gzip.size()).isEqualTo(statement.length(Encoding.GZIP)).isLessThan(csv.length() / 10);
+            assertThat(statement.length(Encoding.IDENTITY)).isEqualTo(csv.length());
+            assertThat(new String(new GZIPInputStream(new ByteArrayInputStream(gzip.toByteArray())).readAllBytes(),
+                    StandardCharsets.UTF_8)).isEqualTo(csv);
+            assertThat(statement.etag(Encoding.GZIP)).isNotEqualTo(statement.etag(Encoding.IDENTITY));
+        }
+    }
+
+    /** A statement whose compressed size exceeds the spill threshold is kept in a file, and still served. */
+    @Test
+    void statement_spillsToDisk_pastThreshold() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        String csv = HEADER + randomText(1, 1000) + "\n";
+        willAnswer(writeToSink(csv)).given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+
+        try (var statement = cache.statement(accountId, JAN_1, JAN_31)) {
+            assertThat(read(statement)).isEqualTo(csv);
+            assertThat(statement.length(Encoding.IDENTITY)).isEqualTo(csv.length());
+        }
+        assertThat(filesIn(dir)).isEqualTo(1);
+        try (var statement = cache.statement(accountId, JAN_1, JAN_31)) {
+            assertThat(read(statement)).isEqualTo(csv);
+        }
+        verify(exporter, times(1)).exportStatementCsv(eq(accountId), any(), any(), any());
+    }
+
+    /** Past the memory budget the least recently used statements move to disk; past the disk budget they are dropped. */
+    @Test
+    void eviction_spillsThenDrops_leastRecentlyUsed() throws Exception {
+        // Given: statements of about the same compressed size s, room for five in memory and two on disk
+        UUID accountId = UUID.randomUUID();
+        willAnswer(inv -> {
+            StatementSink sink = inv.getArgument(3);
+            var writer = sink.open();
+            writer.write(randomText(inv.getArgument(1, LocalDate.class).getDayOfMonth(), 400));
+            writer.flush();
+            return null;
+        }).given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+        long size;
+        try (var probe = cache.statement(accountId, LocalDate.of(2023, 12, 1), JAN_31)) {
+            size = probe.length(Encoding.GZIP);
+        }
+        cache.close();
+        cache = newCache(size * 11 / 2, size * 2, size * 5 / 2);
+
+        // When: eight statements, the first one read again in between
+        for (int day = 1; day <= 8; day++) {
+            cache.statement(accountId, LocalDate.of(2024, 1, day), JAN_31).close();
+            if (day == 4) {
+                cache.statement(accountId, JAN_1, JAN_31).close();
+            }
+        }
+
+        // Then: five stay in memory, two were spilled to disk, the least recently used one was dropped
+        assertThat(filesIn(dir)).isEqualTo(2);
+        cache.statement(accountId, JAN_1, JAN_31).close();
+        verify(exporter, times(1)).exportStatementCsv(eq(accountId), eq(JAN_1), any(), any());
+        cache.statement(accountId, LocalDate.of(2024, 1, 2), JAN_31).close();
+        verify(exporter, times(2)).exportStatementCsv(eq(accountId), eq(LocalDate.of(2024, 1, 2)), any(), any());
+    }
+
+    /** A failed export caches nothing and leaves no file. */
+    @Test
+    void failedExport_isNotCached() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        willThrow(new AccountNotFoundException(accountId)).given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+
+        assertThrows(AccountNotFoundException.class, () -> cache.statement(accountId, JAN_1, JAN_31));
+        assertThrows(AccountNotFoundException.class, () -> cache.statement(accountId, JAN_1, JAN_31));
+        verify(exporter, times(2)).exportStatementCsv(eq(accountId), any(), any(), any());
+        assertThat(filesIn(dir)).isZero();
+    }
+
+    private StatementCache newCache(long maxMemory, long spillThreshold, long maxDisk) {
+        return new StatementCache(exporter, dir, maxMemory, spillThreshold, maxDisk, Duration.ofMinutes(5),
+                Clock.fixed(NOW, ZoneOffset.UTC), new SimpleMeterRegistry());
+    }
+
+    private static String read(CachedStatement statement) throws IOException {
+        var out = new ByteArrayOutputStream();
+        statement.transferTo(out, Encoding.IDENTITY);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Hex digits that hardly compress, the same for the same seed. */
+    private static String randomText(long seed, int length) {
+        var random = new Random(seed);
+        var text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return text.toString();
+    }
+
+    private static long filesIn(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static Answer<Void> writeToSink(String content) {
+        return inv -> {
+            StatementSink sink = inv.getArgument(3);
+            var writer = sink.open();
+            writer.write(content);
+            writer.flush();
+            return null;
+        };
+    }
+}
@@ -0,0 +1,271 @@
+package com.kata.bankaccount.application.service;
+
+import com.kata.bankaccount.application.dto.response.StatementJobResponse.Status;
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase;
+import com.kata.bankaccount.application.ports.in.ExportStatementUseCase.StatementSink;
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.exception.StatementJobNotFoundException;
+import com.kata.bankaccount.domain.exception.StatementJobNotReadyException;
+import com.kata.bankaccount.domain.exception.StatementJobRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link StatementJobService}: files written in the spool directory, failures,
+ * the bounded queue and expiry.
+ */
+class StatementJobServiceTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @TempDir Path spoolDir;
+
+    private ExportStatementUseCase exporter;
+    private AccountRepository accountRepository;
+    private MutableClock clock;
+    private StatementJobService service;
+
+    /** Creates a service with one worker and a queue of one job, sweeper effectively disabled. */
+    @BeforeEach
+    void setUp() {
+        exporter = Mockito.mock(ExportStatementUseCase.class);
+        accountRepository = Mockito.mock(AccountRepository.class);
+        clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+        service = new StatementJobService(exporter, accountRepository, spoolDir, 1, 1, TTL, Duration.ofDays(1),
+                clock, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    /** A completed job exposes the CSV written by the export, under its final name only. */
+    @Test
+    void submit_writesCsvFile_andBecomesReady() throws Exception {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        willAnswer(writeToSink("date,operation,amount,balance\n2024-01-02T10:00:00Z,DEPOSIT,10.00,10.00\n"))
+                .given(exporter).exportStatementCsv(eq(accountId), eq(from), eq(to), any());
+
+        // When
+        var job = service.submit(accountId, from, to);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> service.status(accountId, job.jobId()).status() == Status.READY);
+
+        // Then
+        var ready = service.status(accountId, job.jobId());
+        Path file = service.file(accountId, job.jobId());
+        assertThat(Files.readString(file)).isEqualTo("date,operation,amount,balance\n2024-01-02T10:00:00Z,DEPOSIT,10.00,10.00\n");
+        assertThat(ready.size()).isEqualTo(Files.size(file));
+        assertThat(ready.expiresAt()).isEqualTo(clock.instant().plus(TTL));
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    /** An unknown account is rejected before anything is queued. */
+    @Test
+    void submit_throws_whenAccountMissing() {
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class, () -> service.submit(accountId, null, null));
+        verify(exporter, never()).exportStatementCsv(any(), any(), any(), any());
+    }
+
+    /** A failing export marks the job FAILED without its cause, leaves no file and refuses the download. */
+    @Test
+    void failedExport_isReported_andLeavesNoFile() throws Exception {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        willThrow(new UncheckedIOException(new IOException("disk full")))
+                .given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+
+        // When
+        var job = service.submit(accountId, null, null);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> service.status(accountId, job.jobId()).status() == Status.FAILED);
+
+        // Then
+        assertThat(service.status(accountId, job.jobId()).message()).isEqualTo("Statement export failed");
+        assertThrows(StatementJobNotReadyException.class, () -> service.file(accountId, job.jobId()));
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    /** An Error thrown by the export still ends the job, so it expires like any other. */
+    @Test
+    void exportError_marksJobFailed_andExpires() {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        willThrow(new StackOverflowError()).given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+
+        // When: the Error is rethrown to the worker thread once the job is ended
+        var job = service.submit(accountId, null, null);
+        await().dontCatchUncaughtExceptions().atMost(5, TimeUnit.SECONDS).until(() -> service.status(accountId, job.jobId()).status() == Status.FAILED);
+
+        // Then
+        assertThat(service.status(accountId, job.jobId()).expiresAt()).isNotNull();
+        clock.advance(TTL.plusSeconds(1));
+        assertThat(service.purgeExpired()).isEqualTo(1);
+    }
+
+    /** With the only worker busy and the queue full, a further job is rejected and not retained. */
+    @Test
+    void submit_rejects_whenQueueFull() throws Exception {
+        // Given: the worker blocks on the first job, the second one waits in the queue
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        willAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+        var running = service.submit(accountId, null, null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        var queued = service.submit(accountId, null, null);
+
+        // When / Then
+        assertThrows(StatementJobRejectedException.class, () -> service.submit(accountId, null, null));
+        assertThat(service.status(accountId, running.jobId()).status()).isEqualTo(Status.RUNNING);
+        assertThat(service.status(accountId, queued.jobId()).status()).isEqualTo(Status.QUEUED);
+        assertThrows(StatementJobNotReadyException.class, () -> service.file(accountId, queued.jobId()));
+
+        // Both accepted jobs complete once the worker is released
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> service.status(accountId, queued.jobId()).status() == Status.READY);
+        assertThat(service.status(accountId, running.jobId()).status()).isEqualTo(Status.READY);
+    }
+
+    /** A job is only visible through the account it was created for. */
+    @Test
+    void status_throws_forAnotherAccount() {
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        var job = service.submit(accountId, null, null);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> service.status(accountId, job.jobId()).status() == Status.READY);
+
+        assertThrows(StatementJobNotFoundException.class, () -> service.status(UUID.randomUUID(), job.jobId()));
+        assertThrows(StatementJobNotFoundException.class, () -> service.file(UUID.randomUUID(), job.jobId()));
+    }
+
+    /** Once the time to live has passed, the job is forgotten and its file deleted. */
+    @Test
+    void purgeExpired_removesJobAndFile_afterTtl() throws Exception {
+        // Given
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        willAnswer(writeToSink("date,operation,amount,balance\n"))
+                .given(exporter).exportStatementCsv(eq(accountId), any(), any(), any());
+        var job = service.submit(accountId, null, null);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> service.status(accountId, job.jobId()).status() == Status.READY);
+        Path file = service.file(accountId, job.jobId());
+
+        // When: not yet expired, then expired
+        clock.advance(TTL.minusSeconds(1));
+        int beforeTtl = service.purgeExpired();
+        clock.advance(Duration.ofSeconds(1));
+        int afterTtl = service.purgeExpired();
+
+        // Then
+        assertThat(beforeTtl).isZero();
+        assertThat(afterTtl).isEqualTo(1);
+        assertThat(file).doesNotExist();
+        assertThrows(StatementJobNotFoundException.class, () -> service.status(accountId, job.jobId()));
+    }
+
+    /** Files left by a previous run are removed at startup; other files are left alone. */
+    @Test
+    void startup_clearsLeftoverFiles() throws Exception {
+        // Given
+        service.close();
+        Files.writeString(spoolDir.resolve(UUID.randomUUID() + ".csv"), "old");
+        Files.writeString(spoolDir.resolve(UUID.randomUUID() + ".csv.part"), "partial");
+        Path unrelated = Files.writeString(spoolDir.resolve("README.txt"), "keep");
+
+        // When
+        service = new StatementJobService(exporter, accountRepository, spoolDir, 1, 1, TTL, Duration.ofDays(1),
+                clock, new SimpleMeterRegistry());
+
+        // Then
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).containsExactly(unrelated);
+        }
+    }
+
+    private static Answer<Void> writeToSink(String content) {
+        return inv -> {
+            StatementSink sink = inv.getArgument(3);
+            var writer = sink.open();
+            writer.write(content);
+            writer.flush();
+            return null;
+        };
+    }
+
+    /** Clock moved forward by the tests. */
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
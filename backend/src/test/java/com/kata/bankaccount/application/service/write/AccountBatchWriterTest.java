@@ -0,0 +1,159 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import com.kata.bankaccount.domain.model.Account;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AccountBatchWriter} ensuring one lock and one save per group
+ * and per-command outcomes.
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountBatchWriterTest {
+
+    @Mock AccountRepository accountRepository;
+    @Mock OperationRepository operationRepository;
+
+    @InjectMocks AccountBatchWriter batchWriter;
+
+    @Captor ArgumentCaptor<Account> accountCaptor;
+
+    UUID accountId;
+
+    /** Initializes a random account id for each test. */
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+    }
+
+    /** Commands are applied in order on one locked aggregate, saved once; a rejected command does not stop the others. */
+    @Test
+    void apply_locksAndSavesOnce_andReportsEachCommand() {
+        // Given
+        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, new BigDecimal("100.00")));
+        var deposit = command(TransactionType.DEPOSIT, "50.00", UUID.randomUUID());
+        var tooLarge = command(TransactionType.WITHDRAWAL, "500.00", UUID.randomUUID());
+        var withdraw = command(TransactionType.WITHDRAWAL, "30.00", UUID.randomUUID());
+
+        // When
+        var outcomes = batchWriter.apply(accountId, List.of(deposit, tooLarge, withdraw));
+
+        // Then
+        assertThat(outcomes).extracting(CommandOutcome::applied).containsExactly(true, false, true);
+        assertThat(outcomes.get(0).balance()).isEqualByComparingTo("150.00");
+        assertThat(outcomes.get(1).failure()).isInstanceOf(InsufficientFundsException.class);
+        assertThat(outcomes.get(2).balance()).isEqualByComparingTo("120.00");
+
+        verify(accountRepository, times(1)).lockById(accountId);
+        verify(accountRepository, times(1)).save(accountCaptor.capture());
+        assertThat(accountCaptor.getValue().getTransactions())
+                .extracting(Transaction::getOperationId)
+                .containsExactly(deposit.operationId(), withdraw.operationId());
+        verify(operationRepository).findByOperationIds(List.of(deposit.operationId(), tooLarge.operationId(), withdraw.operationId()));
+    }
+
+    /** A repeated operation id, in the group or already stored, is a no-op; a stored one reports its original balance. */
+    @Test
+    void apply_repeatedOperationIds_areNotAppliedTwice() {
+        // Given
+        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, new BigDecimal("10.00")));
+        UUID stored = UUID.randomUUID();
+        when(operationRepository.findByOperationIds(any())).thenReturn(Map.of(
+                stored, new AppliedOperation(stored, accountId, TransactionType.DEPOSIT, new BigDecimal("7.00"), Instant.now())));
+        var first = command(TransactionType.DEPOSIT, "5.00", UUID.randomUUID());
+
+        // When
+        var outcomes = batchWriter.apply(accountId, List.of(
+                first, command(TransactionType.DEPOSIT, "5.00", first.operationId()), command(TransactionType.DEPOSIT, "5.00", stored)));
+
+        // Then
+        assertThat(outcomes).extracting(CommandOutcome::applied).containsExactly(true, false, false);
+        assertThat(outcomes.get(1).balance()).isEqualByComparingTo("15.00");
+        assertThat(outcomes.get(2).balance()).isEqualByComparingTo("7.00");
+        verify(accountRepository).save(accountCaptor.capture());
+        assertThat(accountCaptor.getValue().getTransactions()).hasSize(1);
+    }
+
+    /**
+     * A repeat inside the group reports the balance right after its first occurrence; one with another
+     * type or amount is rejected like a stored operation id reused for another operation.
+     */
+    @Test
+    void apply_operationIdRepeatedInTheGroup_isCheckedAgainstItsFirstOccurrence() {
+        // Given
+        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, new BigDecimal("10.00")));
+        var first = command(TransactionType.DEPOSIT, "5.00", UUID.randomUUID());
+
+        // When
+        var outcomes = batchWriter.apply(accountId, List.of(
+                first,
+                command(TransactionType.DEPOSIT, "20.00", UUID.randomUUID()),
+                command(TransactionType.DEPOSIT, "5.0", first.operationId()),
+                command(TransactionType.WITHDRAWAL, "5.00", first.operationId()),
+                command(TransactionType.DEPOSIT, "6.00", first.operationId())));
+
+        // Then
+        assertThat(outcomes).extracting(CommandOutcome::applied).containsExactly(true, true, false, false, false);
+        assertThat(outcomes.get(2).failure()).isNull();
+        assertThat(outcomes.get(2).balance()).isEqualByComparingTo("15.00");
+        assertThat(outcomes.subList(3, 5)).allSatisfy(outcome -> {
+            assertThat(outcome.failure()).isInstanceOf(IllegalArgumentException.class);
+            assertThat(outcome.balance()).isNull();
+        });
+        verify(accountRepository).save(accountCaptor.capture());
+        assertThat(accountCaptor.getValue().getBalance()).isEqualByComparingTo("35.00");
+    }
+
+    /** An operation id already recorded for another account is rejected, not replayed. */
+    @Test
+    void apply_operationIdOfAnotherAccount_isRejected() {
+        // Given
+        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, new BigDecimal("10.00")));
+        UUID stored = UUID.randomUUID();
+        when(operationRepository.findByOperationIds(any())).thenReturn(Map.of(
+                stored, new AppliedOperation(stored, UUID.randomUUID(), TransactionType.DEPOSIT, new BigDecimal("7.00"), Instant.now())));
+
+        // When
+        var outcomes = batchWriter.apply(accountId, List.of(command(TransactionType.DEPOSIT, "5.00", stored)));
+
+        // Then
+        assertThat(outcomes.get(0).failure()).isInstanceOf(IllegalArgumentException.class);
+        verify(accountRepository, never()).save(any());
+    }
+
+    /** A group with nothing to apply does not write. */
+    @Test
+    void apply_nothingApplied_doesNotSave() {
+        when(accountRepository.lockById(accountId)).thenReturn(new Account(accountId, BigDecimal.ZERO));
+
+        batchWriter.apply(accountId, List.of(command(TransactionType.WITHDRAWAL, "1.00", UUID.randomUUID())));
+
+        verify(accountRepository, never()).save(any());
+    }
+
+    private AccountCommand command(TransactionType type, String amount, UUID operationId) {
+        return new AccountCommand(type, accountId, new BigDecimal(amount), operationId);
+    }
+}
@@ -0,0 +1,237 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.domain.exception.AccountNotFoundException;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link AccountCommandExecutor} covering group commit of queued commands,
+ * per-command rejection reporting and callers never left waiting on a stopped shard.
+ */
+class AccountCommandExecutorTest {
+
+    private AccountBatchWriter batchWriter;
+    private AccountCommandExecutor executor;
+    private final List<List<AccountCommand>> committedGroups = new ArrayList<>();
+    private final ExecutorService callers = Executors.newFixedThreadPool(6);
+
+    /** Creates a single-shard executor over a writer that records each group it commits. */
+    @BeforeEach
+    void setUp() {
+        batchWriter = Mockito.mock(AccountBatchWriter.class);
+        executor = new AccountCommandExecutor(batchWriter, 1, 64, 100, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    /** Stops the shard thread and the caller pool. */
+    @AfterEach
+    void tearDown() {
+        executor.close();
+        callers.shutdownNow();
+    }
+
+    /** Commands queued while the shard is busy are committed together, each caller getting its own balance. */
+    @Test
+    @Timeout(10)
+    void queuedCommands_forSameAccount_areCommittedAsOneGroup() throws Exception {
+        // Given: the first commit blocks until the other commands are queued
+        UUID accountId = UUID.randomUUID();
+        CountDownLatch firstCommitStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCommit = new CountDownLatch(1);
+        when(batchWriter.apply(eq(accountId), any())).thenAnswer(inv -> {
+            List<AccountCommand> commands = inv.getArgument(1);
+            synchronized (committedGroups) {
+                committedGroups.add(commands);
+            }
+            if (committedGroups.size() == 1) {
+                firstCommitStarted.countDown();
+                releaseFirstCommit.await();
+            }
+            List<CommandOutcome> outcomes = new ArrayList<>();
+            BigDecimal balance = BigDecimal.ZERO;
+            for (AccountCommand command : commands) {
+                balance = balance.add(command.amount());
+                outcomes.add(CommandOutcome.applied(command, balance));
+            }
+            return outcomes;
+        });
+
+        // When
+        var first = CompletableFuture.supplyAsync(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()), callers);
+        firstCommitStarted.await();
+        List<CompletableFuture<?>> queued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            queued.add(CompletableFuture.supplyAsync(() -> executor.deposit(accountId, BigDecimal.TEN, UUID.randomUUID()), callers));
+        }
+        Thread.sleep(200); // let the five callers enqueue
+        releaseFirstCommit.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS).applied()).isTrue();
+        for (CompletableFuture<?> f : queued) {
+            f.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(committedGroups).hasSize(2);
+        assertThat(committedGroups.get(1)).hasSize(5);
+    }
+
+    /** A command rejected inside a group fails only its own caller. */
+    @Test
+    @Timeout(10)
+    void rejectedCommand_isReportedToItsCallerOnly() {
+        UUID accountId = UUID.randomUUID();
+        when(batchWriter.apply(eq(accountId), any())).thenAnswer(inv -> {
+            List<AccountCommand> commands = inv.getArgument(1);
+            return commands.stream()
+                    .map(c -> c.amount().compareTo(new BigDecimal("100")) > 0
+                            ? CommandOutcome.rejected(c, BigDecimal.ZERO, new InsufficientFundsException("Insufficient funds"))
+                            : CommandOutcome.applied(c, c.amount()))
+                    .toList();
+        });
+
+        assertThatThrownBy(() -> executor.withdraw(accountId, new BigDecimal("500"), UUID.randomUUID()))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(executor.withdraw(accountId, new BigDecimal("50"), UUID.randomUUID()).balance())
+                .isEqualByComparingTo("50");
+    }
+
+    /** A failure of the whole group (missing account) reaches the caller unchanged. */
+    @Test
+    @Timeout(10)
+    void groupFailure_isPropagatedToCaller() {
+        UUID accountId = UUID.randomUUID();
+        when(batchWriter.apply(eq(accountId), any())).thenThrow(new AccountNotFoundException(accountId));
+
+        assertThatThrownBy(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+
+    /** With virtual shard threads, the commands of one account are still committed one group at a time. */
+    @Test
+    @Timeout(10)
+    void virtualShardThreads_commitEachCommand() throws Exception {
+        // Given
+        executor.close();
+        executor = new AccountCommandExecutor(batchWriter, 2, 64, 100, Duration.ofSeconds(5), new SimpleMeterRegistry(),
+                Thread.ofVirtual().name("account-shard-", 0).factory());
+        UUID accountId = UUID.randomUUID();
+        List<Thread> writers = new ArrayList<>();
+        when(batchWriter.apply(eq(accountId), any())).thenAnswer(inv -> {
+            List<AccountCommand> commands = inv.getArgument(1);
+            synchronized (committedGroups) {
+                committedGroups.add(commands);
+                writers.add(Thread.currentThread());
+            }
+            return commands.stream().map(c -> CommandOutcome.applied(c, c.amount())).toList();
+        });
+
+        // When
+        List<CompletableFuture<?>> deposits = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            deposits.add(CompletableFuture.supplyAsync(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()), callers));
+        }
+        for (CompletableFuture<?> f : deposits) {
+            f.get(5, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertThat(committedGroups.stream().mapToInt(List::size).sum()).isEqualTo(20);
+        assertThat(writers).allMatch(Thread::isVirtual).extracting(Thread::getName).containsOnly(writers.get(0).getName());
+    }
+
+    /** Closing fails both the command being committed and the commands queued behind it. */
+    @Test
+    @Timeout(10)
+    void close_failsTheCommandsInFlightAndQueued() throws Exception {
+        // Given: the first commit blocks until the shard is interrupted, a second command waits behind it
+        UUID accountId = UUID.randomUUID();
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        when(batchWriter.apply(eq(accountId), any())).thenAnswer(inv -> {
+            commitStarted.countDown();
+            new CountDownLatch(1).await();
+            return List.of();
+        });
+        var inFlight = CompletableFuture.supplyAsync(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()), callers);
+        commitStarted.await();
+        var queued = CompletableFuture.supplyAsync(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()), callers);
+        Thread.sleep(200); // let the second caller enqueue
+
+        // When
+        executor.close();
+
+        // Then
+        assertThatThrownBy(() -> inFlight.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    /** A shard stopped by an {@link Error} fails its command, then refuses the next ones instead of queuing them. */
+    @Test
+    @Timeout(10)
+    void shardStoppedByError_failsItsCommands() {
+        UUID accountId = UUID.randomUUID();
+        when(batchWriter.apply(eq(accountId), any())).thenThrow(new StackOverflowError());
+
+        assertThatThrownBy(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /** A caller whose command is not committed in time gets an error rather than waiting on. */
+    @Test
+    @Timeout(10)
+    void slowCommit_failsTheCallerAfterTheTimeout() throws Exception {
+        // Given
+        executor.close();
+        executor = new AccountCommandExecutor(batchWriter, 1, 64, 100, Duration.ofMillis(100), new SimpleMeterRegistry());
+        UUID accountId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        when(batchWriter.apply(eq(accountId), any())).thenAnswer(inv -> {
+            release.await();
+            List<AccountCommand> commands = inv.getArgument(1);
+            return commands.stream().map(c -> CommandOutcome.applied(c, c.amount())).toList();
+        });
+
+        // When / Then
+        try {
+            assertThatThrownBy(() -> executor.deposit(accountId, BigDecimal.ONE, UUID.randomUUID()))
+                    .isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(TimeoutException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /** Commands submitted after close are refused. */
+    @Test
+    void closedExecutor_refusesCommands() {
+        executor.close();
+
+        assertThatThrownBy(() -> executor.deposit(UUID.randomUUID(), BigDecimal.ONE, UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
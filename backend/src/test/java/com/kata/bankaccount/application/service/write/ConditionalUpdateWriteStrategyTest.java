@@ -0,0 +1,88 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.domain.exception.InsufficientFundsException;
+import com.kata.bankaccount.domain.model.Account;
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ConditionalUpdateWriteStrategy} ensuring balance changes go through
+ * the guarded update, never through the row lock.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConditionalUpdateWriteStrategyTest {
+
+    @Mock AccountRepository accountRepository;
+
+    @InjectMocks ConditionalUpdateWriteStrategy strategy;
+
+    @Captor ArgumentCaptor<Transaction> transactionCaptor;
+
+    UUID accountId;
+    UUID operationId;
+
+    /** Initializes random ids for each test. */
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+        operationId = UUID.randomUUID();
+    }
+
+    /** Deposit adds atomically and appends a transaction carrying the returned balance. */
+    @Test
+    void deposit_addsToBalance_andAppendsTransaction() {
+        // Given
+        when(accountRepository.addToBalance(accountId, new BigDecimal("50.00"))).thenReturn(new BigDecimal("150.00"));
+
+        // When
+        var result = strategy.deposit(accountId, new BigDecimal("50.00"), operationId);
+
+        // Then
+        assertThat(result.applied()).isTrue();
+        assertThat(result.balance()).isEqualByComparingTo("150.00");
+        verify(accountRepository).appendTransaction(eq(accountId), transactionCaptor.capture());
+        assertThat(transactionCaptor.getValue().getType()).isEqualTo(TransactionType.DEPOSIT);
+        assertThat(transactionCaptor.getValue().getResultingBalance()).isEqualByComparingTo("150.00");
+        assertThat(transactionCaptor.getValue().getOperationId()).isEqualTo(operationId);
+        verify(accountRepository, never()).lockById(any());
+    }
+
+    /** Withdraw rejected by the guard is reported as insufficient funds and records nothing. */
+    @Test
+    void withdraw_insufficientFunds_propagates_andAppendsNothing() {
+        // Given
+        when(accountRepository.subtractFromBalance(accountId, new BigDecimal("40.00"))).thenReturn(Optional.empty());
+        when(accountRepository.findById(accountId)).thenReturn(new Account(accountId, new BigDecimal("10.00")));
+
+        // When / Then
+        assertThrows(InsufficientFundsException.class,
+                () -> strategy.withdraw(accountId, new BigDecimal("40.00"), operationId));
+        verify(accountRepository, never()).appendTransaction(any(), any());
+    }
+
+    /** Non-positive amounts are rejected before touching the balance. */
+    @Test
+    void withdraw_nonPositiveAmount_isRejected_beforeUpdate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.withdraw(accountId, new BigDecimal("-5.00"), operationId));
+        verifyNoInteractions(accountRepository);
+    }
+}
@@ -0,0 +1,89 @@
+package com.kata.bankaccount.application.service.write;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.domain.exception.ConcurrentUpdateException;
+import com.kata.bankaccount.domain.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OptimisticLockWriteStrategy} covering conflict retries, each in a new attempt,
+ * the retry bound and the exported counters.
+ */
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockWriteStrategyTest {
+
+    @Mock AccountRepository accountRepository;
+
+    SimpleMeterRegistry meterRegistry;
+    OptimisticLockWriteStrategy strategy;
+
+    UUID accountId;
+    UUID operationId;
+
+    /** Builds the strategy with three attempts and no backoff delay. */
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+        operationId = UUID.randomUUID();
+        meterRegistry = new SimpleMeterRegistry();
+        strategy = new OptimisticLockWriteStrategy(accountRepository,
+                new RetryPolicy(3, Duration.ZERO, Duration.ZERO), meterRegistry);
+    }
+
+    /** A conflict reloads the account and applies the change to the fresh state, in a new attempt. */
+    @Test
+    void deposit_retriesOnConflict_withFreshState() {
+        // Given
+        when(accountRepository.findById(accountId))
+                .thenReturn(new Account(accountId, new BigDecimal("100.00"), 1))
+                .thenReturn(new Account(accountId, new BigDecimal("120.00"), 2));
+        when(accountRepository.saveIfVersionMatches(any())).thenReturn(false, true);
+
+        var attempts = new AtomicInteger();
+
+        // When
+        var result = strategy.retrying(accountId, () -> {
+            attempts.incrementAndGet();
+            return strategy.deposit(accountId, new BigDecimal("10.00"), operationId);
+        });
+
+        // Then
+        assertThat(attempts).hasValue(2);
+        assertThat(result.applied()).isTrue();
+        assertThat(result.balance()).isEqualByComparingTo("130.00");
+        verify(accountRepository, times(2)).saveIfVersionMatches(any());
+        verify(accountRepository, never()).lockById(any());
+        assertThat(meterRegistry.counter("bank.accounts.write.conflicts", "strategy", "optimistic").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("bank.accounts.write.retries", "strategy", "optimistic").count()).isEqualTo(1.0);
+    }
+
+    /** Persistent conflicts stop after the configured number of attempts. */
+    @Test
+    void withdraw_givesUp_afterMaxAttempts() {
+        // Given
+        when(accountRepository.findById(accountId)).thenAnswer(inv -> new Account(accountId, new BigDecimal("100.00"), 1));
+        when(accountRepository.saveIfVersionMatches(any())).thenReturn(false);
+
+        // When / Then
+        assertThrows(ConcurrentUpdateException.class, () -> strategy.retrying(accountId,
+                () -> strategy.withdraw(accountId, new BigDecimal("10.00"), operationId)));
+        verify(accountRepository, times(3)).saveIfVersionMatches(any());
+        assertThat(meterRegistry.counter("bank.accounts.write.conflicts", "strategy", "optimistic").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.counter("bank.accounts.write.retries.exhausted", "strategy", "optimistic").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,73 @@
+package com.kata.bankaccount.benchmarks;
+
+import com.kata.bankaccount.domain.model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Account#deposit} and {@link Account#withdraw} with amounts of increasing scale: whole units, cents,
+ * and the 6 decimals a rate-derived amount may carry. The balance has the scale of the column (2), so from
+ * scale 6 on the sum takes the scale of the amount.
+ * <p>
+ * Each invocation applies the operation to a new aggregate, as the write path does after loading it; the
+ * aggregate's transaction list would otherwise grow for the whole run. The numbers include the
+ * {@code UUID.randomUUID()} and {@code Instant.now()} of the recorded transaction, measured separately by
+ * {@link TransactionFactoryBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AccountBenchmark {
+
+    @Param({"0", "2", "6"})
+    int scale;
+
+    UUID accountId;
+    BigDecimal balance;
+    BigDecimal amount;
+
+    @Setup
+    public void setup() {
+        accountId = UUID.randomUUID();
+        balance = new BigDecimal("1000000.00");
+        // 125, 125.37, 125.371942
+        amount = new BigDecimal("125.371942").setScale(scale, RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    public Account deposit() {
+        var account = new Account(accountId, balance);
+        account.deposit(amount);
+        return account;
+    }
+
+    @Benchmark
+    public Account withdraw() {
+        var account = new Account(accountId, balance);
+        account.withdraw(amount);
+        return account;
+    }
+
+    /** Aggregate creation alone, to subtract from the two above. */
+    @Benchmark
+    public Account baseline() {
+        return new Account(accountId, balance);
+    }
+}
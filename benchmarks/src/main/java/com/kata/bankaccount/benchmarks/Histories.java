@@ -0,0 +1,43 @@
+package com.kata.bankaccount.benchmarks;
+
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Account histories shaped like the stored ones: amounts and balances with 2 decimals, newest first,
+ * mostly deposits.
+ */
+final class Histories {
+
+    private static final Instant LATEST = Instant.parse("2024-03-29T18:00:00Z");
+
+    private Histories() {
+    }
+
+    /**
+     * @param size number of transactions
+     * @return the transactions, sorted by timestamp desc as the repositories return them
+     */
+    static List<Transaction> of(int size) {
+        var random = ThreadLocalRandom.current();
+        var balance = BigDecimal.valueOf(random.nextLong(100_000, 10_000_000), 2);
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            var type = random.nextInt(4) == 0 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+            var amount = BigDecimal.valueOf(random.nextLong(1, 100_000), 2);
+            transactions.add(Transaction.of(UUID.randomUUID(), type, amount,
+                    LATEST.minus(Duration.ofMinutes(37L * i)), balance));
+            // Walking back in time: the balance before this transaction
+            balance = type == TransactionType.DEPOSIT ? balance.subtract(amount) : balance.add(amount);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,154 @@
+package com.kata.bankaccount.benchmarks;
+
+import com.kata.bankaccount.application.ports.out.AccountRepository;
+import com.kata.bankaccount.application.ports.out.AppliedOperation;
+import com.kata.bankaccount.application.ports.out.OperationRepository;
+import com.kata.bankaccount.application.ports.out.TransactionCursor;
+import com.kata.bankaccount.application.ports.out.TransactionRepository;
+import com.kata.bankaccount.application.service.AccountService;
+import com.kata.bankaccount.application.service.write.PessimisticLockWriteStrategy;
+import com.kata.bankaccount.domain.model.Account;
+import com.kata.bankaccount.domain.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.CharArrayWriter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The CSV loop of {@link AccountService#exportStatementCsv}: one line per transaction, handed over by the
+ * repository one at a time. The repositories are in-memory stubs serving one account and its history, so
+ * only the formatting and the writes are measured; the writer is a reused buffer, emptied before each export.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StatementCsvBenchmark {
+
+    @Param({"100", "10000"})
+    int rows;
+
+    UUID accountId;
+    AccountService accountService;
+    CharArrayWriter out;
+
+    @Setup
+    public void setup() {
+        accountId = UUID.randomUUID();
+        // The export only checks that the account exists, then streams the history; the write side is never called
+        var accounts = new SingleAccount(accountId);
+        accountService = new AccountService(accounts, new InMemoryTransactions(Histories.of(rows)),
+                new NoOperations(), new PessimisticLockWriteStrategy(accounts),
+                TransactionOperations.withoutTransaction());
+        out = new CharArrayWriter(rows * 64);
+    }
+
+    @Benchmark
+    public int export() {
+        out.reset();
+        accountService.exportStatementCsv(accountId, null, null, () -> out);
+        return out.size();
+    }
+
+    /** The account exported; every write or load fails, so a change of the export path shows up. */
+    private record SingleAccount(UUID accountId) implements AccountRepository {
+
+        @Override
+        public boolean existsById(UUID id) {
+            return accountId.equals(id);
+        }
+
+        @Override
+        public Account lockById(UUID id) {
+            throw new UnsupportedOperationException("lockById");
+        }
+
+        @Override
+        public void save(Account account) {
+            throw new UnsupportedOperationException("save");
+        }
+
+        @Override
+        public boolean saveIfVersionMatches(Account account) {
+            throw new UnsupportedOperationException("saveIfVersionMatches");
+        }
+
+        @Override
+        public Account findById(UUID id) {
+            throw new UnsupportedOperationException("findById");
+        }
+
+        @Override
+        public BigDecimal addToBalance(UUID id, BigDecimal amount) {
+            throw new UnsupportedOperationException("addToBalance");
+        }
+
+        @Override
+        public Optional<BigDecimal> subtractFromBalance(UUID id, BigDecimal amount) {
+            throw new UnsupportedOperationException("subtractFromBalance");
+        }
+
+        @Override
+        public void appendTransaction(UUID id, Transaction transaction) {
+            throw new UnsupportedOperationException("appendTransaction");
+        }
+
+        @Override
+        public List<UUID> findIds(UUID after, int limit) {
+            throw new UnsupportedOperationException("findIds");
+        }
+    }
+
+    /** No operation was ever applied. */
+    private static final class NoOperations implements OperationRepository {
+
+        @Override
+        public Optional<AppliedOperation> findByOperationId(UUID operationId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<UUID, AppliedOperation> findByOperationIds(Collection<UUID> operationIds) {
+            return Map.of();
+        }
+    }
+
+    private record InMemoryTransactions(List<Transaction> history) implements TransactionRepository {
+
+        @Override
+        public void forEachInPeriod(UUID accountId, Instant from, Instant to, Consumer<Transaction> action) {
+            history.forEach(action);
+        }
+
+        @Override
+        public List<Transaction> findPage(UUID accountId, Instant from, Instant to, TransactionCursor after, int limit) {
+            throw new UnsupportedOperationException("findPage");
+        }
+
+        @Override
+        public Optional<BigDecimal> balanceAt(UUID accountId, Instant at) {
+            throw new UnsupportedOperationException("balanceAt");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.kata.bankaccount.benchmarks;
+
+import com.kata.bankaccount.domain.model.Transaction;
+import com.kata.bankaccount.domain.model.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link Transaction#deposit} and {@link Transaction#withdrawal} factories, next to what they are made
+ * of: {@code UUID.randomUUID()} (a {@code SecureRandom} draw), {@code Instant.now()}, and the constructor
+ * alone through {@link Transaction#of} with an id and a timestamp chosen up front.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TransactionFactoryBenchmark {
+
+    BigDecimal amount;
+    BigDecimal resultingBalance;
+    UUID operationId;
+    UUID id;
+    Instant timestamp;
+
+    @Setup
+    public void setup() {
+        amount = new BigDecimal("125.37");
+        resultingBalance = new BigDecimal("1000125.37");
+        operationId = UUID.randomUUID();
+        id = UUID.randomUUID();
+        timestamp = Instant.now();
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return Transaction.deposit(amount, resultingBalance, operationId);
+    }
+
+    @Benchmark
+    public Transaction withdrawal() {
+        return Transaction.withdrawal(amount, resultingBalance, operationId);
+    }
+
+    @Benchmark
+    public Transaction preset() {
+        return Transaction.of(id, TransactionType.DEPOSIT, amount, timestamp, resultingBalance);
+    }
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public Instant now() {
+        return Instant.now();
+    }
+}
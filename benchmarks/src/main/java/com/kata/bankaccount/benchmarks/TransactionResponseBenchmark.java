@@ -0,0 +1,68 @@
+package com.kata.bankaccount.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kata.bankaccount.application.dto.response.TransactionResponse;
+import com.kata.bankaccount.domain.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a transaction listing costs once the rows are read: mapping the {@link Transaction}s to
+ * {@link TransactionResponse}s, as a history page does, and writing the responses as JSON. Sizes are a
+ * single row, the default page (50) and a large export (500).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TransactionResponseBenchmark {
+
+    @Param({"1", "50", "500"})
+    int size;
+
+    List<Transaction> transactions;
+    List<TransactionResponse> responses;
+    ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        transactions = Histories.of(size);
+        responses = transactions.stream().map(TransactionResponse::from).toList();
+        // Configured as Spring Boot configures the application's mapper: ISO-8601 instants
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public List<TransactionResponse> map() {
+        return transactions.stream().map(TransactionResponse::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactions.stream().map(TransactionResponse::from).toList());
+    }
+}
@@ -1,4 +1,4 @@
-import { http } from './http'
+import { http, getApiBaseUrl } from './http'
 import { useSettingsStore } from '../stores/settings'
 
 export type Money = number
@@ -32,11 +32,24 @@ export interface TransactionResponse {
   resultingBalance: Money
 }
 
+export interface TransactionPage {
+  items: TransactionResponse[]
+  next: string | null
+}
+
 export interface AccountResponse {
   accountId: UUID
   balance: Money
 }
 
+// Pushed by /events after each committed write; the first one is the current state, without transactions
+export interface AccountEvent {
+  accountId: UUID
+  balance: Money
+  version: number
+  transactions: TransactionResponse[]
+}
+
 function requireAccountId(): string {
   const settings = useSettingsStore()
   const id = settings.accountId?.trim()
@@ -56,9 +69,9 @@ export async function withdraw(req: WithdrawRequest) {
   return { data, status }
 }
 
-export async function listTransactions(params?: { from?: string; to?: string }) {
+export async function listTransactions(params?: { from?: string; to?: string; cursor?: string; limit?: number }) {
   const id = requireAccountId()
-  const { data } = await http.get<TransactionResponse[]>(`/v1/accounts/${id}/transactions`, { params })
+  const { data } = await http.get<TransactionPage>(`/v1/accounts/${id}/transactions`, { params })
   return data
 }
 
@@ -68,6 +81,21 @@ export async function getAccount(accountId?: string) {
   return { data }
 }
 
+// Opens the event stream of the account; the browser reconnects by itself. Returns the function closing it.
+export function subscribeAccountEvents(
+  accountId: UUID,
+  onEvent: (event: AccountEvent) => void,
+  onClosed: () => void,
+): () => void {
+  const source = new EventSource(`${getApiBaseUrl()}/v1/accounts/${accountId.trim()}/events`)
+  source.addEventListener('balance', (e) => onEvent(JSON.parse((e as MessageEvent<string>).data)))
+  source.onerror = () => {
+    // CONNECTING means the browser retries; CLOSED means it gave up (e.g. unknown account)
+    if (source.readyState === EventSource.CLOSED) onClosed()
+  }
+  return () => source.close()
+}
+
 export async function getStatementCsv(params?: { from?: string; to?: string }) {
   const id = requireAccountId()
   const response = await http.get(`/v1/accounts/${id}/statement`, {
@@ -1,4 +1,5 @@
 import axios from 'axios'
+import type { AxiosResponse, InternalAxiosRequestConfig } from 'axios'
 
 const baseURL = import.meta.env.VITE_API_BASE_URL
 
@@ -13,6 +14,48 @@ export const http = axios.create({
     Accept: 'application/json',
   },
   timeout: 10000,
+  // 304 answers a conditional GET: the body is taken from the last response below
+  validateStatus: (status) => (status >= 200 && status < 300) || status === 304,
+})
+
+interface Validated {
+  etag: string
+  data: unknown
+}
+
+// Last ETag and body per JSON GET url (query included), oldest dropped first
+const MAX_VALIDATED = 100
+const validated = new Map<string, Validated>()
+
+function isConditional(config: InternalAxiosRequestConfig): boolean {
+  return (config.method ?? 'get').toLowerCase() === 'get' && (config.responseType ?? 'json') === 'json'
+}
+
+http.interceptors.request.use((config) => {
+  if (isConditional(config)) {
+    const last = validated.get(http.getUri(config))
+    if (last) config.headers.set('If-None-Match', last.etag)
+  }
+  return config
+})
+
+http.interceptors.response.use((response: AxiosResponse) => {
+  if (!isConditional(response.config)) return response
+  const key = http.getUri(response.config)
+  if (response.status === 304) {
+    const last = validated.get(key)
+    if (last) return { ...response, status: 200, data: last.data }
+    return response
+  }
+  const etag = response.headers['etag']
+  if (typeof etag === 'string') {
+    validated.delete(key)
+    validated.set(key, { etag, data: response.data })
+    if (validated.size > MAX_VALIDATED) {
+      validated.delete(validated.keys().next().value as string)
+    }
+  }
+  return response
 })
 
 export function getApiBaseUrl(): string {
@@ -1,15 +1,23 @@
 import { defineStore } from 'pinia'
-import { getAccount } from '../services/accounts'
-import type { UUID } from '../services/accounts'
+import { getAccount, subscribeAccountEvents } from '../services/accounts'
+import type { AccountEvent, UUID } from '../services/accounts'
 
 interface AccountState {
   accountId?: UUID
   balance?: number
+  // Version of the balance shown, to ignore events older than it
+  version?: number
   loading: boolean
   error?: string
   lastFetchedAt?: number
+  // Account whose event stream is open, and the last event received
+  subscribedTo?: UUID
+  lastEvent?: AccountEvent
 }
 
+// Not reactive state: the function closing the open event stream
+let closeStream: (() => void) | undefined
+
 export const useAccountStore = defineStore('account', {
   state: (): AccountState => ({ loading: false }),
   actions: {
@@ -28,13 +36,48 @@ export const useAccountStore = defineStore('account', {
         this.loading = false
       }
     },
+    // Keeps the balance up to date from the account's event stream instead of polling
+    subscribe(accountId: UUID) {
+      if (!accountId || this.subscribedTo === accountId) return
+      this.unsubscribe()
+      this.subscribedTo = accountId
+      this.version = undefined
+      closeStream = subscribeAccountEvents(
+        accountId,
+        (event) => this.apply(event),
+        () => {
+          this.subscribedTo = undefined
+          // Stream refused: fall back to a single read, which reports the error
+          this.fetch(accountId)
+        },
+      )
+    },
+    apply(event: AccountEvent) {
+      if (event.accountId !== this.subscribedTo) return
+      // Events can arrive out of order or be dropped: only a newer version moves the balance
+      if (this.version === undefined || event.version > this.version) {
+        this.accountId = event.accountId
+        this.balance = event.balance
+        this.version = event.version
+        this.error = undefined
+        this.lastFetchedAt = Date.now()
+      }
+      this.lastEvent = event
+    },
+    unsubscribe() {
+      closeStream?.()
+      closeStream = undefined
+      this.subscribedTo = undefined
+    },
     clear() {
+      this.unsubscribe()
       this.accountId = undefined
       this.balance = undefined
+      this.version = undefined
+      this.lastEvent = undefined
       this.error = undefined
       this.lastFetchedAt = undefined
       this.loading = false
     },
   },
 })
-